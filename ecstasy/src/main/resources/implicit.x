@@ -28,6 +28,7 @@ import ecstasy.Ordered.Greater;
 import ecstasy.Object;
 import ecstasy.Orderable;
 import ecstasy.OutOfBounds;
+import ecstasy.Overloaded;
 import ecstasy.Range;
 import ecstasy.ReadOnly;
 import ecstasy.Sequential;
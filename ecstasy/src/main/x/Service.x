@@ -71,6 +71,52 @@ interface Service
     static interface ServiceControl
             extends ServiceStats
         {
+        /**
+         * The number of times the runtime has paused the service's execution because the service
+         * has used up its execution quantum.
+         */
+        @RO Int yieldCount;
+
+        /**
+         * The histogram of the durations of the service's execution quanta. The element at index
+         * zero holds the number of quanta shorter than 16 microseconds, and each subsequent element
+         * holds the number of quanta up to twice as long as the ones counted by the previous
+         * element; the last element also counts all the longer quanta.
+         */
+        @RO Int[] quantumHistogram;
+
+        /**
+         * The number of outstanding requests at which the service is considered to be overloaded.
+         */
+        @RO Int backlogCapacity;
+
+        /**
+         * The policy applied to the requests that arrive when the service is overloaded.
+         */
+        @RO OverloadPolicy overloadPolicy;
+
+        /**
+         * The largest [backlogDepth] that the service has seen.
+         */
+        @RO Int backlogHighWaterMark;
+
+        /**
+         * The number of requests that were shed or rejected because the service was overloaded.
+         */
+        @RO Int rejectedCount;
+
+        /**
+         * Configure the service's backlog.
+         *
+         * This method can be invoked from either inside or outside of the service.
+         *
+         * @param capacity  the number of outstanding requests at which the service is considered
+         *                  to be overloaded
+         * @param policy    the policy to apply to the requests that arrive when the service is
+         *                  overloaded
+         */
+        void configureBacklog(Int capacity, OverloadPolicy policy);
+
         /**
          * Request the service to look for objects that are no longer used and reclaim their memory.
          *
@@ -264,6 +310,18 @@ interface Service
      */
     enum Reentrancy {Open, Prioritized, Exclusive, Forbidden}
 
+    /**
+     * Overload policies for a service, which determine what happens to a request that arrives when
+     * the service's backlog has reached its capacity (see {@link ServiceControl.configureBacklog}):
+     *
+     * * Block (default): the caller is suspended until the backlog drops below the capacity, and
+     *   only then is the request accepted; a request from the service to itself is always accepted;
+     * * Shed: a request whose result is not used by the caller is dropped; any other request is
+     *   rejected with an {@link Overloaded} exception;
+     * * FailFast: the request is rejected with an {@link Overloaded} exception.
+     */
+    enum OverloadPolicy {Block, Shed, FailFast}
+
     /**
      * The re-entrancy setting for this service.
      *
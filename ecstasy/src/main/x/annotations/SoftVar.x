@@ -18,7 +18,7 @@
  *
  * TODO use timer instead of clock
  */
-mixin SoftVar<Referent>(function void ()? notify)
+mixin SoftVar<Referent>(function void ()? notify = Null)
         into Var<Referent>
     {
     /**
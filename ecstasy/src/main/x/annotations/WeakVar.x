@@ -12,7 +12,7 @@
  * the garbage collector; see {@link Service.pendingRuntimeEvents} and
  * {@link Service.dispatchRuntimeEvents}.
  */
-mixin WeakVar<Referent>(function void ()? notify)
+mixin WeakVar<Referent>(function void ()? notify = Null)
         into Var<Referent>
     {
     }
@@ -7,6 +7,11 @@ import maps.ReifiedEntry;
  * * If no [Hasher] is provided, then the Key type must be immutable and must implement Hashable; or
  * * If a [Hasher] is provided, then the Key type does not have to be immutable and does not have to
  *   implement Hashable.
+ *
+ * The entries are stored natively by the runtime in an open-addressed hash table; the methods that
+ * access the storage directly are implemented natively, and so are the hashing and the equality
+ * checks for the keys of the well-known types (such as String, Int or an enumeration) when the
+ * [NaturalHasher] is used. For all other keys, the [Hasher] is called.
  */
 class HashMap<Key, Value>
         implements Map<Key, Value>
@@ -37,10 +42,13 @@ class HashMap<Key, Value>
     construct(Hasher<Key> hasher, Int initCapacity = 0)
         {
         this.hasher = hasher;
-
-        // allocate the initial capacity
-        (Int bucketCount, this.growAt) = calcBucketCount(initCapacity);
-        buckets = new HashEntry?[bucketCount];
+        }
+    finally
+        {
+        if (initCapacity > 0)
+            {
+            ensureCapacity(initCapacity);
+            }
         }
 
 
@@ -53,57 +61,84 @@ class HashMap<Key, Value>
     public/private Hasher<Key> hasher;
 
     /**
-     * This is the Entry implementation used to store the HashMap's keys and values.
+     * The number of entries added; used by the iterators to detect concurrent modifications.
      */
-    protected static class HashEntry(Key key, Int keyhash, Value value, HashEntry? next = Null);
+    private @RO Int addCount.get()
+        {
+        TODO native
+        }
 
     /**
-     * An array of hash buckets.
+     * Make sure that the map can hold the specified number of entries without growing.
+     *
+     * @param capacity  the number of entries to be able to manage efficiently
      */
-    private HashEntry?[] buckets;
+    private void ensureCapacity(Int capacity)
+        {
+        TODO native
+        }
 
     /**
-     * The size at which the capacity must grow.
+     * Find the first occupied slot at or after the specified one.
+     *
+     * @param slot  the slot to start the search at
+     *
+     * @return True iff there is an occupied slot at or after the specified one
+     * @return (conditional) the occupied slot
      */
-    private Int growAt;
+    private conditional Int nextSlot(Int slot)
+        {
+        TODO native
+        }
 
     /**
-     * The size at which the capacity must shrink.
+     * @param slot  an occupied slot (see [nextSlot])
+     *
+     * @return the key stored at the specified slot
      */
-    private Int shrinkAt = -1;
+    private Key keyAt(Int slot)
+        {
+        TODO native
+        }
 
     /**
-     * The number of entries added.
+     * Obtain the value for the specified key using the slot where the key was previously found as
+     * a hint; if the entry has moved, the key is looked up instead.
+     *
+     * @param slot  the slot where the key was found
+     * @param key   the key
+     *
+     * @return True iff the key is in the map
+     * @return (conditional) the value associated with the key
      */
-    private Int addCount = 0;
+    private conditional Value getAt(Int slot, Key key)
+        {
+        TODO native
+        }
 
     /**
-     * The number of entries removed.
+     * Store the value for the specified key using the slot where the key was previously found as
+     * a hint; if the entry has moved or has been removed, the value is simply [put] into the map.
+     *
+     * @param slot   the slot where the key was found
+     * @param key    the key
+     * @param value  the value to associate with the key
      */
-    private Int removeCount = 0;
+    private void putAt(Int slot, Key key, Value value)
+        {
+        TODO native
+        }
 
     /**
-     * This is the primary means to find a HashEntry in the HashMap.
+     * Remove the entry for the specified key using the slot where the key was previously found as
+     * a hint; if the entry has moved, the key is looked up instead.
      *
-     * @param key  the key to find in the map
-     *
-     * @return True iff the key is in the map
-     * @return the HashEntry identified by the key
+     * @param slot  the slot where the key was found
+     * @param key   the key
      */
-    protected conditional HashEntry find(Key key)
+    private void removeAt(Int slot, Key key)
         {
-        Int        keyhash  = hasher.hashOf(key);
-        Int        bucketId = keyhash % buckets.size;
-        HashEntry? entry    = buckets[bucketId];
-        while (entry != Null)
-            {
-            if (entry.keyhash == keyhash && hasher.areEqual(entry.key, key))
-                {
-                return True, entry;
-                }
-            entry = entry.next;
-            }
-        return False;
+        TODO native
         }
 
 
@@ -115,47 +150,31 @@ class HashMap<Key, Value>
     @Override
     Int size.get()
         {
-        return addCount - removeCount;
+        TODO native
+        }
+
+    @Override
+    Boolean empty.get()
+        {
+        return size == 0;
         }
 
     @Override
     Boolean contains(Key key)
         {
-        return find(key);
+        TODO native
         }
 
     @Override
     conditional Value get(Key key)
         {
-        if (HashEntry entry := find(key))
-            {
-            return True, entry.value;
-            }
-        return False;
+        TODO native
         }
 
     @Override
     HashMap put(Key key, Value value)
         {
-        Int        keyhash  = hasher.hashOf(key);
-        Int        bucketId = keyhash % buckets.size;
-        HashEntry? entry    = buckets[bucketId];
-        while (entry != Null)
-            {
-            if (entry.keyhash == keyhash && hasher.areEqual(entry.key, key))
-                {
-                entry.value = value;
-                return this;
-                }
-
-            entry = entry.next;
-            }
-
-        buckets[bucketId] = new HashEntry(key, keyhash, value, buckets[bucketId]);
-        ++addCount;
-        checkCapacity();
-
-        return this;
+        TODO native
         }
 
     @Override
@@ -163,84 +182,25 @@ class HashMap<Key, Value>
         {
         // check the capacity up front (to avoid multiple resizes); the worst case is that we end
         // up a bit bigger than we want
-        checkCapacity(size + that.size);
+        ensureCapacity(size + that.size);
 
-        HashEntry?[] buckets     = this.buckets;
-        Int          bucketCount = buckets.size;
-        NextPut: for (Map<Key, Value>.Entry entry : that.entries)
+        for ((Key key, Value value) : that)
             {
-            Key    key       = entry.key;
-            Int        keyhash   = hasher.hashOf(key);
-            Int        bucketId  = keyhash % bucketCount;
-            HashEntry? currEntry = buckets[bucketId];
-            while (currEntry != Null)
-                {
-                if (currEntry.keyhash == keyhash && hasher.areEqual(currEntry.key, key))
-                    {
-                    // an entry with the same key already exists in the HashMap
-                    currEntry.value = entry.value;
-                    continue NextPut;
-                    }
-                currEntry = currEntry.next;
-                }
-            // no such entry with the same key in the HashMap; create a new HashEntry
-            buckets[bucketId] = new HashEntry(key, keyhash, entry.value, buckets[bucketId]);
-            ++addCount;
+            put(key, value);
             }
-
         return this;
         }
 
     @Override
     HashMap remove(Key key)
         {
-        Int        keyhash   = hasher.hashOf(key);
-        Int        bucketId  = keyhash % buckets.size;
-        HashEntry? entry     = buckets[bucketId];
-        HashEntry? prevEntry = Null;
-        while (entry != Null)
-            {
-            if (entry.keyhash == keyhash && hasher.areEqual(entry.key, key))
-                {
-                // unlink the entry
-                if (prevEntry != Null)
-                    {
-                    prevEntry.next = entry.next;
-                    }
-                else
-                    {
-                    buckets[bucketId] = entry.next;
-                    }
-                entry.next = Null;
-
-                ++removeCount;
-                return this;
-                }
-
-            prevEntry = entry;
-            entry = entry.next;
-            }
-
-        return this;
+        TODO native
         }
 
     @Override
     HashMap clear()
         {
-        Int entryCount = size;
-        if (entryCount == 0)
-            {
-            return this;
-            }
-
-        // TODO implement Persistent/Constant mutability
-        verifyInPlace();
-
-        (Int bucketCount, this.growAt, this.shrinkAt) = calcBucketCount(0);
-        buckets = new HashEntry?[bucketCount];
-        removeCount += entryCount;
-        assert size == 0;
-        return this;
+        TODO native
         }
 
     @Override
@@ -278,21 +238,21 @@ class HashMap<Key, Value>
     class CursorEntry
             implements Entry
         {
-        @Unassigned
-        private HashEntry hashEntry;
+        /**
+         * The slot at which the key was found.
+         */
+        private Int slot = -1;
 
-        protected CursorEntry advance(HashEntry hashEntry)
+        protected CursorEntry advance(Int slot, Key key)
             {
-            this.hashEntry = hashEntry;
-            this.exists    = True;
+            this.slot   = slot;
+            this.key    = key;
+            this.exists = True;
             return this;
             }
 
         @Override
-        Key key.get()
-            {
-            return hashEntry.key;
-            }
+        @Unassigned public/private Key key;
 
         @Override
         public/protected Boolean exists;
@@ -305,28 +265,20 @@ class HashMap<Key, Value>
                 {
                 if (exists)
                     {
-                    return hashEntry.value;
-                    }
-                else
-                    {
-                    throw new OutOfBounds("entry does not exist for key=" + key);
+                    if (Value value := this.HashMap.getAt(slot, key))
+                        {
+                        return value;
+                        }
                     }
+                throw new OutOfBounds("entry does not exist for key=" + key);
                 }
 
             @Override
             void set(Value value)
                 {
                 verifyInPlace();
-                if (exists)
-                    {
-                    hashEntry.value = value;
-                    }
-                else
-                    {
-                    this.HashMap.put(key, value);
-                    assert hashEntry := this.HashMap.find(key);
-                    exists = True;
-                    }
+                this.HashMap.putAt(slot, key, value);
+                exists = True;
                 }
             }
 
@@ -335,7 +287,7 @@ class HashMap<Key, Value>
             {
             if (verifyInPlace() & exists)
                 {
-                assert this.HashMap.keys.removeIfPresent(key);
+                this.HashMap.removeAt(slot, key);
                 exists = False;
                 }
             }
@@ -351,21 +303,25 @@ class HashMap<Key, Value>
     // ----- EntrySet implementation ---------------------------------------------------------------
 
     /**
-     * A representation of all of the HashEntry objects in the Map.
+     * A representation of all of the entries in the Map.
      */
     class EntrySet
             implements Collection<Entry>
         {
+        @Override
+        Int size.get()
+            {
+            return this.HashMap.size;
+            }
+
         @Override
         Iterator<Entry> iterator()
             {
             return new Iterator()
                 {
-                HashEntry?[] buckets     = this.HashMap.buckets;
-                Int          nextBucket  = 0;
-                HashEntry?   nextEntry   = Null;
-                Int          addSnapshot = this.HashMap.addCount;
-                CursorEntry  entry       = new CursorEntry();
+                Int         nextSlot    = 0;
+                Int         addSnapshot = this.HashMap.addCount;
+                CursorEntry entry       = new CursorEntry();
 
                 @Override
                 conditional Entry next()
@@ -375,20 +331,12 @@ class HashMap<Key, Value>
                         throw new ConcurrentModification();
                         }
 
-                    Int bucketCount = buckets.size;
-                    while (nextEntry == Null && nextBucket < bucketCount)
-                        {
-                        nextEntry = buckets[nextBucket++];
-                        }
-
-                    HashEntry? currEntry = nextEntry;
-                    if (currEntry != Null)
+                    if (Int slot := this.HashMap.nextSlot(nextSlot))
                         {
-                        // this is the entry to return;
-                        // always load next one in the chain to avoid losing the position if/when
-                        // the current entry is removed
-                        nextEntry = currEntry.next;
-                        return True, entry.advance(currEntry);
+                        // removing the current entry does not move any other entries, so the
+                        // position is never lost
+                        nextSlot = slot + 1;
+                        return True, entry.advance(slot, this.HashMap.keyAt(slot));
                         }
 
                     return False;
@@ -403,41 +351,9 @@ class HashMap<Key, Value>
 
             if (entry.is(CursorEntry))
                 {
-                HashEntry    hashEntry = entry.hashEntry;
-                HashEntry?[] buckets   = this.HashMap.buckets;
-                Int          keyhash   = hashEntry.keyhash;
-                Int          bucketId  = keyhash % buckets.size;
-                HashEntry?   currEntry = buckets[bucketId];
-                HashEntry?   prevEntry = Null;
-
-                loop: while (currEntry != Null)
+                if (entry.exists)
                     {
-                    // check if we found the entry that we're looking for
-                    if (currEntry.keyhash == keyhash && hasher.areEqual(currEntry.key, hashEntry.key))
-                        {
-                        // verify that it is the same entry (i.e. values also have to match!)
-                        if (&currEntry == &hashEntry || currEntry.value == hashEntry.value)
-                            {
-                            // unlink the entry that is being removed
-                            if (prevEntry != Null)
-                                {
-                                prevEntry.next = currEntry.next;
-                                }
-                            else
-                                {
-                                buckets[loop.count] = currEntry.next;
-                                }
-
-                            ++this.HashMap.removeCount;
-                            }
-
-                        // whether or not the entry matched and was removed, it was the one that we
-                        // were looking for (i.e. there will be no other entry with that same key)
-                        return this;
-                        }
-
-                    prevEntry = currEntry;
-                    currEntry = currEntry.next;
+                    this.HashMap.removeAt(entry.slot, entry.key);
                     }
                 }
             else
@@ -451,38 +367,16 @@ class HashMap<Key, Value>
         @Override
         (EntrySet, Int) removeAll(function Boolean (Entry) shouldRemove)
             {
-            Int          removed     = 0;
-            HashEntry?[] buckets     = this.HashMap.buckets;
-            Int          bucketCount = buckets.size;
-            CursorEntry  entry       = new CursorEntry();
-            for (Int i = 0; i < bucketCount; ++i)
+            HashMap     map     = this.HashMap;
+            Int         removed = 0;
+            Int         slot    = -1;
+            CursorEntry entry   = new CursorEntry();
+            while (slot := map.nextSlot(slot + 1))
                 {
-                HashEntry? currEntry = buckets[i];
-                HashEntry? prevEntry = Null;
-                while (currEntry != Null)
+                if (shouldRemove(entry.advance(slot, map.keyAt(slot))))
                     {
-                    if (shouldRemove(entry.advance(currEntry)))
-                        {
-                        // move to the next entry (the current one is getting unlinked)
-                        currEntry = currEntry.next;
-
-                        // unlink the entry that is being removed
-                        if (prevEntry != Null)
-                            {
-                            prevEntry.next = currEntry;
-                            }
-                        else
-                            {
-                            buckets[i] = currEntry;
-                            }
-                        ++removed;
-                        ++this.HashMap.removeCount;
-                        }
-                    else
-                        {
-                        prevEntry = currEntry;
-                        currEntry = currEntry.next;
-                        }
+                    map.removeAt(slot, entry.key);
+                    ++removed;
                     }
                 }
 
@@ -510,72 +404,6 @@ class HashMap<Key, Value>
         return True;
         }
 
-    /**
-     * Check to see if the HashMap needs to grow or shrink based on the current capacity need.
-     */
-    private void checkCapacity()
-        {
-        Int size = this.size;
-        if (size < shrinkAt)
-            {
-            // we've lost a lot of weight; shrink the number of buckets
-            resize(size);
-            }
-        else if (size > growAt)
-            {
-            // we're growing, so make some extra room (assume we need at least double the capacity)
-            resize(size * 2);
-            }
-        }
-
-    /**
-     * Check to see if the HashMap needs to grow or shrink based on a planned capacity need.
-     *
-     * @param plannedSize  the capacity to assume that the map will need
-     */
-    private void checkCapacity(Int plannedSize)
-        {
-        // check if a resize is necessary
-        if (plannedSize < shrinkAt || plannedSize > growAt)
-            {
-            // perform the resize of the hash buckets
-            resize(plannedSize);
-            }
-        }
-
-    /**
-     * Resize the HashMap based on the assumed capacity need.
-     *
-     * @param plannedSize  the capacity to assume that the map will need
-     */
-    private void resize(Int plannedSize)
-        {
-        (Int bucketCount, Int growAt, Int shrinkAt) = calcBucketCount(plannedSize);
-        HashEntry?[] oldBuckets = buckets;
-        HashEntry?[] newBuckets = new HashEntry?[bucketCount];
-
-        for (HashEntry? entry : oldBuckets)
-            {
-            while (entry != Null)
-                {
-                // before we change the "next reference", remember which one is next in the old
-                // bucket
-                HashEntry? entryNext = entry.next;
-
-                // move the entry to a new hash bucket
-                Int newBucket = entry.keyhash % bucketCount;
-                entry.next = newBuckets[newBucket];
-                newBuckets[newBucket] = entry;
-
-                entry = entryNext;
-                }
-            }
-
-        this.buckets  = newBuckets;
-        this.growAt   = growAt;
-        this.shrinkAt = shrinkAt;
-        }
-
     /**
      * Select a desired number of buckets to use for the specified entry capacity.
      *
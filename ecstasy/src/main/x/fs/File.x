@@ -1,3 +1,6 @@
+import io.ByteArrayInputStream;
+import io.InputStream;
+
 /**
  * File represents a file in a FileStore.
  */
@@ -161,6 +164,27 @@ interface File
      */
     FileChannel open(ReadOption read=Read, WriteOption[] write = [Write]);
 
+    /**
+     * Open the file for reading, creating an InputStream over its contents. Unlike the [contents]
+     * property, a stream may hold only a buffer's worth of the file in memory at any given time,
+     * which allows files of any size to be processed incrementally, for example by a
+     * [UTF8Reader](io.UTF8Reader).
+     *
+     * The default implementation simply streams the [contents] of the file.
+     *
+     * @param bufferSize  the suggested size of the read buffer, in bytes; defaults to 8192
+     *
+     * @return an InputStream positioned at the beginning of the file
+     *
+     * @throws FileNotFound  if the file does not exist
+     * @throws AccessDenied  if the necessary permissions to read from the file have not been
+     *                       granted
+     */
+    InputStream openInput(Int bufferSize = 8192)
+        {
+        return new ByteArrayInputStream(contents);
+        }
+
     @Override
     Appender<Char> emitListing(Appender<Char> buf, Boolean recursive = False, String indent = "")
         {
@@ -25,6 +25,35 @@ interface FileChannel
         return size - position;
         }
 
+    /**
+     * Read a sequence of bytes from the specified position in the file into the specified buffer.
+     * Unlike [read], this operation does not use or change the channel's position.
+     *
+     * @param position  the file position to read at
+     * @param buffer    the buffer to read into
+     * @param minBytes  the minimum number of bytes the caller requires to be read before the
+     *                  operation completes
+     *
+     * @return the number of bytes read or False if the position is at or beyond the end of file
+     *
+     * @throw IOException if the operation fails to complete due to an unrecoverable IO error
+     */
+    conditional Int readAt(Int position, Buffer<Byte> buffer, Int minBytes = Int.maxvalue);
+
+    /**
+     * Write a sequence of bytes from the specified buffer into the file at the specified position,
+     * growing the file if necessary. Unlike [write], this operation does not use or change the
+     * channel's position.
+     *
+     * @param position  the file position to write at
+     * @param buffer    the buffer to write from
+     *
+     * @return the number of bytes written
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    Int writeAt(Int position, Buffer<Byte> buffer);
+
     /**
      * Ensure all the changes are written to the underlying storage medium.
      */
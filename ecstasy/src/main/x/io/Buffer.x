@@ -76,6 +76,49 @@ interface Buffer<DataType extends immutable Const>
     @Op("[]=")
     void put(Int ix, DataType el);
 
+    /**
+     * Read the specified number of elements starting at this buffer's position into the provided
+     * array, and then advance the position by that number.
+     *
+     * @param values  the array to read into
+     * @param offset  the offset into the array to store the first element read
+     * @param count   the number of elements to read
+     *
+     * @throws BufferException if fewer than `count` elements remain in the buffer
+     */
+    void get(DataType[] values, Int offset, Int count)
+        {
+        assert offset >= 0 && count >= 0;
+
+        Int last = offset + count;
+        while (offset < last)
+            {
+            values[offset++] = get();
+            }
+        }
+
+    /**
+     * Write the specified number of elements from the provided array into this buffer starting at
+     * the position, and then advance the position by that number.
+     *
+     * @param values  the array to write from
+     * @param offset  the offset into the array of the first element to write
+     * @param count   the number of elements to write
+     *
+     * @throws BufferException if fewer than `count` elements remain in the buffer or this buffer
+     *                         is read-only
+     */
+    void put(DataType[] values, Int offset, Int count)
+        {
+        assert offset >= 0 && count >= 0;
+
+        Int last = offset + count;
+        while (offset < last)
+            {
+            put(values[offset++]);
+            }
+        }
+
     /**
      * Clear this buffer. This sets the position to zero, the limit to the capacity,
      * and discards the mark.
@@ -194,6 +194,12 @@ class UTF8Reader
         return ch;
         }
 
+    /**
+     * Rewind the reader by the specified number of characters. A rewind within the current line
+     * steps backwards through the underlying stream. The line start offsets of the previous lines
+     * are not retained, so a rewind across a line boundary restarts from the beginning of the
+     * stream and skips forward to the target offset instead.
+     */
     @Override
     Reader rewind(Int count = 1)
         {
@@ -209,7 +215,30 @@ class UTF8Reader
             return reset();
             }
 
-        // TODO go backwards but ignore all UTF8 trailing bytes
+        if (count <= lineOffset)
+            {
+            // rewind within the current line (so the line number does not change) by going
+            // backwards through the underlying stream, stepping over any UTF8 trailing bytes
+            Int raw = rawOffset - count;
+            if (anyMultibyte)
+                {
+                InputStream in = this.in;
+                raw = rawOffset;
+                for (Int i = 0; i < count; ++i)
+                    {
+                    do
+                        {
+                        in.offset = --raw + initOffset;
+                        }
+                    while (in.readByte() & 0b11000000 == 0b10000000);
+                    }
+                }
+
+            offset   -= count;
+            rawOffset = raw;
+            return this;
+            }
+
         return reset().skip(target);
         }
 
@@ -348,6 +348,54 @@ service Container
          */
         Dec schedulingPriority;
 
+        /**
+         * The scheduling weight of the container, which is the number of service executions that a
+         * worker thread performs on behalf of the container before it switches to another one.
+         * Among the containers that have work to do at the same time, each container gets a share
+         * of the worker threads that is proportional to its weight, regardless of how many
+         * services it runs.
+         */
+        @RO Int schedulingWeight;
+
+        /**
+         * The number of services within the container that are ready to run, but are waiting for
+         * a worker thread.
+         */
+        @RO Int runQueueDepth;
+
+        /**
+         * The number of times a service within the container has been run by a worker thread since
+         * the scheduling statistics were last [reset](resetSchedulingStats).
+         */
+        @RO Int runCount;
+
+        /**
+         * The average time a service within the container has waited for a worker thread since the
+         * scheduling statistics were last [reset](resetSchedulingStats).
+         */
+        @RO Duration averageRunWait;
+
+        /**
+         * The longest time a service within the container has waited for a worker thread since the
+         * scheduling statistics were last [reset](resetSchedulingStats).
+         */
+        @RO Duration maxRunWait;
+
+        /**
+         * Configure the scheduling of the container.
+         *
+         * This method can be invoked from either inside or outside of the container.
+         *
+         * @param weight  the new [schedulingWeight] of the container, with `weight > 0`
+         */
+        void configureScheduling(Int weight);
+
+        /**
+         * Reset the scheduling statistics of the container: the [runCount], [averageRunWait] and
+         * [maxRunWait].
+         */
+        void resetSchedulingStats();
+
         /**
          * Specify a suggested maximum number of hardware threads to be consumable by the container;
          * this information may be utilized by the runtime as a hint to guide its behavior. Assuming
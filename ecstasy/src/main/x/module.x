@@ -44,6 +44,13 @@ module ecstasy.xtclang.org
     const TimedOut(Timeout timeout, String? text = Null, Exception? cause = Null)
             extends Exception(text, cause);
 
+    /**
+     * An Overloaded exception is raised by the runtime when a request to a service is turned away
+     * because the service's backlog has reached its capacity; see [Service.OverloadPolicy].
+     */
+    const Overloaded(String? text = Null, Exception? cause = Null)
+            extends Exception(text, cause);
+
     /**
      * A ReadOnly exception is raised when an attempt is made to modify a read-only value.
      */
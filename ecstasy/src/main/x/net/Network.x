@@ -0,0 +1,33 @@
+/**
+ * Network provides the ability to open outbound network connections and to accept inbound ones.
+ *
+ * An implementation is obtained via injection:
+ *
+ *     @Inject Network network;
+ */
+interface Network
+    {
+    /**
+     * Open a connection to the specified host and port.
+     *
+     * @param host  the name or the address of the host to connect to
+     * @param port  the port to connect to
+     *
+     * @return the SocketChannel for the new connection
+     *
+     * @throws IOException if the connection cannot be established
+     */
+    SocketChannel connect(String host, UInt16 port);
+
+    /**
+     * Start listening for inbound connections on the specified local address and port.
+     *
+     * @param host  the name or the address of the local interface to bind to
+     * @param port  the local port to bind to
+     *
+     * @return the ServerSocketChannel that accepts the inbound connections
+     *
+     * @throws IOException if the address and port cannot be bound
+     */
+    ServerSocketChannel listen(String host, UInt16 port);
+    }
@@ -35,16 +35,7 @@ class StringBuffer
     @Op("+")
     StringBuffer append(Object o)
         {
-        if (o.is(Stringable))
-            {
-            o.appendTo(this);
-            }
-        else
-            {
-            o.toString().appendTo(this);
-            }
-
-        return this;
+        return appendObject(o);
         }
 
     @Override
@@ -81,8 +72,13 @@ class StringBuffer
     @Override
     StringBuffer addAll(Iterable<Char> array)
         {
-        chars += array;
-        return this;
+        if (array.is(Array<Char>) || array.is(String))
+            {
+            chars += array;
+            return this;
+            }
+
+        return addElements(array);
         }
 
 
@@ -153,4 +149,37 @@ class StringBuffer
         {
         return chars.lastIndexOf(value, startAt);
         }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Append the String form of an arbitrary object. The runtime appends the common types (such as
+     * String, Char and Int) directly, and only uses this method for everything else.
+     */
+    private StringBuffer appendObject(Object o)
+        {
+        if (o.is(Stringable))
+            {
+            o.appendTo(this);
+            }
+        else
+            {
+            o.toString().appendTo(this);
+            }
+
+        return this;
+        }
+
+    /**
+     * Add the characters of an arbitrary Iterable, one at a time.
+     */
+    private StringBuffer addElements(Iterable<Char> iterable)
+        {
+        for (Char ch : iterable)
+            {
+            add(ch);
+            }
+        return this;
+        }
     }
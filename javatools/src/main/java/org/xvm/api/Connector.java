@@ -6,6 +6,8 @@ import java.io.IOException;
 
 import java.util.List;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.DirRepository;
 import org.xvm.asm.FileRepository;
@@ -19,7 +21,9 @@ import org.xvm.asm.constants.ModuleConstant;
 import org.xvm.runtime.CoreContainer;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.CoreConstHeap;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.Runtime;
+import org.xvm.runtime.RuntimeImage;
 import org.xvm.runtime.TemplateRegistry;
 
 
@@ -45,12 +49,31 @@ public class Connector
      * Construct the Connector based on the specified ModuleRepository.
      */
     public Connector(ModuleRepository repository)
+        {
+        this(repository, null);
+        }
+
+    /**
+     * Construct the Connector based on the specified ModuleRepository and the runtime image.
+     *
+     * @param repository  the module repository
+     * @param image       the runtime image for the "system" and "native" modules or null to load
+     *                    them from the repository
+     */
+    public Connector(ModuleRepository repository, RuntimeImage image)
         {
         m_repository = repository;
         f_runtime    = new Runtime();
         f_templates  = new TemplateRegistry(repository);
         f_heapGlobal = new CoreConstHeap(f_templates);
-        f_templates.loadNativeTemplates();
+        if (image == null)
+            {
+            f_templates.loadNativeTemplates();
+            }
+        else
+            {
+            f_templates.loadNativeTemplates(image);
+            }
         }
 
     /**
@@ -149,14 +172,17 @@ public class Connector
      *
      * @param sMethodName  the method name
      * @param ahArg        arguments
+     *
+     * @return a future that completes when the invocation has completed or null if the method
+     *         could not be found
      */
-    public void invoke0(String sMethodName, ObjectHandle... ahArg)
+    public CompletableFuture<Void> invoke0(String sMethodName, ObjectHandle... ahArg)
         {
         if (!m_fStarted)
             {
             throw new IllegalStateException("The container has not been started");
             }
-        m_container.invoke0(sMethodName, ahArg);
+        return m_container.invoke0(sMethodName, ahArg);
         }
 
     public ObjectHandle invoke1(String sMethodName, ObjectHandle... ahArg)
@@ -172,11 +198,12 @@ public class Connector
     public void join()
             throws InterruptedException
         {
-        // extremely naive; replace
-        do  {
-            Thread.sleep(500);
+        m_container.waitForIdle();
+
+        if (InlineCache.COLLECT_STATS)
+            {
+            InlineCache.dumpStatistics(System.out);
             }
-        while (!f_runtime.isIdle() || !m_container.isIdle());
 
         m_container = null;
         }
@@ -2934,7 +2934,9 @@ public class ClassStructure
                 aReturns = Parameter.NO_PARAMS;
                 }
 
-            methodDelegate = createMethod(false, prop.getAccess(), null,
+            // the accessor belongs to the property (that's where it's looked up above); creating it
+            // on the class would make the accessors of all same-typed properties collide
+            methodDelegate = propHost.createMethod(false, prop.getAccess(), null,
                     aReturns, sigAccessor.getName(), aParams, true, false);
 
             MethodStructure.Code code       = methodDelegate.createCode();
@@ -2214,32 +2214,6 @@ public class ConstantPool
     protected ClassConstant  clzFileStore()    {return (ClassConstant) getImplicitlyImportedIdentity("FileStore"     );}
     protected ClassConstant  clzFrame()        {return (ClassConstant) getImplicitlyImportedIdentity("Frame"         );}
 
-    /**
-     * A special TypeInfo that acts as a place-holder for "this TypeInfo is currently being built".
-     */
-    public TypeInfo infoPlaceholder()
-        {
-        TypeInfo info = m_infoPlaceholder;
-        if (info == null)
-            {
-            m_infoPlaceholder = info = new TypeInfo(
-                typeObject(), 0, null, 0, true, Collections.EMPTY_MAP,
-                Annotation.NO_ANNOTATIONS, Annotation.NO_ANNOTATIONS,
-                typeObject(), null, typeObject(),
-                Collections.EMPTY_LIST, new ListMap<>(), new ListMap<>(),
-                Collections.EMPTY_MAP, Collections.EMPTY_MAP,
-                Collections.EMPTY_MAP, Collections.EMPTY_MAP,
-                ListMap.EMPTY, Progress.Building)
-                    {
-                    public String toString()
-                        {
-                        return "Placeholder";
-                        }
-                    };
-            }
-        return info;
-        }
-
     public SingletonConstant valOf(boolean f)
         {
         return f ? valTrue() : valFalse();
@@ -2940,7 +2914,6 @@ public class ConstantPool
         m_sigEquals       = null;
         m_sigCompare      = null;
         m_sigValidator    = null;
-        m_infoPlaceholder = null;
 
         // sort the Constants by how often they are referred to within the FileStructure, with the
         // most frequently referred-to Constants appearing first
@@ -3764,7 +3737,6 @@ public class ConstantPool
     private transient SignatureConstant m_sigEquals;
     private transient SignatureConstant m_sigCompare;
     private transient SignatureConstant m_sigValidator;
-    private transient TypeInfo          m_infoPlaceholder;
 
     /**
      * A cached and pre-parsed image of the "implicit.x" file.
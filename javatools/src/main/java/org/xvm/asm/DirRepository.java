@@ -71,6 +71,14 @@ public class DirRepository
         return info == null ? null : info.ensureModule();
         }
 
+    @Override
+    public File getModuleFile(String sModule)
+        {
+        ensureCache();
+        ModuleInfo info = modulesByName.get(sModule);
+        return info == null ? null : info.file;
+        }
+
     @Override
     public void storeModule(ModuleStructure module)
         {
@@ -82,7 +90,7 @@ public class DirRepository
         String name = module.getIdentityConstant().getName();
         ModuleInfo info = modulesByName.get(name);
         File file = (info == null)
-                ? new File(m_dir, module.getIdentityConstant().getUnqualifiedName() + ".xtc")
+                ? getModuleFile(m_dir, name)
                 : info.file;
 
         if (file.exists() && !file.delete())
@@ -113,6 +121,21 @@ public class DirRepository
             }
         }
 
+    /**
+     * Determine the file that a module with the specified name is stored in by a DirRepository
+     * (unless the repository already contains that module in a differently named file).
+     *
+     * @param dir      the repository directory
+     * @param sModule  the qualified module name
+     *
+     * @return the module file
+     */
+    public static File getModuleFile(File dir, String sModule)
+        {
+        int ofDot = sModule.indexOf('.');
+        return new File(dir, (ofDot < 0 ? sModule : sModule.substring(0, ofDot)) + ".xtc");
+        }
+
 
     // ----- Object methods ------------------------------------------------------------------------
 
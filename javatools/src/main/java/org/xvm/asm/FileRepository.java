@@ -93,6 +93,13 @@ public class FileRepository
         return null;
         }
 
+    @Override
+    public File getModuleFile(String sModule)
+        {
+        checkCache();
+        return !err && sModule.equals(name) ? file : null;
+        }
+
     @Override
     public void storeModule(ModuleStructure module)
         {
@@ -1,6 +1,8 @@
 package org.xvm.asm;
 
 
+import java.io.File;
+
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -155,6 +157,20 @@ public class LinkedRepository
         repos[0].storeModule(module);
         }
 
+    @Override
+    public File getModuleFile(String sModule)
+        {
+        for (ModuleRepository repo : repos)
+            {
+            File file = repo.getModuleFile(sModule);
+            if (file != null)
+                {
+                return file;
+                }
+            }
+        return null;
+        }
+
 
     // ----- fields --------------------------------------------------------------------------------
 
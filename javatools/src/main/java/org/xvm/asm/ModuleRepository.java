@@ -1,6 +1,8 @@
 package org.xvm.asm;
 
 
+import java.io.File;
+
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -155,4 +157,17 @@ public interface ModuleRepository
      *         module is not able to be stored in the repository, etc.
      */
     void storeModule(ModuleStructure module);
+
+    /**
+     * Determine the file that the specified module is loaded from.
+     *
+     * @param sModule  a fully qualified module name
+     *
+     * @return the module file, or null if the specified module is unavailable or is not stored in
+     *         a file
+     */
+    default File getModuleFile(String sModule)
+        {
+        return null;
+        }
     }
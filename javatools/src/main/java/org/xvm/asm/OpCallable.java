@@ -19,8 +19,8 @@ import org.xvm.asm.constants.TypeInfo;
 import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
-import org.xvm.runtime.ServiceContext;
 
 import org.xvm.runtime.template._native.reflect.xRTType.TypeHandle;
 
@@ -136,17 +136,13 @@ public abstract class OpCallable extends Op
     protected MethodStructure getChildConstructor(Frame frame, ObjectHandle hParent)
         {
         // suffix "C" indicates the compile-time constants; "R" - the run-time
-        ClassConstant   idParentR   = (ClassConstant) hParent.getTemplate().getClassConstant();
-        ServiceContext  context     = frame.f_context;
-        MethodStructure constructor = (MethodStructure) context.getOpInfo(this, Category.Constructor);
+        ClassConstant                idParentR   = (ClassConstant) hParent.getTemplate().getClassConstant();
+        InlineCache<MethodStructure> cache       = ensureConstructorCache();
+        MethodStructure              constructor = cache.get(idParentR);
         if (constructor != null)
             {
-            ClassConstant idParent = (ClassConstant) context.getOpInfo(this, Category.ParentClass);
-            if (idParent.equals(idParentR))
-                {
-                // cached constructor fits the parent's class
-                return constructor;
-                }
+            // cached constructor fits the parent's class
+            return constructor;
             }
 
         constructor = getMethodStructure(frame);
@@ -172,8 +168,7 @@ public abstract class OpCallable extends Op
             constructor = info.getTopmostMethodStructure(infoTarget);
             }
 
-        context.setOpInfo(this, Category.ParentClass, idParentR);
-        context.setOpInfo(this, Category.Constructor, constructor);
+        cache.put(idParentR, constructor);
         return constructor;
         }
 
@@ -186,18 +181,14 @@ public abstract class OpCallable extends Op
      */
     protected MethodStructure getTypeConstructor(Frame frame, TypeHandle hType)
         {
-        TypeConstant    typeR       = hType.getDataType();
-        ClassConstant   idTargetR   = (ClassConstant) typeR.getDefiningConstant();
-        ServiceContext  context     = frame.f_context;
-        MethodStructure constructor = (MethodStructure) context.getOpInfo(this, Category.Constructor);
+        TypeConstant                 typeR       = hType.getDataType();
+        ClassConstant                idTargetR   = (ClassConstant) typeR.getDefiningConstant();
+        InlineCache<MethodStructure> cache       = ensureConstructorCache();
+        MethodStructure              constructor = cache.get(idTargetR);
         if (constructor != null)
             {
-            ClassConstant idTarget = (ClassConstant) context.getOpInfo(this, Category.ParentClass);
-            if (idTarget.equals(idTargetR))
-                {
-                // cached constructor fits the parent's class
-                return constructor;
-                }
+            // cached constructor fits the target's class
+            return constructor;
             }
 
         constructor = getMethodStructure(frame);
@@ -222,11 +213,23 @@ public abstract class OpCallable extends Op
             constructor = info.getTopmostMethodStructure(infoTarget);
             }
 
-        context.setOpInfo(this, Category.ParentClass, idTargetR);
-        context.setOpInfo(this, Category.Constructor, constructor);
+        cache.put(idTargetR, constructor);
         return constructor;
         }
 
+    /**
+     * @return the inline cache for the constructors keyed by the run-time class
+     */
+    private InlineCache<MethodStructure> ensureConstructorCache()
+        {
+        InlineCache<MethodStructure> cache = m_cacheConstructor;
+        if (cache == null)
+            {
+            m_cacheConstructor = cache = new InlineCache<>(this);
+            }
+        return cache;
+        }
+
     /**
      * @return R_EXCEPTION
      */
@@ -309,10 +312,38 @@ public abstract class OpCallable extends Op
      */
     protected MethodStructure getMethodStructure(Frame frame)
         {
-        ServiceContext   context    = frame.f_context;
+        FunctionInfo info = getFunctionInfo(frame);
+        return info == null ? null : info.f_function;
+        }
+
+    /**
+     * @return the ClassTemplate that defines a native implementation for the specified function
+     *         using the information collected by {@link #getMethodStructure}
+     */
+    protected ClassTemplate getNativeTemplate(Frame frame, MethodStructure function)
+        {
+        FunctionInfo info = getFunctionInfo(frame);
+        assert info != null && info.f_function == function;
+        return info.f_template;
+        }
+
+    /**
+     * Retrieve the function information for this op-code.
+     *
+     * @return the function info or null if the function cannot be found, in which case an
+     *         exception has been raised on the frame
+     */
+    private FunctionInfo getFunctionInfo(Frame frame)
+        {
+        InlineCache<FunctionInfo> cache = m_cacheFunction;
+        if (cache == null)
+            {
+            m_cacheFunction = cache = new InlineCache<>(this);
+            }
+
         MethodConstant   idFunction = (MethodConstant) frame.getConstant(m_nFunctionId);
-        MethodStructure  function   = (MethodStructure) context.getOpInfo(this, Category.Function);
         IdentityConstant idParent   = idFunction.getNamespace();
+        FunctionInfo     info;
 
         switch (idParent.getFormat())
             {
@@ -320,14 +351,15 @@ public abstract class OpCallable extends Op
             case Package:
             case Class:
                 {
-                if (function == null)
+                info = cache.get(idFunction);
+                if (info == null)
                     {
                     ConstantPool        pool     = frame.poolContext();
                     GenericTypeResolver resolver = frame.getGenericsResolver();
 
                     TypeConstant typeParent = idParent.getFormalType().resolveGenerics(pool, resolver);
 
-                    function = (MethodStructure) idFunction.getComponent();
+                    MethodStructure function = (MethodStructure) idFunction.getComponent();
                     if (function == null)
                         {
                         function = pool.ensureAccessTypeConstant(typeParent, Access.PRIVATE).
@@ -341,9 +373,9 @@ public abstract class OpCallable extends Op
                         return null;
                         }
 
-                    context.setOpInfo(this, Category.Function, function);
-                    context.setOpInfo(this, Category.Template,
-                            context.f_templates.getTemplate(typeParent));
+                    info = new FunctionInfo(function,
+                            frame.f_context.f_templates.getTemplate(typeParent));
+                    cache.put(idFunction, info);
                     }
                 break;
                 }
@@ -354,10 +386,11 @@ public abstract class OpCallable extends Op
                 {
                 GenericTypeResolver resolver   = frame.getGenericsResolver();
                 TypeConstant        typeParent = ((FormalConstant) idParent).resolve(resolver);
-                TypeConstant        typePrev   = (TypeConstant) context.getOpInfo(this, Category.ParentType);
-                if (function == null || !typeParent.equals(typePrev))
+
+                info = cache.get(typeParent);
+                if (info == null)
                     {
-                    function = typeParent.findCallable(idFunction.getSignature());
+                    MethodStructure function = typeParent.findCallable(idFunction.getSignature());
                     if (function == null)
                         {
                         frame.raiseException("Unresolvable or ambiguous function \"" +
@@ -365,23 +398,24 @@ public abstract class OpCallable extends Op
                         return null;
                         }
 
-                    context.setOpInfo(this, Category.Function, function);
-                    context.setOpInfo(this, Category.ParentType, typeParent);
-                    context.setOpInfo(this, Category.Template,
-                            context.f_templates.getTemplate(typeParent));
+                    info = new FunctionInfo(function,
+                            frame.f_context.f_templates.getTemplate(typeParent));
+                    cache.put(typeParent, info);
                     }
                 break;
                 }
 
             case Method:
                 {
-                if (function == null)
+                info = cache.get(idFunction);
+                if (info == null)
                     {
-                    function = (MethodStructure) idFunction.getComponent();
+                    MethodStructure function = (MethodStructure) idFunction.getComponent();
                     assert !function.isNative();
 
                     // since the function is never native, no need to save the template
-                    context.setOpInfo(this, Category.Function, function);
+                    info = new FunctionInfo(function, null);
+                    cache.put(idFunction, info);
                     }
                 break;
                 }
@@ -390,17 +424,22 @@ public abstract class OpCallable extends Op
                 throw new IllegalStateException();
             }
 
-        return function;
+        return info;
         }
 
     /**
-     * @return the ClassTemplate that defines a native implementation for the specified function
-     *         using the information collected by {@link #getMethodStructure}
+     * The cached information about the function called by this op.
      */
-    protected ClassTemplate getNativeTemplate(Frame frame, MethodStructure function)
+    private static class FunctionInfo
         {
-        assert function == frame.f_context.getOpInfo(this, Category.Function);
-        return (ClassTemplate) frame.f_context.getOpInfo(this, Category.Template);
+        FunctionInfo(MethodStructure function, ClassTemplate template)
+            {
+            f_function = function;
+            f_template = template;
+            }
+
+        final MethodStructure f_function;
+        final ClassTemplate   f_template;
         }
 
     protected int constructChild(Frame frame, MethodStructure constructor,
@@ -470,6 +509,13 @@ public abstract class OpCallable extends Op
     protected Argument   m_argReturn;  // optional
     protected Argument[] m_aArgReturn; // optional
 
-    // categories for cached info
-    enum Category {Function, Template, ParentClass, ParentType, Constructor};
+    /**
+     * The resolved functions keyed by the function constant or the run-time parent type.
+     */
+    private volatile InlineCache<FunctionInfo> m_cacheFunction;
+
+    /**
+     * The resolved constructors keyed by the run-time class.
+     */
+    private volatile InlineCache<MethodStructure> m_cacheConstructor;
     }
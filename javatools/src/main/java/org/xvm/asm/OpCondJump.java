@@ -149,6 +149,20 @@ public abstract class OpCondJump
 
     protected int processBinaryOp(Frame frame, int iPC)
         {
+        if (isInt64Op() && frame.isInt64(m_nArg) && frame.isInt64(m_nArg2))
+            {
+            return testInt64(frame.getInt64(m_nArg), frame.getInt64(m_nArg2))
+                    ? jump(frame, iPC + m_ofJmp, m_cExits)
+                    : iPC + 1;
+            }
+
+        if (isFloat64Op() && frame.isFloat64(m_nArg) && frame.isFloat64(m_nArg2))
+            {
+            return testFloat64(frame.getFloat64(m_nArg), frame.getFloat64(m_nArg2))
+                    ? jump(frame, iPC + m_ofJmp, m_cExits)
+                    : iPC + 1;
+            }
+
         try
             {
             ObjectHandle[] ahArg      = frame.getArguments(new int[]{m_nArg, m_nArg2}, 2);
@@ -197,6 +211,50 @@ public abstract class OpCondJump
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A "virtual constant" indicating whether or not this binary op can test Int64 values
+     * (see {@link Frame#isInt64}) directly.
+     *
+     * @return true iff the op overrides {@link #testInt64}
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Test the specified Int64 values.
+     *
+     * @return true iff the jump should be taken
+     */
+    protected boolean testInt64(long l1, long l2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
+    /**
+     * A "virtual constant" indicating whether or not this binary op can test Float64 values
+     * (see {@link Frame#isFloat64}) directly; by default, all the ops that test Int64 values
+     * can test Float64 values as well.
+     *
+     * @return true iff the op can use {@link #testFloat64}
+     */
+    protected boolean isFloat64Op()
+        {
+        return isInt64Op();
+        }
+
+    /**
+     * Test the specified Float64 values. By default, the values are ordered the same way as
+     * Float64.compare() does it, which is the ordering of {@link Double#compare}.
+     *
+     * @return true iff the jump should be taken
+     */
+    protected boolean testFloat64(double d1, double d2)
+        {
+        return testInt64(Double.compare(d1, d2), 0);
+        }
+
     @Override
     public void markReachable(Op[] aop)
         {
@@ -137,6 +137,42 @@ public abstract class OpGeneral
 
     protected int processBinaryOp(Frame frame)
         {
+        if (isInt64Op() && frame.isInt64(m_nTarget) && frame.isInt64(m_nArgValue))
+            {
+            try
+                {
+                long lResult = computeInt64(frame.getInt64(m_nTarget), frame.getInt64(m_nArgValue));
+
+                if (frame.isNextRegister(m_nRetValue))
+                    {
+                    frame.introduceVarCopy(m_nRetValue, m_nTarget);
+                    }
+                return frame.assignInt64(m_nRetValue, lResult);
+                }
+            catch (ArithmeticException e)
+                {
+                // the regular path reports the overflow
+                }
+            }
+
+        if (isFloat64Op() && frame.isFloat64(m_nTarget) && frame.isFloat64(m_nArgValue))
+            {
+            try
+                {
+                double dResult = computeFloat64(frame.getFloat64(m_nTarget), frame.getFloat64(m_nArgValue));
+
+                if (frame.isNextRegister(m_nRetValue))
+                    {
+                    frame.introduceVarCopy(m_nRetValue, m_nTarget);
+                    }
+                return frame.assignFloat64(m_nRetValue, dResult);
+                }
+            catch (ArithmeticException e)
+                {
+                // the regular path reports the error
+                }
+            }
+
         try
             {
             ObjectHandle[] ahArg = frame.getArguments(new int[] {m_nTarget, m_nArgValue}, 2);
@@ -167,6 +203,52 @@ public abstract class OpGeneral
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A "virtual constant" indicating whether or not this binary op can operate directly on Int64
+     * values (see {@link Frame#isInt64}) without creating intermediate handles.
+     *
+     * @return true iff the op overrides {@link #computeInt64}
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Compute the result of this op for the specified Int64 values.
+     *
+     * @return the result
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    protected long computeInt64(long l1, long l2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
+    /**
+     * A "virtual constant" indicating whether or not this binary op can operate directly on
+     * Float64 values (see {@link Frame#isFloat64}) without creating intermediate handles.
+     *
+     * @return true iff the op overrides {@link #computeFloat64}
+     */
+    protected boolean isFloat64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Compute the result of this op for the specified Float64 values.
+     *
+     * @return the result
+     *
+     * @throws ArithmeticException if the operation is not allowed (e.g. a division by zero)
+     */
+    protected double computeFloat64(double d1, double d2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     @Override
     public void resetSimulation()
         {
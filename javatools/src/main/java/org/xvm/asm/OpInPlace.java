@@ -110,6 +110,18 @@ public abstract class OpInPlace
             if (nTarget >= 0)
                 {
                 // operation on a register
+                if (isInt64Op() && frame.isInt64(nTarget))
+                    {
+                    try
+                        {
+                        return frame.assignInt64(nTarget, computeInt64(frame.getInt64(nTarget)));
+                        }
+                    catch (ArithmeticException e)
+                        {
+                        // the regular path reports the overflow
+                        }
+                    }
+
                 if (frame.isDynamicVar(nTarget))
                     {
                     RefHandle hVar = frame.getDynamicVar(nTarget);
@@ -164,6 +176,29 @@ public abstract class OpInPlace
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A "virtual constant" indicating whether or not this non-assigning op can operate directly
+     * on an Int64 register (see {@link Frame#isInt64}) without creating intermediate handles.
+     *
+     * @return true iff the op overrides {@link #computeInt64}
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Compute the new value of the target register for the specified Int64 value.
+     *
+     * @return the new value
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    protected long computeInt64(long lValue)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     protected int completeWithVar(Frame frame, RefHandle hTarget)
         {
         throw new UnsupportedOperationException();
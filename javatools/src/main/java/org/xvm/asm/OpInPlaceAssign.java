@@ -74,6 +74,32 @@ public abstract class OpInPlaceAssign
             if (nTarget >= 0)
                 {
                 // operation on a register
+                if (isInt64Op() && frame.isInt64(nTarget) && frame.isInt64(m_nArgValue))
+                    {
+                    try
+                        {
+                        return frame.assignInt64(nTarget,
+                            computeInt64(frame.getInt64(nTarget), frame.getInt64(m_nArgValue)));
+                        }
+                    catch (ArithmeticException e)
+                        {
+                        // the regular path reports the overflow
+                        }
+                    }
+
+                if (isFloat64Op() && frame.isFloat64(nTarget) && frame.isFloat64(m_nArgValue))
+                    {
+                    try
+                        {
+                        return frame.assignFloat64(nTarget,
+                            computeFloat64(frame.getFloat64(nTarget), frame.getFloat64(m_nArgValue)));
+                        }
+                    catch (ArithmeticException e)
+                        {
+                        // the regular path reports the error
+                        }
+                    }
+
                 if (frame.isDynamicVar(nTarget))
                     {
                     RefHandle hVar = frame.getDynamicVar(nTarget);
@@ -132,6 +158,53 @@ public abstract class OpInPlaceAssign
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A "virtual constant" indicating whether or not this op can operate directly on an Int64
+     * register and an Int64 value (see {@link Frame#isInt64}) without creating intermediate handles.
+     *
+     * @return true iff the op overrides {@link #computeInt64}
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Compute the new value of the target register for the specified Int64 values.
+     *
+     * @return the new value
+     *
+     * @throws ArithmeticException if the result overflows
+     */
+    protected long computeInt64(long lTarget, long lValue)
+        {
+        throw new UnsupportedOperationException();
+        }
+
+    /**
+     * A "virtual constant" indicating whether or not this op can operate directly on a Float64
+     * register and a Float64 value (see {@link Frame#isFloat64}) without creating intermediate
+     * handles.
+     *
+     * @return true iff the op overrides {@link #computeFloat64}
+     */
+    protected boolean isFloat64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Compute the new value of the target register for the specified Float64 values.
+     *
+     * @return the new value
+     *
+     * @throws ArithmeticException if the operation is not allowed (e.g. a division by zero)
+     */
+    protected double computeFloat64(double dTarget, double dValue)
+        {
+        throw new UnsupportedOperationException();
+        }
+
     /**
      * The completion of processing.
      */
@@ -9,10 +9,10 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
-import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.Utils;
 
 import static org.xvm.util.Handy.readPackedInt;
@@ -143,17 +143,8 @@ public abstract class OpIndex
      */
     protected CallChain getOpChain(Frame frame, TypeConstant typeTarget)
         {
-        ServiceContext ctx   = frame.f_context;
-        CallChain      chain = (CallChain) ctx.getOpInfo(this, Category.Chain);
-        if (chain != null)
-            {
-            TypeConstant typePrevTarget = (TypeConstant) ctx.getOpInfo(this, Category.Type);
-            if (typeTarget.equals(typePrevTarget))
-                {
-                return chain;
-                }
-            }
-        return null;
+        InlineCache<CallChain> cache = m_cacheChain;
+        return cache == null ? null : cache.get(typeTarget);
         }
 
     /**
@@ -161,9 +152,12 @@ public abstract class OpIndex
      */
     protected void saveOpChain(Frame frame, TypeConstant typeTarget, CallChain chain)
         {
-        ServiceContext ctx = frame.f_context;
-        ctx.setOpInfo(this, Category.Chain, chain);
-        ctx.setOpInfo(this, Category.Type, typeTarget);
+        InlineCache<CallChain> cache = m_cacheChain;
+        if (cache == null)
+            {
+            m_cacheChain = cache = new InlineCache<>(this);
+            }
+        cache.put(typeTarget, chain);
         }
 
     @Override
@@ -212,6 +206,8 @@ public abstract class OpIndex
     private Argument m_argIndex;
     private Argument m_argReturn;
 
-    // categories for cached info
-    enum Category {Chain, Type};
+    /**
+     * The call chains keyed by the target type.
+     */
+    private volatile InlineCache<CallChain> m_cacheChain;
     }
@@ -11,8 +11,8 @@ import org.xvm.asm.constants.MethodConstant;
 
 import org.xvm.runtime.CallChain;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ObjectHandle;
-import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TypeComposition;
 
 import static org.xvm.util.Handy.readPackedInt;
@@ -118,19 +118,21 @@ public abstract class OpInvocable extends Op
         }
 
     // helper methods
-     protected CallChain getCallChain(Frame frame, ObjectHandle hTarget)
+    protected CallChain getCallChain(Frame frame, ObjectHandle hTarget)
         {
-        ServiceContext  context   = frame.f_context;
-        CallChain       chain     = (CallChain) context.getOpInfo(this, Category.Chain);
-        TypeComposition clazzPrev = (TypeComposition) context.getOpInfo(this, Category.Composition);
-        TypeComposition clazz     = hTarget.getComposition();
+        TypeComposition        clazz = hTarget.getComposition();
+        InlineCache<CallChain> cache = m_cacheChain;
 
-        if (chain != null && clazz == clazzPrev)
+        if (cache == null)
             {
-            return chain;
+            m_cacheChain = cache = new InlineCache<>(this);
             }
 
-        context.setOpInfo(this, Category.Composition, clazz);
+        CallChain chain = cache.get(clazz);
+        if (chain != null)
+            {
+            return chain;
+            }
 
         MethodConstant  idMethod = (MethodConstant) frame.getConstant(m_nMethodId);
         MethodStructure method   = (MethodStructure) idMethod.getComponent();
@@ -141,7 +143,7 @@ public abstract class OpInvocable extends Op
             {
             chain = new CallChain(method);
 
-            context.setOpInfo(this, Category.Chain, chain);
+            cache.put(clazz, chain);
             return chain;
             }
 
@@ -153,7 +155,7 @@ public abstract class OpInvocable extends Op
             return new CallChain.ExceptionChain(idMethod, hTarget.getType());
             }
 
-        context.setOpInfo(this, Category.Chain, chain);
+        cache.put(clazz, chain);
         return chain;
         }
 
@@ -275,6 +277,8 @@ public abstract class OpInvocable extends Op
     protected Argument       m_argReturn;  // optional
     protected Argument[]     m_aArgReturn; // optional
 
-    // categories for cached info
-    enum Category {Chain, Composition};
+    /**
+     * The call chains keyed by the target's TypeComposition.
+     */
+    private volatile InlineCache<CallChain> m_cacheChain;
     }
@@ -7,6 +7,10 @@ import java.io.IOException;
 
 import org.xvm.asm.constants.PropertyConstant;
 
+import org.xvm.runtime.CallChain;
+import org.xvm.runtime.InlineCache;
+import org.xvm.runtime.TypeComposition;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -57,6 +61,62 @@ public abstract class OpProperty extends Op
         m_idProp = (PropertyConstant) registerArgument(m_idProp, registry);
         }
 
+    /**
+     * Obtain the slot of the field that holds the value of the specified property if getting
+     * (or setting) that property on an object of the specified class is a plain field access,
+     * meaning that the property has no custom code, no Ref-annotation and no native implementation.
+     * The result is cached per class at this op.
+     *
+     * @param clazz   the TypeComposition of the target
+     * @param idProp  the property id
+     * @param fGet    true for the property "get" operation; false for the "set"
+     *
+     * @return the field slot or -1 if the operation has to go through the template
+     */
+    protected int getFieldSlot(TypeComposition clazz, PropertyConstant idProp, boolean fGet)
+        {
+        InlineCache<Integer> cache = m_cacheSlot;
+        if (cache == null)
+            {
+            m_cacheSlot = cache = new InlineCache<>(this);
+            }
+        else if (cache.isMegamorphic())
+            {
+            return -1;
+            }
+
+        Integer iSlot = cache.get(clazz);
+        if (iSlot == null)
+            {
+            iSlot = calculateFieldSlot(clazz, idProp, fGet);
+            cache.put(clazz, iSlot);
+            }
+        return iSlot;
+        }
+
+    private static int calculateFieldSlot(TypeComposition clazz, PropertyConstant idProp, boolean fGet)
+        {
+        Object nid   = idProp.getNestedIdentity();
+        int    iSlot = clazz.getFieldSlot(nid);
+        if (iSlot < 0 || clazz.isInflated(nid))
+            {
+            return -1;
+            }
+
+        if (fGet || !clazz.isStruct())
+            {
+            CallChain chain = fGet
+                    ? clazz.getPropertyGetterChain(idProp)
+                    : clazz.getPropertySetterChain(idProp);
+
+            if (chain == null || chain.isNative() || !(chain.isField() || clazz.isStruct()))
+                {
+                return -1;
+                }
+            }
+        return iSlot;
+        }
+
     @Override
     public String toString()
         {
@@ -66,4 +126,9 @@ public abstract class OpProperty extends Op
     protected int m_nPropId;
 
     protected PropertyConstant m_idProp;
+
+    /**
+     * The field slots keyed by the target's TypeComposition.
+     */
+    private volatile InlineCache<Integer> m_cacheSlot;
     }
@@ -12,6 +12,8 @@ import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.xBoolean;
+
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
 
@@ -147,6 +149,18 @@ public abstract class OpTest
 
     protected int processBinaryOp(Frame frame)
         {
+        if (isInt64Op() && frame.isInt64(m_nValue1) && frame.isInt64(m_nValue2))
+            {
+            return frame.assignValue(m_nRetValue, xBoolean.makeHandle(
+                    testInt64(frame.getInt64(m_nValue1), frame.getInt64(m_nValue2))));
+            }
+
+        if (isFloat64Op() && frame.isFloat64(m_nValue1) && frame.isFloat64(m_nValue2))
+            {
+            return frame.assignValue(m_nRetValue, xBoolean.makeHandle(
+                    testFloat64(frame.getFloat64(m_nValue1), frame.getFloat64(m_nValue2))));
+            }
+
         try
             {
             ObjectHandle[] ahArg = frame.getArguments(new int[]{m_nValue1, m_nValue2}, 2);
@@ -196,6 +210,50 @@ public abstract class OpTest
         throw new UnsupportedOperationException();
         }
 
+    /**
+     * A "virtual constant" indicating whether or not this binary op can test Int64 values
+     * (see {@link Frame#isInt64}) directly.
+     *
+     * @return true iff the op overrides {@link #testInt64}
+     */
+    protected boolean isInt64Op()
+        {
+        return false;
+        }
+
+    /**
+     * Test the specified Int64 values.
+     *
+     * @return the result of the test
+     */
+    protected boolean testInt64(long l1, long l2)
+        {
+        throw new UnsupportedOperationException();
+        }
+
+    /**
+     * A "virtual constant" indicating whether or not this binary op can test Float64 values
+     * (see {@link Frame#isFloat64}) directly; by default, all the ops that test Int64 values
+     * can test Float64 values as well.
+     *
+     * @return true iff the op can use {@link #testFloat64}
+     */
+    protected boolean isFloat64Op()
+        {
+        return isInt64Op();
+        }
+
+    /**
+     * Test the specified Float64 values. By default, the values are ordered the same way as
+     * Float64.compare() does it, which is the ordering of {@link Double#compare}.
+     *
+     * @return the result of the test
+     */
+    protected boolean testFloat64(double d1, double d2)
+        {
+        return testInt64(Double.compare(d1, d2), 0);
+        }
+
     @Override
     public void registerConstants(ConstantRegistry registry)
         {
@@ -10,6 +10,7 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.InlineCache;
 import org.xvm.runtime.ServiceContext;
 
 import org.xvm.runtime.template.collections.xArray;
@@ -148,20 +149,23 @@ public abstract class OpVar
      */
     protected ClassComposition getArrayClass(Frame frame, TypeConstant typeList)
         {
-        ServiceContext   context  = frame.f_context;
-        ClassComposition clzArray = (ClassComposition) context.getOpInfo(this, Category.Composition);;
-        TypeConstant     typePrev = (TypeConstant)     context.getOpInfo(this, Category.Type);
+        InlineCache<ClassComposition> cache = m_cacheArrayClass;
+        if (cache == null)
+            {
+            m_cacheArrayClass = cache = new InlineCache<>(this);
+            }
 
-        if (clzArray == null || !typeList.equals(typePrev))
+        ClassComposition clzArray = cache.get(typeList);
+        if (clzArray != null)
             {
-            TypeConstant typeEl = typeList.resolveGenericType("Element");
+            return clzArray;
+            }
 
-            clzArray = xArray.INSTANCE.ensureParameterizedClass(frame.poolContext(), typeEl);
+        TypeConstant typeEl = typeList.resolveGenericType("Element");
 
-            context.setOpInfo(this, Category.Composition, clzArray);
-            context.setOpInfo(this, Category.Type, typeList);
-            }
+        clzArray = xArray.INSTANCE.ensureParameterizedClass(frame.poolContext(), typeEl);
 
+        cache.put(typeList, clzArray);
         return clzArray;
         }
 
@@ -255,6 +259,8 @@ public abstract class OpVar
      */
     protected int m_nType;
 
-    // categories for cached info
-    enum Category {Composition, Type};
+    /**
+     * The array compositions keyed by the sequence type.
+     */
+    private volatile InlineCache<ClassComposition> m_cacheArrayClass;
     }
@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -1228,6 +1229,37 @@ public abstract class TypeConstant
             return info;
             }
 
+        // the same (e.g. core library) types could be built by different threads at the same
+        // time, which happens when independent modules are compiled in parallel; each thread keeps
+        // track of its own "in progress" builds (see BuildState), so the threads never see each
+        // other's partial work and the resulting TypeInfo is published by setTypeInfo() only if
+        // it's "better than" the one published by another thread in the meantime
+        BuildState state = s_tloBuildState.get();
+        state.m_cDepth++;
+        try
+            {
+            return ensureTypeInfoImpl(errs, state);
+            }
+        finally
+            {
+            state.exit();
+            }
+        }
+
+    /**
+     * Implementation of {@link #ensureTypeInfo(ErrorListener)}.
+     *
+     * @param errs   the error listener to log errors to
+     * @param state  the TypeInfo build state of the current thread
+     */
+    private TypeInfo ensureTypeInfoImpl(ErrorListener errs, BuildState state)
+        {
+        TypeInfo info = getTypeInfo();
+        if (isComplete(info) && isUpToDate(info))
+            {
+            return info;
+            }
+
         ConstantPool pool = getConstantPool();
         if (info == null)
             {
@@ -1269,9 +1301,8 @@ public abstract class TypeConstant
         //    in turn must be completed once the dependent (which is also a depended-upon) TypeInfo
         //    is complete
 
-        // there is a place-holder that signifies that a type is busy building a TypeInfo;
         // mark the type as having its TypeInfo building "in progress"
-        setTypeInfo(pool.infoPlaceholder());
+        startBuilding(info, state);
 
         // since this can only be used "from the outside", there should be no deferred TypeInfo
         // objects at this point
@@ -1323,14 +1354,14 @@ public abstract class TypeConstant
                             // recursion, so be very careful about what can allow a TypeInfo to be built
                             // "incomplete" (it needs to be impossible to rebuild a TypeInfo and have it
                             // be incomplete for the second time)
-                            if (++m_cRecursiveDepth > 2)
+                            if (state.f_mapRecursion.merge(this, 1, Integer::sum) > 2)
                                 {
                                 // an infinite loop
                                 throw new IllegalStateException("Infinite loop while producing a TypeInfo for "
                                         + this + "; deferred type=" + typeDeferred);
                                 }
                             infoDeferred = typeDeferred.buildTypeInfo(errs);
-                            --m_cRecursiveDepth;
+                            state.f_mapRecursion.merge(this, -1, Integer::sum);
 
                             if (isComplete(infoDeferred) && !errs.hasSeriousErrors())
                                 {
@@ -1378,21 +1409,46 @@ public abstract class TypeConstant
     protected TypeInfo ensureTypeInfoInternal(ErrorListener errs)
         {
         TypeInfo info = getTypeInfo();
-        if (info != null && info.isPlaceHolder())
-            {
-            // the TypeInfo is already being built, so we're in the catch-22 situation; note that it
-            // is even more complicated, because it could be being built by a different thread, so
-            // always add it to the deferred list _on this thread_ so that we will force the rebuild
-            // of the TypeInfo if necessary (imagine that the other thread is super slow, so we need
-            // to preemptively duplicate its work on this thread, so we don't have to "wait" for
-            // the other thread)
+        if (isComplete(info) && isUpToDate(info))
+            {
+            return info;
+            }
+
+        BuildState state = s_tloBuildState.get();
+        state.m_cDepth++;
+        try
+            {
+            return ensureTypeInfoInternalImpl(errs, state);
+            }
+        finally
+            {
+            state.exit();
+            }
+        }
+
+    /**
+     * Implementation of {@link #ensureTypeInfoInternal(ErrorListener)}.
+     *
+     * @param errs   the error list to log to
+     * @param state  the TypeInfo build state of the current thread
+     */
+    private TypeInfo ensureTypeInfoInternalImpl(ErrorListener errs, BuildState state)
+        {
+        TypeInfo info = getTypeInfo();
+        if (state.f_setBuilding.contains(this))
+            {
+            // the TypeInfo is already being built by this thread, so we're in the catch-22
+            // situation; add it to the deferred list so that we will force the rebuild of the
+            // TypeInfo if necessary (note that a TypeInfo being built by a different thread is not
+            // visible here, so its work is preemptively duplicated on this thread, so we don't
+            // have to "wait" for the other thread)
             addDeferredTypeInfo(this);
             return null;
             }
 
         if (!isComplete(info) || !isUpToDate(info))
             {
-            setTypeInfo(getConstantPool().infoPlaceholder());
+            startBuilding(info, state);
             info = buildTypeInfo(errs);
             if (info != null)
                 {
@@ -1407,6 +1463,25 @@ public abstract class TypeConstant
         return info;
         }
 
+    /**
+     * Mark this type as having its TypeInfo building "in progress" on the current thread. Unlike
+     * a TypeInfo, this mark is not visible to other threads, which build their own TypeInfo for
+     * this type if they need it before this thread is done.
+     *
+     * @param infoOld  the TypeInfo (incomplete or out-of-date) that is being replaced, if any; it's
+     *                 discarded, so the result of the build could be stored by {@link #setTypeInfo}
+     * @param state    the TypeInfo build state of the current thread
+     */
+    private void startBuilding(TypeInfo infoOld, BuildState state)
+        {
+        state.f_setBuilding.add(this);
+
+        if (infoOld != null)
+            {
+            s_typeinfo.compareAndSet(this, infoOld, null);
+            }
+        }
+
     /**
      * Obtain the TypeInfo associated with this type.
      *
@@ -1426,9 +1501,11 @@ public abstract class TypeConstant
      */
     protected void setTypeInfo(TypeInfo info)
         {
+        // the building of this type's TypeInfo (if any) on this thread is no longer "in progress"
+        s_tloBuildState.get().f_setBuilding.remove(this);
+
         TypeInfo infoOld;
-        while (rankTypeInfo(info) > rankTypeInfo(infoOld = s_typeinfo.get(this))
-                || info.isPlaceHolder())
+        while (rankTypeInfo(info) > rankTypeInfo(infoOld = s_typeinfo.get(this)))
             {
             // update the TypeInfo
             if (s_typeinfo.compareAndSet(this, infoOld, info))
@@ -6392,6 +6469,46 @@ public abstract class TypeConstant
         }
 
 
+    // ----- inner class: BuildState ---------------------------------------------------------------
+
+    /**
+     * The state of the TypeInfo building on a given thread. Since a TypeInfo is only published
+     * (see {@link #setTypeInfo}) when it's "better than" the existing one, the threads that happen
+     * to build the TypeInfo for the same type at the same time don't need to coordinate, as long
+     * as each thread only sees its own "in progress" builds.
+     */
+    private static class BuildState
+        {
+        /**
+         * Leave a TypeInfo request; once the outermost request is done, nothing can be left in
+         * progress.
+         */
+        void exit()
+            {
+            if (--m_cDepth == 0)
+                {
+                f_setBuilding.clear();
+                f_mapRecursion.clear();
+                }
+            }
+
+        /**
+         * The types whose TypeInfo is being built by this thread.
+         */
+        final Set<TypeConstant> f_setBuilding = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        /**
+         * The number of nested attempts to complete the deferred TypeInfo objects for a type.
+         */
+        final Map<TypeConstant, Integer> f_mapRecursion = new IdentityHashMap<>();
+
+        /**
+         * The depth of the nested TypeInfo requests.
+         */
+        int m_cDepth;
+        }
+
+
     // ----- enums ---------------------------------------------------------------------------------
 
     /**
@@ -6446,13 +6563,18 @@ public abstract class TypeConstant
      */
     private transient boolean m_fValidated;
 
+    /**
+     * The TypeInfo build state of the current thread.
+     */
+    private static final ThreadLocal<BuildState> s_tloBuildState =
+            ThreadLocal.withInitial(BuildState::new);
+
     /**
      * The resolved information about the type, its properties, and its methods.
      */
     private transient volatile TypeInfo m_typeinfo;
     private static final AtomicReferenceFieldUpdater<TypeConstant, TypeInfo> s_typeinfo =
             AtomicReferenceFieldUpdater.newUpdater(TypeConstant.class, TypeInfo.class, "m_typeinfo");
-    private transient volatile int m_cRecursiveDepth;
 
     /**
      * The last time that we checked the invalidations from the ConstantPool, we cached the number
@@ -2255,11 +2255,6 @@ public class TypeInfo
         return f_progress;
         }
 
-    boolean isPlaceHolder()
-        {
-        return f_progress == Progress.Building;
-        }
-
 
     // ----- internal helpers ----------------------------------------------------------------------
 
@@ -279,7 +279,9 @@ public class TypeParameterConstant
     @Override
     public int hashCode()
         {
-        return getName().hashCode() + f_iReg;
+        // the parent's hash does not depend on the parameter types (see SignatureConstant),
+        // so it is stable even if the method gets re-bound (see bindMethod())
+        return (getParentConstant().hashCode() * 17 + getName().hashCode()) * 31 + f_iReg;
         }
 
 
@@ -50,7 +50,7 @@ public class FinallyEnd
         // (see Frame.findGuard and FinallyStart.process)
         int nException = frame.f_anNextVar[frame.m_iScope - 1];
 
-        ObjectHandle hException = frame.f_ahVar[nException];
+        ObjectHandle hException = frame.getRegisterValue(nException);
         if (hException == xNullable.NULL)
             {
             DeferredGuardAction deferred = frame.m_deferred;
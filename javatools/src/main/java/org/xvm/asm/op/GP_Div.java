@@ -52,4 +52,21 @@ public class GP_Div
         {
         return hTarget.getOpSupport().invokeDiv(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected boolean isFloat64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected double computeFloat64(double d1, double d2)
+        {
+        if (d2 == 0.0)
+            {
+            // the regular path reports the error
+            throw new ArithmeticException();
+            }
+        return d1 / d2;
+        }
     }
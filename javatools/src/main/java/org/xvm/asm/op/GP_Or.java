@@ -52,4 +52,16 @@ public class GP_Or
         {
         return hTarget.getOpSupport().invokeOr(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long computeInt64(long l1, long l2)
+        {
+        return l1 | l2;
+        }
     }
@@ -52,4 +52,28 @@ public class GP_Sub
         {
         return hTarget.getOpSupport().invokeSub(frame, hTarget, hArg, m_nRetValue);
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long computeInt64(long l1, long l2)
+        {
+        return Math.subtractExact(l1, l2);
+        }
+
+    @Override
+    protected boolean isFloat64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected double computeFloat64(double d1, double d2)
+        {
+        return d1 - d2;
+        }
     }
@@ -68,4 +68,28 @@ public class IP_Add
         {
         return hTarget.getTemplate().invokePropertyAdd(frame, hTarget, idProp, hValue);
         }
-    }
\ No newline at end of file
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long computeInt64(long lTarget, long lValue)
+        {
+        return Math.addExact(lTarget, lValue);
+        }
+
+    @Override
+    protected boolean isFloat64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected double computeFloat64(double dTarget, double dValue)
+        {
+        return dTarget + dValue;
+        }
+    }
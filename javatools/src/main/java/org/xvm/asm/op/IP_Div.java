@@ -68,4 +68,21 @@ public class IP_Div
         {
         return hTarget.getTemplate().invokePropertyDiv(frame, hTarget, idProp, hValue);
         }
-    }
\ No newline at end of file
+
+    @Override
+    protected boolean isFloat64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected double computeFloat64(double dTarget, double dValue)
+        {
+        if (dValue == 0.0)
+            {
+            // the regular path reports the error
+            throw new ArithmeticException();
+            }
+        return dTarget / dValue;
+        }
+    }
@@ -75,4 +75,16 @@ public class IP_Inc
 
         return hTarget.getTemplate().invokePostInc(frame, hTarget, idProp, A_IGNORE);
         }
-    }
\ No newline at end of file
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected long computeInt64(long lValue)
+        {
+        return Math.incrementExact(lValue);
+        }
+    }
@@ -86,4 +86,24 @@ public class JumpEq
                 throw new IllegalStateException();
             }
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected boolean testInt64(long l1, long l2)
+        {
+        return l1 == l2;
+        }
+
+    @Override
+    protected boolean isFloat64Op()
+        {
+        // the Float64 equality depends on the handle identity (see TypeConstant.callEquals),
+        // which makes a NaN value equal to itself; that cannot be done without a handle
+        return false;
+        }
     }
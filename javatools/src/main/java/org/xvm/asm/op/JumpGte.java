@@ -97,4 +97,16 @@ public class JumpGte
                 throw new IllegalStateException();
             }
         }
+
+    @Override
+    protected boolean isInt64Op()
+        {
+        return true;
+        }
+
+    @Override
+    protected boolean testInt64(long l1, long l2)
+        {
+        return l1 >= l2;
+        }
     }
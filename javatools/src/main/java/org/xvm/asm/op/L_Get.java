@@ -14,6 +14,7 @@ import org.xvm.asm.constants.PropertyConstant;
 
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
 
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
@@ -84,6 +85,19 @@ public class L_Get
             frame.introducePropertyVar(m_nRetValue, A_THIS, m_nPropId);
             }
 
+        if (hTarget instanceof GenericHandle)
+            {
+            int iSlot = getFieldSlot(hTarget.getComposition(), constProperty, true);
+            if (iSlot >= 0)
+                {
+                ObjectHandle hValue = ((GenericHandle) hTarget).getField(iSlot);
+                if (hValue != null && !isDeferred(hValue))
+                    {
+                    return frame.assignValue(m_nRetValue, hValue);
+                    }
+                }
+            }
+
         return hTarget.getTemplate().getPropertyValue(frame, hTarget, constProperty, m_nRetValue);
         }
 
@@ -14,6 +14,7 @@ import org.xvm.asm.constants.PropertyConstant;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
 
 import static org.xvm.util.Handy.readPackedInt;
 import static org.xvm.util.Handy.writePackedLong;
@@ -82,6 +83,16 @@ public class L_Set
 
             PropertyConstant idProp = (PropertyConstant) frame.getConstant(m_nPropId);
 
+            if (hTarget instanceof GenericHandle && hTarget.isMutable() && !isDeferred(hValue))
+                {
+                int iSlot = getFieldSlot(hTarget.getComposition(), idProp, false);
+                if (iSlot >= 0)
+                    {
+                    ((GenericHandle) hTarget).setField(iSlot, hValue);
+                    return R_NEXT;
+                    }
+                }
+
             return isDeferred(hValue)
                     ? hValue.proceed(frame, frameCaller ->
                         hTarget.getTemplate().
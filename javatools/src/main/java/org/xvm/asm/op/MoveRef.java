@@ -66,7 +66,7 @@ public class MoveRef
             if (infoSrc.isDynamic())
                 {
                 // the "dynamic ref" register must contain a RefHandle itself
-                hRef = (RefHandle) frame.f_ahVar[m_nFromValue];
+                hRef = (RefHandle) frame.getRegisterValue(m_nFromValue);
                 if (fNextReg)
                     {
                     typeReg = infoSrc.getType();
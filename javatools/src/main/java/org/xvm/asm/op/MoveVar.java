@@ -58,7 +58,7 @@ public class MoveVar
         if (infoSrc.isDynamic())
             {
             // the "dynamic ref" register must contain a RefHandle itself
-            RefHandle hRef = (RefHandle) frame.f_ahVar[m_nFromValue];
+            RefHandle hRef = (RefHandle) frame.getRegisterValue(m_nFromValue);
 
             if (frame.isNextRegister(m_nToValue))
                 {
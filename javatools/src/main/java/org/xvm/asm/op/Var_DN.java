@@ -14,6 +14,7 @@ import org.xvm.asm.constants.StringConstant;
 
 import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.VarSupport;
 
 import org.xvm.runtime.template.annotations.xInjectedRef.InjectedHandle;
@@ -96,9 +97,10 @@ public class Var_DN
 
             if (iRet == Op.R_NEXT)
                 {
-                if (frame.f_ahVar[m_nVar] instanceof InjectedHandle)
+                ObjectHandle hVar = frame.getRegisterValue(m_nVar);
+                if (hVar instanceof InjectedHandle)
                     {
-                    m_ref = (InjectedHandle) frame.f_ahVar[m_nVar];
+                    m_ref = (InjectedHandle) hVar;
                     }
                 iRet = iPC + 1;
                 }
@@ -194,7 +194,8 @@ public class TemplateExpression
         // - a literal (StringConstant), which is appended as-is;
         // - an expression that yields void (it is assumed that any append occurs within the
         //   expression);
-        // - an expression that yields a Stringable, which is then appended to the buffer;
+        // - an expression that yields a Stringable, which is then appended to the buffer (except
+        //   for a String, Char or Int, which the buffer appends directly, as it does a literal);
         // - an expression that yields an Object, which is then converted to a String, and
         //   appended to the buffer.
         // unfortunately, the evaluation (including appending) order must be strictly
@@ -205,6 +206,7 @@ public class TemplateExpression
         //   StringBuffer $ = new StringBuffer(minlen);
         //   $.append("...");
         //   expr1.appendTo($);             // for a Stringable
+        //   $.append(expr1);               // for a String, Char or Int
         //   $.append("...");
         //   $.append(expr2);               // for an object
         //   $.append("...");
@@ -241,14 +243,14 @@ public class TemplateExpression
             if (isStringConst(expr))
                 {
                 // $.append("...");
-                code.add(new Invoke_10(expr.toConstant(), idAppendTo, m_reg$));
+                code.add(new Invoke_10(m_reg$, idAppend, expr.toConstant()));
                 }
             else if (expr.isVoid())
                 {
                 // {...}
                 expr.generateVoid(ctx, code, errs);
                 }
-            else if (isStringable(expr))
+            else if (isStringable(expr) && !isDirectlyAppendable(expr))
                 {
                 // expr1.appendTo($);
                 expr.generateAssignment(ctx, code, lvalStr, errs);
@@ -328,6 +330,19 @@ public class TemplateExpression
         return expr.getTypes().length > 0 && expr.getType().isA(pool().typeStringable());
         }
 
+    /**
+     * @return true iff the expression yields a String, Char or Int, which the StringBuffer
+     *         appends directly, without calling back into the value's appendTo()
+     */
+    boolean isDirectlyAppendable(Expression expr)
+        {
+        ConstantPool pool = pool();
+        TypeConstant type = expr.getType();
+        return type.equals(pool.typeString())
+            || type.equals(pool.typeChar())
+            || type.equals(pool.typeInt());
+        }
+
 
     // ----- fields --------------------------------------------------------------------------------
 
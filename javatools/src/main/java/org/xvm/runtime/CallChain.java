@@ -13,6 +13,8 @@ import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 
+import org.xvm.runtime.template.collections.xTuple;
+
 
 /**
  * Represents a chain of invocation.
@@ -117,8 +119,8 @@ public class CallChain
         {
         if (isNative())
             {
-            return hTarget.getTemplate().
-                invokeNativeN(frame, getTop(), hTarget, Utils.OBJECTS_NONE, iReturn);
+            return completeNative(frame, hTarget.getTemplate().
+                invokeNativeN(frame, getTop(), hTarget, Utils.OBJECTS_NONE, iReturn), iReturn);
             }
 
         ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
@@ -133,8 +135,8 @@ public class CallChain
         {
         if (isNative())
             {
-            return hTarget.getTemplate().
-                invokeNative1(frame, getTop(), hTarget, hArg, iReturn);
+            return completeNative(frame, hTarget.getTemplate().
+                invokeNative1(frame, getTop(), hTarget, hArg, iReturn), iReturn);
             }
 
         ObjectHandle[] ahVar = new ObjectHandle[getTop().getMaxVars()];
@@ -168,9 +170,9 @@ public class CallChain
         if (isNative())
             {
             ClassTemplate template = hTarget.getTemplate();
-            return ahArg.length == 1
+            return completeNative(frame, ahArg.length == 1
                     ? template.invokeNative1(frame, getTop(), hTarget, ahArg[0], iReturn)
-                    : template.invokeNativeN(frame, getTop(), hTarget, ahArg, iReturn);
+                    : template.invokeNativeN(frame, getTop(), hTarget, ahArg, iReturn), iReturn);
             }
 
         ObjectHandle[] ahVar = Utils.ensureSize(ahArg, getTop().getMaxVars());
@@ -432,6 +434,19 @@ public class CallChain
         }
 
 
+    /**
+     * A native method with no return values doesn't assign the return register; if the caller
+     * asked for a register anyway (e.g. a future to wait on), assign it the same "void" value a
+     * natural method's {@link Frame#returnVoid} would.
+     */
+    private int completeNative(Frame frame, int iResult, int iReturn)
+        {
+        return iResult == Op.R_NEXT && iReturn >= 0 && getTop().getReturnCount() == 0
+                ? frame.assignValue(iReturn, xTuple.H_VOID)
+                : iResult;
+        }
+
+
     // ----- debugging support ---------------------------------------------------------------------
 
     @Override
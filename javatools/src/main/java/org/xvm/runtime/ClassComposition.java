@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,6 +30,11 @@ import org.xvm.asm.constants.TypeInfo;
 
 import org.xvm.runtime.ObjectHandle.GenericHandle;
 
+import org.xvm.runtime.template.xConst;
+
+import org.xvm.runtime.template.reflect.xRef;
+import org.xvm.runtime.template.reflect.xRef.RefHandle;
+
 import org.xvm.runtime.template.text.xString;
 import org.xvm.runtime.template.text.xString.StringHandle;
 
@@ -96,6 +102,11 @@ public class ClassComposition
         f_mapGetters      = f_clzInception.f_mapGetters;
         f_mapSetters      = f_clzInception.f_mapSetters;
 
+        m_mapSlots        = f_clzInception.m_mapSlots;
+        m_anidSlots       = f_clzInception.m_anidSlots;
+        m_aclzSlots       = f_clzInception.m_aclzSlots;
+        m_cStructFields   = f_clzInception.m_cStructFields;
+        m_fInflated       = f_clzInception.m_fInflated;
         m_mapFields       = f_clzInception.m_mapFields;
         m_methodInit      = f_clzInception.m_methodInit;
         }
@@ -420,27 +431,49 @@ public class ClassComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
-        Map<Object, TypeComposition> mapCached = m_mapFields;
-        if (mapCached.isEmpty())
+        TypeComposition[] aclzRef = m_aclzSlots;
+        int               cSlots  = aclzRef.length;
+        if (cSlots == 0)
             {
             return null;
             }
 
-        Map<Object, ObjectHandle> mapFields = new ListMap<>();
-        for (Map.Entry<Object, TypeComposition> entry : mapCached.entrySet())
+        ObjectHandle[] ahField = new ObjectHandle[cSlots];
+        if (m_fInflated)
             {
-            Object          nidProp = entry.getKey();
-            TypeComposition clzRef  = entry.getValue();
-            ObjectHandle    hValue  = null;
-            if (clzRef != null)
+            Object[] anid = m_anidSlots;
+            for (int i = 0; i < cSlots; i++)
                 {
-                hValue = ((VarSupport) clzRef.getSupport()).createRefHandle(null, clzRef, nidProp.toString());
+                TypeComposition clzRef = aclzRef[i];
+                if (clzRef != null)
+                    {
+                    ahField[i] = ((VarSupport) clzRef.getSupport()).
+                            createRefHandle(null, clzRef, anid[i].toString());
+                    }
                 }
-            mapFields.put(nidProp, hValue);
             }
-        return mapFields;
+        return ahField;
+        }
+
+    @Override
+    public int getFieldSlot(Object nid)
+        {
+        Integer iSlot = m_mapSlots.get(nid);
+        return iSlot == null ? -1 : iSlot;
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return m_anidSlots;
+        }
+
+    @Override
+    public int getStructureFieldCount()
+        {
+        return m_cStructFields;
         }
 
 
@@ -471,7 +504,8 @@ public class ClassComposition
         }
 
     /**
-     * Create a map of fields that serves as a prototype for all instances of this class.
+     * Create a map of fields that serves as a prototype for all instances of this class and
+     * the corresponding field slot layout.
      */
     public synchronized void ensureFieldLayout()
         {
@@ -482,14 +516,14 @@ public class ClassComposition
 
         if (!f_template.isGenericHandle())
             {
-            m_mapFields = Collections.EMPTY_MAP;
+            setFieldLayout(Collections.emptyMap(), Collections.emptyList());
             return;
             }
 
         TypeConstant typePublic = f_typeInception.getUnderlyingType();
         if (typePublic instanceof PropertyClassTypeConstant)
             {
-            m_mapFields = Collections.EMPTY_MAP;
+            setFieldLayout(Collections.emptyMap(), Collections.emptyList());
             return;
             }
 
@@ -497,7 +531,8 @@ public class ClassComposition
         TypeConstant typeStruct = pool.ensureAccessTypeConstant(typePublic, Access.STRUCT);
         TypeInfo     infoStruct = typeStruct.ensureTypeInfo();
 
-        Map<Object, TypeComposition> mapFields = new ListMap<>();
+        Map<Object, TypeComposition> mapFields    = new ListMap<>();
+        List<Object>                 listInjected = new ArrayList<>();
 
         Map.Entry<PropertyConstant, PropertyInfo>[] aEntry =
                 infoStruct.getProperties().entrySet().toArray(new Map.Entry[0]);
@@ -578,7 +613,67 @@ public class ClassComposition
                 }
             }
 
-        m_mapFields = mapFields.isEmpty() ? Collections.EMPTY_MAP : mapFields;
+        // injected values are not a part of the structure, but are stored upon the first access
+        for (Map.Entry<PropertyConstant, PropertyInfo> entry :
+                f_typeInception.ensureTypeInfo().getProperties().entrySet())
+            {
+            Object nid = entry.getKey().getNestedIdentity();
+            if (entry.getValue().isInjected() && !mapFields.containsKey(nid))
+                {
+                listInjected.add(nid);
+                }
+            }
+
+        setFieldLayout(mapFields.isEmpty() ? Collections.emptyMap() : mapFields, listInjected);
+        }
+
+    /**
+     * Assign the field slots for the specified field map; the injected properties and the
+     * synthetic fields (the reference to the parent, the Ref's referent and the const's cached
+     * hash) follow the declared ones.
+     *
+     * @param mapFields     the map of fields (values are either nulls or TypeComposition for refs)
+     * @param listInjected  the nids of injected properties
+     */
+    private void setFieldLayout(Map<Object, TypeComposition> mapFields, List<Object> listInjected)
+        {
+        List<Object> listNids = new ArrayList<>(mapFields.keySet());
+        listNids.addAll(listInjected);
+        if (!mapFields.containsKey(GenericHandle.OUTER))
+            {
+            listNids.add(GenericHandle.OUTER);
+            }
+        if (f_template instanceof xRef && !mapFields.containsKey(RefHandle.REFERENT))
+            {
+            listNids.add(RefHandle.REFERENT);
+            }
+        if (f_template instanceof xConst && !mapFields.containsKey(xConst.PROP_HASH))
+            {
+            listNids.add(xConst.PROP_HASH);
+            }
+
+        int                  cSlots    = listNids.size();
+        Object[]             anid      = listNids.toArray();
+        TypeComposition[]    aclzRef   = new TypeComposition[cSlots];
+        Map<Object, Integer> mapSlots  = new HashMap<>(cSlots * 2);
+        boolean              fInflated = false;
+
+        for (int i = 0; i < cSlots; i++)
+            {
+            Object          nid    = anid[i];
+            TypeComposition clzRef = mapFields.get(nid);
+
+            aclzRef[i] = clzRef;
+            fInflated |= clzRef != null;
+            mapSlots.put(nid, i);
+            }
+
+        m_mapSlots      = mapSlots;
+        m_anidSlots     = anid;
+        m_aclzSlots     = aclzRef;
+        m_cStructFields = mapFields.size();
+        m_fInflated     = fInflated;
+        m_mapFields     = mapFields;
         }
 
     /**
@@ -650,6 +745,31 @@ public class ClassComposition
      */
     private Map<Object, TypeComposition> m_mapFields;
 
+    /**
+     * The field slots keyed by the field nids.
+     */
+    private Map<Object, Integer> m_mapSlots;
+
+    /**
+     * The field nids indexed by the field slot.
+     */
+    private Object[] m_anidSlots;
+
+    /**
+     * The Ref compositions for inflated fields indexed by the field slot (null for regular fields).
+     */
+    private TypeComposition[] m_aclzSlots;
+
+    /**
+     * The number of the structure's fields; the injected and synthetic fields follow them.
+     */
+    private int m_cStructFields;
+
+    /**
+     * True iff there are any inflated fields.
+     */
+    private boolean m_fInflated;
+
     /**
      * A cache of derivative TypeCompositions keyed by the "revealed type".
      * <p/>
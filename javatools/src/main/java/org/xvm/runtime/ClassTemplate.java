@@ -438,7 +438,7 @@ public abstract class ClassTemplate
      *
      * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION} values
      */
-    protected int makeImmutable(Frame frame, ObjectHandle hTarget)
+    public int makeImmutable(Frame frame, ObjectHandle hTarget)
         {
         if (hTarget.isMutable())
             {
@@ -446,25 +446,23 @@ public abstract class ClassTemplate
 
             if (hTarget instanceof GenericHandle)
                 {
-                TypeComposition           clz       = hTarget.getComposition();
-                Map<Object, ObjectHandle> mapFields = ((GenericHandle) hTarget).getFields();
-                for (Map.Entry<Object, ObjectHandle> entry : mapFields.entrySet())
+                GenericHandle   hGeneric = (GenericHandle) hTarget;
+                TypeComposition clz      = hTarget.getComposition();
+                ObjectHandle[]  ahField  = hGeneric.getFields();
+                Object[]        anid     = clz.getFieldNids();
+                for (int i = 0, c = ahField.length; i < c; i++)
                     {
-                    Object       nid    = entry.getKey();
-                    ObjectHandle hValue = entry.getValue();
-                    if (hValue != null && hValue.isMutable() && !clz.isLazy(nid))
+                    if (makeFieldImmutable(frame, clz, anid[i], ahField[i]) == Op.R_EXCEPTION)
                         {
-                        switch (hValue.getTemplate().makeImmutable(frame, hValue))
-                            {
-                            case Op.R_NEXT:
-                                continue;
-
-                            case Op.R_EXCEPTION:
-                                return Op.R_EXCEPTION;
+                        return Op.R_EXCEPTION;
+                        }
+                    }
 
-                            default:
-                                throw new IllegalStateException();
-                            }
+                for (Map.Entry<Object, ObjectHandle> entry : hGeneric.getExtraFields().entrySet())
+                    {
+                    if (makeFieldImmutable(frame, clz, entry.getKey(), entry.getValue()) == Op.R_EXCEPTION)
+                        {
+                        return Op.R_EXCEPTION;
                         }
                     }
                 }
@@ -472,6 +470,30 @@ public abstract class ClassTemplate
         return Op.R_NEXT;
         }
 
+    /**
+     * Make the specified field value immutable, unless it's a lazy field.
+     *
+     * @return one of the {@link Op#R_NEXT} or {@link Op#R_EXCEPTION} values
+     */
+    private int makeFieldImmutable(Frame frame, TypeComposition clz, Object nid, ObjectHandle hValue)
+        {
+        if (hValue != null && hValue.isMutable() && !clz.isLazy(nid))
+            {
+            switch (hValue.getTemplate().makeImmutable(frame, hValue))
+                {
+                case Op.R_NEXT:
+                    break;
+
+                case Op.R_EXCEPTION:
+                    return Op.R_EXCEPTION;
+
+                default:
+                    throw new IllegalStateException();
+                }
+            }
+        return Op.R_NEXT;
+        }
+
     /**
      * Create a proxy handle that could be sent over the service boundaries.
      *
@@ -1034,6 +1056,17 @@ public abstract class ClassTemplate
         if (hThis.isInflated(idProp))
             {
             RefHandle hRef = (RefHandle) hThis.getField(idProp);
+            if (hRef.getComposition().isStruct() && !hThis.isStruct())
+                {
+                // the annotation constructors (e.g. the WeakVar notification) must run before
+                // the referent is assigned outside of the holder's construction
+                Frame.Continuation stepNext = frameCaller ->
+                    {
+                    RefHandle hRefPublic = (RefHandle) frameCaller.popStack();
+                    return ((xRef) hRefPublic.getTemplate()).setReferent(frameCaller, hRefPublic, hValue);
+                    };
+                return finishRefConstruction(frame, hRef, hThis, idProp, stepNext);
+                }
             ((xRef) hRef.getTemplate()).setReferent(frame, hRef, hValue);
             }
         else
@@ -4,8 +4,12 @@ package org.xvm.runtime;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import java.util.function.Function;
@@ -111,20 +115,75 @@ public abstract class Container
 
     /**
      * Schedule processing of the specified ServiceContext.
+     * <p>
+     * The service is placed into this container's run queue; the queue is drained by at most
+     * {@link Runtime#getParallelism()} concurrent "slices", each of which processes no more than
+     * {@link #getWeight() weight} services before yielding the worker to other containers. As a
+     * result, the share of the worker threads each busy container gets is proportional to its
+     * weight, regardless of how many services it schedules.
      *
      * @param service the ServiceContext to schedule
      */
     public void schedule(ServiceContext service)
         {
-        // TODO: add a container level fair scheduling queue and submit the service there. The
-        // container should then follow a similar pattern and push processing of its fair scheduling
-        // queue to its parent container which eventually pushes to the runtime. Thus there is a
-        // hierarchy of fairness. For now though we just skip over all of this and push the processing
-        // directly to the top level runtime.
+        addPendingWork();
 
-        f_pendingWorkCount.incrementAndGet();
-        f_runtime.submit(() ->
+        service.m_nScheduledNanos = System.nanoTime();
+
+        // the depth must be incremented before the service becomes visible to the runners
+        f_cQueueDepth.incrementAndGet();
+        f_queueRunnable.add(service);
+
+        ensureRunner();
+        }
+
+    /**
+     * Submit a new slice to the runtime unless there are enough of them already.
+     */
+    private void ensureRunner()
+        {
+        AtomicInteger cRunners = f_cRunners;
+        int           cMax     = f_runtime.getParallelism();
+
+        for (int c = cRunners.get(); c < cMax && c < f_cQueueDepth.get(); c = cRunners.get())
             {
+            if (cRunners.compareAndSet(c, c + 1))
+                {
+                f_runtime.submit(this::runSlice);
+                return;
+                }
+            }
+        }
+
+    /**
+     * Process up to "weight" scheduled services on the current worker thread.
+     */
+    private void runSlice()
+        {
+        Queue<ServiceContext> queue = f_queueRunnable;
+
+        for (int cQuota = m_nWeight; cQuota > 0; --cQuota)
+            {
+            ServiceContext service = queue.poll();
+            if (service == null)
+                {
+                f_cRunners.decrementAndGet();
+
+                // a service could have been scheduled after the poll but before the decrement
+                if (f_cQueueDepth.get() > 0)
+                    {
+                    ensureRunner();
+                    }
+                return;
+                }
+
+            f_cQueueDepth.decrementAndGet();
+
+            long cWaitNanos = System.nanoTime() - service.m_nScheduledNanos;
+            f_cWaitNanosTotal.addAndGet(cWaitNanos);
+            f_cWaitNanosMax.accumulateAndGet(cWaitNanos, Math::max);
+            f_cExecuted.incrementAndGet();
+
             try
                 {
                 service.execute();
@@ -137,9 +196,12 @@ public abstract class Container
                 }
             finally
                 {
-                f_pendingWorkCount.decrementAndGet();
+                removePendingWork();
                 }
-            });
+            }
+
+        // the quota is exhausted; go to the back of the line giving other containers a chance
+        f_runtime.submit(this::runSlice);
         }
 
     /**
@@ -225,6 +287,129 @@ public abstract class Container
         return f_pendingWorkCount.get() == 0 && m_contextMain.isIdle();
         }
 
+    /**
+     * Register a unit of pending work: a scheduled service or a native notification (e.g. a timer
+     * alarm or a file watch). The container cannot become idle until the work is
+     * {@link #removePendingWork() removed}.
+     */
+    public void addPendingWork()
+        {
+        f_pendingWorkCount.incrementAndGet();
+        }
+
+    /**
+     * Unregister a unit of pending work. If that was the last one, wake up the threads that are
+     * {@link #waitForIdle() waiting} for this container to become idle.
+     */
+    public void removePendingWork()
+        {
+        // the waiter count is checked after the decrement, while the waiter checks the work count
+        // after incrementing the waiter count, so one of them is guaranteed to see the other
+        if (f_pendingWorkCount.decrementAndGet() == 0 && m_cIdleWaiters > 0)
+            {
+            synchronized (f_monitorIdle)
+                {
+                f_monitorIdle.notifyAll();
+                }
+            }
+        }
+
+    /**
+     * Block the calling (non-service) thread until this container is {@link #isIdle() idle}.
+     * <p/>
+     * Since all the work in the container comes through the {@link #schedule scheduled} services
+     * and the registered notifications, the only time the container can become idle is when the
+     * pending work count drops to zero, which is exactly when the waiters get notified.
+     */
+    public void waitForIdle()
+            throws InterruptedException
+        {
+        Object monitor = f_monitorIdle;
+        synchronized (monitor)
+            {
+            m_cIdleWaiters++;
+            try
+                {
+                while (!isIdle())
+                    {
+                    monitor.wait();
+                    }
+                }
+            finally
+                {
+                m_cIdleWaiters--;
+                }
+            }
+        }
+
+    // ----- scheduling metrics --------------------------------------------------------------------
+
+    /**
+     * @return the scheduling weight of this container
+     */
+    public int getWeight()
+        {
+        return m_nWeight;
+        }
+
+    /**
+     * Set the scheduling weight of this container, which is the number of services a worker
+     * thread processes on behalf of this container before switching to another container.
+     *
+     * @param nWeight  the new weight (must be positive)
+     */
+    public void setWeight(int nWeight)
+        {
+        if (nWeight <= 0)
+            {
+            throw new IllegalArgumentException("Invalid weight: " + nWeight);
+            }
+        m_nWeight = nWeight;
+        }
+
+    /**
+     * @return the number of services that are scheduled, but not yet picked up by a worker
+     */
+    public int getQueueDepth()
+        {
+        return Math.max(0, f_cQueueDepth.get());
+        }
+
+    /**
+     * @return the number of service executions performed on behalf of this container
+     */
+    public long getExecutionCount()
+        {
+        return f_cExecuted.get();
+        }
+
+    /**
+     * @return the average time (in nanos) a service spent in the run queue before being executed
+     */
+    public long getAverageWaitNanos()
+        {
+        long cExecuted = f_cExecuted.get();
+        return cExecuted == 0 ? 0 : f_cWaitNanosTotal.get() / cExecuted;
+        }
+
+    /**
+     * @return the maximum time (in nanos) a service spent in the run queue before being executed
+     */
+    public long getMaxWaitNanos()
+        {
+        return f_cWaitNanosMax.get();
+        }
+
+    /**
+     * Reset the wait time statistics.
+     */
+    public void resetSchedulingMetrics()
+        {
+        f_cExecuted.set(0);
+        f_cWaitNanosTotal.set(0);
+        f_cWaitNanosMax.set(0);
+        }
+
     /**
      * Ensure a TypeSystem handle for this container.
      *
@@ -377,6 +562,51 @@ public abstract class Container
      */
     protected final AtomicLong f_pendingWorkCount = new AtomicLong();
 
+    /**
+     * The monitor used by the threads waiting for this container to become idle.
+     */
+    private final Object f_monitorIdle = new Object();
+
+    /**
+     * The number of threads waiting on the {@link #f_monitorIdle} monitor; modified only while
+     * holding it.
+     */
+    private volatile int m_cIdleWaiters;
+
+    /**
+     * The default scheduling weight.
+     */
+    private static final int DEFAULT_WEIGHT =
+            Integer.parseInt(System.getProperty("xvm.container.weight", "16"));
+
+    /**
+     * The scheduling weight; see {@link #setWeight}.
+     */
+    private volatile int m_nWeight = DEFAULT_WEIGHT;
+
+    /**
+     * The queue of services scheduled for execution.
+     */
+    private final Queue<ServiceContext> f_queueRunnable = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The number of services in the run queue (tracked separately since the size of a concurrent
+     * queue is an O(n) computation).
+     */
+    private final AtomicInteger f_cQueueDepth = new AtomicInteger();
+
+    /**
+     * The number of slices currently submitted to the runtime on behalf of this container.
+     */
+    private final AtomicInteger f_cRunners = new AtomicInteger();
+
+    /**
+     * Metrics: the number of executed services, the total and the maximum time spent in the queue.
+     */
+    private final AtomicLong f_cExecuted       = new AtomicLong();
+    private final AtomicLong f_cWaitNanosTotal = new AtomicLong();
+    private final AtomicLong f_cWaitNanosMax   = new AtomicLong();
+
     /**
      * Map of resources that are injectable to this container, keyed by their InjectionKey.
      */
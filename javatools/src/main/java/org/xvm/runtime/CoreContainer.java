@@ -1,6 +1,8 @@
 package org.xvm.runtime;
 
 
+import java.util.concurrent.CompletableFuture;
+
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -15,12 +17,15 @@ import org.xvm.asm.constants.PropertyConstant;
 import org.xvm.asm.constants.TypeConstant;
 
 import org.xvm.runtime.ObjectHandle.DeferredCallHandle;
+import org.xvm.runtime.ObjectHandle.ExceptionHandle;
 
 import org.xvm.runtime.template._native.xTerminalConsole;
 
 import org.xvm.runtime.template._native.mgmt.xContainerLinker;
 import org.xvm.runtime.template._native.mgmt.xRepository;
 
+import org.xvm.runtime.template._native.net.xOSNetwork;
+
 import org.xvm.runtime.template._native.numbers.xRTRandom;
 
 import org.xvm.runtime.template._native.reflect.xRTFunction;
@@ -59,7 +64,16 @@ public class CoreContainer
             }
         }
 
-    public void invoke0(String sMethodName, ObjectHandle... ahArg)
+    /**
+     * Invoke a module method with a void return and specified arguments.
+     *
+     * @param sMethodName  the method name
+     * @param ahArg        arguments
+     *
+     * @return a future that completes when the invocation has completed or null if the method
+     *         could not be found
+     */
+    public CompletableFuture<Void> invoke0(String sMethodName, ObjectHandle... ahArg)
         {
         try (var x = ConstantPool.withPool(m_idModule.getConstantPool()))
             {
@@ -67,7 +81,7 @@ public class CoreContainer
             if (idMethod == null)
                 {
                 System.err.println("Missing: " +  sMethodName + " method for " + m_idModule.getValueString());
-                return;
+                return null;
                 }
 
             TypeConstant     typeModule = m_idModule.getType();
@@ -75,8 +89,26 @@ public class CoreContainer
             CallChain        chain      = clzModule.getMethodCallChain(idMethod.getSignature());
             FunctionHandle   hFunction  = xRTFunction.makeHandle(chain, 0);
 
+            CompletableFuture<Void> future = new CompletableFuture<>();
+
             FunctionHandle hInstantiateModuleAndRun = new NativeFunctionHandle((frame, ah, iReturn) ->
                 {
+                // the frame is the entry frame of the "call later" request; its continuation is
+                // called regardless of whether the invocation completes normally or exceptionally
+                frame.addContinuation(_null ->
+                    {
+                    ExceptionHandle hException = frame.m_hException;
+                    if (hException == null)
+                        {
+                        future.complete(null);
+                        }
+                    else
+                        {
+                        future.completeExceptionally(hException.getException());
+                        }
+                    return Op.R_NEXT;
+                    });
+
                 ObjectHandle hModule = frame.getConstHandle(m_idModule);
 
                 return Op.isDeferred(hModule)
@@ -86,6 +118,7 @@ public class CoreContainer
                 });
 
             m_contextMain.callLater(hInstantiateModuleAndRun, Utils.OBJECTS_NONE, false);
+            return future;
             }
         catch (Exception e)
             {
@@ -152,6 +185,10 @@ public class CoreContainer
         // +++ ModuleRepository
         TypeConstant typeRepo = pool.ensureEcstasyTypeConstant("mgmt.ModuleRepository");
         f_mapResources.put(new InjectionKey("repository" , typeRepo), this::ensureModuleRepository);
+
+        // +++ Network
+        TypeConstant typeNetwork = pool.ensureEcstasyTypeConstant("net.Network");
+        f_mapResources.put(new InjectionKey("network", typeNetwork), this::ensureNetwork);
         }
 
     protected ObjectHandle ensureDefaultClock(Frame frame)
@@ -372,6 +409,21 @@ public class CoreContainer
         return hRepository;
         }
 
+    protected ObjectHandle ensureNetwork(Frame frame)
+        {
+        ObjectHandle hNetwork = m_hNetwork;
+        if (hNetwork == null)
+            {
+            xOSNetwork templateNetwork = (xOSNetwork) f_templates.getTemplate("_native.net.OSNetwork");
+            if (templateNetwork != null)
+                {
+                m_hNetwork = hNetwork = templateNetwork.makeHandle();
+                }
+            }
+
+        return hNetwork;
+        }
+
     /**
      * Helper method to get a property on the specified target.
      */
@@ -465,4 +517,5 @@ public class CoreContainer
     private ObjectHandle m_hTmpDir;
     private ObjectHandle m_hLinker;
     private ObjectHandle m_hRepository;
+    private ObjectHandle m_hNetwork;
     }
@@ -148,7 +148,7 @@ public class Fiber
             case Yielded:
                 long cNanos = System.nanoTime() - m_nanoStarted;
                 m_nanoStarted = 0;
-                f_context.m_cRuntimeNanos += cNanos;
+                f_context.f_cRuntimeNanos.add(cNanos);
                 m_frame = f_context.getCurrentFrame();
                 break;
 
@@ -189,6 +189,14 @@ public class Fiber
         return m_status != FiberStatus.Waiting || m_fResponded || isTimedOut();
         }
 
+    /**
+     * @return the timeout timestamp (in millis) or zero if the fiber has no timeout
+     */
+    long getTimeoutStamp()
+        {
+        return m_ldtTimeout;
+        }
+
     /**
      * @return true iff the fiber has timed out
      */
@@ -260,11 +268,15 @@ public class Fiber
 
     /**
      * A notification indicating that a request sent by this fiber to another service has been
-     * processed.
+     * processed. This method could be called on any thread.
      */
     public void onResponse()
         {
         m_fResponded = true;
+        if (m_fQueued)
+            {
+            f_context.f_queueSuspended.signal(this);
+            }
         }
 
     /**
@@ -494,6 +506,12 @@ public class Fiber
      */
     public volatile boolean m_fResponded;
 
+    /**
+     * Indicates that the fiber is waiting in the service's {@link FiberQueue}, so a response needs
+     * to be signaled to the queue; set and reset only by the FiberQueue.
+     */
+    volatile boolean m_fQueued;
+
     /**
      * Metrics: the timestamp (in nanos) when the fiber execution has started.
      */
@@ -1,39 +1,60 @@
 package org.xvm.runtime;
 
 
-import org.xvm.runtime.Fiber.FiberStatus;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 
 /**
  * {@link FiberQueue} represents a queue-like data structure holding all pending Fibers and
  * facilitating a quick selection algorithm for the scheduler.
+ *
+ * The frames are kept in separate queues based on the fiber status, so the selection of the next
+ * frame doesn't need to scan all the pending fibers:
+ * <ul>
+ *   <li>the "waiting" fibers are held by a map; as soon as a fiber is notified about a response
+ *       (see {@link Fiber#onResponse}), it is placed into the "ready" queue; the waiting fibers
+ *       with a timeout are additionally tracked by a heap ordered by the timeout;
+ *   <li>the "initial associated" and "yielded" fibers are held by a FIFO queue;
+ *   <li>the "initial new" fibers are held by a FIFO queue; the number of those that the
+ *       reentrancy rules currently hold back is tracked, so the readiness check doesn't need to
+ *       scan the queue either.
+ * </ul>
+ *
+ * With the exception of {@link #signal}, which could be called on any thread, all the methods
+ * can only be called on the parent ServiceContext native thread.
  */
 public class FiberQueue
     {
-    // a circular array
-    private Frame[] m_aFrame = new Frame[16];
-
-    private int m_ixHead = -1; // head
-    private int m_ixTail = 0;  // past the tail - insertion point
-    private int m_cSize = 0;
-
     public void add(Frame frame)
         {
-        ensureCapacity(++m_cSize);
+        Fiber fiber = frame.f_fiber;
+        switch (fiber.getStatus())
+            {
+            case InitialNew:
+                addNew(frame);
+                break;
 
-        int iInsert = m_ixTail;
+            case InitialAssociated:
+            case Yielded:
+                f_queueAssociated.add(frame);
+                break;
 
-        if (m_aFrame[iInsert] != null)
-            {
-            compact();
-            iInsert = m_ixTail;
-            }
-        m_aFrame[iInsert] = frame;
+            case Waiting:
+                addWaiting(frame);
+                break;
 
-        if (m_ixHead < 0)
-            {
-            m_ixHead = iInsert;
+            default:
+                throw new IllegalStateException();
             }
-        m_ixTail = (iInsert + 1) % m_aFrame.length;
+        m_cSize++;
         }
 
     public boolean isEmpty()
@@ -46,257 +67,448 @@ public class FiberQueue
         return m_cSize;
         }
 
+    /**
+     * A notification that the specified fiber could have become ready. This method could be
+     * called on any thread.
+     *
+     * @param fiber  the fiber that has received a response
+     */
+    public void signal(Fiber fiber)
+        {
+        f_queueReady.add(fiber);
+        }
+
     // get the first of the waiting fibers that is either "ready" or timed-out
     public Frame getWaitingReady()
         {
-        return getNext(2);
+        Map<Fiber, Frame> mapWaiting = f_mapWaiting;
+        Queue<Fiber>      queueReady = f_queueReady;
+
+        if (mapWaiting.isEmpty())
+            {
+            // all the entries (if any) are stale
+            queueReady.clear();
+            return null;
+            }
+
+        Fiber fiber;
+        while ((fiber = queueReady.poll()) != null)
+            {
+            // the queue is allowed to contain stale and duplicate entries; a fiber that is not
+            // ready yet is going to be signaled again
+            if (fiber.isReady())
+                {
+                Frame frame = mapWaiting.get(fiber);
+                if (frame != null)
+                    {
+                    return removeWaiting(frame);
+                    }
+                }
+            }
+
+        PriorityQueue<Timeout> heapTimeout = f_heapTimeout;
+        if (!heapTimeout.isEmpty())
+            {
+            long ldtNow = System.currentTimeMillis();
+
+            Timeout timeout;
+            while ((timeout = heapTimeout.peek()) != null && timeout.f_ldtTimeout < ldtNow)
+                {
+                heapTimeout.poll();
+
+                Frame frame = timeout.f_frame;
+                if (mapWaiting.get(frame.f_fiber) == frame)
+                    {
+                    return removeWaiting(frame);
+                    }
+                // stale entry
+                }
+            }
+        return null;
         }
 
     // get the first with a priority no less than "associated or yielded"
     public Frame getAssociatedOrYielded()
         {
-        return getNext(1);
+        Frame frame = getWaitingReady();
+        if (frame == null)
+            {
+            frame = f_queueAssociated.poll();
+            if (frame != null)
+                {
+                m_cSize--;
+                }
+            }
+        return frame;
         }
 
-    // get the first that is ready (any priority)
-    public Frame getAnyReady()
+    // check if there is any fiber that is ready (any priority)
+    public boolean isAnyReady()
         {
-        return getNext(0);
-        }
+        if (m_cSize == 0)
+            {
+            return false;
+            }
 
-    // get the first frame (any priority)
-    public Frame getAny()
-        {
-        return getNext(-1);
+        if (!f_queueAssociated.isEmpty() || !f_queueReady.isEmpty() || isAnyNewReady())
+            {
+            return true;
+            }
+
+        Timeout timeout = f_heapTimeout.peek();
+        return timeout != null && timeout.f_ldtTimeout < System.currentTimeMillis();
         }
 
-    // get the next fiber with a priority no less than the specified one
-    private Frame getNext(int nPriority)
+    // get the first that is ready (any priority)
+    public Frame getAnyReady()
         {
-        if (m_cSize == 0)
+        Frame frame = getAssociatedOrYielded();
+        if (frame != null)
             {
-            return null;
+            return frame;
             }
 
-        int cFrames = m_aFrame.length;
-        int ixHead  = m_ixHead;
-        for (int i = 0; i < cFrames; i++)
+        if (isAnyNewReady())
             {
-            int ix = (i + ixHead) % cFrames;
-
-            int iPriority = checkPriority(ix);
-            if (iPriority >= nPriority)
+            for (Iterator<Frame> iter = f_queueNew.iterator(); iter.hasNext();)
                 {
-                return remove(ix);
+                frame = iter.next();
+                if (isNewReady(frame))
+                    {
+                    iter.remove();
+                    onNewRemoved(frame);
+                    m_cSize--;
+                    return frame;
+                    }
                 }
             }
         return null;
         }
 
-    // return the priority of the fiber at the specified index and update the cache indexes:
-    // [2]  a waiting fiber that is marked as "ready"
-    // [1]  initial associated or yielded
-    // [0]  initial new
-    // [-1] not ready
-    // [-2] empty
-    private int checkPriority(int ix)
+    // get the first frame (any priority)
+    public Frame getAny()
+        {
+        Frame frame = getAnyReady();
+        if (frame == null)
+            {
+            frame = f_queueNew.poll();
+            if (frame == null)
+                {
+                Iterator<Frame> iter = f_mapWaiting.values().iterator();
+                if (!iter.hasNext())
+                    {
+                    return null;
+                    }
+                frame = removeWaiting(iter.next());
+                }
+            else
+                {
+                onNewRemoved(frame);
+                m_cSize--;
+                }
+            }
+        return frame;
+        }
+
+    /**
+     * Check whether any of the "initial new" frames is allowed to proceed (see {@link #isNewReady})
+     * without scanning the queue.
+     */
+    private boolean isAnyNewReady()
         {
-        Frame frame = m_aFrame[ix];
+        Frame frame = f_queueNew.peek();
         if (frame == null)
             {
-            return -2;
+            return false;
             }
 
-        switch (frame.f_fiber.getStatus())
+        switch (frame.f_context.m_reentrancy)
             {
             default:
-                throw new IllegalStateException();
-
-            case Waiting:
-                if (frame.f_fiber.isReady())
-                    {
-                    return 2;
-                    }
-                else
-                    {
-                    return -1;
-                    }
+            case Forbidden:
+                return m_cSize == 1;
 
-            case InitialAssociated:
-            case Yielded:
-                return 1;
+            case Exclusive:
+                return m_cWaitingManaged == 0;
 
-            case InitialNew:
-                {
-                // we can only allow it to proceed (at priority zero):
-                //  - in Exclusive mode - only if there are no waiting fibers;
-                //  - in Prioritized mode - only if there are no waiting fibers
-                //     associated with that same context
+            case Prioritized:
+                return f_queueNew.size() > m_cNewBlocked;
 
-                switch (frame.f_context.m_reentrancy)
-                    {
-                    default:
-                    case Forbidden:
-                        // no more than one fiber is allowed
-                        return m_cSize == 1 ? 0 : -1;
+            case Open:
+                return true;
+            }
+        }
 
-                    case Exclusive:
-                        return isAssociatedWaiting(null) ? -1 : 0;
+    /**
+     * Add the specified "initial new" frame.
+     */
+    private void addNew(Frame frame)
+        {
+        f_queueNew.add(frame);
 
-                    case Prioritized:
-                        {
-                        Fiber fiberCaller = frame.f_fiber.f_fiberCaller;
-                        if (fiberCaller != null)
-                            {
-                            ServiceContext ctxCaller = fiberCaller.f_context;
-                            if (isAssociatedWaiting(ctxCaller))
-                                {
-                                return -1;
-                                }
-                            }
-                        // break through
-                        }
-                    case Open:
-                        return 0;
-                    }
+        ServiceContext ctxCaller = getCallerContext(frame);
+        if (ctxCaller != null)
+            {
+            f_mapNewByCaller.merge(ctxCaller, 1, Integer::sum);
+            if (f_mapAssociatedWaiting.containsKey(ctxCaller))
+                {
+                m_cNewBlocked++;
                 }
             }
         }
 
     /**
-     * @return true iff there are any waiting frames associated with the specified context
+     * Update the counters for the "initial new" frame that has been removed from the queue.
      */
-    private boolean isAssociatedWaiting(ServiceContext context)
+    private void onNewRemoved(Frame frame)
         {
-        return getFirstAssociatedIndex(FiberStatus.Waiting, context) != -1;
+        ServiceContext ctxCaller = getCallerContext(frame);
+        if (ctxCaller != null)
+            {
+            f_mapNewByCaller.merge(ctxCaller, -1, (nOld, n) ->
+                {
+                int nNew = nOld + n;
+                return nNew == 0 ? null : nNew;
+                });
+            if (f_mapAssociatedWaiting.containsKey(ctxCaller))
+                {
+                m_cNewBlocked--;
+                }
+            }
         }
 
     /**
-     * Get the index of the first frame of the specified status associated with the specified context.
-     *
-     * NOTE: a waiting frame with a native stack frame is exempt from association rules since all
-     *       the natural execution has completed.
-     *
-     * @param status   the status to check for
-     * @param context  the service context to check association with (null for "any")
-     *
-     * @return the first matching index or -1
+     * @return the context of the caller's fiber for the specified frame or null if there is none
      */
-    private int getFirstAssociatedIndex(FiberStatus status, ServiceContext context)
+    private static ServiceContext getCallerContext(Frame frame)
         {
-        Frame[] aFrame  = m_aFrame;
-        int     cFrames = aFrame.length;
-        int     ixHead  = m_ixHead;
+        Fiber fiberCaller = frame.f_fiber.f_fiberCaller;
+        return fiberCaller == null ? null : fiberCaller.f_context;
+        }
 
-        for (int i = 0; i < cFrames; i++)
+    /**
+     * Check whether the specified "initial new" frame is allowed to proceed:
+     * <ul>
+     *   <li>in Exclusive mode - only if there are no waiting fibers;
+     *   <li>in Prioritized mode - only if there are no waiting fibers associated with the context
+     *       of the fiber's caller.
+     * </ul>
+     */
+    private boolean isNewReady(Frame frame)
+        {
+        switch (frame.f_context.m_reentrancy)
             {
-            int   ix    = (ixHead + i) % cFrames;
-            Frame frame = aFrame[ix];
+            default:
+            case Forbidden:
+                // no more than one fiber is allowed
+                return m_cSize == 1;
 
-            if (frame != null)
+            case Exclusive:
+                return m_cWaitingManaged == 0;
+
+            case Prioritized:
                 {
-                Fiber fiber = frame.f_fiber;
-                if (fiber.getStatus() == status)
+                Fiber fiberCaller = frame.f_fiber.f_fiberCaller;
+                if (fiberCaller != null && m_cWaitingManaged > 0 &&
+                        f_mapAssociatedWaiting.containsKey(fiberCaller.f_context))
                     {
-                    if (status == FiberStatus.Waiting && frame.isNativeStack())
-                        {
-                        // waiting native stack is exempt
-                        continue;
-                        }
-
-                    if (context == null)
-                        {
-                        return ix;
-                        }
-
-                    Fiber fiberCaller = fiber.f_fiberCaller;
-                    if (fiberCaller != null && fiberCaller.isAssociated(context))
-                        {
-                        return ix;
-                        }
+                    return false;
                     }
+                // break through
                 }
+            case Open:
+                return true;
             }
-        return -1;
         }
 
-    private Frame remove(int ix)
+    /**
+     * Add the specified "waiting" frame.
+     *
+     * NOTE: a waiting frame with a native stack frame is exempt from association rules since all
+     *       the natural execution has completed.
+     */
+    private void addWaiting(Frame frame)
         {
-        Frame frame = m_aFrame[ix];
-
-        assert frame != null;
+        Fiber fiber = frame.f_fiber;
 
-        m_aFrame[ix] = null;
+        f_mapWaiting.put(fiber, frame);
 
-        if (--m_cSize > 0)
+        long ldtTimeout = fiber.getTimeoutStamp();
+        if (ldtTimeout > 0)
             {
-            // move the head if necessary
-            if (ix == m_ixHead)
+            PriorityQueue<Timeout> heapTimeout = f_heapTimeout;
+            if (heapTimeout.size() > 2 * f_mapWaiting.size() + 16)
                 {
-                int cCapacity = m_aFrame.length;
-                do
+                // too many stale entries; rebuild the heap
+                heapTimeout.clear();
+                for (Frame frameWaiting : f_mapWaiting.values())
                     {
-                    ix = (ix + 1) % cCapacity;
+                    long ldt = frameWaiting.f_fiber.getTimeoutStamp();
+                    if (frameWaiting != frame && ldt > 0)
+                        {
+                        heapTimeout.add(new Timeout(frameWaiting, ldt));
+                        }
                     }
-                while (m_aFrame[ix] == null);
-
-                m_ixHead = ix;
                 }
+            heapTimeout.add(new Timeout(frame, ldtTimeout));
             }
-        else
+
+        if (!frame.isNativeStack())
             {
-            m_ixHead = -1;
-            m_ixTail = 0;
+            m_cWaitingManaged++;
+            updateAssociated(fiber, 1);
+            }
+
+        // the flag must be set before the readiness check, so a response that arrives concurrently
+        // is either seen here or signaled by the responder
+        fiber.m_fQueued = true;
+        if (fiber.isReady())
+            {
+            f_queueReady.add(fiber);
             }
-        return frame;
         }
 
-    private void ensureCapacity(int cCapacity)
+    /**
+     * Remove the specified "waiting" frame.
+     *
+     * @return the frame
+     */
+    private Frame removeWaiting(Frame frame)
         {
-        if (cCapacity > m_aFrame.length)
-            {
-            int cNewCapacity = cCapacity + (cCapacity >> 2); // 1.25
+        Fiber fiber = frame.f_fiber;
 
-            Frame[] aNew = new Frame[cNewCapacity];
+        f_mapWaiting.remove(fiber);
+        fiber.m_fQueued = false;
+        m_cSize--;
 
-            System.arraycopy(m_aFrame, 0, aNew, 0, m_aFrame.length);
-            m_aFrame = aNew;
+        if (!frame.isNativeStack())
+            {
+            m_cWaitingManaged--;
+            updateAssociated(fiber, -1);
             }
+        return frame;
         }
 
-    // move all the not-empty spaces toward the head
-    private void compact()
+    /**
+     * Update the counters of the waiting fibers associated with all the services in the caller
+     * chain of the specified fiber.
+     */
+    private void updateAssociated(Fiber fiber, int nDelta)
         {
-        Frame[] aFrame  = m_aFrame;
-        int     cFrames = m_aFrame.length;
-
-        assert aFrame[m_ixHead] != null;
+        Map<ServiceContext, Integer> map = f_mapAssociatedWaiting;
+        for (Fiber fiberCaller = fiber.f_fiberCaller; fiberCaller != null;
+                fiberCaller = fiberCaller.f_fiberCaller)
+            {
+            ServiceContext ctx  = fiberCaller.f_context;
+            Integer        cOld = map.get(ctx);
+            int            cNew = (cOld == null ? 0 : cOld) + nDelta;
 
-        int iFrom = (m_ixHead + 1) % cFrames;
-        int iTo   = iFrom;
+            if (cNew == 0)
+                {
+                map.remove(ctx);
+                }
+            else
+                {
+                map.put(ctx, cNew);
+                }
 
-        for (int i = 1, c = aFrame.length; i < c; i++)
-            {
-            Frame frame = aFrame[iFrom];
-            if (frame != null)
+            if (cOld == null || cNew == 0)
                 {
-                if (iFrom != iTo)
+                // the "initial new" frames called from this context have become blocked or
+                // unblocked (see isNewReady)
+                Integer cNewFrames = f_mapNewByCaller.get(ctx);
+                if (cNewFrames != null)
                     {
-                    assert aFrame[iTo] == null;
-                    aFrame[iTo] = frame;
-                    aFrame[iFrom] = null;
+                    m_cNewBlocked += cOld == null ? cNewFrames : -cNewFrames;
                     }
-                iTo = (iTo + 1) % cFrames;
                 }
-            iFrom = (iFrom + 1) % cFrames;
             }
-
-        assert aFrame[iTo] == null;
-        m_ixTail = iTo;
         }
 
     public String toString()
         {
         return "size=" + m_cSize;
         }
+
+
+    // ----- inner classes -------------------------------------------------------------------------
+
+    /**
+     * An entry of the timeout heap. The timeout is captured when the frame is added, since the
+     * fiber's timeout could change after the frame is resumed.
+     */
+    private static class Timeout
+            implements Comparable<Timeout>
+        {
+        Timeout(Frame frame, long ldtTimeout)
+            {
+            f_frame      = frame;
+            f_ldtTimeout = ldtTimeout;
+            }
+
+        @Override
+        public int compareTo(Timeout that)
+            {
+            return Long.compare(this.f_ldtTimeout, that.f_ldtTimeout);
+            }
+
+        final Frame f_frame;
+        final long  f_ldtTimeout;
+        }
+
+
+    // ----- data fields ---------------------------------------------------------------------------
+
+    /**
+     * The "initial new" frames.
+     */
+    private final Queue<Frame> f_queueNew = new ArrayDeque<>();
+
+    /**
+     * The "initial associated" and "yielded" frames.
+     */
+    private final Queue<Frame> f_queueAssociated = new ArrayDeque<>();
+
+    /**
+     * The "waiting" frames keyed by their fibers.
+     */
+    private final Map<Fiber, Frame> f_mapWaiting = new LinkedHashMap<>();
+
+    /**
+     * The waiting fibers that have been notified about a response. This is the only structure
+     * that could be modified by other threads.
+     */
+    private final Queue<Fiber> f_queueReady = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The "waiting" frames with a timeout ordered by the timeout (may contain stale entries).
+     */
+    private final PriorityQueue<Timeout> f_heapTimeout = new PriorityQueue<>();
+
+    /**
+     * For every service in the caller chains of the waiting (not native stack) frames, the number
+     * of such frames.
+     */
+    private final Map<ServiceContext, Integer> f_mapAssociatedWaiting = new HashMap<>();
+
+    /**
+     * For every service that has called into the "initial new" frames, the number of such frames.
+     */
+    private final Map<ServiceContext, Integer> f_mapNewByCaller = new HashMap<>();
+
+    /**
+     * The number of "initial new" frames whose caller's service is associated with a waiting
+     * frame (see {@link #isNewReady}).
+     */
+    private int m_cNewBlocked;
+
+    /**
+     * The number of waiting (not native stack) frames.
+     */
+    private int m_cWaitingManaged;
+
+    /**
+     * The total number of frames.
+     */
+    private int m_cSize;
     }
@@ -24,6 +24,7 @@ import org.xvm.asm.constants.TypeParameterConstant;
 
 import org.xvm.runtime.ObjectHandle.DeferredCallHandle;
 import org.xvm.runtime.ObjectHandle.ExceptionHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.Utils.ContinuationChain;
 
 import org.xvm.runtime.template.xBoolean;
@@ -39,6 +40,10 @@ import org.xvm.runtime.template.annotations.xFutureVar.FutureHandle;
 import org.xvm.runtime.template.collections.xTuple;
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+import org.xvm.runtime.template.numbers.xFloat64;
+import org.xvm.runtime.template.numbers.xInt64;
+
 import org.xvm.runtime.template.reflect.xRef.RefHandle;
 
 
@@ -56,7 +61,7 @@ public class Frame
     protected final ObjectHandle    f_hTarget;      // the passed in target
     protected final ObjectHandle    f_hThis;        // the "inception" view of the target
 
-    public final ObjectHandle[]     f_ahVar;        // arguments/local var registers
+    private final ObjectHandle[]    f_ahVar;        // arguments/local var registers (see getRegisterValue)
     public final VarInfo[]          f_aInfo;        // optional info for var registers
 
     protected final int             f_iReturn;      // an index for a single return value;
@@ -86,9 +91,21 @@ public class Frame
     private ObjectHandle            m_hStackTop;    // the top of the local stack
     private Deque<ObjectHandle>     m_stack;        // a remainder of the stack
 
+    private long[]                  m_alVar;        // the primitive register bank (lazy); Int64
+                                                    // values and Float64 bits
+
     public static final int VAR_STANDARD         = 0;
     public static final int VAR_DYNAMIC_REF      = 1;
 
+    /**
+     * Register values indicating that the register holds an Int64 or a Float64 value in the
+     * primitive register bank. The markers never leave this class: all the register reads by other
+     * classes go through {@link #getRegisterValue}, {@link #getRegisterValues} or
+     * {@link #getArgument}, which create the handle on demand.
+     */
+    private static final ObjectHandle UNBOXED_INT64   = new UnboxedMarker();
+    private static final ObjectHandle UNBOXED_FLOAT64 = new UnboxedMarker();
+
     /**
      * Construct a frame.
      *
@@ -1016,7 +1033,7 @@ public class Frame
             if (framePrev.isDynamicVar(iReturn))
                 {
                 // dynamic -> dynamic
-                RefHandle hVar = (RefHandle) framePrev.f_ahVar[iReturn];
+                RefHandle hVar = (RefHandle) framePrev.getRegisterValue(iReturn);
                 iResult = hVar.getVarSupport().setReferent(framePrev, hVar, hValue);
                 }
             else
@@ -1270,6 +1287,11 @@ public class Frame
         if (iArg >= 0)
             {
             ObjectHandle hValue = f_ahVar[iArg];
+            if (hValue instanceof UnboxedMarker)
+                {
+                return box(iArg);
+                }
+
             if (hValue == null)
                 {
                 // there is a possibility this method introduced a default value at the sub class
@@ -1359,7 +1381,7 @@ public class Frame
             throws ExceptionHandle.WrapperException
         {
         ObjectHandle hValue = iArg >= 0
-                ? f_ahVar[iArg]
+                ? getRegisterValue(iArg)
                 : iArg <= Op.CONSTANT_OFFSET
                         ? getConstHandle(iArg)
                         : getPredefinedArgument(iArg);
@@ -1395,6 +1417,268 @@ public class Frame
         return ahArg;
         }
 
+    /**
+     * Unlike getArgument(), this method returns the raw register value, which could be null or
+     * a RefHandle for a dynamic var.
+     *
+     * @param nVar  the register id
+     *
+     * @return the register value
+     */
+    public ObjectHandle getRegisterValue(int nVar)
+        {
+        ObjectHandle hValue = f_ahVar[nVar];
+        return hValue instanceof UnboxedMarker ? box(nVar) : hValue;
+        }
+
+    /**
+     * Unlike assignValue(), this method stores the value into the register "as is", without
+     * checking the type or dereferencing a dynamic var.
+     *
+     * @param nVar    the register id
+     * @param hValue  the register value
+     */
+    public void setRegisterValue(int nVar, ObjectHandle hValue)
+        {
+        f_ahVar[nVar] = hValue;
+        }
+
+    /**
+     * @return the raw values of all the registers (see {@link #getRegisterValue}); the returned
+     *         array is the register array itself, so any changes to it affect the frame
+     */
+    public ObjectHandle[] getRegisterValues()
+        {
+        ObjectHandle[] ahVar = f_ahVar;
+        if (m_alVar != null)
+            {
+            for (int i = 0, c = ahVar.length; i < c; i++)
+                {
+                if (ahVar[i] instanceof UnboxedMarker)
+                    {
+                    box(i);
+                    }
+                }
+            }
+        return ahVar;
+        }
+
+    /**
+     * @return the number of registers
+     */
+    public int getRegisterCount()
+        {
+        return f_ahVar.length;
+        }
+
+
+    // ----- primitive register bank ---------------------------------------------------------------
+
+    /**
+     * Check whether the specified argument holds an Int64 value, which allows an op to operate on
+     * the underlying long value directly (see {@link #getInt64} and {@link #assignInt64}).
+     *
+     * @param iArg  the argument id (a register or a constant)
+     *
+     * @return true iff the argument holds an Int64 value
+     */
+    public boolean isInt64(int iArg)
+        {
+        ObjectHandle hValue;
+        if (iArg >= 0)
+            {
+            hValue = f_ahVar[iArg];
+            if (hValue == UNBOXED_INT64)
+                {
+                return true;
+                }
+            }
+        else if (iArg <= Op.CONSTANT_OFFSET)
+            {
+            hValue = getConstHandle(iArg);
+            }
+        else
+            {
+            return false;
+            }
+
+        return hValue instanceof JavaLong &&
+               hValue.getComposition() == xInt64.INSTANCE.getCanonicalClass();
+        }
+
+    /**
+     * Retrieve the Int64 value of the specified argument; the caller must have checked the
+     * argument using {@link #isInt64}.
+     *
+     * @param iArg  the argument id (a register or a constant)
+     *
+     * @return the long value
+     */
+    public long getInt64(int iArg)
+        {
+        ObjectHandle hValue;
+        if (iArg >= 0)
+            {
+            hValue = f_ahVar[iArg];
+            if (hValue == UNBOXED_INT64)
+                {
+                return m_alVar[iArg];
+                }
+            }
+        else
+            {
+            hValue = getConstHandle(iArg);
+            }
+        return ((JavaLong) hValue).getValue();
+        }
+
+    /**
+     * Assign an Int64 value to the specified register. If the register is a standard one, the
+     * value is stored in the primitive register bank and the handle is only created if and when
+     * the register is read by a non-specialized op.
+     *
+     * @param nVar    the register id
+     * @param lValue  the value to assign
+     *
+     * @return R_NEXT, R_CALL, R_EXCEPTION
+     */
+    public int assignInt64(int nVar, long lValue)
+        {
+        return storeUnboxed(nVar, lValue, UNBOXED_INT64)
+                ? Op.R_NEXT
+                : assignValue(nVar, xInt64.makeHandle(lValue));
+        }
+
+    /**
+     * Check whether the specified argument holds a Float64 value, which allows an op to operate on
+     * the underlying double value directly (see {@link #getFloat64} and {@link #assignFloat64}).
+     *
+     * @param iArg  the argument id (a register or a constant)
+     *
+     * @return true iff the argument holds a Float64 value
+     */
+    public boolean isFloat64(int iArg)
+        {
+        ObjectHandle hValue;
+        if (iArg >= 0)
+            {
+            hValue = f_ahVar[iArg];
+            if (hValue == UNBOXED_FLOAT64)
+                {
+                return true;
+                }
+            }
+        else if (iArg <= Op.CONSTANT_OFFSET)
+            {
+            hValue = getConstHandle(iArg);
+            }
+        else
+            {
+            return false;
+            }
+
+        return hValue instanceof FloatHandle &&
+               hValue.getComposition() == xFloat64.INSTANCE.getCanonicalClass();
+        }
+
+    /**
+     * Retrieve the Float64 value of the specified argument; the caller must have checked the
+     * argument using {@link #isFloat64}.
+     *
+     * @param iArg  the argument id (a register or a constant)
+     *
+     * @return the double value
+     */
+    public double getFloat64(int iArg)
+        {
+        ObjectHandle hValue;
+        if (iArg >= 0)
+            {
+            hValue = f_ahVar[iArg];
+            if (hValue == UNBOXED_FLOAT64)
+                {
+                return Double.longBitsToDouble(m_alVar[iArg]);
+                }
+            }
+        else
+            {
+            hValue = getConstHandle(iArg);
+            }
+        return ((FloatHandle) hValue).getValue();
+        }
+
+    /**
+     * Assign a Float64 value to the specified register (see {@link #assignInt64}).
+     *
+     * @param nVar    the register id
+     * @param dValue  the value to assign
+     *
+     * @return R_NEXT, R_CALL, R_EXCEPTION
+     */
+    public int assignFloat64(int nVar, double dValue)
+        {
+        return storeUnboxed(nVar, Double.doubleToRawLongBits(dValue), UNBOXED_FLOAT64)
+                ? Op.R_NEXT
+                : assignValue(nVar, xFloat64.INSTANCE.makeHandle(dValue));
+        }
+
+    /**
+     * Store the specified bits in the primitive register bank if the register is a standard one.
+     *
+     * @return true iff the value has been stored
+     */
+    private boolean storeUnboxed(int nVar, long lBits, ObjectHandle hMarker)
+        {
+        if (nVar >= 0 && getVarInfo(nVar).getStyle() == VAR_STANDARD)
+            {
+            long[] alVar = m_alVar;
+            if (alVar == null)
+                {
+                m_alVar = alVar = new long[f_ahVar.length];
+                }
+            alVar[nVar]   = lBits;
+            f_ahVar[nVar] = hMarker;
+            return true;
+            }
+        return false;
+        }
+
+    /**
+     * Create a handle for the value held by the primitive register bank and store it in the
+     * specified register.
+     */
+    private ObjectHandle box(int nVar)
+        {
+        long lBits = m_alVar[nVar];
+        return f_ahVar[nVar] = f_ahVar[nVar] == UNBOXED_INT64
+                ? xInt64.makeHandle(lBits)
+                : xFloat64.INSTANCE.makeHandle(Double.longBitsToDouble(lBits));
+        }
+
+    /**
+     * The class of the register values that mark the registers held by the primitive register bank.
+     */
+    private static class UnboxedMarker
+            extends ObjectHandle
+        {
+        private UnboxedMarker()
+            {
+            super(null);
+            }
+
+        @Override
+        public TypeConstant getType()
+            {
+            return null;
+            }
+
+        @Override
+        public String toString()
+            {
+            return "<unboxed>";
+            }
+        }
+
     // check if the specified index points to an unused register
     public boolean isNextRegister(int nVar)
         {
@@ -1706,7 +1990,7 @@ public class Frame
                 throw new IllegalStateException();
             }
 
-        TypeConstant typeType = f_ahVar[nRegister].getType();
+        TypeConstant typeType = getRegisterValue(nRegister).getType();
 
         // type parameter's type must be of Type<DataType, OuterType>
         assert typeType.isTypeOfType() && typeType.getParamsCount() >= 1;
@@ -0,0 +1,244 @@
+package org.xvm.runtime;
+
+
+import java.io.PrintStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * An inline cache for run-time information that an op calculates based on a "key" (e.g. the
+ * TypeComposition of the call target) and which would otherwise have to be re-calculated on every
+ * execution of that op.
+ * <p>
+ * The cache starts as monomorphic (one key), grows up to {@link #MAX_POLYMORPHIC} keys, and once
+ * more keys than that are seen, it turns megamorphic and stops caching altogether, leaving it up
+ * to the (presumably cached) slow path of the op to resolve the information.
+ * <p>
+ * An op holds the cache directly, so the cache is shared by all services that execute the op.
+ * The entries are published via a single volatile reference to an immutable array; concurrent
+ * updates may lose an entry, which is harmless since a lost entry simply results in a miss.
+ * <p>
+ * If the "xvm.inlineCache.stats" system property is set, each cache counts its hits and misses;
+ * those statistics can be printed using {@link #dumpStatistics}.
+ */
+public class InlineCache<V>
+    {
+    /**
+     * Construct an InlineCache.
+     *
+     * @param site  the object describing the call site (used only for reporting)
+     */
+    public InlineCache(Object site)
+        {
+        if (COLLECT_STATS)
+            {
+            f_site = site;
+            s_queueCaches.add(this);
+            }
+        else
+            {
+            f_site = null;
+            }
+        }
+
+    /**
+     * Retrieve the value cached for the specified key.
+     *
+     * @param key  the key (compared by identity first and then by equality)
+     *
+     * @return the cached value or null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+        {
+        Object[] aEntry = m_aEntry;
+        for (int i = 0, c = aEntry.length; i < c; i += 2)
+            {
+            Object keyCached = aEntry[i];
+            if (keyCached == key || keyCached.equals(key))
+                {
+                if (COLLECT_STATS)
+                    {
+                    m_cHits++;
+                    }
+                return (V) aEntry[i + 1];
+                }
+            }
+
+        if (COLLECT_STATS)
+            {
+            m_cMisses++;
+            }
+        return null;
+        }
+
+    /**
+     * Cache the specified value for the specified key.
+     *
+     * @param key    the key
+     * @param value  the value
+     */
+    public void put(Object key, V value)
+        {
+        assert key != null && value != null;
+
+        Object[] aEntry = m_aEntry;
+        if (aEntry == MEGAMORPHIC)
+            {
+            return;
+            }
+
+        int      cOld = aEntry.length;
+        Object[] aNew;
+        for (int i = 0; i < cOld; i += 2)
+            {
+            if (aEntry[i].equals(key))
+                {
+                aNew = aEntry.clone();
+                aNew[i + 1] = value;
+                m_aEntry = aNew;
+                return;
+                }
+            }
+
+        if (cOld == 2 * MAX_POLYMORPHIC)
+            {
+            m_aEntry = MEGAMORPHIC;
+            return;
+            }
+
+        aNew = new Object[cOld + 2];
+        System.arraycopy(aEntry, 0, aNew, 0, cOld);
+        aNew[cOld]     = key;
+        aNew[cOld + 1] = value;
+        m_aEntry = aNew;
+        }
+
+    /**
+     * @return the number of cached entries
+     */
+    public int size()
+        {
+        return m_aEntry.length / 2;
+        }
+
+    /**
+     * @return true iff this cache has turned megamorphic
+     */
+    public boolean isMegamorphic()
+        {
+        return m_aEntry == MEGAMORPHIC;
+        }
+
+    /**
+     * @return the number of hits (only if statistics collection is enabled)
+     */
+    public long getHits()
+        {
+        return m_cHits;
+        }
+
+    /**
+     * @return the number of misses (only if statistics collection is enabled)
+     */
+    public long getMisses()
+        {
+        return m_cMisses;
+        }
+
+    /**
+     * Print the statistics for all inline caches that have been created, starting with the ones
+     * that have the most misses.
+     *
+     * @param out  the stream to print to
+     */
+    public static void dumpStatistics(PrintStream out)
+        {
+        if (!COLLECT_STATS)
+            {
+            return;
+            }
+
+        List<InlineCache<?>> listCaches = new ArrayList<>(s_queueCaches);
+        listCaches.sort((c1, c2) -> Long.compare(c2.m_cMisses, c1.m_cMisses));
+
+        long cHits   = 0;
+        long cMisses = 0;
+        for (InlineCache<?> cache : listCaches)
+            {
+            cHits   += cache.m_cHits;
+            cMisses += cache.m_cMisses;
+            }
+
+        out.println("Inline caches: " + listCaches.size() + "; hits=" + cHits + "; misses=" + cMisses);
+        for (InlineCache<?> cache : listCaches)
+            {
+            if (cache.m_cMisses > 0)
+                {
+                out.println("  " + cache);
+                }
+            }
+        }
+
+    @Override
+    public String toString()
+        {
+        String sState = isMegamorphic() ? "megamorphic" :
+                        size() > 1      ? "polymorphic(" + size() + ')' :
+                                          "monomorphic";
+        long   cTotal = m_cHits + m_cMisses;
+
+        return sState + " hits=" + m_cHits + " misses=" + m_cMisses
+            + (cTotal == 0 ? "" : " rate=" + (m_cHits * 100 / cTotal) + '%')
+            + (f_site == null ? "" : " at " + f_site);
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of keys a polymorphic cache holds.
+     */
+    public static final int MAX_POLYMORPHIC = 4;
+
+    /**
+     * True iff hits and misses are counted.
+     */
+    public static final boolean COLLECT_STATS = Boolean.getBoolean("xvm.inlineCache.stats");
+
+    /**
+     * The empty cache.
+     */
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * The megamorphic state indicator; it is also empty, so the "get" doesn't need to check for it.
+     */
+    private static final Object[] MEGAMORPHIC = new Object[0];
+
+    /**
+     * All created caches (only if statistics collection is enabled).
+     */
+    private static final Queue<InlineCache<?>> s_queueCaches = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The call site description (only if statistics collection is enabled).
+     */
+    private final Object f_site;
+
+    /**
+     * The cached entries: an array of [key, value] pairs.
+     */
+    private volatile Object[] m_aEntry = EMPTY;
+
+    /**
+     * The statistics; updated without synchronization, so the numbers are approximate.
+     */
+    private long m_cHits;
+    private long m_cMisses;
+    }
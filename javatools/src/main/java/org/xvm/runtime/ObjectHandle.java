@@ -2,6 +2,7 @@ package org.xvm.runtime;
 
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -295,59 +296,133 @@ public abstract class ObjectHandle
 
             m_fMutable = true;
 
-            m_mapFields = clazz.initializeStructure();
+            m_aFields = clazz.initializeStructure();
             }
 
-        public Map<Object, ObjectHandle> getFields()
+        /**
+         * @return the field values indexed by the field slot (see
+         *         {@link TypeComposition#getFieldSlot})
+         */
+        public ObjectHandle[] getFields()
             {
-            return m_mapFields == null ? Collections.EMPTY_MAP : m_mapFields;
+            return m_aFields == null ? Utils.OBJECTS_NONE : m_aFields;
+            }
+
+        /**
+         * @return the values that are not a part of the field layout keyed by the property name
+         *         or a NestedIdentity; never null
+         */
+        public Map<Object, ObjectHandle> getExtraFields()
+            {
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            return mapExtra == null ? Collections.emptyMap() : mapExtra;
             }
 
         public boolean containsField(PropertyConstant idProp)
             {
-            return m_mapFields != null && m_mapFields.containsKey(idProp.getNestedIdentity());
+            Object nid   = idProp.getNestedIdentity();
+            int    iSlot = m_aFields == null ? -1 : getComposition().getFieldSlot(nid);
+            if (iSlot >= 0)
+                {
+                // the injected and synthetic fields are only present once assigned
+                return iSlot < getComposition().getStructureFieldCount() || m_aFields[iSlot] != null;
+                }
+
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            return mapExtra != null && mapExtra.containsKey(nid);
             }
 
         public ObjectHandle getField(PropertyConstant idProp)
             {
-            return m_mapFields == null ? null : m_mapFields.get(idProp.getNestedIdentity());
+            return getFieldByNid(idProp.getNestedIdentity());
             }
 
         public ObjectHandle getField(String sProp)
             {
-            return m_mapFields == null ? null : m_mapFields.get(sProp);
+            return getFieldByNid(sProp);
+            }
+
+        /**
+         * @param iSlot  the field slot (see {@link TypeComposition#getFieldSlot})
+         *
+         * @return the field value
+         */
+        public ObjectHandle getField(int iSlot)
+            {
+            return m_aFields[iSlot];
             }
 
         public void setField(PropertyConstant idProp, ObjectHandle hValue)
             {
-            if (m_mapFields == null)
+            setFieldByNid(idProp.getNestedIdentity(), hValue);
+            }
+
+        public void setField(String sProp, ObjectHandle hValue)
+            {
+            setFieldByNid(sProp, hValue);
+            }
+
+        /**
+         * @param iSlot   the field slot (see {@link TypeComposition#getFieldSlot})
+         * @param hValue  the new field value
+         */
+        public void setField(int iSlot, ObjectHandle hValue)
+            {
+            m_aFields[iSlot] = hValue;
+            }
+
+        private ObjectHandle getFieldByNid(Object nid)
+            {
+            ObjectHandle[] ahField = m_aFields;
+            int            iSlot   = ahField == null ? -1 : getComposition().getFieldSlot(nid);
+            if (iSlot >= 0)
                 {
-                m_mapFields = new ListMap<>();
+                return ahField[iSlot];
                 }
-            m_mapFields.put(idProp.getNestedIdentity(), hValue);
+
+            Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+            return mapExtra == null ? null : mapExtra.get(nid);
             }
 
-        public void setField(String sProp, ObjectHandle hValue)
+        private void setFieldByNid(Object nid, ObjectHandle hValue)
             {
-            if (m_mapFields == null)
+            ObjectHandle[] ahField = m_aFields;
+            int            iSlot   = ahField == null ? -1 : getComposition().getFieldSlot(nid);
+            if (iSlot >= 0)
                 {
-                m_mapFields = new ListMap<>();
+                ahField[iSlot] = hValue;
+                }
+            else
+                {
+                Map<Object, ObjectHandle> mapExtra = m_mapExtra;
+                if (mapExtra == null)
+                    {
+                    m_mapExtra = mapExtra = new ListMap<>();
+                    }
+                mapExtra.put(nid, hValue);
                 }
-            m_mapFields.put(sProp, hValue);
             }
 
         public boolean containsMutableFields()
             {
-            if (m_mapFields != null)
+            if (m_aFields != null)
                 {
-                for (ObjectHandle hValue : m_mapFields.values())
+                for (ObjectHandle hValue : m_aFields)
                     {
-                    if (hValue.isMutable())
+                    if (hValue != null && hValue.isMutable())
                         {
                         return true;
                         }
                     }
                 }
+
+            for (ObjectHandle hValue : getExtraFields().values())
+                {
+                if (hValue != null && hValue.isMutable())
+                    {
+                    return true;
+                    }
+                }
             return false;
             }
 
@@ -378,13 +453,15 @@ public abstract class ObjectHandle
 
             GenericHandle hClone = (GenericHandle) super.cloneAs(clazz);
 
-            if (fUpdateOuter && m_mapFields != null)
+            if (fUpdateOuter && m_aFields != null)
                 {
-                for (Map.Entry<Object, ObjectHandle> entry : m_mapFields.entrySet())
+                ObjectHandle[] ahField = m_aFields;
+                Object[]       anid    = clazz.getFieldNids();
+                for (int i = 0, c = ahField.length; i < c; i++)
                     {
-                    if (clazz.isInflated(entry.getKey()))
+                    if (clazz.isInflated(anid[i]))
                         {
-                        RefHandle    hValue = (RefHandle) entry.getValue();
+                        RefHandle    hValue = (RefHandle) ahField[i];
                         ObjectHandle hOuter = hValue.getField(OUTER);
                         if (hOuter != null)
                             {
@@ -400,14 +477,18 @@ public abstract class ObjectHandle
         public List<String> validateFields()
             {
             List<String> listUnassigned = null;
-            if (m_mapFields != null)
+            if (m_aFields != null)
                 {
-                for (Map.Entry<Object, ObjectHandle> entry : m_mapFields.entrySet())
+                ObjectHandle[] ahField = m_aFields;
+                Object[]       anid    = getComposition().getFieldNids();
+
+                // the injected and synthetic fields are allowed to be unassigned
+                for (int i = 0, c = getComposition().getStructureFieldCount(); i < c; i++)
                     {
-                    ObjectHandle hValue = entry.getValue();
+                    ObjectHandle hValue = ahField[i];
                     if (hValue == null)
                         {
-                        Object idProp = entry.getKey();
+                        Object idProp = anid[i];
 
                         if (!getComposition().isAllowedUnassigned(idProp))
                             {
@@ -478,8 +559,28 @@ public abstract class ObjectHandle
                 return false;
                 }
 
-            Map<Object, ObjectHandle> map1 = h1.m_mapFields;
-            Map<Object, ObjectHandle> map2 = h2.m_mapFields;
+            ObjectHandle[] ahField1 = h1.m_aFields;
+            ObjectHandle[] ahField2 = h2.m_aFields;
+
+            if (ahField1 != ahField2)
+                {
+                if (ahField1 == null || ahField2 == null || ahField1.length != ahField2.length ||
+                        !Arrays.equals(h1.getComposition().getFieldNids(), h2.getComposition().getFieldNids()))
+                    {
+                    return false;
+                    }
+
+                for (int i = 0, c = ahField1.length; i < c; i++)
+                    {
+                    if (!compareFieldIdentity(ahField1[i], ahField2[i]))
+                        {
+                        return false;
+                        }
+                    }
+                }
+
+            Map<Object, ObjectHandle> map1 = h1.getExtraFields();
+            Map<Object, ObjectHandle> map2 = h2.getExtraFields();
 
             if (map1 == map2)
                 {
@@ -491,14 +592,10 @@ public abstract class ObjectHandle
                 return false;
                 }
 
-            for (Object idProp : map1.keySet())
+            for (Map.Entry<Object, ObjectHandle> entry : map1.entrySet())
                 {
-                ObjectHandle hV1 = map1.get(idProp);
-                ObjectHandle hV2 = map2.get(idProp);
-
-                // TODO: need to prevent a potential infinite loop
-                ClassTemplate template = hV1.getTemplate();
-                if (template != hV2.getTemplate() || !template.compareIdentity(hV1, hV2))
+                Object nid = entry.getKey();
+                if (!map2.containsKey(nid) || !compareFieldIdentity(entry.getValue(), map2.get(nid)))
                     {
                     return false;
                     }
@@ -507,8 +604,32 @@ public abstract class ObjectHandle
             return true;
             }
 
+        /**
+         * @return true iff the two field values are identical
+         */
+        private static boolean compareFieldIdentity(ObjectHandle hV1, ObjectHandle hV2)
+            {
+            if (hV1 == hV2)
+                {
+                return true;
+                }
+
+            if (hV1 == null || hV2 == null)
+                {
+                return false;
+                }
+
+            // TODO: need to prevent a potential infinite loop
+            ClassTemplate template = hV1.getTemplate();
+            return template == hV2.getTemplate() && template.compareIdentity(hV1, hV2);
+            }
+
+        // indexed by the field slot (see TypeComposition.getFieldSlot())
+        private ObjectHandle[] m_aFields;
+
+        // the values that are not a part of the field layout (e.g. cached by the native code);
         // keyed by the property name or a NestedIdentity
-        private Map<Object, ObjectHandle> m_mapFields;
+        private Map<Object, ObjectHandle> m_mapExtra;
 
         // not null only if this object was injected or explicitly "masked as"
         protected Container m_owner;
@@ -622,6 +743,18 @@ public abstract class ObjectHandle
         public xArray.Mutability m_mutability;
         public int m_cSize;
 
+        /**
+         * The storage index of the first element; only a slice that shares the storage of the
+         * array it was taken from can have a non-zero offset.
+         */
+        public int m_ofStart;
+
+        /**
+         * True iff the storage may be shared with another array handle (a slice or the array a
+         * slice was taken from), in which case it must be copied before it's modified.
+         */
+        public boolean m_fShared;
+
         protected ArrayHandle(TypeComposition clzArray, xArray.Mutability mutability)
             {
             super(clzArray);
@@ -631,10 +764,30 @@ public abstract class ObjectHandle
             }
 
         abstract public int getCapacity();
-        abstract public void setCapacity(int nCapacity);
         abstract public ObjectHandle getElement(int ix);
         abstract public void deleteElement(int ix);
 
+        /**
+         * Replace the storage with a new one of the specified capacity that holds a copy of the
+         * elements; the resulting storage is never shared and starts at offset zero.
+         *
+         * @param nCapacity  the new capacity (not less than the size)
+         */
+        abstract public void setCapacity(int nCapacity);
+
+        /**
+         * Make sure the storage is not shared with any other array handle and starts at offset
+         * zero, copying the elements if necessary. Must be called before any in-place modification
+         * of the storage.
+         */
+        public void ensureExclusive()
+            {
+            if (m_fShared || m_ofStart != 0)
+                {
+                setCapacity(m_cSize);
+                }
+            }
+
         @Override
         public void makeImmutable()
             {
@@ -162,11 +162,29 @@ public class PropertyComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
         return f_clzRef.initializeStructure();
         }
 
+    @Override
+    public int getFieldSlot(Object nid)
+        {
+        return f_clzRef.getFieldSlot(nid);
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return f_clzRef.getFieldNids();
+        }
+
+    @Override
+    public int getStructureFieldCount()
+        {
+        return f_clzRef.getStructureFieldCount();
+        }
+
     @Override
     public boolean isInflated(Object nid)
         {
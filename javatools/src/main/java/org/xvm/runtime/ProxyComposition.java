@@ -2,7 +2,6 @@ package org.xvm.runtime;
 
 
 import java.util.List;
-import java.util.Map;
 
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -181,11 +180,29 @@ public class ProxyComposition
         }
 
     @Override
-    public Map<Object, ObjectHandle> initializeStructure()
+    public ObjectHandle[] initializeStructure()
         {
         return null;
         }
 
+    @Override
+    public int getFieldSlot(Object nid)
+        {
+        return -1;
+        }
+
+    @Override
+    public Object[] getFieldNids()
+        {
+        return Utils.OBJECTS_NONE;
+        }
+
+    @Override
+    public int getStructureFieldCount()
+        {
+        return 0;
+        }
+
     @Override
     public String toString()
         {
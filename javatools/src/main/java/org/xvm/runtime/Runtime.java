@@ -1,62 +1,141 @@
 package org.xvm.runtime;
 
 
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import java.lang.reflect.Method;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
- * TODO:
+ * The Runtime is responsible for the worker threads that execute the services of all containers.
+ * <p>
+ * By default, each worker has its own run queue and idle workers steal work from the busy ones;
+ * the fairness among the containers is the responsibility of the {@link Container#schedule}
+ * logic, which never pushes more than a weighted quota of work per submitted task.
+ * <p>
+ * If the "xvm.virtualThreads" system property is set and the JVM supports virtual threads, each
+ * submitted task runs on its own virtual thread instead, which allows native templates to block
+ * without holding onto a platform thread.
  */
 public class Runtime
     {
-    final public ThreadPoolExecutor f_daemons;
+    final public ExecutorService f_daemons;
 
     // service id producer
     final AtomicInteger f_idProducer = new AtomicInteger();
 
-    /**
-     * The time at which the last task was submitted.
-     */
-    volatile long m_lastSubmitNanos;
-
     public Runtime()
         {
         int parallelism = Integer.parseInt(System.getProperty("xvm.parallelism", "0"));
-        if (parallelism <= 0) {
-            parallelism = java.lang.Runtime.getRuntime().availableProcessors();
+
+        ExecutorService executor = Boolean.getBoolean("xvm.virtualThreads")
+                ? createVirtualThreadExecutor()
+                : null;
+        if (executor == null)
+            {
+            if (parallelism <= 0) {
+                parallelism = java.lang.Runtime.getRuntime().availableProcessors();
+            }
+
+            String sName = "Worker";
+            ForkJoinWorkerThreadFactory factory = pool ->
+                {
+                ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setDaemon(true);
+                thread.setName(sName + "@" + thread.hashCode());
+                return thread;
+                };
+
+            // the "asyncMode" makes the per-worker queues FIFO, which is what the event-style
+            // tasks submitted by the containers need
+            executor = new ForkJoinPool(parallelism, factory, null, true);
+            f_fVirtual = false;
+            }
+        else
+            {
+            if (parallelism <= 0) {
+                parallelism = DEFAULT_VIRTUAL_PARALLELISM;
+            }
+            f_fVirtual = true;
+            }
+
+        f_daemons     = executor;
+        f_parallelism = parallelism;
         }
 
-        String sName = "Worker";
-        ThreadGroup group = new ThreadGroup(sName);
-        ThreadFactory factory = r -> {
-            Thread thread = new Thread(group, r);
-            thread.setDaemon(true);
-            thread.setName(sName + "@" + thread.hashCode());
-            return thread;
-        };
-
-        // TODO: replace with a fair scheduling based ExecutorService; and a concurrent blocking queue
-        f_daemons = new ThreadPoolExecutor(parallelism, parallelism,
-            0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+    /**
+     * @return an ExecutorService that starts a new virtual thread for each task or null if the
+     *         JVM doesn't support virtual threads (prior to Java 21)
+     */
+    private static ExecutorService createVirtualThreadExecutor()
+        {
+        try
+            {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+            }
+        catch (ReflectiveOperationException e)
+            {
+            System.err.println("Virtual threads are not supported by this JVM; " +
+                               "using the platform thread pool");
+            return null;
+            }
         }
 
     public void start()
         {
         }
 
+    /**
+     * @return true iff the services are executed on virtual threads
+     */
+    public boolean isVirtual()
+        {
+        return f_fVirtual;
+        }
+
+    /**
+     * @return the maximum number of tasks the runtime executes concurrently
+     */
+    public int getParallelism()
+        {
+        return f_parallelism;
+        }
+
     /**
      * Submit work for eventual processing by the runtime.
+     * <p>
+     * In the pool mode, if called on a worker thread, the task is placed into that worker's own
+     * run queue; otherwise it goes to a shared submission queue. In either case it could be stolen
+     * by an idle worker. In the virtual thread mode, the task gets its own virtual thread.
      *
      * @param task the task to process
      */
     void submit(Runnable task)
         {
-        f_daemons.submit(task);
-        m_lastSubmitNanos = System.nanoTime();
+        AtomicInteger cActive = f_cActiveTasks;
+        cActive.incrementAndGet();
+        f_daemons.execute(() ->
+            {
+            try
+                {
+                task.run();
+                }
+            finally
+                {
+                cActive.decrementAndGet();
+                }
+            });
         }
 
     public void shutdown()
@@ -64,10 +143,122 @@ public class Runtime
         f_daemons.shutdown();
         }
 
+    /**
+     * @return true iff there are no submitted tasks that are either pending or running
+     */
     public boolean isIdle()
         {
-        // TODO: very naive; replace
-        return m_lastSubmitNanos < System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10)
-            && f_daemons.getActiveCount() == 0;
+        return f_cActiveTasks.get() == 0;
+        }
+
+
+    // ----- blocking support ----------------------------------------------------------------------
+
+    /**
+     * Perform a potentially blocking native operation (e.g. file or console I/O).
+     * <p>
+     * On a pool worker, the pool is informed about the blocking call, so it can activate a spare
+     * thread to process other services in the meantime. On any other thread, including a virtual
+     * one (which simply unmounts from its carrier while blocked), the operation is called directly.
+     *
+     * @param operation  the blocking operation
+     *
+     * @return the result of the operation
+     */
+    public static <T> T block(BlockingOperation<T> operation)
+            throws IOException
+        {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread))
+            {
+            return operation.perform();
+            }
+
+        Blocker<T> blocker = new Blocker<>(operation);
+        try
+            {
+            ForkJoinPool.managedBlock(blocker);
+            }
+        catch (InterruptedException e)
+            {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+            }
+
+        if (blocker.m_exception != null)
+            {
+            throw blocker.m_exception;
+            }
+        return blocker.m_result;
+        }
+
+    /**
+     * A native operation that may block the calling thread.
+     */
+    @FunctionalInterface
+    public interface BlockingOperation<T>
+        {
+        T perform()
+                throws IOException;
         }
+
+    /**
+     * ManagedBlocker adapter for a BlockingOperation.
+     */
+    private static class Blocker<T>
+            implements ManagedBlocker
+        {
+        Blocker(BlockingOperation<T> operation)
+            {
+            f_operation = operation;
+            }
+
+        @Override
+        public boolean block()
+            {
+            try
+                {
+                m_result = f_operation.perform();
+                }
+            catch (IOException e)
+                {
+                m_exception = e;
+                }
+            m_fDone = true;
+            return true;
+            }
+
+        @Override
+        public boolean isReleasable()
+            {
+            return m_fDone;
+            }
+
+        private final BlockingOperation<T> f_operation;
+        private T           m_result;
+        private IOException m_exception;
+        private boolean     m_fDone;
+        }
+
+
+    // ----- data fields ---------------------------------------------------------------------------
+
+    /**
+     * The default maximum number of concurrently executing tasks in the virtual thread mode.
+     */
+    private static final int DEFAULT_VIRTUAL_PARALLELISM = 256;
+
+    /**
+     * True iff the services are executed on virtual threads.
+     */
+    private final boolean f_fVirtual;
+
+    /**
+     * The maximum number of concurrently executing tasks.
+     */
+    private final int f_parallelism;
+
+    /**
+     * The number of running or pending tasks.
+     */
+    private final AtomicInteger f_cActiveTasks = new AtomicInteger();
     }
@@ -0,0 +1,329 @@
+package org.xvm.runtime;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.util.Properties;
+
+import java.util.zip.CRC32;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component;
+import org.xvm.asm.Constants;
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.ModuleRepository;
+import org.xvm.asm.ModuleStructure;
+
+
+/**
+ * The runtime image is a single file that holds the "root" container used by the
+ * {@link TemplateRegistry}: the "system" (Ecstasy) module with the "native" module already merged
+ * into it and sharing the same constant pool.
+ * <p/>
+ * Without an image, every run needs to load both modules and then clone and merge them into a new
+ * FileStructure, which is a significant part of the runtime start-up. With an image, the container
+ * is simply read (lazily) from a memory-mapped file.
+ * <p/>
+ * The image has to be re-created any time the "system" or "native" module changes. To detect that,
+ * a fingerprint file (see {@link #getFingerprintFile}) stored next to the image records the size
+ * and checksum of the module files the image was created from; {@link #isCurrent} compares those
+ * to the module files that the repository would load the modules from.
+ */
+public class RuntimeImage
+    {
+    /**
+     * Open the specified runtime image file.
+     *
+     * @param file  the image file
+     *
+     * @throws IOException  if the file cannot be read or is not a runtime image
+     */
+    public RuntimeImage(File file)
+            throws IOException
+        {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+            // the mapping stays valid after the channel is closed
+            f_buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        f_file = file;
+
+        // a missing fingerprint means that the image cannot be validated
+        File fileFingerprint = getFingerprintFile(file);
+        if (fileFingerprint.isFile())
+            {
+            try (InputStream in = new FileInputStream(fileFingerprint))
+                {
+                f_propSources.load(in);
+                }
+            catch (IllegalArgumentException e)
+                {
+                f_propSources.clear();
+                }
+            }
+
+        FileStructure containerRoot = read();
+        if (!isModule(containerRoot, Constants.ECSTASY_MODULE) ||
+            !isModule(containerRoot, TemplateRegistry.NATIVE_MODULE))
+            {
+            throw new IOException("not a runtime image: " + file);
+            }
+        m_containerRoot = containerRoot;
+        }
+
+    /**
+     * Create a runtime image file for the "system" and "native" modules from the specified
+     * repository.
+     *
+     * @param repository  the repository to load the modules from
+     * @param file        the image file to write
+     *
+     * @throws IOException  if an IOException occurs while writing the image
+     */
+    public static void create(ModuleRepository repository, File file)
+            throws IOException
+        {
+        Properties propSources = new Properties();
+        for (String sModule : SOURCE_MODULES)
+            {
+            File fileModule = repository.getModuleFile(sModule);
+            if (fileModule == null)
+                {
+                throw new IOException("unable to locate the module file for \"" + sModule + '"');
+                }
+            propSources.setProperty(sModule, computeFingerprint(fileModule));
+            }
+
+        // write to a temporary file first, so that a process that has the previous image mapped
+        // into memory is not affected
+        File fileTemp = new File(file.getPath() + ".tmp");
+        TemplateRegistry.createSystemStructure(repository).writeTo(fileTemp);
+        Files.move(fileTemp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        try (OutputStream out = new FileOutputStream(getFingerprintFile(file)))
+            {
+            propSources.store(out, "Ecstasy runtime image sources; do not edit");
+            }
+        }
+
+    /**
+     * @return the fingerprint file for the specified runtime image file
+     */
+    public static File getFingerprintFile(File file)
+        {
+        return new File(file.getPath() + ".fingerprint");
+        }
+
+    /**
+     * Check if the "system" and "native" modules that the specified repository would load are the
+     * same ones that this image was created from.
+     *
+     * @param repository  the repository to load the modules from
+     *
+     * @return true iff none of the module files have changed since the image was created
+     */
+    public boolean isCurrent(ModuleRepository repository)
+        {
+        for (String sModule : SOURCE_MODULES)
+            {
+            String sFingerprint = f_propSources.getProperty(sModule);
+            File   fileModule   = repository.getModuleFile(sModule);
+            if (sFingerprint == null || fileModule == null)
+                {
+                return false;
+                }
+
+            try
+                {
+                if (!sFingerprint.equals(computeFingerprint(fileModule)))
+                    {
+                    return false;
+                    }
+                }
+            catch (IOException e)
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    /**
+     * Obtain a new "root" container from this image. Since the modules are deserialized lazily,
+     * this is much cheaper than {@link TemplateRegistry#createSystemStructure creating} the
+     * container or cloning an existing one.
+     *
+     * @return a new FileStructure that contains both the "system" and "native" modules
+     */
+    public synchronized FileStructure createStructure()
+        {
+        FileStructure containerRoot = m_containerRoot;
+        if (containerRoot != null)
+            {
+            // the container that was read for validation has not been used yet
+            m_containerRoot = null;
+            return containerRoot;
+            }
+
+        try
+            {
+            return read();
+            }
+        catch (IOException e)
+            {
+            throw new IllegalStateException("Failed to read runtime image: " + f_file, e);
+            }
+        }
+
+    /**
+     * Read the content of the image.
+     */
+    private FileStructure read()
+            throws IOException
+        {
+        FileStructure containerRoot =
+                new FileStructure(new BufferInputStream(f_buffer.duplicate()), true, true);
+
+        // the NakedRef type is not persistent (see FileStructure.merge)
+        Component moduleNative = containerRoot.getChild(TemplateRegistry.NATIVE_MODULE);
+        if (moduleNative != null)
+            {
+            Component clzNakedRef = moduleNative.getChild("NakedRef");
+            if (clzNakedRef instanceof ClassStructure)
+                {
+                containerRoot.getConstantPool().setNakedRefType(
+                        ((ClassStructure) clzNakedRef).getFormalType());
+                }
+            }
+        return containerRoot;
+        }
+
+    /**
+     * @return the size and the checksum of the specified module file
+     */
+    private static String computeFingerprint(File fileModule)
+            throws IOException
+        {
+        byte[] ab  = Files.readAllBytes(fileModule.toPath());
+        CRC32  crc = new CRC32();
+        crc.update(ab);
+        return ab.length + ":" + Long.toHexString(crc.getValue());
+        }
+
+    /**
+     * @return true iff the container holds the specified module (not just its fingerprint)
+     */
+    private static boolean isModule(FileStructure containerRoot, String sModule)
+        {
+        Component child = containerRoot.getChild(sModule);
+        return child instanceof ModuleStructure && !((ModuleStructure) child).isFingerprint();
+        }
+
+    @Override
+    public String toString()
+        {
+        return "RuntimeImage{" + f_file + '}';
+        }
+
+
+    // ----- inner class: BufferInputStream --------------------------------------------------------
+
+    /**
+     * An InputStream over a ByteBuffer.
+     */
+    private static class BufferInputStream
+            extends InputStream
+        {
+        BufferInputStream(ByteBuffer buffer)
+            {
+            f_buffer = buffer;
+            }
+
+        @Override
+        public int read()
+            {
+            ByteBuffer buffer = f_buffer;
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+        @Override
+        public int read(byte[] ab, int of, int cb)
+            {
+            ByteBuffer buffer = f_buffer;
+            if (cb == 0)
+                {
+                return 0;
+                }
+
+            int cbRemain = buffer.remaining();
+            if (cbRemain == 0)
+                {
+                return -1;
+                }
+
+            cb = Math.min(cb, cbRemain);
+            buffer.get(ab, of, cb);
+            return cb;
+            }
+
+        @Override
+        public long skip(long cb)
+            {
+            ByteBuffer buffer = f_buffer;
+            int        cbSkip = (int) Math.max(0, Math.min(cb, buffer.remaining()));
+            buffer.position(buffer.position() + cbSkip);
+            return cbSkip;
+            }
+
+        @Override
+        public int available()
+            {
+            return f_buffer.remaining();
+            }
+
+        private final ByteBuffer f_buffer;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The modules that the image is created from.
+     */
+    private static final String[] SOURCE_MODULES =
+            {Constants.ECSTASY_MODULE, TemplateRegistry.NATIVE_MODULE};
+
+    /**
+     * The image file.
+     */
+    private final File f_file;
+
+    /**
+     * The memory-mapped content of the image file.
+     */
+    private final MappedByteBuffer f_buffer;
+
+    /**
+     * The fingerprints of the module files that the image was created from keyed by module name.
+     */
+    private final Properties f_propSources = new Properties();
+
+    /**
+     * The container that has been read, but not yet handed out.
+     */
+    private FileStructure m_containerRoot;
+    }
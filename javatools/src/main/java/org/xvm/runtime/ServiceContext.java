@@ -4,10 +4,7 @@ package org.xvm.runtime;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 
-import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
@@ -15,7 +12,10 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentSkipListSet;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.LinkerContext;
@@ -134,36 +134,6 @@ public class ServiceContext
         }
 
 
-    // ----- Op support ----------------------------------------------------------------------------
-
-    /**
-     * Retrieve an Op specific info.
-     *
-     * @param op       the op
-     * @param category the category of the cached info (op specific)
-     *
-     * @return the op info for the specified category
-     */
-    public Object getOpInfo(Op op, Enum category)
-        {
-        EnumMap mapByCategory = m_mapOpInfo.get(op);
-        return mapByCategory == null ? null : mapByCategory.get(category);
-        }
-
-    /**
-     * Store an Op specific info.
-     *
-     * @param op       the op
-     * @param category the category of the cached info (op specific)
-     * @param info     the info
-     */
-    public void setOpInfo(Op op, Enum category, Object info)
-        {
-        m_mapOpInfo.computeIfAbsent(op, (op_) -> new EnumMap(category.getClass()))
-                   .put(category, info);
-        }
-
-
     // ----- scheduling  ---------------------------------------------------------------------------
 
     /**
@@ -185,8 +155,12 @@ public class ServiceContext
                 {
                 try (var x = ConstantPool.withPool(frame.poolContext()))
                     {
+                    long ldtStart = System.nanoTime();
+
                     frame = execute(frame);
 
+                    recordSlice(System.nanoTime() - ldtStart);
+
                     if (frame != null)
                         {
                         suspendFiber(frame);
@@ -247,10 +221,19 @@ public class ServiceContext
      */
     public void execute()
         {
-        if (drainWork())
+        boolean fDone = drainWork();
+
+        if (!f_queueBlocked.isEmpty() &&
+                (getBacklogDepth() < m_cBacklogCapacity || getStatus() == ServiceStatus.Terminated))
+            {
+            releaseBlockedCallers();
+            }
+
+        if (fDone)
             {
             if (getStatus() == ServiceStatus.Terminated)
                 {
+                releaseNotifications();
                 f_container.terminate(this);
                 }
             else
@@ -299,6 +282,7 @@ public class ServiceContext
     public boolean addRequest(Message msg)
         {
         f_queueMsg.add(msg);
+        f_cMsgPending.incrementAndGet();
         ensureScheduled();
         return isOverwhelmed();
         }
@@ -308,7 +292,131 @@ public class ServiceContext
      */
     public boolean isOverwhelmed()
         {
-        return f_queueMsg.size() + f_queueSuspended.size() > QUEUE_THRESHOLD;
+        return getBacklogDepth() > m_cBacklogCapacity;
+        }
+
+    /**
+     * @return the number of requests that are waiting to be processed or are being processed by
+     *         this service
+     */
+    public int getBacklogDepth()
+        {
+        return f_cMsgPending.get() + f_queueSuspended.size();
+        }
+
+    /**
+     * @param frameCaller  the caller's frame
+     *
+     * @return true iff a new request from the specified frame should not be accepted right away
+     *         according to the service's overload policy
+     */
+    protected boolean isAtCapacity(Frame frameCaller)
+        {
+        // a service cannot wait for its own backlog to drain
+        return getBacklogDepth() >= m_cBacklogCapacity &&
+               (m_overloadPolicy != OverloadPolicy.Block || frameCaller.f_context != this);
+        }
+
+    /**
+     * Deal with a request to this service that is {@link #isAtCapacity at capacity}. Under the
+     * "Block" policy the caller waits until the backlog drops below the capacity and then makes
+     * another attempt to send the request. Under the "Shed" policy a request with an ignored
+     * result is silently dropped; otherwise the caller gets an "Overloaded" exception.
+     *
+     * @param frameCaller  the caller's frame
+     * @param fIgnored     true iff the caller ignores the result of the request
+     * @param retry        the continuation that re-sends the request
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int rejectRequest(Frame frameCaller, boolean fIgnored, Frame.Continuation retry)
+        {
+        if (m_overloadPolicy == OverloadPolicy.Block)
+            {
+            CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
+
+            frameCaller.f_fiber.registerRequest(future);
+            f_queueBlocked.add(new Response<>(frameCaller.f_fiber, xTuple.H_VOID, null, future));
+
+            // the backlog could have drained (or the service terminated) before the caller got
+            // registered, in which case nobody else would release it
+            if (getBacklogDepth() < m_cBacklogCapacity || getStatus() == ServiceStatus.Terminated)
+                {
+                releaseBlockedCallers();
+                }
+
+            Frame frameWait = Utils.createWaitFrame(frameCaller, future, Op.A_IGNORE);
+            frameWait.addContinuation(retry);
+            return frameCaller.call(frameWait);
+            }
+
+        f_cRejected.incrementAndGet();
+
+        return fIgnored && m_overloadPolicy == OverloadPolicy.Shed
+                ? Op.R_NEXT
+                : frameCaller.raiseException(xException.serviceOverloaded(frameCaller, f_sName));
+        }
+
+    /**
+     * Let all the callers that are waiting for this service's backlog to drain make another
+     * attempt to send their requests. This method could be called on any thread.
+     */
+    protected void releaseBlockedCallers()
+        {
+        Queue<Response<ObjectHandle>> qBlocked = f_queueBlocked;
+        Response<ObjectHandle> response;
+        while ((response = qBlocked.poll()) != null)
+            {
+            response.f_fiberCaller.f_context.respond(response);
+            }
+        }
+
+    /**
+     * Configure the request backlog for this service.
+     *
+     * @param cCapacity  the number of outstanding requests at which the service is considered
+     *                   to be overloaded
+     * @param policy     the policy for the requests that arrive when the service is overloaded
+     */
+    public void configureBacklog(int cCapacity, OverloadPolicy policy)
+        {
+        m_cBacklogCapacity = Math.max(1, cCapacity);
+        m_overloadPolicy   = policy;
+
+        releaseBlockedCallers();
+        }
+
+    /**
+     * @return the number of outstanding requests at which the service is considered to be
+     *         overloaded
+     */
+    public int getBacklogCapacity()
+        {
+        return m_cBacklogCapacity;
+        }
+
+    /**
+     * @return the policy for the requests that arrive when the service is overloaded
+     */
+    public OverloadPolicy getOverloadPolicy()
+        {
+        return m_overloadPolicy;
+        }
+
+    /**
+     * @return the largest backlog depth this service has seen
+     */
+    public int getBacklogHighWaterMark()
+        {
+        return f_cBacklogHighWater.get();
+        }
+
+    /**
+     * @return the number of requests to this service that were shed or rejected
+     */
+    public long getRejectedCount()
+        {
+        return f_cRejected.get();
         }
 
     /**
@@ -348,9 +456,22 @@ public class ServiceContext
         // pickup all the messages, but keep them in the "initial" state
         Queue<Message> qMsg = f_queueMsg;
         Message message;
+        int     cMsgs = 0;
         while ((message = qMsg.poll()) != null)
             {
             f_queueSuspended.add(message.createFrame(this));
+            cMsgs++;
+            }
+
+        if (cMsgs > 0)
+            {
+            f_cMsgPending.addAndGet(-cMsgs);
+
+            int cDepth = f_queueSuspended.size();
+            if (cDepth > f_cBacklogHighWater.get())
+                {
+                f_cBacklogHighWater.accumulateAndGet(cDepth, Math::max);
+                }
             }
 
         // allow initial timeouts to be processed always, since they won't run any natural code
@@ -394,6 +515,74 @@ public class ServiceContext
             }
         }
 
+    /**
+     * Adjust the execution quantum after the current fiber has used it up. The quantum grows if
+     * no other fiber or message is waiting to be processed by this service, and shrinks if the
+     * request backlog builds up. Either way, the fiber is paused, so the other services scheduled
+     * by the container get their turn.
+     */
+    private void adjustQuantum()
+        {
+        f_cYields.increment();
+
+        long cQuantum = m_cQuantumNanos;
+        if (getBacklogDepth() > QUANTUM_BACKLOG)
+            {
+            m_cQuantumNanos = Math.max(MIN_QUANTUM_NANOS, cQuantum >> 1);
+            }
+        else if (f_queueMsg.isEmpty() && f_queueResponse.isEmpty() && !f_queueSuspended.isAnyReady())
+            {
+            m_cQuantumNanos = Math.min(MAX_QUANTUM_NANOS, cQuantum << 1);
+            }
+        }
+
+    /**
+     * Record the metrics for an execution slice.
+     *
+     * @param cNanos  the duration of the slice
+     */
+    private void recordSlice(long cNanos)
+        {
+        // bucket [0] is for slices under 16 microseconds; each next bucket doubles the range
+        int iBucket = 64 - Long.numberOfLeadingZeros(cNanos >>> 14);
+        f_acQuanta.incrementAndGet(Math.min(iBucket, f_acQuanta.length() - 1));
+        }
+
+    /**
+     * @return the current execution quantum (in nanos)
+     */
+    public long getQuantumNanos()
+        {
+        return m_cQuantumNanos;
+        }
+
+    /**
+     * @return the number of times a fiber of this service was paused because it has used up its
+     *         execution quantum
+     */
+    public long getYieldCount()
+        {
+        return f_cYields.sum();
+        }
+
+    /**
+     * Obtain the histogram of the execution slice durations: the element [0] holds the number of
+     * slices shorter than 16 microseconds, and every next element holds the number of slices up to
+     * twice as long as the previous one; the last element counts all the longer slices.
+     *
+     * @return a copy of the slice duration histogram
+     */
+    public long[] getQuantumHistogram()
+        {
+        AtomicLongArray acQuanta = f_acQuanta;
+        long[]          alQuanta = new long[acQuanta.length()];
+        for (int i = 0, c = alQuanta.length; i < c; i++)
+            {
+            alQuanta[i] = acQuanta.get(i);
+            }
+        return alQuanta;
+        }
+
     /**
      * Suspend the fiber that the specified frame belongs to.
      *
@@ -471,8 +660,9 @@ public class ServiceContext
                 throw new IllegalStateException();
             }
 
-        Op[] aOp = frame.f_aOp;
-        int  nOps = 0;
+        Op[] aOp           = frame.f_aOp;
+        int  nOps          = 0;
+        long ldtQuantumEnd = System.nanoTime() + m_cQuantumNanos;
 
     nextOp:
         while (true)
@@ -481,8 +671,9 @@ public class ServiceContext
                 {
                 frame.m_iPC = iPC;
 
-                if (++nOps > 100)
+                if ((++nOps & QUANTUM_CHECK_MASK) == 0 && System.nanoTime() - ldtQuantumEnd >= 0)
                     {
+                    adjustQuantum();
                     fiber.setStatus(FiberStatus.Paused);
                     return frame;
                     }
@@ -745,6 +936,7 @@ public class ServiceContext
             while ((message = qMsg.poll()) != null)
                 {
                 qFiber.add(message.createFrame(this));
+                f_cMsgPending.decrementAndGet();
                 }
 
             Set<Fiber> setFibers = f_setFibers;
@@ -855,6 +1047,9 @@ public class ServiceContext
             m_atomicNotifications = counter = new AtomicLong();
             }
         counter.getAndIncrement();
+
+        // a pending notification keeps the container alive
+        f_container.addPendingWork();
         }
 
     /**
@@ -865,7 +1060,28 @@ public class ServiceContext
         {
         AtomicLong counter = m_atomicNotifications;
         assert counter != null;
-        counter.getAndDecrement();
+
+        // the notifications of a terminated service have already been released
+        if (counter.getAndUpdate(c -> c > 0 ? c - 1 : c) > 0)
+            {
+            f_container.removePendingWork();
+            }
+        }
+
+    /**
+     * Release all the notifications registered by this service; called when the service is
+     * terminated, since nothing can be delivered to it anymore.
+     */
+    protected void releaseNotifications()
+        {
+        AtomicLong counter = m_atomicNotifications;
+        if (counter != null)
+            {
+            for (long c = counter.getAndSet(0); c > 0; c--)
+                {
+                f_container.removePendingWork();
+                }
+            }
         }
 
 
@@ -874,8 +1090,9 @@ public class ServiceContext
     /**
      * Send and asynchronous "call later" message to this context.
      *
-     * Unlike any of the "send*" methods below, there is no "originating" fiber in this case and the
-     * future registration is done by the request itself.
+     * Unlike any of the "send*" methods below, there is no "originating" fiber in this case and
+     * nobody to deliver the result to, so no future is needed; an exception (unless silenced) is
+     * reported by the request itself.
      */
     public int callLater(FunctionHandle hFunction, ObjectHandle[] ahArg, boolean fSilent)
         {
@@ -884,19 +1101,8 @@ public class ServiceContext
             return Op.R_EXCEPTION;
             }
 
-        CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
-
         // TODO: should we reject (throw) if the service overwhelmed?
-        addRequest(new CallLaterRequest(hFunction, ahArg, future));
-
-        future.whenComplete((r, x) ->
-            {
-            if (x != null && !fSilent)
-                {
-                callUnhandledExceptionHandler(
-                    ((ExceptionHandle.WrapperException) x).getExceptionHandle());
-                }
-            });
+        addRequest(new CallLaterRequest(hFunction, ahArg, fSilent));
         return Op.R_NEXT;
         }
 
@@ -933,6 +1139,12 @@ public class ServiceContext
             return frameCaller.raiseException(xException.serviceTerminated(frameCaller, f_sName));
             }
 
+        if (isAtCapacity(frameCaller))
+            {
+            return rejectRequest(frameCaller, !fTuple && iReturn == Op.A_IGNORE, frame ->
+                sendInvoke1Request(frame, hFunction, hTarget, ahArg, fTuple, iReturn));
+            }
+
         CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
 
         int cReturns = fTuple                 ? -1
@@ -975,6 +1187,12 @@ public class ServiceContext
             return frameCaller.raiseException(xException.serviceTerminated(frameCaller, f_sName));
             }
 
+        if (isAtCapacity(frameCaller))
+            {
+            return rejectRequest(frameCaller, aiReturn.length == 0, frame ->
+                sendInvokeNRequest(frame, hFunction, hTarget, ahArg, aiReturn));
+            }
+
         CompletableFuture<ObjectHandle[]> future   = new CompletableFuture<>();
         int                               cReturns = aiReturn.length;
 
@@ -1015,6 +1233,12 @@ public class ServiceContext
             return frameCaller.raiseException(xException.serviceTerminated(frameCaller, f_sName));
             }
 
+        if (isAtCapacity(frameCaller))
+            {
+            return rejectRequest(frameCaller, false, frame ->
+                sendProperty01Request(frame, idProp, iReturn, op));
+            }
+
         CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
 
         addRequest(new PropertyOpRequest(frameCaller, idProp, null, 1, future, op));
@@ -1037,6 +1261,12 @@ public class ServiceContext
             return frameCaller.raiseException(xException.serviceTerminated(frameCaller, f_sName));
             }
 
+        if (isAtCapacity(frameCaller))
+            {
+            return rejectRequest(frameCaller, true, frame ->
+                sendProperty10Request(frame, idProp, hValue, op));
+            }
+
         CompletableFuture<ObjectHandle> future = new CompletableFuture<>();
 
         boolean fOverwhelmed = addRequest(new PropertyOpRequest(frameCaller, idProp, hValue, 0, future, op));
@@ -1111,7 +1341,7 @@ public class ServiceContext
 
             case  1:
                 {
-                ObjectHandle    hReturn    = frame.f_ahVar[0];
+                ObjectHandle    hReturn    = frame.getRegisterValue(0);
                 ExceptionHandle hException = frame.m_hException;
 
                 if (hException == null && hReturn.isMutable() && !hReturn.isService())
@@ -1129,7 +1359,7 @@ public class ServiceContext
 
             case -1: // tuple return
                 {
-                ObjectHandle[]  ahReturn   = frame.f_ahVar;
+                ObjectHandle[]  ahReturn   = frame.getRegisterValues();
                 ExceptionHandle hException = frame.m_hException;
                 TupleHandle     hTuple     = null;
                 if (hException == null)
@@ -1169,7 +1399,7 @@ public class ServiceContext
             default:
                 {
                 assert cReturns > 1;
-                ObjectHandle[]  ahReturn   = frame.f_ahVar;
+                ObjectHandle[]  ahReturn   = frame.getRegisterValues();
                 ExceptionHandle hException = frame.m_hException;
                 if (hException == null)
                     {
@@ -1302,18 +1532,17 @@ public class ServiceContext
     public static class CallLaterRequest
             extends Message
         {
-        private final FunctionHandle                  f_hFunction;
-        private final ObjectHandle[]                  f_ahArg;
-        private final CompletableFuture<ObjectHandle> f_future;
+        private final FunctionHandle f_hFunction;
+        private final ObjectHandle[] f_ahArg;
+        private final boolean        f_fSilent;
 
-        public CallLaterRequest(FunctionHandle hFunction, ObjectHandle[] ahArg,
-                                CompletableFuture<ObjectHandle> future)
+        public CallLaterRequest(FunctionHandle hFunction, ObjectHandle[] ahArg, boolean fSilent)
             {
             super(null);
 
             f_hFunction = hFunction;
             f_ahArg     = ahArg;
-            f_future    = future;
+            f_fSilent   = fSilent;
             }
 
         @Override
@@ -1335,20 +1564,13 @@ public class ServiceContext
             Frame frame0 = context.createServiceEntryFrame(this, 0,
                     new Op[] {opCall, Return_0.INSTANCE});
 
-            // since there was no originating fiber, we need to register the request on-the-spot
-            frame0.f_fiber.registerRequest(f_future);
-
             frame0.addContinuation(_null ->
                 {
                 // "callLater" has returned
                 ExceptionHandle hException = frame0.m_hException;
-                if (hException == null)
+                if (hException != null && !f_fSilent)
                     {
-                    f_future.complete(xTuple.H_VOID);
-                    }
-                else
-                    {
-                    f_future.completeExceptionally(hException.getException());
+                    context.callUnhandledExceptionHandler(hException);
                     }
                 return Op.R_NEXT;
                 });
@@ -1527,7 +1749,7 @@ public class ServiceContext
 
                         // don't return a FutureHandle, but wait till it's done
                         return f_idProp.isFutureVar() && iResult == Op.R_NEXT
-                            ? ((FutureHandle) frame.f_ahVar[0]).waitAndAssign(frame, 0)
+                            ? ((FutureHandle) frame.getRegisterValue(0)).waitAndAssign(frame, 0)
                             : iResult;
                         }
 
@@ -1640,10 +1862,27 @@ public class ServiceContext
     public final TemplateRegistry f_templates;
 
     /**
-     * The queue size threshold at which the caller should pushed back.
+     * The default queue size threshold at which the caller should pushed back.
      */
     public final static int QUEUE_THRESHOLD = 256;
 
+    /**
+     * The execution quantum bounds (in nanos) and the initial quantum.
+     */
+    public final static long MIN_QUANTUM_NANOS     = 50_000L;
+    public final static long MAX_QUANTUM_NANOS     = 2_000_000L;
+    public final static long INITIAL_QUANTUM_NANOS = 250_000L;
+
+    /**
+     * The request backlog size at which the execution quantum starts shrinking.
+     */
+    public final static int QUANTUM_BACKLOG = 8;
+
+    /**
+     * The quantum expiration is checked every (QUANTUM_CHECK_MASK + 1) ops.
+     */
+    private final static int QUANTUM_CHECK_MASK = 0x3F;
+
     /**
      * The container's ConstantPool.
      */
@@ -1680,9 +1919,30 @@ public class ServiceContext
     private ObjectHandle m_hTimeout;
 
     /**
-     * Metrics: the total time (in nanos) this service has been running.
+     * Metrics: the total time (in nanos) this service has been running; updated by the fibers on
+     * the service thread and read by other threads.
      */
-    protected long m_cRuntimeNanos;
+    protected final LongAdder f_cRuntimeNanos = new LongAdder();
+
+    /**
+     * Metrics: the time (in nanos) this service was last placed into the container's run queue.
+     */
+    long m_nScheduledNanos;
+
+    /**
+     * The execution quantum (in nanos); adjusted by {@link #adjustQuantum}.
+     */
+    private long m_cQuantumNanos = INITIAL_QUANTUM_NANOS;
+
+    /**
+     * Metrics: the number of times a fiber was paused due to the expiration of the quantum.
+     */
+    private final LongAdder f_cYields = new LongAdder();
+
+    /**
+     * Metrics: the histogram of the execution slice durations (see {@link #getQuantumHistogram}).
+     */
+    private final AtomicLongArray f_acQuanta = new AtomicLongArray(12);
 
     /**
      * Support for Clock adn Timer: the count of pending timer events.
@@ -1712,7 +1972,12 @@ public class ServiceContext
     /**
      * The queue of suspended fibers.
      */
-    private final FiberQueue f_queueSuspended = new FiberQueue();
+    final FiberQueue f_queueSuspended = new FiberQueue();
+
+    /**
+     * The number of messages in the {@link #f_queueMsg}.
+     */
+    private final AtomicInteger f_cMsgPending = new AtomicInteger();
 
     /**
      * The reentrancy policy. Must be the same names as in natural Service.Reentrancy.
@@ -1720,6 +1985,33 @@ public class ServiceContext
     public enum Reentrancy {Open, Prioritized, Exclusive, Forbidden}
     public Reentrancy m_reentrancy = Reentrancy.Prioritized;
 
+    /**
+     * The overload policy. Must be the same names as in natural Service.OverloadPolicy.
+     */
+    public enum OverloadPolicy {Block, Shed, FailFast}
+    private volatile OverloadPolicy m_overloadPolicy = OverloadPolicy.Block;
+
+    /**
+     * The number of outstanding requests at which the service is considered to be overloaded.
+     */
+    private volatile int m_cBacklogCapacity = QUEUE_THRESHOLD;
+
+    /**
+     * Metrics: the largest backlog depth seen by this service.
+     */
+    private final AtomicInteger f_cBacklogHighWater = new AtomicInteger();
+
+    /**
+     * Metrics: the number of requests that were shed or rejected due to the service's overload.
+     */
+    private final AtomicLong f_cRejected = new AtomicLong();
+
+    /**
+     * The responses that release the callers waiting for the backlog of this service to drain
+     * under the "Block" overload policy.
+     */
+    private final Queue<Response<ObjectHandle>> f_queueBlocked = new ConcurrentLinkedQueue<>();
+
     /**
      * The context scheduling "lock", atomic operations are performed via {@link #SCHEDULING_LOCK_HANDLE}.
      * <p>
@@ -1763,10 +2055,4 @@ public class ServiceContext
             throw new IllegalStateException(e);
             }
         }
-
-    /**
-     * A "service-local" cache for run-time information that needs to be calculated by various ops.
-     * Since only one fiber can access the service context at any time, a simple HashMap is used.
-     */
-    private Map<Op, EnumMap> m_mapOpInfo = new HashMap<>();
     }
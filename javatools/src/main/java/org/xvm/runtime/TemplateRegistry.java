@@ -39,6 +39,8 @@ import org.xvm.runtime.template._native.reflect.xRTClass;
 import org.xvm.runtime.template._native.reflect.xRTFunction;
 import org.xvm.runtime.template._native.reflect.xRTType;
 
+import org.xvm.runtime.template.collections.xHashMap;
+
 import org.xvm.runtime.template.reflect.xModule;
 import org.xvm.runtime.template.reflect.xPackage;
 
@@ -57,13 +59,26 @@ public class TemplateRegistry
 
     public void loadNativeTemplates()
         {
-        ModuleStructure moduleRoot   = f_repository.loadModule(Constants.ECSTASY_MODULE);
-        ModuleStructure moduleNative = f_repository.loadModule(NATIVE_MODULE);
+        loadNativeTemplates(createSystemStructure(f_repository));
+        }
 
-        // "root" is a merge of "native" module into the "system"
-        FileStructure containerRoot = new FileStructure(moduleRoot);
-        containerRoot.merge(moduleNative);
+    /**
+     * Load the native templates using the "root" container from the specified runtime image.
+     *
+     * @param image  the runtime image
+     */
+    public void loadNativeTemplates(RuntimeImage image)
+        {
+        loadNativeTemplates(image.createStructure());
+        }
 
+    /**
+     * Load the native templates using the specified "root" container.
+     *
+     * @param containerRoot  the FileStructure that contains both the "system" and "native" modules
+     */
+    protected void loadNativeTemplates(FileStructure containerRoot)
+        {
         // obtain the cloned modules that belong to the merged container
         m_moduleSystem = (ModuleStructure) containerRoot.getChild(Constants.ECSTASY_MODULE);
         m_moduleNative = (ModuleStructure) containerRoot.getChild(NATIVE_MODULE);
@@ -152,6 +167,28 @@ public class TemplateRegistry
         ConstantPool.setCurrentPool(null);
         }
 
+    /**
+     * Create the "root" container, which is a merge of the "native" module into the "system".
+     *
+     * @param repository  the repository to load the "system" and "native" modules from
+     *
+     * @return a new FileStructure that contains both the "system" and "native" modules
+     */
+    public static FileStructure createSystemStructure(ModuleRepository repository)
+        {
+        ModuleStructure moduleRoot   = repository.loadModule(Constants.ECSTASY_MODULE);
+        ModuleStructure moduleNative = repository.loadModule(NATIVE_MODULE);
+        if (moduleRoot == null || moduleNative == null)
+            {
+            throw new IllegalStateException("Unable to load module \""
+                    + (moduleRoot == null ? Constants.ECSTASY_MODULE : NATIVE_MODULE) + '"');
+            }
+
+        FileStructure containerRoot = new FileStructure(moduleRoot);
+        containerRoot.merge(moduleNative);
+        return containerRoot;
+        }
+
     private void scanNativeJarDirectory(String sJarFile, String sPackage, Map<String, Class> mapTemplateClasses)
         {
         JarFile jf;
@@ -366,6 +403,13 @@ public class TemplateRegistry
                     break;
 
                 case CLASS:
+                    template = structClass.isVirtualChild()
+                        ? new Child(this, structClass, false)
+                        : structClass.extendsClass(xHashMap.INSTANCE.getClassConstant())
+                            ? new xHashMap(this, structClass, false)
+                            : new xObject(this, structClass, false);
+                    break;
+
                 case INTERFACE:
                     template = structClass.isVirtualChild()
                         ? new Child(this, structClass, false)
@@ -2,7 +2,6 @@ package org.xvm.runtime;
 
 
 import java.util.List;
-import java.util.Map;
 
 import org.xvm.asm.Constants.Access;
 import org.xvm.asm.MethodStructure;
@@ -99,9 +98,31 @@ public interface TypeComposition
      * Create entries for all fields. Non-inflated fields will have null values; inflated
      * will contain non-initialized RefHandle objects.
      *
-     * @return a map containing object fields
+     * @return an array containing object fields indexed by the field slot or null if there are
+     *         no fields
      */
-    Map<Object, ObjectHandle> initializeStructure();
+    ObjectHandle[] initializeStructure();
+
+    /**
+     * Obtain the slot that holds the value of the specified field in the array created by
+     * {@link #initializeStructure()}.
+     *
+     * @param nid  the property nid (String | NestedIdentity)
+     *
+     * @return the field slot or -1 if there is no such field
+     */
+    int getFieldSlot(Object nid);
+
+    /**
+     * @return an array of field nids indexed by the field slot
+     */
+    Object[] getFieldNids();
+
+    /**
+     * @return the number of fields that are a part of the structure; the slots past that number
+     *         hold the injected and synthetic fields, which are only present once assigned
+     */
+    int getStructureFieldCount();
 
     /**
      * Check whether or not the property referred by the specified nid has a custom code or
@@ -203,7 +203,8 @@ public abstract class Utils
         }
 
     /**
-     * Log a given message for a given frame to System.out.
+     * Log a given message for a given frame to System.out; without a frame, the message is
+     * attributed to the current service or, on a thread that runs no service, to the thread.
      */
     public static void log(Frame frame, String sMsg)
         {
@@ -227,8 +228,12 @@ public abstract class Utils
             lFiberId = frame.f_fiber.getId();
             }
 
+        String sSource = ctx == null
+                ? "Thread \"" + Thread.currentThread().getName() + '"'
+                : ctx + ", fiber " + lFiberId;
+
         System.out.println(new Timestamp(System.currentTimeMillis())
-            + " " + ctx + ", fiber " + lFiberId + ": " + sMsg);
+            + " " + sSource + ": " + sMsg);
         }
 
 
@@ -845,7 +850,7 @@ public abstract class Utils
             {
             public int process(Frame frame, int iPC)
                 {
-                int cValues = frame.f_ahVar.length;
+                int cValues = frame.getRegisterCount();
 
                 assert cValues > 0;
 
@@ -854,7 +859,7 @@ public abstract class Utils
                     assert frame.f_aiReturn == null;
 
                     boolean      fNoReentrancy = frame.f_iReturn == Op.A_BLOCK;
-                    FutureHandle hFuture       = (FutureHandle) frame.f_ahVar[0];
+                    FutureHandle hFuture       = (FutureHandle) frame.getRegisterValue(0);
 
                     return hFuture.isAssigned()
                         ? frame.returnValue(hFuture, true)
@@ -868,7 +873,7 @@ public abstract class Utils
                 FutureHandle[] ahFuture = new FutureHandle[cValues];
                 for (int i = 0; i < cValues; i++)
                     {
-                    FutureHandle hFuture = (FutureHandle) frame.f_ahVar[i];
+                    FutureHandle hFuture = (FutureHandle) frame.getRegisterValue(i);
                     if (hFuture.isAssigned())
                         {
                         ahFuture[i] = hFuture;
@@ -61,7 +61,7 @@ public class InterfaceProxy
         }
 
     @Override
-    protected int makeImmutable(Frame frame, ObjectHandle hTarget)
+    public int makeImmutable(Frame frame, ObjectHandle hTarget)
         {
         return frame.raiseException(xException.unsupportedOperation(frame, "makeImmutable"));
         }
@@ -117,7 +117,7 @@ public class Mixin
                     case 1: // call the the annotation constructor(s)
                         {
                         AnnotatedTypeConstant typeAnno   = (AnnotatedTypeConstant) typeNext;
-                        Mixin                 mixin      = (Mixin) f_templates.getTemplate(typeAnno.getAnnotationClass());
+                        ClassTemplate         mixin      = f_templates.getTemplate(typeAnno.getAnnotationClass());
                         Annotation            anno       = typeAnno.getAnnotation();
                         Constant[]            aconstArgs = anno.getParams();
 
@@ -1,10 +1,22 @@
 package org.xvm.runtime.template._native.fs;
 
 
-import java.io.FileOutputStream;
 import java.io.IOException;
 
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.HashSet;
+import java.util.Set;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.Constants;
@@ -15,9 +27,16 @@ import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ArrayHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Runtime;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.Utils;
 
+import org.xvm.runtime.template.xEnum;
+import org.xvm.runtime.template.xEnum.EnumHandle;
+import org.xvm.runtime.template.xException;
+
 import org.xvm.runtime.template.collections.xArray;
 import org.xvm.runtime.template.collections.xByteArray;
 
@@ -49,6 +68,9 @@ public class xOSFile
 
         markNativeProperty("contents");
 
+        markNativeMethod("open"     , null, null);
+        markNativeMethod("openInput", INT , null);
+
         getCanonicalType().invalidateTypeInfo();
 
         ClassTemplate    templateFile = f_templates.getTemplate("fs.File");
@@ -56,6 +78,9 @@ public class xOSFile
 
         s_clzOSFileStruct = clzOSFile.ensureAccess(Constants.Access.STRUCT);
         s_constructorFile = getStructure().findConstructor();
+
+        s_templateReadOption  = (xEnum) f_templates.getTemplate("fs.File.ReadOption");
+        s_templateWriteOption = (xEnum) f_templates.getTemplate("fs.File.WriteOption");
         }
 
     @Override
@@ -70,7 +95,7 @@ public class xOSFile
 
                 try
                     {
-                    byte[] ab = Handy.readFileBytes(path.toFile());
+                    byte[] ab = Runtime.block(() -> Handy.readFileBytes(path.toFile()));
                     return frame.assignValue(iReturn, xByteArray.makeHandle(ab, xArray.Mutability.Constant));
                     }
                 catch (IOException e)
@@ -93,9 +118,9 @@ public class xOSFile
             case "contents":
                 try
                     {
-                    Path             path = hNode.f_path;
-                    FileOutputStream out  = new FileOutputStream(path.toFile());
-                    out.write(((xByteArray.ByteArrayHandle) hValue).m_abValue);
+                    Path   path = hNode.f_path;
+                    byte[] ab   = ((xByteArray.ByteArrayHandle) hValue).getBytes();
+                    Runtime.block(() -> Files.write(path, ab));
                     }
                 catch (IOException e)
                     {
@@ -106,6 +131,230 @@ public class xOSFile
         return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
         }
 
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        NodeHandle hNode = (NodeHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "open": // (ReadOption read=Read, WriteOption[] write = [Write])
+                return openChannel(frame, hNode, ahArg[0], ahArg[1], iReturn);
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        NodeHandle hNode = (NodeHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "openInput": // (Int bufferSize = 8192)
+                {
+                long cbBuf = hArg == ObjectHandle.DEFAULT
+                        ? DEFAULT_BUFFER_SIZE
+                        : ((JavaLong) hArg).getValue();
+                if (cbBuf <= 0 || cbBuf > MAX_BUFFER_SIZE)
+                    {
+                    return frame.raiseException(xException.illegalArgument(frame,
+                            "Illegal buffer size: " + cbBuf));
+                    }
+
+                Path        path = hNode.f_path;
+                FileChannel channel;
+                try
+                    {
+                    channel = Runtime.block(() -> FileChannel.open(path, StandardOpenOption.READ));
+                    }
+                catch (NoSuchFileException e)
+                    {
+                    return frame.raiseException(xException.fileNotFoundException(frame, e.getMessage(), hNode));
+                    }
+                catch (SecurityException | AccessDeniedException e)
+                    {
+                    return frame.raiseException(xException.accessDeniedException(frame, e.getMessage(), hNode));
+                    }
+                catch (IOException e)
+                    {
+                    return raisePathException(frame, e, hNode);
+                    }
+
+                return xOSFileInputStream.INSTANCE.createHandle(frame, channel, (int) cbBuf, iReturn);
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    /**
+     * Open a channel for the specified file.
+     *
+     * @param frame    the current frame
+     * @param hNode    the file node
+     * @param hRead    the ReadOption handle (or DEFAULT)
+     * @param hWrite   the WriteOption array handle (or DEFAULT)
+     * @param iReturn  the register id to place the channel handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    protected int openChannel(Frame frame, NodeHandle hNode, ObjectHandle hRead,
+                              ObjectHandle hWrite, int iReturn)
+        {
+        Set<OpenOption> setOpts    = new HashSet<>();
+        boolean         fReadable  = true;
+        boolean         fWritable  = false;
+        boolean         fSyncAll   = false;
+        boolean         fExclusive = false;
+
+        if (hRead != ObjectHandle.DEFAULT)
+            {
+            switch (s_templateReadOption.getNameByOrdinal(((EnumHandle) hRead).getOrdinal()))
+                {
+                case "NoRead":
+                    fReadable = false;
+                    break;
+
+                case "Exclusive":
+                    fExclusive = true;
+                    break;
+                }
+            }
+
+        if (hWrite == ObjectHandle.DEFAULT)
+            {
+            fWritable = true;
+            }
+        else
+            {
+            ArrayHandle haWrite = (ArrayHandle) hWrite;
+            for (int i = 0, c = haWrite.m_cSize; i < c; i++)
+                {
+                EnumHandle hOption = (EnumHandle) haWrite.getElement(i);
+                switch (s_templateWriteOption.getNameByOrdinal(hOption.getOrdinal()))
+                    {
+                    case "NoWrite":
+                        continue;
+
+                    case "Ensure":
+                        setOpts.add(StandardOpenOption.CREATE);
+                        break;
+
+                    case "Create":
+                        setOpts.add(StandardOpenOption.CREATE_NEW);
+                        break;
+
+                    case "Sparse":
+                        setOpts.add(StandardOpenOption.CREATE_NEW);
+                        setOpts.add(StandardOpenOption.SPARSE);
+                        break;
+
+                    case "Temp":
+                        setOpts.add(StandardOpenOption.CREATE_NEW);
+                        setOpts.add(StandardOpenOption.DELETE_ON_CLOSE);
+                        break;
+
+                    case "Truncate":
+                        setOpts.add(StandardOpenOption.TRUNCATE_EXISTING);
+                        break;
+
+                    case "Append":
+                        setOpts.add(StandardOpenOption.APPEND);
+                        break;
+
+                    case "Exclusive":
+                        fExclusive = true;
+                        break;
+
+                    case "SyncData":
+                        setOpts.add(StandardOpenOption.DSYNC);
+                        break;
+
+                    case "SyncAll":
+                        setOpts.add(StandardOpenOption.SYNC);
+                        fSyncAll = true;
+                        break;
+                    }
+                fWritable = true;
+                }
+            }
+
+        if (fReadable)
+            {
+            setOpts.add(StandardOpenOption.READ);
+            }
+        if (fWritable)
+            {
+            setOpts.add(StandardOpenOption.WRITE);
+            }
+        if (!fReadable && !fWritable)
+            {
+            return frame.raiseException(xException.illegalArgument(frame,
+                    "Neither read nor write access is requested"));
+            }
+
+        Path        path = hNode.f_path;
+        FileChannel channel;
+        try
+            {
+            channel = Runtime.block(() -> FileChannel.open(path, setOpts));
+            }
+        catch (NoSuchFileException e)
+            {
+            return frame.raiseException(xException.fileNotFoundException(frame, e.getMessage(), hNode));
+            }
+        catch (FileAlreadyExistsException e)
+            {
+            return frame.raiseException(xException.fileAlreadyExistsException(frame, e.getMessage(), hNode));
+            }
+        catch (SecurityException | AccessDeniedException e)
+            {
+            return frame.raiseException(xException.accessDeniedException(frame, e.getMessage(), hNode));
+            }
+        catch (IllegalArgumentException | UnsupportedOperationException e)
+            {
+            return frame.raiseException(xException.illegalArgument(frame, e.getMessage()));
+            }
+        catch (IOException e)
+            {
+            return raisePathException(frame, e, hNode);
+            }
+
+        if (fExclusive)
+            {
+            // a shared lock keeps others from writing; an exclusive one from reading as well
+            FileLock lock;
+            try
+                {
+                lock = channel.tryLock(0, Long.MAX_VALUE, !fWritable);
+                }
+            catch (IOException | OverlappingFileLockException e)
+                {
+                lock = null;
+                }
+
+            if (lock == null)
+                {
+                try
+                    {
+                    channel.close();
+                    }
+                catch (IOException ignore)
+                    {
+                    }
+
+                return frame.raiseException(xException.accessDeniedException(frame,
+                        "The file is locked: " + path, hNode));
+                }
+            }
+
+        return xOSFileChannel.INSTANCE.createHandle(frame, channel, fReadable, fWritable, fSyncAll, iReturn);
+        }
+
     /**
      * Construct a new {@link NodeHandle} representing the specified file.
      *
@@ -130,6 +379,14 @@ public class xOSFile
 
     // ----- constants -----------------------------------------------------------------------------
 
+    /**
+     * The default and the largest buffer size for {@code openInput()}.
+     */
+    private static final long DEFAULT_BUFFER_SIZE = 8192;
+    private static final long MAX_BUFFER_SIZE     = 1L << 26;
+
     private static ClassComposition s_clzOSFileStruct;
     private static MethodStructure  s_constructorFile;
+    private static xEnum            s_templateReadOption;
+    private static xEnum            s_templateWriteOption;
     }
@@ -0,0 +1,516 @@
+package org.xvm.runtime.template._native.fs;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constants;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Runtime;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native OSFileChannel implementation.
+ */
+public class xOSFileChannel
+        extends ClassTemplate
+    {
+    public static xOSFileChannel INSTANCE;
+
+    public xOSFileChannel(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("readable");
+        markNativeProperty("writable");
+        markNativeProperty("size");
+        markNativeProperty("position");
+
+        markNativeMethod("flush"     , VOID, VOID);
+        markNativeMethod("close"     , VOID, VOID);
+        markNativeMethod("readBytes" , null, null);
+        markNativeMethod("writeBytes", null, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+
+        ClassTemplate    templateChannel = f_templates.getTemplate("fs.FileChannel");
+        ClassComposition clzChannel      = ensureClass(templateChannel.getCanonicalType());
+
+        s_clzChannelStruct   = clzChannel.ensureAccess(Constants.Access.STRUCT);
+        s_constructorChannel = getStructure().findConstructor();
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        switch (sPropName)
+            {
+            case "readable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(hChannel.f_fReadable));
+
+            case "writable":
+                return frame.assignValue(iReturn, xBoolean.makeHandle(hChannel.f_fWritable));
+
+            case "size":
+                try
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.f_channel.size()));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+            case "position":
+                try
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(hChannel.f_channel.position()));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeSet(Frame frame, ObjectHandle hTarget, String sPropName, ObjectHandle hValue)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        long          lValue   = ((JavaLong) hValue).getValue();
+
+        if (lValue < 0)
+            {
+            return frame.raiseException(xException.illegalArgument(frame,
+                    "Negative " + sPropName + ": " + lValue));
+            }
+
+        switch (sPropName)
+            {
+            case "size":
+                try
+                    {
+                    Runtime.block(() ->
+                        {
+                        hChannel.resize(lValue);
+                        return null;
+                        });
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+            case "position":
+                try
+                    {
+                    hChannel.f_channel.position(lValue);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        switch (method.getName())
+            {
+            case "flush":
+                try
+                    {
+                    Runtime.block(() ->
+                        {
+                        hChannel.flush();
+                        return null;
+                        });
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+            case "close":
+                try
+                    {
+                    hChannel.close();
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+            case "writeBytes": // (Int position, Byte[] bytes, Int count)
+                {
+                if (!hChannel.f_fWritable)
+                    {
+                    return frame.raiseException(xException.ioException(frame, "Not writable"));
+                    }
+
+                long            lPos   = ((JavaLong) ahArg[0]).getValue();
+                ByteArrayHandle hBytes = (ByteArrayHandle) ahArg[1];
+                int             cb     = (int) ((JavaLong) ahArg[2]).getValue();
+
+                if (cb < 0 || cb > hBytes.m_cSize)
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, cb, hBytes.m_cSize));
+                    }
+
+                try
+                    {
+                    Runtime.block(() ->
+                        {
+                        hChannel.write(lPos, hBytes.m_abValue, hBytes.m_ofStart, cb);
+                        return null;
+                        });
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        ChannelHandle hChannel = (ChannelHandle) hTarget;
+        switch (method.getName())
+            {
+            case "readBytes": // conditional Int (Int position, Byte[] bytes, Int count)
+                {
+                if (!hChannel.f_fReadable)
+                    {
+                    return frame.raiseException(xException.ioException(frame, "Not readable"));
+                    }
+
+                long            lPos   = ((JavaLong) ahArg[0]).getValue();
+                ByteArrayHandle hBytes = (ByteArrayHandle) ahArg[1];
+                int             cb     = (int) ((JavaLong) ahArg[2]).getValue();
+
+                if (hBytes.m_mutability.compareTo(xArray.Mutability.Fixed) < 0)
+                    {
+                    return frame.raiseException(xException.immutableObject(frame));
+                    }
+
+                if (cb < 0 || cb > hBytes.m_cSize)
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, cb, hBytes.m_cSize));
+                    }
+
+                // the bytes are read directly into the array's storage
+                hBytes.ensureExclusive();
+                try
+                    {
+                    int cbRead = Runtime.block(() -> hChannel.read(lPos, hBytes.m_abValue, cb));
+                    return cbRead < 0
+                            ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                            : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(cbRead));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+    /**
+     * Construct a new {@link ChannelHandle} for the specified Java channel.
+     *
+     * @param frame      the current frame
+     * @param channel    the underlying channel
+     * @param fReadable  true iff the channel has been opened for reading
+     * @param fWritable  true iff the channel has been opened for writing
+     * @param fSyncAll   true iff a flush should also write the file's meta-data
+     * @param iReturn    the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, FileChannel channel, boolean fReadable, boolean fWritable,
+                            boolean fSyncAll, int iReturn)
+        {
+        ClassComposition clzStruct   = s_clzChannelStruct;
+        MethodStructure  constructor = s_constructorChannel;
+
+        ChannelHandle  hStruct = new ChannelHandle(clzStruct, channel, fReadable, fWritable, fSyncAll);
+        ObjectHandle[] ahVar   = Utils.ensureSize(Utils.OBJECTS_NONE, constructor.getMaxVars());
+
+        return proceedConstruction(frame, constructor, true, hStruct, ahVar, iReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    protected int raiseIOException(Frame frame, IOException e)
+        {
+        return frame.raiseException(xException.ioException(frame, String.valueOf(e.getMessage())));
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle for an open file channel.
+     *
+     * Reads from a file that is at least {@link #MAP_THRESHOLD} bytes long go through read-only
+     * memory-mapped windows of up to {@link #MAP_WINDOW} bytes, which turns a sequence of small
+     * reads into memory copies rather than system calls; the regions are released by the garbage
+     * collector once they are no longer referenced. All other reads and all writes go through the
+     * channel itself.
+     */
+    public static class ChannelHandle
+            extends GenericHandle
+        {
+        protected final FileChannel f_channel;
+        protected final boolean     f_fReadable;
+        protected final boolean     f_fWritable;
+        protected final boolean     f_fSyncAll;
+
+        private MappedByteBuffer m_bufMapped;   // the current memory-mapped window (or null)
+        private long             m_lMapStart;   // the file offset of the mapped window
+
+        protected ChannelHandle(TypeComposition clazz, FileChannel channel,
+                                boolean fReadable, boolean fWritable, boolean fSyncAll)
+            {
+            super(clazz);
+
+            f_channel   = channel;
+            f_fReadable = fReadable;
+            f_fWritable = fWritable;
+            f_fSyncAll  = fSyncAll;
+            }
+
+        /**
+         * Read up to the specified number of bytes into the beginning of the specified array.
+         *
+         * @param lPos  the file position to read at, or a negative value to read at the channel's
+         *              position and advance it
+         * @param ab    the array to read into
+         * @param cMax  the maximum number of bytes to read
+         *
+         * @return the number of bytes read or -1 if the position is at the end of the file
+         */
+        protected int read(long lPos, byte[] ab, int cMax)
+                throws IOException
+            {
+            if (cMax == 0)
+                {
+                return 0;
+                }
+
+            FileChannel channel  = f_channel;
+            boolean     fCurrent = lPos < 0;
+            long        lSize    = channel.size();
+
+            if (fCurrent)
+                {
+                lPos = channel.position();
+                }
+
+            if (lPos >= lSize)
+                {
+                return -1;
+                }
+
+            int cb = (int) Math.min(cMax, lSize - lPos);
+            if (lSize >= MAP_THRESHOLD)
+                {
+                for (int of = 0; of < cb; )
+                    {
+                    long             lOffset = lPos + of;
+                    MappedByteBuffer buf     = ensureMapped(lOffset, lSize);
+                    int              ofMap   = (int) (lOffset - m_lMapStart);
+                    int              cCopy   = Math.min(cb - of, buf.limit() - ofMap);
+
+                    // the window is private to this handle, so it can be positioned in place
+                    buf.position(ofMap);
+                    buf.get(ab, of, cCopy);
+                    of += cCopy;
+                    }
+                }
+            else
+                {
+                ByteBuffer buf = ByteBuffer.wrap(ab, 0, cb);
+                while (buf.hasRemaining())
+                    {
+                    int cbRead = fCurrent
+                            ? channel.read(buf)
+                            : channel.read(buf, lPos + buf.position());
+                    if (cbRead < 0)
+                        {
+                        break;
+                        }
+                    }
+
+                if (buf.position() == 0)
+                    {
+                    return -1;
+                    }
+                cb = buf.position();
+                }
+
+            if (fCurrent)
+                {
+                channel.position(lPos + cb);
+                }
+            return cb;
+            }
+
+        /**
+         * Write the specified range of the array.
+         *
+         * @param lPos  the file position to write at, or a negative value to write at the channel's
+         *              position and advance it
+         * @param ab    the array to write from
+         * @param of    the offset of the first byte to write
+         * @param cb    the number of bytes to write
+         */
+        protected void write(long lPos, byte[] ab, int of, int cb)
+                throws IOException
+            {
+            FileChannel channel = f_channel;
+            ByteBuffer  buf     = ByteBuffer.wrap(ab, of, cb);
+            while (buf.hasRemaining())
+                {
+                if (lPos < 0)
+                    {
+                    channel.write(buf);
+                    }
+                else
+                    {
+                    channel.write(buf, lPos + buf.position() - of);
+                    }
+                }
+            }
+
+        /**
+         * Truncate or extend the file to the specified size.
+         */
+        protected void resize(long lSize)
+                throws IOException
+            {
+            FileChannel channel = f_channel;
+            long        lOld    = channel.size();
+            if (lSize < lOld)
+                {
+                m_bufMapped = null;
+                channel.truncate(lSize);
+                }
+            else if (lSize > lOld)
+                {
+                channel.write(ByteBuffer.wrap(EXTEND), lSize - 1);
+                }
+            }
+
+        /**
+         * Ensure all the changes are written to the storage medium.
+         */
+        protected void flush()
+                throws IOException
+            {
+            f_channel.force(f_fSyncAll);
+            }
+
+        /**
+         * Close the channel; closing an already closed channel has no effect.
+         */
+        protected void close()
+                throws IOException
+            {
+            m_bufMapped = null;
+            f_channel.close();
+            }
+
+        /**
+         * @return the memory-mapped window that contains the specified file offset
+         */
+        private MappedByteBuffer ensureMapped(long lOffset, long lSize)
+                throws IOException
+            {
+            MappedByteBuffer buf    = m_bufMapped;
+            long             lStart = m_lMapStart;
+            if (buf == null || lOffset < lStart || lOffset >= lStart + buf.limit())
+                {
+                lStart = lOffset & ~(MAP_WINDOW - 1);
+                buf    = f_channel.map(FileChannel.MapMode.READ_ONLY, lStart,
+                                       Math.min(MAP_WINDOW, lSize - lStart));
+
+                m_bufMapped = buf;
+                m_lMapStart = lStart;
+                }
+            return buf;
+            }
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The smallest file that is read through memory-mapped windows.
+     */
+    private static final long MAP_THRESHOLD = 1L << 24;
+
+    /**
+     * The size (and the alignment) of a memory-mapped window.
+     */
+    private static final long MAP_WINDOW = 1L << 26;
+
+    private static final byte[] EXTEND = new byte[1];
+
+    private static ClassComposition s_clzChannelStruct;
+    private static MethodStructure  s_constructorChannel;
+    }
@@ -0,0 +1,381 @@
+package org.xvm.runtime.template._native.fs;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.FileChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constants;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Runtime;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xByteArray;
+
+import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xUInt8;
+
+
+/**
+ * Native OSFileInputStream implementation.
+ */
+public class xOSFileInputStream
+        extends ClassTemplate
+    {
+    public static xOSFileInputStream INSTANCE;
+
+    public xOSFileInputStream(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("offset");
+        markNativeProperty("size");
+
+        markNativeMethod("readByte" , VOID, null);
+        markNativeMethod("readBytes", INT , null);
+        markNativeMethod("close"    , VOID, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+
+        ClassTemplate    templateStream = f_templates.getTemplate("io.InputStream");
+        ClassComposition clzStream      = ensureClass(templateStream.getCanonicalType());
+
+        s_clzStreamStruct   = clzStream.ensureAccess(Constants.Access.STRUCT);
+        s_constructorStream = getStructure().findConstructor();
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        StreamHandle hStream = (StreamHandle) hTarget;
+        switch (sPropName)
+            {
+            case "offset":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hStream.f_buffer.getOffset()));
+
+            case "size":
+                try
+                    {
+                    return frame.assignValue(iReturn, xInt64.makeHandle(hStream.f_channel.size()));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeSet(Frame frame, ObjectHandle hTarget, String sPropName, ObjectHandle hValue)
+        {
+        StreamHandle hStream = (StreamHandle) hTarget;
+        switch (sPropName)
+            {
+            case "offset":
+                {
+                long lOffset = ((JavaLong) hValue).getValue();
+                if (lOffset < 0)
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, lOffset, 0));
+                    }
+
+                hStream.f_buffer.setOffset(lOffset);
+                return Op.R_NEXT;
+                }
+            }
+
+        return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        StreamHandle hStream = (StreamHandle) hTarget;
+        switch (method.getName())
+            {
+            case "readBytes": // Byte[] (Int count)
+                {
+                long cb = ((JavaLong) hArg).getValue();
+                if (cb < 0 || cb > Integer.MAX_VALUE)
+                    {
+                    return frame.raiseException(xException.illegalArgument(frame,
+                            "Illegal count: " + cb));
+                    }
+
+                FileBuffer buffer = hStream.f_buffer;
+                try
+                    {
+                    byte[] ab = Runtime.block(() -> buffer.read((int) cb));
+                    return ab == null
+                            ? frame.raiseException(xException.endOfFile(frame))
+                            : frame.assignValue(iReturn,
+                                    xByteArray.makeHandle(ab, xArray.Mutability.Constant));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        StreamHandle hStream = (StreamHandle) hTarget;
+        switch (method.getName())
+            {
+            case "readByte":
+                {
+                FileBuffer buffer = hStream.f_buffer;
+                try
+                    {
+                    int n = buffer.isBuffered()
+                            ? buffer.nextByte()
+                            : Runtime.block(buffer::readByte);
+                    return n < 0
+                            ? frame.raiseException(xException.endOfFile(frame))
+                            : frame.assignValue(iReturn, xUInt8.makeHandle(n));
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+                }
+
+            case "close":
+                try
+                    {
+                    hStream.f_channel.close();
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    /**
+     * Construct a new {@link StreamHandle} for the specified Java channel.
+     *
+     * @param frame    the current frame
+     * @param channel  the underlying channel, which must be open for reading
+     * @param cbBuf    the size of the read buffer
+     * @param iReturn  the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, FileChannel channel, int cbBuf, int iReturn)
+        {
+        ClassComposition clzStruct   = s_clzStreamStruct;
+        MethodStructure  constructor = s_constructorStream;
+
+        StreamHandle   hStruct = new StreamHandle(clzStruct, channel, cbBuf);
+        ObjectHandle[] ahVar   = Utils.ensureSize(Utils.OBJECTS_NONE, constructor.getMaxVars());
+
+        return proceedConstruction(frame, constructor, true, hStruct, ahVar, iReturn);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    protected int raiseIOException(Frame frame, IOException e)
+        {
+        return frame.raiseException(xException.ioException(frame, String.valueOf(e.getMessage())));
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle for a buffered file input stream.
+     *
+     * Note that the handle can be cloned (e.g. to change its access), so all the mutable state
+     * lives in the shared {@link FileBuffer}.
+     */
+    public static class StreamHandle
+            extends GenericHandle
+        {
+        protected final FileChannel f_channel;
+        protected final FileBuffer  f_buffer;
+
+        protected StreamHandle(TypeComposition clazz, FileChannel channel, int cbBuf)
+            {
+            super(clazz);
+
+            f_channel = channel;
+            f_buffer  = new FileBuffer(channel, cbBuf);
+            }
+        }
+
+    /**
+     * A read buffer over a file.
+     *
+     * The buffer holds a window of the file starting at {@link #m_lBufStart}; moving the offset
+     * within that window (as the readers do when peeking ahead) does not touch the file at all.
+     * All the reads are positional, so the channel's own position is never used.
+     */
+    protected static class FileBuffer
+        {
+        protected FileBuffer(FileChannel channel, int cbBuf)
+            {
+            f_channel = channel;
+            f_abBuf   = new byte[cbBuf];
+            }
+
+        /**
+         * @return the offset in the file of the next byte to read
+         */
+        protected long getOffset()
+            {
+            return m_lBufStart + m_ofBuf;
+            }
+
+        /**
+         * Move to the specified offset in the file, keeping the buffer if it covers the offset.
+         */
+        protected void setOffset(long lOffset)
+            {
+            long lStart = m_lBufStart;
+            if (lOffset >= lStart && lOffset <= lStart + m_cbBuf)
+                {
+                m_ofBuf = (int) (lOffset - lStart);
+                }
+            else
+                {
+                m_lBufStart = lOffset;
+                m_cbBuf     = 0;
+                m_ofBuf     = 0;
+                }
+            }
+
+        /**
+         * @return true iff the next byte can be read without accessing the file
+         */
+        protected boolean isBuffered()
+            {
+            return m_ofBuf < m_cbBuf;
+            }
+
+        /**
+         * @return the next buffered byte; must only be called if {@link #isBuffered()}
+         */
+        protected int nextByte()
+            {
+            return f_abBuf[m_ofBuf++] & 0xFF;
+            }
+
+        /**
+         * @return the next byte or -1 if the end of the file has been reached
+         */
+        protected int readByte()
+                throws IOException
+            {
+            return isBuffered() || fill() ? nextByte() : -1;
+            }
+
+        /**
+         * Read the specified number of bytes. Requests that are larger than the buffer bypass it.
+         *
+         * @return the bytes read or null if the end of the file has been reached first, in which
+         *         case the offset is left at the end of the file
+         */
+        protected byte[] read(int cb)
+                throws IOException
+            {
+            byte[] ab = new byte[cb];
+            int    of = 0;
+            while (of < cb)
+                {
+                int cbAvail = m_cbBuf - m_ofBuf;
+                if (cbAvail > 0)
+                    {
+                    int cbCopy = Math.min(cbAvail, cb - of);
+                    System.arraycopy(f_abBuf, m_ofBuf, ab, of, cbCopy);
+                    m_ofBuf += cbCopy;
+                    of      += cbCopy;
+                    }
+                else if (cb - of >= f_abBuf.length)
+                    {
+                    long lPos   = getOffset();
+                    int  cbRead = f_channel.read(ByteBuffer.wrap(ab, of, cb - of), lPos);
+                    if (cbRead < 0)
+                        {
+                        return null;
+                        }
+                    of += cbRead;
+                    setOffset(lPos + cbRead);
+                    }
+                else if (!fill())
+                    {
+                    return null;
+                    }
+                }
+            return ab;
+            }
+
+        /**
+         * Refill the buffer, starting at the current offset.
+         *
+         * @return false iff the end of the file has been reached
+         */
+        private boolean fill()
+                throws IOException
+            {
+            long lStart = getOffset();
+            int  cbRead = f_channel.read(ByteBuffer.wrap(f_abBuf), lStart);
+
+            m_lBufStart = lStart;
+            m_ofBuf     = 0;
+            m_cbBuf     = Math.max(cbRead, 0);
+            return cbRead > 0;
+            }
+
+        private final FileChannel f_channel;
+        private final byte[]      f_abBuf;
+
+        private long m_lBufStart;   // the file offset of the first buffered byte
+        private int  m_cbBuf;       // the number of valid bytes in the buffer
+        private int  m_ofBuf;       // the read position within the buffer
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static ClassComposition s_clzStreamStruct;
+    private static MethodStructure  s_constructorStream;
+    }
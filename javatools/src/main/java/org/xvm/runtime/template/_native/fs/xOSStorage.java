@@ -12,6 +12,7 @@ import java.nio.file.WatchEvent;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -212,6 +213,15 @@ public class xOSStorage
                     return raisePathException(frame, e, pathDir.toString());
                     }
                 }
+
+            case "unwatch":  // (pathStringDir)
+                {
+                StringHandle hPathStringDir = (StringHandle) hArg;
+
+                ensureWatchDaemon(pool()).unregister(
+                        Paths.get(hPathStringDir.getStringValue()), hStorage);
+                return Op.R_NEXT;
+                }
             }
         return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
         }
@@ -321,7 +331,27 @@ public class xOSStorage
                 StandardWatchEventKinds.ENTRY_MODIFY
                 );
 
-            f_mapWatches.put(key, new WatchContext(pathDir, hStorage));
+            if (f_mapWatches.put(key, new WatchContext(pathDir, hStorage)) == null)
+                {
+                // an active watch keeps the storage service's container alive
+                hStorage.f_context.registerNotification();
+                }
+            }
+
+        public void unregister(Path pathDir, ServiceHandle hStorage)
+            {
+            for (Iterator<Map.Entry<WatchKey, WatchContext>> iter = f_mapWatches.entrySet().iterator();
+                    iter.hasNext();)
+                {
+                Map.Entry<WatchKey, WatchContext> entry   = iter.next();
+                WatchContext                      context = entry.getValue();
+                if (context.pathDir.equals(pathDir) && context.hStorage == hStorage)
+                    {
+                    iter.remove();
+                    entry.getKey().cancel();
+                    hStorage.f_context.unregisterNotification();
+                    }
+                }
             }
 
         @Override
@@ -356,6 +386,11 @@ public class xOSStorage
                     }
 
                 WatchContext context = f_mapWatches.get(key);
+                if (context == null)
+                    {
+                    // the watch has been cancelled
+                    continue;
+                    }
 
                 Path pathDir      = context.pathDir;
                 Path pathRelative = (Path) event.context();
@@ -3,6 +3,7 @@ package org.xvm.runtime.template._native.mgmt;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
 
 import org.xvm.asm.constants.MethodConstant;
 import org.xvm.asm.constants.ModuleConstant;
@@ -13,6 +14,7 @@ import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Container;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ServiceContext;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.TypeComposition;
@@ -22,11 +24,16 @@ import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
 
 import org.xvm.runtime.template._native.xRTServiceControl;
 
+import org.xvm.runtime.template._native.temporal.xNanosTimer;
+
 import org.xvm.runtime.template.collections.xTuple.TupleHandle;
 
+import org.xvm.runtime.template.xException;
 import org.xvm.runtime.template.xNullable;
 import org.xvm.runtime.template.xService.ServiceHandle;
 
+import org.xvm.runtime.template.numbers.xInt64;
+
 import org.xvm.runtime.template.text.xString.StringHandle;
 
 
@@ -62,11 +69,43 @@ public class xContainerControl
         m_clzControl = ensureClass(getCanonicalType(), typeControl);
 
         markNativeMethod("invoke", null, null);
+        markNativeMethod("configureScheduling", null, VOID);
+        markNativeMethod("resetSchedulingStats", VOID, VOID);
+
         markNativeProperty("mainService");
+        markNativeProperty("schedulingWeight");
+        markNativeProperty("runQueueDepth");
+        markNativeProperty("runCount");
+        markNativeProperty("averageRunWait");
+        markNativeProperty("maxRunWait");
 
         getCanonicalType().invalidateTypeInfo();
         }
 
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        switch (method.getName())
+            {
+            case "configureScheduling":
+                {
+                long nWeight = ((JavaLong) hArg).getValue();
+                if (nWeight <= 0)
+                    {
+                    return frame.raiseException(
+                            xException.illegalArgument(frame, "Invalid weight: " + nWeight));
+                    }
+
+                ((ControlHandle) hTarget).f_container.setWeight(
+                        (int) Math.min(nWeight, Integer.MAX_VALUE));
+                return Op.R_NEXT;
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
     @Override
     public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
                              ObjectHandle[] ahArg, int iReturn)
@@ -76,6 +115,10 @@ public class xContainerControl
             case "invoke":
                 return invokeInvoke(frame, (ControlHandle) hTarget,
                         (StringHandle) ahArg[0], (TupleHandle) ahArg[1], iReturn);
+
+            case "resetSchedulingStats":
+                ((ControlHandle) hTarget).f_container.resetSchedulingMetrics();
+                return Op.R_NEXT;
             }
 
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
@@ -84,14 +127,32 @@ public class xContainerControl
     @Override
     public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
         {
+        Container container = ((ControlHandle) hTarget).f_container;
+
         switch (sPropName)
             {
             case "mainService":
                 {
-                ControlHandle  hCtrl = (ControlHandle) hTarget;
-                ServiceContext ctx   = hCtrl.f_container.getServiceContext();
+                ServiceContext ctx = container.getServiceContext();
                 return frame.assignValue(iReturn, ctx == null ? xNullable.NULL : ctx.getService());
                 }
+
+            case "schedulingWeight":
+                return frame.assignValue(iReturn, xInt64.makeHandle(container.getWeight()));
+
+            case "runQueueDepth":
+                return frame.assignValue(iReturn, xInt64.makeHandle(container.getQueueDepth()));
+
+            case "runCount":
+                return frame.assignValue(iReturn, xInt64.makeHandle(container.getExecutionCount()));
+
+            case "averageRunWait":
+                return frame.assignValue(iReturn,
+                        xNanosTimer.makeDurationHandle(container.getAverageWaitNanos()));
+
+            case "maxRunWait":
+                return frame.assignValue(iReturn,
+                        xNanosTimer.makeDurationHandle(container.getMaxWaitNanos()));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -71,7 +71,7 @@ public class xContainerLinker
                 ByteArrayHandle hBytes = (ByteArrayHandle) hArg;
                 try
                     {
-                    byte[]        abFile  = hBytes.m_abValue;
+                    byte[]        abFile  = hBytes.getBytes();
                     FileStructure struct  = new FileStructure(new ByteArrayInputStream(abFile));
 
                     return frame.assignValue(iReturn, xRTFileTemplate.makeHandle(struct));
@@ -88,7 +88,7 @@ public class xContainerLinker
                 ByteArrayHandle hBytes = (ByteArrayHandle) hArg;
                 try
                     {
-                    byte[]        abFile  = hBytes.m_abValue;
+                    byte[]        abFile  = hBytes.getBytes();
                     FileStructure struct  = new FileStructure(new ByteArrayInputStream(abFile));
                     String        sModule = struct.getModuleName();
 
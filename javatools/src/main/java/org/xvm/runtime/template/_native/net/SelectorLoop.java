@@ -0,0 +1,371 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+
+import java.util.Iterator;
+import java.util.Queue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.Fiber;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.Runtime;
+import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xBoolean;
+
+
+/**
+ * The single NIO event loop shared by all the native sockets.
+ *
+ * A fiber that cannot proceed with a socket operation {@link #await awaits} the readiness of the
+ * socket. The loop's thread only detects the readiness; the waiting fiber is resumed via its
+ * service's response queue, and the operation itself is retried on the service's thread. As a
+ * result, there is no thread per connection, and no socket I/O is ever performed on the loop's
+ * thread.
+ */
+public class SelectorLoop
+        implements Runnable
+    {
+    /**
+     * Construct the loop and start its daemon thread.
+     */
+    protected SelectorLoop()
+        {
+        try
+            {
+            f_selector = Selector.open();
+            }
+        catch (IOException e)
+            {
+            throw new IllegalStateException(e);
+            }
+
+        Thread thread = f_thread = new Thread(this, "xvm-selector");
+        thread.setDaemon(true);
+        thread.start();
+        }
+
+    /**
+     * Suspend the calling fiber until the specified channel is ready for the specified operation
+     * or is closed.
+     *
+     * @param frame    the current frame
+     * @param channel  the (non-blocking) channel
+     * @param nOp      one of the {@link SelectionKey} operations
+     * @param iReturn  the register id to place the (ignored) result into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int await(Frame frame, SelectableChannel channel, int nOp, int iReturn)
+        {
+        ServiceContext                  context = frame.f_context;
+        Fiber                           fiber   = frame.f_fiber;
+        CompletableFuture<ObjectHandle> cf      = new CompletableFuture<>();
+
+        // a pending readiness notification keeps the service's container alive
+        context.registerNotification();
+
+        Runnable wakeup = () ->
+            {
+            // unregister after the response is submitted, so the container doesn't appear idle
+            // in between
+            context.respond(new ServiceContext.Response<>(fiber, xBoolean.TRUE, null, cf));
+            context.unregisterNotification();
+            };
+
+        submit(() -> register(channel, nOp, wakeup));
+
+        return frame.assignFutureResult(iReturn, cf);
+        }
+
+    /**
+     * Close the specified channel, waking up all the fibers waiting on it, so they can observe the
+     * closure.
+     * <p>
+     * The waiters are only known to the channel's selection key, which closing the channel
+     * deregisters; therefore, the channel is closed on the loop's thread right after the waiters
+     * are woken up, and the calling thread waits for that to happen. (A service resumed by a
+     * wakeup may run on the loop's thread itself, in which case the channel is closed directly.)
+     *
+     * @param channel  the channel to close
+     *
+     * @throws IOException if closing the channel fails
+     */
+    public void close(SelectableChannel channel)
+            throws IOException
+        {
+        CompletableFuture<Void> cf = new CompletableFuture<>();
+
+        Runnable task = () ->
+            {
+            SelectionKey key = channel.keyFor(f_selector);
+            if (key != null)
+                {
+                ((Interest) key.attachment()).wakeAll();
+                key.cancel();
+                }
+
+            try
+                {
+                channel.close();
+                cf.complete(null);
+                }
+            catch (Throwable e)
+                {
+                cf.completeExceptionally(e);
+                }
+            };
+
+        if (Thread.currentThread() == f_thread)
+            {
+            task.run();
+            }
+        else
+            {
+            submit(task);
+            }
+
+        Runtime.block(() ->
+            {
+            try
+                {
+                return cf.get();
+                }
+            catch (InterruptedException e)
+                {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+                }
+            catch (ExecutionException e)
+                {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException eIO)
+                    {
+                    throw eIO;
+                    }
+                throw new IOException(cause);
+                }
+            });
+        }
+
+
+    // ----- Runnable ------------------------------------------------------------------------------
+
+    @Override
+    public void run()
+        {
+        Selector selector = f_selector;
+        long     cBackoff = 0;
+        while (true)
+            {
+            try
+                {
+                selector.select();
+                cBackoff = 0;
+                }
+            catch (IOException e)
+                {
+                // a failing selector would fail again right away; don't spin on it
+                cBackoff = Math.min(Math.max(cBackoff * 2, MIN_BACKOFF_MILLIS), MAX_BACKOFF_MILLIS);
+                Utils.log(null, "SelectorLoop: select failed; retrying in "
+                        + cBackoff + "ms: " + e);
+                try
+                    {
+                    Thread.sleep(cBackoff);
+                    }
+                catch (InterruptedException ignore)
+                    {
+                    // the loop's daemon thread is never interrupted deliberately
+                    }
+                continue;
+                }
+
+            Runnable task;
+            while ((task = f_queueTasks.poll()) != null)
+                {
+                try
+                    {
+                    task.run();
+                    }
+                catch (RuntimeException e)
+                    {
+                    // a failing task must not take down the loop for all the other sockets
+                    Utils.log(null, "SelectorLoop: task failed: " + e);
+                    }
+                }
+
+            for (Iterator<SelectionKey> iter = selector.selectedKeys().iterator(); iter.hasNext(); )
+                {
+                SelectionKey key = iter.next();
+                iter.remove();
+
+                Interest interest = (Interest) key.attachment();
+                try
+                    {
+                    int nReady = key.readyOps();
+                    key.interestOps(key.interestOps() & ~nReady);
+                    interest.wake(nReady);
+                    }
+                catch (CancelledKeyException e)
+                    {
+                    interest.wakeAll();
+                    }
+                catch (RuntimeException e)
+                    {
+                    Utils.log(null, "SelectorLoop: failed to process a ready key: " + e);
+                    }
+                }
+            }
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * Schedule the specified task to run on the loop's thread.
+     */
+    protected void submit(Runnable task)
+        {
+        f_queueTasks.add(task);
+        f_selector.wakeup();
+        }
+
+    /**
+     * Register the interest in the specified operation; called on the loop's thread.
+     */
+    protected void register(SelectableChannel channel, int nOp, Runnable wakeup)
+        {
+        try
+            {
+            SelectionKey key = channel.keyFor(f_selector);
+            if (key == null)
+                {
+                Interest interest = new Interest();
+                interest.add(nOp, wakeup);
+                channel.register(f_selector, nOp, interest);
+                }
+            else
+                {
+                ((Interest) key.attachment()).add(nOp, wakeup);
+                key.interestOps(key.interestOps() | nOp);
+                }
+            }
+        catch (ClosedChannelException | CancelledKeyException e)
+            {
+            // the fiber will discover the closure when it retries the operation
+            wakeup.run();
+            }
+        }
+
+    /**
+     * The waiters for a channel; only accessed on the loop's thread.
+     */
+    protected static class Interest
+        {
+        void add(int nOp, Runnable wakeup)
+            {
+            int i = indexOf(nOp);
+            if (m_aWakeup[i] == null)
+                {
+                m_aWakeup[i] = wakeup;
+                }
+            else
+                {
+                // more than one fiber waiting for the same operation; chain them
+                Runnable prev = m_aWakeup[i];
+                m_aWakeup[i] = () ->
+                    {
+                    prev.run();
+                    wakeup.run();
+                    };
+                }
+            }
+
+        void wake(int nReady)
+            {
+            for (int i = 0; i < OPS.length; i++)
+                {
+                if ((nReady & OPS[i]) != 0)
+                    {
+                    Runnable wakeup = m_aWakeup[i];
+                    if (wakeup != null)
+                        {
+                        m_aWakeup[i] = null;
+                        wakeup.run();
+                        }
+                    }
+                }
+            }
+
+        void wakeAll()
+            {
+            wake(-1);
+            }
+
+        private static int indexOf(int nOp)
+            {
+            for (int i = 0; i < OPS.length; i++)
+                {
+                if (OPS[i] == nOp)
+                    {
+                    return i;
+                    }
+                }
+            throw new IllegalArgumentException("op=" + nOp);
+            }
+
+        private static final int[] OPS =
+            {
+            SelectionKey.OP_READ, SelectionKey.OP_WRITE, SelectionKey.OP_CONNECT, SelectionKey.OP_ACCEPT
+            };
+
+        private final Runnable[] m_aWakeup = new Runnable[OPS.length];
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The shortest and the longest pause after a failed select, in milliseconds.
+     */
+    private static final long MIN_BACKOFF_MILLIS = 1;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The singleton loop.
+     */
+    public static final SelectorLoop INSTANCE = new SelectorLoop();
+
+    /**
+     * The loop's thread.
+     */
+    private final Thread f_thread;
+
+    /**
+     * The selector.
+     */
+    private final Selector f_selector;
+
+    /**
+     * The tasks to run on the loop's thread.
+     */
+    private final Queue<Runnable> f_queueTasks = new ConcurrentLinkedQueue<>();
+    }
@@ -0,0 +1,173 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.net.InetSocketAddress;
+
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.Runtime;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.text.xString.StringHandle;
+
+
+/**
+ * Native OSNetwork implementation.
+ */
+public class xOSNetwork
+        extends ClassTemplate
+    {
+    public xOSNetwork(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+        }
+
+    @Override
+    public void initNative()
+        {
+        TypeConstant typeNetwork = pool().ensureEcstasyTypeConstant("net.Network");
+
+        m_clzNetwork = ensureClass(getCanonicalType(), typeNetwork);
+
+        markNativeMethod("listen"    , null, null);
+        markNativeMethod("openSocket", null, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        switch (method.getName())
+            {
+            case "listen": // (String host, UInt16 port)
+                {
+                String sHost = ((StringHandle) ahArg[0]).getStringValue();
+                int    nPort = (int) ((JavaLong) ahArg[1]).getValue();
+
+                ServerSocketChannel channel;
+                try
+                    {
+                    channel = Runtime.block(() ->
+                        {
+                        ServerSocketChannel server = ServerSocketChannel.open();
+                        try
+                            {
+                            server.configureBlocking(false);
+                            server.bind(new InetSocketAddress(sHost, nPort), BACKLOG);
+                            return server;
+                            }
+                        catch (IOException e)
+                            {
+                            server.close();
+                            throw e;
+                            }
+                        });
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+                return xOSServerSocketChannel.INSTANCE.createHandle(frame, channel, iReturn);
+                }
+
+            case "openSocket": // (String host, UInt16 port)
+                {
+                String sHost = ((StringHandle) ahArg[0]).getStringValue();
+                int    nPort = (int) ((JavaLong) ahArg[1]).getValue();
+
+                SocketChannel channel;
+                try
+                    {
+                    // the name resolution may block
+                    channel = Runtime.block(() ->
+                        {
+                        InetSocketAddress address = new InetSocketAddress(sHost, nPort);
+                        if (address.isUnresolved())
+                            {
+                            throw new IOException("Unknown host: " + sHost);
+                            }
+
+                        SocketChannel socket = SocketChannel.open();
+                        try
+                            {
+                            socket.configureBlocking(false);
+                            socket.connect(address);
+                            return socket;
+                            }
+                        catch (IOException e)
+                            {
+                            socket.close();
+                            throw e;
+                            }
+                        });
+                    }
+                catch (IOException e)
+                    {
+                    return raiseIOException(frame, e);
+                    }
+
+                return xOSSocketChannel.INSTANCE.createHandle(frame, channel, iReturn);
+                }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    /**
+     * Raise an Ecstasy IOException for the specified Java exception.
+     */
+    protected static int raiseIOException(Frame frame, IOException e)
+        {
+        String sMsg = e.getMessage();
+        return frame.raiseException(xException.ioException(frame,
+                sMsg == null ? e.getClass().getSimpleName() : sMsg));
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    public ObjectHandle makeHandle()
+        {
+        return new NetworkHandle(m_clzNetwork);
+        }
+
+    protected static class NetworkHandle
+            extends ObjectHandle
+        {
+        protected NetworkHandle(TypeComposition clazz)
+            {
+            super(clazz);
+
+            m_fMutable = false;
+            }
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The maximum number of pending inbound connections.
+     */
+    private static final int BACKLOG = 1024;
+
+    private ClassComposition m_clzNetwork;
+    }
@@ -0,0 +1,150 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constants;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xNullable;
+
+
+/**
+ * Native OSServerSocketChannel implementation.
+ */
+public class xOSServerSocketChannel
+        extends ClassTemplate
+    {
+    public static xOSServerSocketChannel INSTANCE;
+
+    public xOSServerSocketChannel(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeMethod("close"          , VOID, VOID);
+        markNativeMethod("tryAccept"      , VOID, null);
+        markNativeMethod("awaitAcceptable", VOID, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+
+        ClassTemplate    templateChannel = f_templates.getTemplate("net.ServerSocketChannel");
+        ClassComposition clzChannel      = ensureClass(templateChannel.getCanonicalType());
+
+        s_clzServerStruct   = clzChannel.ensureAccess(Constants.Access.STRUCT);
+        s_constructorServer = getStructure().findConstructor();
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        ServerHandle hServer = (ServerHandle) hTarget;
+        switch (method.getName())
+            {
+            case "tryAccept":
+                {
+                SocketChannel channel;
+                try
+                    {
+                    channel = hServer.f_channel.accept();
+                    if (channel == null)
+                        {
+                        return frame.assignValue(iReturn, xNullable.NULL);
+                        }
+                    channel.configureBlocking(false);
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+
+                return xOSSocketChannel.INSTANCE.createHandle(frame, channel, iReturn);
+                }
+
+            case "awaitAcceptable":
+                return SelectorLoop.INSTANCE.await(frame, hServer.f_channel, SelectionKey.OP_ACCEPT, iReturn);
+
+            case "close":
+                try
+                    {
+                    SelectorLoop.INSTANCE.close(hServer.f_channel);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    /**
+     * Construct a new {@link ServerHandle} for the specified Java channel.
+     *
+     * @param frame    the current frame
+     * @param channel  the underlying non-blocking channel
+     * @param iReturn  the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, ServerSocketChannel channel, int iReturn)
+        {
+        ClassComposition clzStruct   = s_clzServerStruct;
+        MethodStructure  constructor = s_constructorServer;
+
+        ServerHandle   hStruct = new ServerHandle(clzStruct, channel);
+        ObjectHandle[] ahVar   = Utils.ensureSize(Utils.OBJECTS_NONE, constructor.getMaxVars());
+
+        return proceedConstruction(frame, constructor, true, hStruct, ahVar, iReturn);
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle for a listening socket.
+     */
+    public static class ServerHandle
+            extends GenericHandle
+        {
+        protected final ServerSocketChannel f_channel;
+
+        protected ServerHandle(TypeComposition clazz, ServerSocketChannel channel)
+            {
+            super(clazz);
+
+            f_channel = channel;
+            }
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static ClassComposition s_clzServerStruct;
+    private static MethodStructure  s_constructorServer;
+    }
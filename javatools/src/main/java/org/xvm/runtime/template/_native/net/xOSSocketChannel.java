@@ -0,0 +1,239 @@
+package org.xvm.runtime.template._native.net;
+
+
+import java.io.IOException;
+
+import java.nio.ByteBuffer;
+
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Constants;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xNullable;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xByteArray;
+import org.xvm.runtime.template.collections.xByteArray.ByteArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * Native OSSocketChannel implementation.
+ */
+public class xOSSocketChannel
+        extends ClassTemplate
+    {
+    public static xOSSocketChannel INSTANCE;
+
+    public xOSSocketChannel(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeProperty("readable");
+        markNativeProperty("writable");
+
+        markNativeMethod("close"           , VOID, VOID);
+        markNativeMethod("readBytes"       , INT , null);
+        markNativeMethod("writeBytes"      , null, INT );
+        markNativeMethod("tryFinishConnect", VOID, BOOLEAN);
+        markNativeMethod("awaitReadable"   , VOID, VOID);
+        markNativeMethod("awaitWritable"   , VOID, VOID);
+        markNativeMethod("awaitConnectable", VOID, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+
+        ClassTemplate    templateChannel = f_templates.getTemplate("net.SocketChannel");
+        ClassComposition clzChannel      = ensureClass(templateChannel.getCanonicalType());
+
+        s_clzSocketStruct   = clzChannel.ensureAccess(Constants.Access.STRUCT);
+        s_constructorSocket = getStructure().findConstructor();
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        SocketHandle hSocket = (SocketHandle) hTarget;
+        switch (sPropName)
+            {
+            case "readable":
+                {
+                SocketChannel channel = hSocket.f_channel;
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        channel.isConnected() && !channel.socket().isInputShutdown()));
+                }
+
+            case "writable":
+                {
+                SocketChannel channel = hSocket.f_channel;
+                return frame.assignValue(iReturn, xBoolean.makeHandle(
+                        channel.isConnected() && !channel.socket().isOutputShutdown()));
+                }
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        SocketHandle hSocket = (SocketHandle) hTarget;
+        switch (method.getName())
+            {
+            case "readBytes": // Byte[]? (Int count)
+                {
+                long cMax = ((JavaLong) hArg).getValue();
+                try
+                    {
+                    byte[] ab     = new byte[(int) Math.min(Math.max(cMax, 0), MAX_READ)];
+                    int    cbRead = hSocket.f_channel.read(ByteBuffer.wrap(ab));
+                    return frame.assignValue(iReturn, cbRead < 0
+                            ? xNullable.NULL
+                            : xByteArray.makeHandle(
+                                    cbRead == ab.length ? ab : Arrays.copyOf(ab, cbRead),
+                                    xArray.Mutability.Constant));
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        SocketHandle hSocket = (SocketHandle) hTarget;
+        switch (method.getName())
+            {
+            case "writeBytes": // Int (Byte[] bytes, Int offset)
+                {
+                byte[] ab = ((ByteArrayHandle) ahArg[0]).getBytes();
+                int    of = (int) ((JavaLong) ahArg[1]).getValue();
+                try
+                    {
+                    int cb = hSocket.f_channel.write(ByteBuffer.wrap(ab, of, ab.length - of));
+                    return frame.assignValue(iReturn, xInt64.makeHandle(cb));
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+                }
+
+            case "tryFinishConnect":
+                try
+                    {
+                    return frame.assignValue(iReturn,
+                            xBoolean.makeHandle(hSocket.f_channel.finishConnect()));
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+
+            case "awaitReadable":
+                return SelectorLoop.INSTANCE.await(frame, hSocket.f_channel, SelectionKey.OP_READ, iReturn);
+
+            case "awaitWritable":
+                return SelectorLoop.INSTANCE.await(frame, hSocket.f_channel, SelectionKey.OP_WRITE, iReturn);
+
+            case "awaitConnectable":
+                return SelectorLoop.INSTANCE.await(frame, hSocket.f_channel, SelectionKey.OP_CONNECT, iReturn);
+
+            case "close":
+                try
+                    {
+                    SelectorLoop.INSTANCE.close(hSocket.f_channel);
+                    return Op.R_NEXT;
+                    }
+                catch (IOException e)
+                    {
+                    return xOSNetwork.raiseIOException(frame, e);
+                    }
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    /**
+     * Construct a new {@link SocketHandle} for the specified Java channel.
+     *
+     * @param frame    the current frame
+     * @param channel  the underlying non-blocking channel
+     * @param iReturn  the register id to place the created handle into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int createHandle(Frame frame, SocketChannel channel, int iReturn)
+        {
+        ClassComposition clzStruct   = s_clzSocketStruct;
+        MethodStructure  constructor = s_constructorSocket;
+
+        SocketHandle   hStruct = new SocketHandle(clzStruct, channel);
+        ObjectHandle[] ahVar   = Utils.ensureSize(Utils.OBJECTS_NONE, constructor.getMaxVars());
+
+        return proceedConstruction(frame, constructor, true, hStruct, ahVar, iReturn);
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle for a socket.
+     */
+    public static class SocketHandle
+            extends GenericHandle
+        {
+        protected final SocketChannel f_channel;
+
+        protected SocketHandle(TypeComposition clazz, SocketChannel channel)
+            {
+            super(clazz);
+
+            f_channel = channel;
+            }
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The largest number of bytes returned by a single read.
+     */
+    private static final int MAX_READ = 1 << 16;
+
+    private static ClassComposition s_clzSocketStruct;
+    private static MethodStructure  s_constructorSocket;
+    }
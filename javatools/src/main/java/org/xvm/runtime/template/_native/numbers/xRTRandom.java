@@ -127,8 +127,13 @@ public class xRTRandom
 
     protected int invokeFill(Frame frame, ObjectHandle hTarget, ByteArrayHandle hArray)
         {
-        rnd(hTarget).nextBytes(hArray.m_abValue);
-        return Op.R_NEXT;
+        if (hArray.isMutable() && hArray.m_mutability.compareTo(xArray.Mutability.Fixed) >= 0)
+            {
+            hArray.ensureExclusive();
+            rnd(hTarget).nextBytes(hArray.m_abValue);
+            return Op.R_NEXT;
+            }
+        return frame.raiseException(xException.immutableObject(frame));
         }
 
     protected int invokeBit(Frame frame, ObjectHandle hTarget, int iReturn)
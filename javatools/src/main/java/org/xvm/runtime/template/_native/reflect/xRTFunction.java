@@ -203,7 +203,7 @@ public class xRTFunction
                 int ixPrev = Integer.MAX_VALUE;
                 for (int i = 0, c = haOrdinals.m_cSize; i < c; i++)
                     {
-                    int     ix      = (int) haOrdinals.m_alValue[i];
+                    int     ix      = (int) haOrdinals.m_alValue[haOrdinals.m_ofStart + i];
                     boolean fAdjust = ix > ixPrev;
 
                     ixPrev = ix;
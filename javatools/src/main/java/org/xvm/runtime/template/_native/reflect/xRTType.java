@@ -1241,16 +1241,19 @@ public class xRTType
             }
 
         ObjectHandle[] ahFormalTypes;
+        int            ofFormalTypes;
         int            cFormalTypes;
         if (hArg instanceof GenericArrayHandle)
             {
             GenericArrayHandle hArray = (GenericArrayHandle) hArg;
             ahFormalTypes = hArray.m_ahValue;
+            ofFormalTypes = hArray.m_ofStart;
             cFormalTypes  = hArray.m_cSize;
             }
         else if (hArg == ObjectHandle.DEFAULT)
             {
             ahFormalTypes = Utils.OBJECTS_NONE;
+            ofFormalTypes = 0;
             cFormalTypes  = 0;
             }
         else
@@ -1263,7 +1266,7 @@ public class xRTType
         TypeConstant[] atypeParams  = new TypeConstant[cFormalTypes];
         for (int i = 0; i < cFormalTypes; ++i)
             {
-            atypeParams[i] = ((TypeHandle) ahFormalTypes[i]).getDataType();
+            atypeParams[i] = ((TypeHandle) ahFormalTypes[ofFormalTypes + i]).getDataType();
             }
 
         ConstantPool pool = frame.poolContext();
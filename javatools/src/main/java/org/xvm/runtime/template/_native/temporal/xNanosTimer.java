@@ -130,6 +130,20 @@ public class xNanosTimer
                 div(PICOS_PER_MILLI_LL).getLowValue();
         }
 
+    /**
+     * Helper method to create an Ecstasy Duration object for the specified number of nanoseconds.
+     */
+    public static GenericHandle makeDurationHandle(long cNanos)
+        {
+        GenericHandle hDuration = new GenericHandle(s_clzDuration);
+
+        LongLong llPicos = new LongLong(cNanos).mul(PICOS_PER_NANO_LL);
+        hDuration.setField("picoseconds", xUInt128.INSTANCE.makeLongLong(llPicos));
+        hDuration.makeImmutable();
+
+        return hDuration;
+        }
+
 
     // ----- ObjectHandle --------------------------------------------------------------------------
 
@@ -285,13 +299,7 @@ public class xNanosTimer
          */
         public GenericHandle elapsedDuration()
             {
-            GenericHandle hDuration = new GenericHandle(s_clzDuration);
-
-            LongLong llPicos   = new LongLong(elapsed()).mul(PICOS_PER_NANO_LL);
-            hDuration.setField("picoseconds", xUInt128.INSTANCE.makeLongLong(llPicos));
-            hDuration.makeImmutable();
-
-            return hDuration;
+            return makeDurationHandle(elapsed());
             }
 
         public void register(Alarm alarm)
@@ -299,6 +307,10 @@ public class xNanosTimer
             synchronized (f_setAlarms)
                 {
                 f_setAlarms.add(alarm);
+
+                // a registered alarm keeps the service's container alive until it is triggered or
+                // canceled, even if the timer is currently stopped
+                alarm.f_context.registerNotification();
                 }
             }
 
@@ -360,12 +372,10 @@ public class xNanosTimer
                 m_trigger     = new Trigger();
                 try
                     {
-                    f_context.registerNotification();
                     TIMER.schedule(m_trigger, Math.max(1, (f_cNanosDelay - m_cNanosBurnt) / NANOS_PER_MILLI));
                     }
                 catch (Exception e)
                     {
-                    f_context.unregisterNotification();
                     System.err.println("Exception in xNanosTimer.Alarm.start(): " + e);
                     }
                 }
@@ -434,8 +444,10 @@ public class xNanosTimer
                     m_trigger = null;
                     }
 
-                TimerHandle.this.unregister(this);
+                // unregister after the call is submitted, so the container doesn't appear idle
+                // in between
                 f_context.callLater(f_hFunction, Utils.OBJECTS_NONE, true);
+                TimerHandle.this.unregister(this);
                 }
 
             /**
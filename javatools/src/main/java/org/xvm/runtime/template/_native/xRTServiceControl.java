@@ -11,13 +11,21 @@ import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.ClassTemplate;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.ServiceContext.OverloadPolicy;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.TypeComposition;
 import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xEnum;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray.Mutability;
+import org.xvm.runtime.template.collections.xIntArray;
+
+import org.xvm.runtime.template.numbers.xInt64;
 
 import org.xvm.runtime.template.xService.ServiceHandle;
 
@@ -55,13 +63,22 @@ public class xRTServiceControl
 
         m_clzControl = ensureClass(getCanonicalType(), typeControl);
 
-        SERVICE_STATUS = (xEnum) f_templates.getTemplate("Service.ServiceStatus");
+        SERVICE_STATUS  = (xEnum) f_templates.getTemplate("Service.ServiceStatus");
+        OVERLOAD_POLICY = (xEnum) f_templates.getTemplate("Service.OverloadPolicy");
 
         markNativeProperty("statusIndicator");
         markNativeProperty("upTime");
         markNativeProperty("cpuTime");
         markNativeProperty("contended");
-
+        markNativeProperty("backlogDepth");
+        markNativeProperty("yieldCount");
+        markNativeProperty("quantumHistogram");
+        markNativeProperty("backlogCapacity");
+        markNativeProperty("overloadPolicy");
+        markNativeProperty("backlogHighWaterMark");
+        markNativeProperty("rejectedCount");
+
+        markNativeMethod("configureBacklog", null, VOID);
         markNativeMethod("gc", VOID, VOID);
         markNativeMethod("shutdown", VOID, VOID);
         markNativeMethod("kill", VOID, VOID);
@@ -77,6 +94,22 @@ public class xRTServiceControl
 
         switch (method.getName())
             {
+            case "configureBacklog":
+                {
+                long             cCapacity = ((JavaLong) ahArg[0]).getValue();
+                xEnum.EnumHandle hPolicy   = (xEnum.EnumHandle) ahArg[1];
+
+                if (cCapacity <= 0)
+                    {
+                    return frame.raiseException(
+                            xException.illegalArgument(frame, "Invalid capacity: " + cCapacity));
+                    }
+
+                hControl.getContext().configureBacklog((int) Math.min(cCapacity, Integer.MAX_VALUE),
+                        OverloadPolicy.valueOf(hPolicy.getName()));
+                return Op.R_NEXT;
+                }
+
             case "shutdown":
                 {
                 ServiceContext context  = hControl.getContext();
@@ -109,6 +142,37 @@ public class xRTServiceControl
                 return frame.assignValue(iReturn,
                         xBoolean.makeHandle(hControl.getContext().isContended()));
 
+            case "backlogDepth":
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(hControl.getContext().getBacklogDepth()));
+
+            case "yieldCount":
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(hControl.getContext().getYieldCount()));
+
+            case "quantumHistogram":
+                return frame.assignValue(iReturn, xIntArray.makeHandle(
+                        hControl.getContext().getQuantumHistogram(), Mutability.Constant));
+
+            case "backlogCapacity":
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(hControl.getContext().getBacklogCapacity()));
+
+            case "overloadPolicy":
+                {
+                xEnum.EnumHandle hPolicy = OVERLOAD_POLICY.getEnumByName(
+                        hControl.getContext().getOverloadPolicy().name());
+                return Utils.assignInitializedEnum(frame, hPolicy, iReturn);
+                }
+
+            case "backlogHighWaterMark":
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(hControl.getContext().getBacklogHighWaterMark()));
+
+            case "rejectedCount":
+                return frame.assignValue(iReturn,
+                        xInt64.makeHandle(hControl.getContext().getRejectedCount()));
+
             case "statusIndicator":
                 {
                 xEnum.EnumHandle hStatus = SERVICE_STATUS.getEnumByName(
@@ -157,9 +221,10 @@ public class xRTServiceControl
     // ----- Constants -----------------------------------------------------------------------------
 
     /**
-     * Enum used by the native properties.
+     * Enums used by the native properties.
      */
     protected static xEnum SERVICE_STATUS;
+    protected static xEnum OVERLOAD_POLICY;
 
     private ClassComposition m_clzControl;
     }
@@ -13,6 +13,7 @@ import org.xvm.asm.Op;
 
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.Runtime;
 import org.xvm.runtime.TemplateRegistry;
 import org.xvm.runtime.Utils;
 
@@ -131,8 +132,8 @@ public class xTerminalConsole
                 try
                     {
                     hLine = m_fEcho || CONSOLE == null
-                            ? xString.makeHandle(CONSOLE_IN.readLine())
-                            : xString.makeHandle(CONSOLE.readPassword());
+                            ? xString.makeHandle(Runtime.<String>block(CONSOLE_IN::readLine))
+                            : xString.makeHandle(Runtime.<char[]>block(CONSOLE::readPassword));
                     }
                 catch (IOException e)
                     {
@@ -0,0 +1,176 @@
+package org.xvm.runtime.template.annotations;
+
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.SignatureConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.Mixin;
+
+import org.xvm.runtime.template.reflect.xVar;
+
+import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
+
+
+/**
+ * Native implementation of LazyVar.
+ *
+ * The calculated value is published using a compare-and-set of the referent, so a lazy property
+ * of an immutable object that is shared by a number of services is never assigned twice; a
+ * service that loses the race discards its own calculation and uses the published value.
+ */
+public class xLazyVar
+        extends xVar
+    {
+    public static xLazyVar INSTANCE;
+
+    public xLazyVar(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure, false);
+
+        f_mixin = new Mixin(templates, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        s_sigCalc = getStructure().findMethod("calc", 0).getIdentityConstant().getSignature();
+
+        markNativeMethod("get", VOID, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public RefHandle createRefHandle(Frame frame, TypeComposition clazz, String sName)
+        {
+        // a lazy reference that is also weak or soft needs a handle that can be cleared
+        return xWeakVar.isWeakOrSoft(clazz.getBaseType())
+                ? xWeakVar.INSTANCE.createRefHandle(frame, clazz, sName)
+                : super.createRefHandle(frame, clazz, sName);
+        }
+
+    @Override
+    protected boolean isConstructionRequired()
+        {
+        return true;
+        }
+
+    @Override
+    public int proceedConstruction(Frame frame, MethodStructure constructor, boolean fInitStruct,
+                                   ObjectHandle hStruct, ObjectHandle[] ahVar, int iReturn)
+        {
+        // the "calculate" function is collected by the mixin constructor
+        return f_mixin.proceedConstruction(frame, constructor, fInitStruct, hStruct, ahVar, iReturn);
+        }
+
+    @Override
+    protected int invokeNativeGetReferent(Frame frame, RefHandle hRef, int iReturn)
+        {
+        return getOrCalculate(frame, hRef, iReturn);
+        }
+
+    /**
+     * Get the referent of the specified lazy reference, calculating it if necessary.
+     *
+     * @param frame    the current frame
+     * @param hRef     the lazy reference
+     * @param iReturn  the register id to place the referent into
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION}
+     */
+    public int getOrCalculate(Frame frame, RefHandle hRef, int iReturn)
+        {
+        ObjectHandle hValue = hRef.getReferent();
+        if (hValue != null)
+            {
+            return frame.assignValue(iReturn, hValue);
+            }
+
+        ObjectHandle hCalc = hRef.getField(CALCULATE);
+        int          iResult;
+        if (hCalc instanceof FunctionHandle)
+            {
+            iResult = ((FunctionHandle) hCalc).call1(frame, null, Utils.OBJECTS_NONE, Op.A_STACK);
+            }
+        else
+            {
+            // the calc() method could be overridden by the property (e.g. "Int hash.calc()")
+            SignatureConstant sigCalc = s_sigCalc.resolveGenericTypes(frame.poolContext(), hRef.getType());
+
+            iResult = hRef.getComposition().getMethodCallChain(sigCalc).invoke(frame, hRef, Op.A_STACK);
+            }
+
+        switch (iResult)
+            {
+            case Op.R_NEXT:
+                return publish(frame, hRef, frame.popStack(), iReturn);
+
+            case Op.R_CALL:
+                frame.m_frameNext.addContinuation(frameCaller ->
+                    publish(frameCaller, hRef, frameCaller.popStack(), iReturn));
+                return Op.R_CALL;
+
+            case Op.R_EXCEPTION:
+                return Op.R_EXCEPTION;
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Publish the calculated value unless another calculation has already been published.
+     */
+    private int publish(Frame frame, RefHandle hRef, ObjectHandle hValue, int iReturn)
+        {
+        if (!hRef.compareAndSetReferent(null, hValue))
+            {
+            // another service got there first; a soft or weak referent could have been cleared
+            // since, in which case the value we have calculated is just as good
+            ObjectHandle hCurrent = hRef.getReferent();
+            if (hCurrent != null)
+                {
+                hValue = hCurrent;
+                }
+            }
+        return frame.assignValue(iReturn, hValue);
+        }
+
+    /**
+     * @return true iff the specified Ref type is LazyVar annotated
+     */
+    public static boolean isLazy(TypeConstant type)
+        {
+        return type.containsAnnotation(type.getConstantPool().clzLazy());
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The name of the LazyVar property holding the calculation function.
+     */
+    private static final String CALCULATE = "calculate";
+
+    private static SignatureConstant s_sigCalc;
+
+    /**
+     * The helper that runs the annotation constructors.
+     */
+    private final Mixin f_mixin;
+    }
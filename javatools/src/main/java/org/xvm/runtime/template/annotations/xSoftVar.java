@@ -0,0 +1,38 @@
+package org.xvm.runtime.template.annotations;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.TemplateRegistry;
+
+
+/**
+ * Native implementation of SoftVar, backed by a {@link java.lang.ref.SoftReference}.
+ *
+ * The access statistics declared by SoftVar are not maintained: the Java soft reference keeps
+ * its own access time stamp, which is what the garbage collector actually uses to decide which
+ * soft references to clear.
+ */
+public class xSoftVar
+        extends xWeakVar
+    {
+    public static xSoftVar INSTANCE;
+
+    public xSoftVar(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        markNativeMethod("get", VOID, null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+    }
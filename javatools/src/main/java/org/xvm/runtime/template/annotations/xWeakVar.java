@@ -0,0 +1,369 @@
+package org.xvm.runtime.template.annotations;
+
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+
+import org.xvm.asm.constants.ClassConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ServiceContext;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.Mixin;
+import org.xvm.runtime.template.xNullable;
+
+import org.xvm.runtime.template.reflect.xVar;
+
+import org.xvm.runtime.template._native.reflect.xRTFunction.FunctionHandle;
+
+
+/**
+ * Native implementation of WeakVar, backed by a {@link WeakReference}.
+ *
+ * When a WeakVar is constructed with a "notify" function, its Java reference is registered with a
+ * reference queue; once the garbage collector clears the reference, the function is enqueued into
+ * the runtime event queue of the service that assigned the referent.
+ */
+public class xWeakVar
+        extends xVar
+    {
+    public static xWeakVar INSTANCE;
+
+    public xWeakVar(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure, false);
+
+        f_mixin = new Mixin(templates, structure, false);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        }
+
+    @Override
+    public RefHandle createRefHandle(Frame frame, TypeComposition clazz, String sName)
+        {
+        TypeConstant type  = clazz.getBaseType();
+        boolean      fLazy = xLazyVar.isLazy(type);
+
+        // a cleared reference that is not lazy assumes the default value of the Referent
+        ObjectHandle hDefault = !fLazy && type.resolveGenericType("Referent").isNullable()
+                ? xNullable.NULL
+                : null;
+
+        return new WeakHandle(clazz, sName, isSoft(type), fLazy, hDefault);
+        }
+
+    @Override
+    protected boolean isConstructionRequired()
+        {
+        return true;
+        }
+
+    @Override
+    public int proceedConstruction(Frame frame, MethodStructure constructor, boolean fInitStruct,
+                                   ObjectHandle hStruct, ObjectHandle[] ahVar, int iReturn)
+        {
+        // the "notify" function is collected by the mixin constructor
+        return f_mixin.proceedConstruction(frame, constructor, fInitStruct, hStruct, ahVar, iReturn);
+        }
+
+    @Override
+    protected int invokeNativeGetReferent(Frame frame, RefHandle hRef, int iReturn)
+        {
+        // a combined lazy reference becomes unassigned when cleared, and is then recalculated
+        return ((WeakHandle) hRef).f_fLazy
+                ? xLazyVar.INSTANCE.getOrCalculate(frame, hRef, iReturn)
+                : super.invokeNativeGetReferent(frame, hRef, iReturn);
+        }
+
+    /**
+     * @return true iff the specified Ref type is WeakVar or SoftVar annotated
+     */
+    public static boolean isWeakOrSoft(TypeConstant type)
+        {
+        return type.containsAnnotation((ClassConstant) INSTANCE.getClassConstant()) || isSoft(type);
+        }
+
+    /**
+     * @return true iff the specified Ref type is SoftVar annotated
+     */
+    public static boolean isSoft(TypeConstant type)
+        {
+        return type.containsAnnotation((ClassConstant) xSoftVar.INSTANCE.getClassConstant());
+        }
+
+
+    // ----- ObjectHandle --------------------------------------------------------------------------
+
+    /**
+     * The handle for a weak or soft reference.
+     */
+    public static class WeakHandle
+            extends RefHandle
+        {
+        protected WeakHandle(TypeComposition clazz, String sName, boolean fSoft, boolean fLazy,
+                             ObjectHandle hDefault)
+            {
+            super(clazz, sName);
+
+            f_fSoft    = fSoft;
+            f_fLazy    = fLazy;
+            f_hDefault = hDefault;
+            }
+
+        @Override
+        public ObjectHandle getReferent()
+            {
+            Reference<ObjectHandle> ref    = f_ref.get();
+            ObjectHandle            hValue = ref == null ? null : ref.get();
+            return hValue == null ? f_hDefault : hValue;
+            }
+
+        @Override
+        public void setReferent(ObjectHandle hReferent)
+            {
+            Reference<ObjectHandle> refOld = f_ref.getAndSet(makeReference(hReferent));
+            if (refOld != null)
+                {
+                // a replaced reference must not produce a notification
+                refOld.clear();
+                }
+            }
+
+        @Override
+        public boolean compareAndSetReferent(ObjectHandle hExpect, ObjectHandle hNew)
+            {
+            Reference<ObjectHandle> refNew = makeReference(hNew);
+            while (true)
+                {
+                Reference<ObjectHandle> refOld = f_ref.get();
+                ObjectHandle            hOld   = refOld == null ? null : refOld.get();
+                if (hOld != hExpect)
+                    {
+                    return false;
+                    }
+
+                if (f_ref.compareAndSet(refOld, refNew))
+                    {
+                    if (refOld != null)
+                        {
+                        refOld.clear();
+                        }
+                    return true;
+                    }
+                }
+            }
+
+        /**
+         * Create a Java reference for the specified referent.
+         */
+        private Reference<ObjectHandle> makeReference(ObjectHandle hReferent)
+            {
+            if (hReferent == null)
+                {
+                return null;
+                }
+
+            ObjectHandle hNotify = getField(NOTIFY);
+            if (hNotify instanceof FunctionHandle)
+                {
+                Notification notification = new Notification(
+                        (FunctionHandle) hNotify, ServiceContext.getCurrentContext());
+                return f_fSoft
+                        ? new NotifyingSoftReference(hReferent, notification)
+                        : new NotifyingWeakReference(hReferent, notification);
+                }
+
+            return f_fSoft
+                    ? new SoftReference<>(hReferent)
+                    : new WeakReference<>(hReferent);
+            }
+
+        @Override
+        public String toString()
+            {
+            return (f_fSoft ? "(soft) " : "(weak) ") + super.toString();
+            }
+
+        /**
+         * True for a soft reference; false for a weak one.
+         */
+        protected final boolean f_fSoft;
+
+        /**
+         * True iff the reference is also lazy, and therefore becomes unassigned when cleared.
+         */
+        protected final boolean f_fLazy;
+
+        /**
+         * The value of a cleared (or not yet assigned) reference; null for unassigned.
+         */
+        protected final ObjectHandle f_hDefault;
+
+        /**
+         * The Java reference to the referent; the holder is shared by all the clones of this
+         * handle (e.g. the struct and the public ones).
+         */
+        protected final AtomicReference<Reference<ObjectHandle>> f_ref = new AtomicReference<>();
+        }
+
+
+    // ----- notifications -------------------------------------------------------------------------
+
+    /**
+     * A "notify" function bound to the service it should be called on.
+     */
+    protected static class Notification
+        {
+        protected Notification(FunctionHandle hNotify, ServiceContext context)
+            {
+            f_hNotify = hNotify;
+            f_context = context;
+            }
+
+        /**
+         * Enqueue the notification into the service's runtime event queue.
+         */
+        protected void send()
+            {
+            f_context.callLater(f_hNotify, Utils.OBJECTS_NONE, true);
+            }
+
+        private final FunctionHandle f_hNotify;
+        private final ServiceContext f_context;
+        }
+
+    /**
+     * Implemented by the Java references that carry a notification.
+     */
+    protected interface Notifying
+        {
+        Notification getNotification();
+        }
+
+    /**
+     * A weak reference registered with the reference queue.
+     */
+    protected static class NotifyingWeakReference
+            extends WeakReference<ObjectHandle>
+            implements Notifying
+        {
+        protected NotifyingWeakReference(ObjectHandle hReferent, Notification notification)
+            {
+            super(hReferent, Cleaner.INSTANCE.f_queue);
+
+            f_notification = notification;
+            }
+
+        @Override
+        public Notification getNotification()
+            {
+            return f_notification;
+            }
+
+        private final Notification f_notification;
+        }
+
+    /**
+     * A soft reference registered with the reference queue.
+     */
+    protected static class NotifyingSoftReference
+            extends SoftReference<ObjectHandle>
+            implements Notifying
+        {
+        protected NotifyingSoftReference(ObjectHandle hReferent, Notification notification)
+            {
+            super(hReferent, Cleaner.INSTANCE.f_queue);
+
+            f_notification = notification;
+            }
+
+        @Override
+        public Notification getNotification()
+            {
+            return f_notification;
+            }
+
+        private final Notification f_notification;
+        }
+
+    /**
+     * The daemon that sends the notifications for the references cleared by the garbage
+     * collector; it is only started when the first notifying reference is created.
+     */
+    protected static class Cleaner
+            implements Runnable
+        {
+        /**
+         * Construct the cleaner and start its daemon thread.
+         */
+        private Cleaner()
+            {
+            Thread thread = new Thread(this, "xvm-reference-cleaner");
+            thread.setDaemon(true);
+            thread.start();
+            }
+
+        @Override
+        public void run()
+            {
+            while (true)
+                {
+                try
+                    {
+                    ((Notifying) f_queue.remove()).getNotification().send();
+                    }
+                catch (InterruptedException e)
+                    {
+                    // ignore
+                    }
+                catch (Throwable e)
+                    {
+                    Utils.log(null, "Exception in reference cleaner: " + e);
+                    }
+                }
+            }
+
+        /**
+         * The singleton cleaner.
+         */
+        protected static final Cleaner INSTANCE = new Cleaner();
+
+        /**
+         * The queue of the cleared references.
+         */
+        private final ReferenceQueue<ObjectHandle> f_queue = new ReferenceQueue<>();
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The name of the WeakVar and SoftVar property holding the notification function.
+     */
+    private static final String NOTIFY = "notify";
+
+    /**
+     * The helper that runs the annotation constructors.
+     */
+    private final Mixin f_mixin;
+    }
@@ -200,7 +200,7 @@ public abstract class BitBasedArray
         }
 
     @Override
-    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
         {
         BitArrayHandle hArray    = (BitArrayHandle) hTarget;
         BitArrayHandle hArrayAdd = (BitArrayHandle) hElements;
@@ -217,10 +217,23 @@ public abstract class BitBasedArray
                 }
             hArray.m_cSize = cNew;
 
+            if (nIndex == -1 || nIndex == cThis)
+                {
+                nIndex = cThis;
+                }
+            else
+                {
+                // move the bits
+                for (int iBit = cThis - 1; iBit >= nIndex; iBit--)
+                    {
+                    setBit(abThis, iBit + cAdd, getBit(abThis, iBit));
+                    }
+                }
+
             byte[] abAdd = hArrayAdd.m_abValue;
             for (int iBit = 0; iBit < cAdd; iBit++)
                 {
-                setBit(abThis, cThis + iBit, getBit(abAdd, iBit));
+                setBit(abThis, nIndex + iBit, getBit(abAdd, iBit));
                 }
             }
         }
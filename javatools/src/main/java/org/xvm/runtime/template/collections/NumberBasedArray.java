@@ -0,0 +1,655 @@
+package org.xvm.runtime.template.collections;
+
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.ArrayHandle;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+
+/**
+ * A base class for native Array implementations of the fixed-width numeric types. The elements
+ * are stored in packed Java primitive arrays ({@code byte[]}, {@code short[]}, {@code int[]} or
+ * {@code long[]}, depending on the element width) as "raw bits"; the sub-classes are responsible
+ * for converting the element handles to and from the bits.
+ */
+public abstract class NumberBasedArray
+        extends xArray
+    {
+    /**
+     * Construct a number based array template.
+     *
+     * @param templates    the template registry
+     * @param structure    the Array class structure
+     * @param typeElement  the element type
+     * @param cBytes       the element width in bytes (1, 2, 4 or 8)
+     */
+    protected NumberBasedArray(TemplateRegistry templates, ClassStructure structure,
+                               TypeConstant typeElement, int cBytes)
+        {
+        super(templates, structure, false);
+
+        assert Integer.bitCount(cBytes) == 1 && cBytes <= 8;
+
+        f_typeElement = typeElement;
+        f_nShift      = Integer.numberOfTrailingZeros(cBytes);
+        }
+
+    @Override
+    public void initNative()
+        {
+        }
+
+    @Override
+    public TypeConstant getCanonicalType()
+        {
+        ConstantPool pool = pool();
+        return pool.ensureParameterizedTypeConstant(pool.typeArray(), f_typeElement);
+        }
+
+    /**
+     * @return the element type
+     */
+    public TypeConstant getElementType()
+        {
+        return f_typeElement;
+        }
+
+    /**
+     * Convert the specified element handle to the bits to store.
+     *
+     * @param hValue  the element handle
+     *
+     * @return the raw bits
+     *
+     * @throws ClassCastException if the handle is not of the element type
+     */
+    protected abstract long toBits(ObjectHandle hValue);
+
+    /**
+     * Convert the stored bits to an element handle.
+     *
+     * @param lBits  the raw bits as read from the storage (sign extended for the storage
+     *               element types that are narrower than 64 bits)
+     *
+     * @return the element handle
+     */
+    protected abstract ObjectHandle fromBits(long lBits);
+
+    /**
+     * @return true iff two elements are equal if and only if their bits are equal
+     */
+    protected boolean isBitEquality()
+        {
+        return true;
+        }
+
+    /**
+     * Compare two elements for equality; only used if {@link #isBitEquality()} is false.
+     *
+     * @return true iff the elements represented by the specified bits are equal
+     */
+    protected boolean equalBits(long lBits1, long lBits2)
+        {
+        return lBits1 == lBits2;
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, ObjectHandle[] ahArg)
+        {
+        int    c        = ahArg.length;
+        int    nShift   = f_nShift;
+        Object aStorage = allocate(nShift, c);
+        for (int i = 0; i < c; i++)
+            {
+            setBits(aStorage, nShift, i, toBits(ahArg[i]));
+            }
+        return new NumberArrayHandle(clzArray, nShift, aStorage, c, Mutability.Constant);
+        }
+
+    @Override
+    public ArrayHandle createArrayHandle(ClassComposition clzArray, int cCapacity, Mutability mutability)
+        {
+        return new NumberArrayHandle(clzArray, f_nShift, allocate(f_nShift, cCapacity), 0, mutability);
+        }
+
+    @Override
+    protected ArrayHandle createCopy(ArrayHandle hArray, Mutability mutability)
+        {
+        NumberArrayHandle hSrc = (NumberArrayHandle) hArray;
+
+        return new NumberArrayHandle(hSrc.getComposition(), hSrc.f_nShift,
+            copyOfRange(hSrc.m_aStorage, hSrc.f_nShift, hSrc.m_ofStart, hSrc.m_cSize, hSrc.m_cSize),
+            hSrc.m_cSize, mutability);
+        }
+
+    @Override
+    protected void fill(ArrayHandle hArray, int cSize, ObjectHandle hValue)
+        {
+        NumberArrayHandle hna = (NumberArrayHandle) hArray;
+
+        fill(hna.m_aStorage, hna.f_nShift, cSize, toBits(hValue));
+        hna.m_cSize = cSize;
+        }
+
+    @Override
+    public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        NumberArrayHandle hArray = (NumberArrayHandle) hTarget;
+
+        if (lIndex < 0 || lIndex >= hArray.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
+            }
+        return frame.assignValue(iReturn, fromBits(
+                getBits(hArray.m_aStorage, hArray.f_nShift, hArray.m_ofStart + (int) lIndex)));
+        }
+
+    @Override
+    public int assignArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, ObjectHandle hValue)
+        {
+        NumberArrayHandle hArray = (NumberArrayHandle) hTarget;
+
+        int cSize = hArray.m_cSize;
+
+        if (lIndex < 0 || lIndex > cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, cSize));
+            }
+
+        switch (hArray.m_mutability)
+            {
+            case Constant:
+                return frame.raiseException(xException.immutableObject(frame));
+
+            case Persistent:
+                return frame.raiseException(xException.unsupportedOperation(frame));
+            }
+
+        long lBits;
+        try
+            {
+            lBits = toBits(hValue);
+            }
+        catch (ClassCastException e)
+            {
+            return frame.raiseException(
+                xException.illegalCast(frame, hValue.getType().getValueString()));
+            }
+
+        hArray.ensureExclusive();
+
+        if (lIndex == cSize)
+            {
+            // an array can only grow without any "holes"
+            if (cSize == hArray.getCapacity())
+                {
+                if (hArray.m_mutability == Mutability.Fixed)
+                    {
+                    return frame.raiseException(xException.readOnly(frame));
+                    }
+
+                hArray.m_aStorage = grow(hArray, cSize + 1);
+                }
+
+            hArray.m_cSize++;
+            }
+
+        setBits(hArray.m_aStorage, hArray.f_nShift, (int) lIndex, lBits);
+        return Op.R_NEXT;
+        }
+
+    @Override
+    public int callEquals(Frame frame, ClassComposition clazz,
+                          ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
+        {
+        NumberArrayHandle h1 = (NumberArrayHandle) hValue1;
+        NumberArrayHandle h2 = (NumberArrayHandle) hValue2;
+
+        return frame.assignValue(iReturn, xBoolean.makeHandle(equalElements(h1, h2)));
+        }
+
+    @Override
+    public boolean compareIdentity(ObjectHandle hValue1, ObjectHandle hValue2)
+        {
+        NumberArrayHandle hArray1 = (NumberArrayHandle) hValue1;
+        NumberArrayHandle hArray2 = (NumberArrayHandle) hValue2;
+
+        if (hArray1.isMutable() || hArray2.isMutable())
+            {
+            return false;
+            }
+
+        return equalElements(hArray1, hArray2);
+        }
+
+    /**
+     * @return true iff the specified arrays have the same size and equal elements
+     */
+    protected boolean equalElements(NumberArrayHandle h1, NumberArrayHandle h2)
+        {
+        int cSize = h1.m_cSize;
+        if (cSize != h2.m_cSize)
+            {
+            return false;
+            }
+
+        int    nShift = h1.f_nShift;
+        Object a1     = h1.m_aStorage;
+        int    of1    = h1.m_ofStart;
+        Object a2     = h2.m_aStorage;
+        int    of2    = h2.m_ofStart;
+        if (isBitEquality())
+            {
+            return equals(a1, of1, a2, of2, nShift, cSize);
+            }
+
+        for (int i = 0; i < cSize; i++)
+            {
+            if (!equalBits(getBits(a1, nShift, of1 + i), getBits(a2, nShift, of2 + i)))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    @Override
+    protected void insertElement(ArrayHandle hTarget, ObjectHandle hElement, int nIndex)
+        {
+        NumberArrayHandle hArray = (NumberArrayHandle) hTarget;
+        long              lBits  = toBits(hElement);
+        int               cSize  = hArray.m_cSize;
+
+        if (cSize == hArray.getCapacity())
+            {
+            hArray.m_aStorage = grow(hArray, cSize + 1);
+            }
+        hArray.m_cSize++;
+
+        Object aStorage = hArray.m_aStorage;
+        if (nIndex == -1 || nIndex == cSize)
+            {
+            nIndex = cSize;
+            }
+        else
+            {
+            // insert
+            System.arraycopy(aStorage, nIndex, aStorage, nIndex + 1, cSize - nIndex);
+            }
+        setBits(aStorage, hArray.f_nShift, nIndex, lBits);
+        }
+
+    @Override
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
+        {
+        NumberArrayHandle hArray    = (NumberArrayHandle) hTarget;
+        NumberArrayHandle hArrayAdd = (NumberArrayHandle) hElements;
+
+        if (hArrayAdd.f_nShift != hArray.f_nShift)
+            {
+            throw new ClassCastException();
+            }
+
+        int cAdd = hArrayAdd.m_cSize;
+        if (cAdd > 0)
+            {
+            int cThis = hArray.m_cSize;
+            int cNew  = cThis + cAdd;
+            if (cNew > hArray.getCapacity())
+                {
+                hArray.m_aStorage = grow(hArray, cNew);
+                }
+            hArray.m_cSize = cNew;
+
+            Object aStorage = hArray.m_aStorage;
+            if (nIndex == -1 || nIndex == cThis)
+                {
+                nIndex = cThis;
+                }
+            else
+                {
+                System.arraycopy(aStorage, nIndex, aStorage, nIndex + cAdd, cThis - nIndex);
+                }
+            System.arraycopy(hArrayAdd.m_aStorage, hArrayAdd.m_ofStart, aStorage, nIndex, cAdd);
+            }
+        }
+
+    @Override
+    protected ArrayHandle createSliceView(ArrayHandle hArray, int ixFrom, int cSlice)
+        {
+        NumberArrayHandle hSrc = (NumberArrayHandle) hArray;
+
+        return new NumberArrayHandle(hSrc.getComposition(), hSrc.f_nShift, hSrc.m_aStorage,
+                cSlice, hSrc.m_mutability);
+        }
+
+    @Override
+    protected ArrayHandle createSliceCopy(ArrayHandle hArray, int ixFrom, int cSlice, boolean fReverse)
+        {
+        NumberArrayHandle hSrc     = (NumberArrayHandle) hArray;
+        int               nShift   = hSrc.f_nShift;
+        Object            aStorage = hSrc.m_aStorage;
+        int               ofFrom   = hSrc.m_ofStart + ixFrom;
+        Object            aNew;
+
+        if (fReverse)
+            {
+            aNew = allocate(nShift, cSlice);
+            for (int i = 0, ofLast = ofFrom + cSlice - 1; i < cSlice; i++)
+                {
+                setBits(aNew, nShift, i, getBits(aStorage, nShift, ofLast - i));
+                }
+            }
+        else
+            {
+            aNew = copyOfRange(aStorage, nShift, ofFrom, cSlice, cSlice);
+            }
+
+        return new NumberArrayHandle(hSrc.getComposition(), nShift, aNew, cSlice,
+                hSrc.m_mutability);
+        }
+
+
+    // ----- helper methods ------------------------------------------------------------------------
+
+    private Object grow(NumberArrayHandle hArray, int cSize)
+        {
+        int    cCapacity = calculateCapacity(hArray.getCapacity(), cSize);
+        Object aNew      = allocate(hArray.f_nShift, cCapacity);
+        System.arraycopy(hArray.m_aStorage, 0, aNew, 0, hArray.m_cSize);
+        return aNew;
+        }
+
+    /**
+     * Allocate a storage for the specified number of elements.
+     *
+     * @param nShift  the storage kind (log2 of the element width in bytes)
+     * @param c       the number of elements
+     */
+    protected static Object allocate(int nShift, int c)
+        {
+        switch (nShift)
+            {
+            case 0:
+                return new byte[c];
+            case 1:
+                return new short[c];
+            case 2:
+                return new int[c];
+            case 3:
+                return new long[c];
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * @return the number of elements the specified storage can hold
+     */
+    protected static int length(Object aStorage, int nShift)
+        {
+        switch (nShift)
+            {
+            case 0:
+                return ((byte[]) aStorage).length;
+            case 1:
+                return ((short[]) aStorage).length;
+            case 2:
+                return ((int[]) aStorage).length;
+            case 3:
+                return ((long[]) aStorage).length;
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * @return the (sign extended) bits at the specified index
+     */
+    protected static long getBits(Object aStorage, int nShift, int i)
+        {
+        switch (nShift)
+            {
+            case 0:
+                return ((byte[]) aStorage)[i];
+            case 1:
+                return ((short[]) aStorage)[i];
+            case 2:
+                return ((int[]) aStorage)[i];
+            case 3:
+                return ((long[]) aStorage)[i];
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Store the bits at the specified index, truncating them to the element width.
+     */
+    protected static void setBits(Object aStorage, int nShift, int i, long lBits)
+        {
+        switch (nShift)
+            {
+            case 0:
+                ((byte[]) aStorage)[i] = (byte) lBits;
+                break;
+            case 1:
+                ((short[]) aStorage)[i] = (short) lBits;
+                break;
+            case 2:
+                ((int[]) aStorage)[i] = (int) lBits;
+                break;
+            case 3:
+                ((long[]) aStorage)[i] = lBits;
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * Copy the specified range of elements into a new storage.
+     *
+     * @param aStorage   the storage to copy from
+     * @param nShift     the storage kind
+     * @param of         the index of the first element to copy
+     * @param c          the number of elements to copy
+     * @param cCapacity  the capacity of the new storage (not less than {@code c})
+     *
+     * @return the new storage
+     */
+    protected static Object copyOfRange(Object aStorage, int nShift, int of, int c, int cCapacity)
+        {
+        Object aNew = allocate(nShift, cCapacity);
+        System.arraycopy(aStorage, of, aNew, 0, c);
+        return aNew;
+        }
+
+    /**
+     * Fill the first {@code c} elements of the specified storage with the specified bits.
+     */
+    protected static void fill(Object aStorage, int nShift, int c, long lBits)
+        {
+        switch (nShift)
+            {
+            case 0:
+                Arrays.fill((byte[]) aStorage, 0, c, (byte) lBits);
+                break;
+            case 1:
+                Arrays.fill((short[]) aStorage, 0, c, (short) lBits);
+                break;
+            case 2:
+                Arrays.fill((int[]) aStorage, 0, c, (int) lBits);
+                break;
+            case 3:
+                Arrays.fill((long[]) aStorage, 0, c, lBits);
+                break;
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * @return true iff the {@code c} elements of the specified storages starting at the specified
+     *         offsets are equal
+     */
+    protected static boolean equals(Object a1, int of1, Object a2, int of2, int nShift, int c)
+        {
+        switch (nShift)
+            {
+            case 0:
+                return Arrays.equals((byte[]) a1, of1, of1 + c, (byte[]) a2, of2, of2 + c);
+            case 1:
+                return Arrays.equals((short[]) a1, of1, of1 + c, (short[]) a2, of2, of2 + c);
+            case 2:
+                return Arrays.equals((int[]) a1, of1, of1 + c, (int[]) a2, of2, of2 + c);
+            case 3:
+                return Arrays.equals((long[]) a1, of1, of1 + c, (long[]) a2, of2, of2 + c);
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+
+    // ----- handle --------------------------------------------------------------------------------
+
+    /**
+     * The array handle for the number based arrays.
+     */
+    public static class NumberArrayHandle
+            extends ArrayHandle
+        {
+        /**
+         * The storage kind: log2 of the element width in bytes.
+         */
+        public final int f_nShift;
+
+        /**
+         * The storage: {@code byte[]}, {@code short[]}, {@code int[]} or {@code long[]}.
+         */
+        public Object m_aStorage;
+
+        protected NumberArrayHandle(TypeComposition clzArray, int nShift, Object aStorage,
+                                    int cSize, Mutability mutability)
+            {
+            super(clzArray, mutability);
+
+            f_nShift   = nShift;
+            m_aStorage = aStorage;
+            m_cSize    = cSize;
+            }
+
+        @Override
+        public int getCapacity()
+            {
+            return length(m_aStorage, f_nShift) - m_ofStart;
+            }
+
+        @Override
+        public void setCapacity(int nCapacity)
+            {
+            m_aStorage = copyOfRange(m_aStorage, f_nShift, m_ofStart, m_cSize, nCapacity);
+            m_ofStart  = 0;
+            m_fShared  = false;
+            }
+
+        @Override
+        public ObjectHandle getElement(int ix)
+            {
+            return ((NumberBasedArray) getTemplate()).fromBits(
+                    getBits(m_aStorage, f_nShift, m_ofStart + ix));
+            }
+
+        @Override
+        public void deleteElement(int ix)
+            {
+            int cSize = m_cSize;
+            if (ix < cSize - 1)
+                {
+                System.arraycopy(m_aStorage, ix + 1, m_aStorage, ix, cSize - ix - 1);
+                }
+            setBits(m_aStorage, f_nShift, --m_cSize, 0);
+            }
+
+        @Override
+        public boolean isNativeEqual()
+            {
+            return ((NumberBasedArray) getTemplate()).isBitEquality();
+            }
+
+        @Override
+        public int compareTo(ObjectHandle that)
+            {
+            NumberArrayHandle hThat = (NumberArrayHandle) that;
+
+            int cThis = m_cSize;
+            int cThat = hThat.m_cSize;
+            if (cThis != cThat)
+                {
+                return cThis - cThat;
+                }
+
+            for (int i = 0; i < cThis; i++)
+                {
+                int nDiff = Long.compare(getBits(m_aStorage, f_nShift, m_ofStart + i),
+                                         getBits(hThat.m_aStorage, f_nShift, hThat.m_ofStart + i));
+                if (nDiff != 0)
+                    {
+                    return nDiff;
+                    }
+                }
+            return 0;
+            }
+
+        @Override
+        public int hashCode()
+            {
+            int nHash = 0;
+            for (int i = m_ofStart, iEnd = i + m_cSize; i < iEnd; i++)
+                {
+                nHash = 31 * nHash + Long.hashCode(getBits(m_aStorage, f_nShift, i));
+                }
+            return nHash;
+            }
+
+        @Override
+        public boolean equals(Object obj)
+            {
+            if (obj instanceof NumberArrayHandle)
+                {
+                NumberArrayHandle that = (NumberArrayHandle) obj;
+                return f_nShift == that.f_nShift && m_cSize == that.m_cSize &&
+                       NumberBasedArray.equals(m_aStorage, m_ofStart,
+                                that.m_aStorage, that.m_ofStart, f_nShift, m_cSize);
+                }
+            return false;
+            }
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The element type.
+     */
+    protected final TypeConstant f_typeElement;
+
+    /**
+     * The storage kind: log2 of the element width in bytes.
+     */
+    protected final int f_nShift;
+    }
@@ -35,7 +35,17 @@ import org.xvm.runtime.template.xEnum;
 import org.xvm.runtime.template.xEnum.EnumHandle;
 import org.xvm.runtime.template.xException;
 
+import org.xvm.runtime.template.numbers.xDec32;
+import org.xvm.runtime.template.numbers.xDec64;
+import org.xvm.runtime.template.numbers.xFloat32;
+import org.xvm.runtime.template.numbers.xFloat64;
+import org.xvm.runtime.template.numbers.xInt16;
+import org.xvm.runtime.template.numbers.xInt32;
 import org.xvm.runtime.template.numbers.xInt64;
+import org.xvm.runtime.template.numbers.xInt8;
+import org.xvm.runtime.template.numbers.xUInt16;
+import org.xvm.runtime.template.numbers.xUInt32;
+import org.xvm.runtime.template.numbers.xUInt64;
 
 import org.xvm.runtime.template.text.xString.StringHandle;
 
@@ -72,6 +82,27 @@ public class xArray
             registerNativeTemplate(new xBooleanArray(f_templates, f_struct, true));
             registerNativeTemplate(new xBitArray    (f_templates, f_struct, true));
             registerNativeTemplate(new xByteArray   (f_templates, f_struct, true));
+
+            // packed arrays for the remaining fixed-width numeric types
+            NumberBasedArray[] aTemplates = new NumberBasedArray[]
+                {
+                new xIntNumberArray(f_templates, f_struct, xInt8  .INSTANCE, 1, false),
+                new xIntNumberArray(f_templates, f_struct, xInt16 .INSTANCE, 2, false),
+                new xIntNumberArray(f_templates, f_struct, xInt32 .INSTANCE, 4, false),
+                new xIntNumberArray(f_templates, f_struct, xUInt16.INSTANCE, 2, true),
+                new xIntNumberArray(f_templates, f_struct, xUInt32.INSTANCE, 4, true),
+                new xIntNumberArray(f_templates, f_struct, xUInt64.INSTANCE, 8, true),
+                new xFloatArray    (f_templates, f_struct, xFloat32.INSTANCE, 4),
+                new xFloatArray    (f_templates, f_struct, xFloat64.INSTANCE, 8),
+                new xDecArray      (f_templates, f_struct, xDec32 .INSTANCE, 4),
+                new xDecArray      (f_templates, f_struct, xDec64 .INSTANCE, 8),
+                };
+
+            for (NumberBasedArray template : aTemplates)
+                {
+                registerNativeTemplate(template);
+                }
+            NUMBER_TEMPLATES = aTemplates;
             }
         }
 
@@ -88,6 +119,11 @@ public class xArray
         mapTemplates.put(pool.typeBit(),     xBitArray.INSTANCE);
         mapTemplates.put(pool.typeByte(),    xByteArray.INSTANCE);
 
+        for (NumberBasedArray template : NUMBER_TEMPLATES)
+            {
+            mapTemplates.put(template.getElementType(), template);
+            }
+
         ARRAY_TEMPLATES = mapTemplates;
 
         // cache the constructors
@@ -431,8 +467,9 @@ public class xArray
         {
         GenericArrayHandle hSrc = (GenericArrayHandle) hArray;
 
+        int ofStart = hSrc.m_ofStart;
         return new GenericArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_ahValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_ahValue, ofStart, ofStart + hSrc.m_cSize), mutability);
         }
 
     /**
@@ -624,12 +661,9 @@ public class xArray
         GenericArrayHandle hArray1 = (GenericArrayHandle) hValue1;
         GenericArrayHandle hArray2 = (GenericArrayHandle) hValue2;
 
-        ObjectHandle[] ah1 = hArray1.m_ahValue;
-        ObjectHandle[] ah2 = hArray2.m_ahValue;
-
         // compare the array dimensions
-        int cElements = ah1.length;
-        if (cElements != ah2.length)
+        int cElements = hArray1.m_cSize;
+        if (cElements != hArray2.m_cSize)
             {
             return frame.assignValue(iReturn, xBoolean.FALSE);
             }
@@ -639,7 +673,9 @@ public class xArray
         TypeConstant typeEl = clazz.getType().getParamType(0);
 
         int[] holder = new int[] {0}; // the index holder
-        return new Equals(ah1, ah2, typeEl, cElements, holder, iReturn).doNext(frame);
+        return new Equals(hArray1.m_ahValue, hArray1.m_ofStart,
+                          hArray2.m_ahValue, hArray2.m_ofStart,
+                          typeEl, cElements, holder, iReturn).doNext(frame);
         }
 
     @Override
@@ -655,16 +691,18 @@ public class xArray
 
         ObjectHandle[] ah1 = hArray1.m_ahValue;
         ObjectHandle[] ah2 = hArray2.m_ahValue;
+        int            of1 = hArray1.m_ofStart;
+        int            of2 = hArray2.m_ofStart;
 
-        if (ah1 == ah2)
+        if (ah1 == ah2 && of1 == of2)
             {
             return true;
             }
 
         for (int i = 0, c = hArray1.m_cSize; i < c; i++)
             {
-            ObjectHandle hV1 = ah1[i];
-            ObjectHandle hV2 = ah2[i];
+            ObjectHandle hV1 = ah1[of1 + i];
+            ObjectHandle hV2 = ah2[of2 + i];
 
             ClassTemplate template = hV1.getTemplate();
             if (template != hV2.getTemplate() || !template.compareIdentity(hV1, hV2))
@@ -693,8 +731,13 @@ public class xArray
                 mutability = hArray.m_mutability;
                 hArray     = createCopy(hArray, Mutability.Mutable);
                 break;
+
+            default:
+                hArray.ensureExclusive();
+                break;
             }
 
+        assert hArray.m_ofStart == 0;
         try
             {
             insertElement(hArray, hValue, -1);
@@ -731,11 +774,16 @@ public class xArray
                 mutability = hArray.m_mutability;
                 hArray     = createCopy(hArray, Mutability.Mutable);
                 break;
+
+            default:
+                hArray.ensureExclusive();
+                break;
             }
 
+        assert hArray.m_ofStart == 0;
         try
             {
-            addElements(hArray, hValue);
+            insertElements(hArray, hValue, -1);
             }
         catch (ClassCastException e)
             {
@@ -770,8 +818,13 @@ public class xArray
                 mutability = hArray.m_mutability;
                 hArray     = createCopy(hArray, Mutability.Mutable);
                 break;
+
+            default:
+                hArray.ensureExclusive();
+                break;
             }
 
+        assert hArray.m_ofStart == 0;
         try
             {
             insertElement(hArray, hValue, (int) hIndex.getValue());
@@ -796,13 +849,59 @@ public class xArray
     protected int insertElements(Frame frame, ObjectHandle hTarget,
                                  JavaLong hIndex, ObjectHandle hValue, int iReturn)
         {
-        throw new UnsupportedOperationException("TODO");
+        ArrayHandle hArray = (ArrayHandle) hTarget;
+        long        lIndex = hIndex.getValue();
+        if (lIndex < 0 || lIndex > hArray.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
+            }
+
+        if (hValue == hArray)
+            {
+            // the array is inserted into itself; take a snapshot of the values to insert
+            hValue = createCopy(hArray, Mutability.Constant);
+            }
+
+        Mutability mutability = null;
+        switch (hArray.m_mutability)
+            {
+            case Fixed:
+                return frame.raiseException(xException.readOnly(frame));
+
+            case Constant:
+            case Persistent:
+                mutability = hArray.m_mutability;
+                hArray     = createCopy(hArray, Mutability.Mutable);
+                break;
+
+            default:
+                hArray.ensureExclusive();
+                break;
+            }
+
+        assert hArray.m_ofStart == 0;
+        try
+            {
+            insertElements(hArray, hValue, (int) lIndex);
+            }
+        catch (ClassCastException e)
+            {
+            return frame.raiseException(
+                xException.illegalCast(frame, hValue.getType().getValueString()));
+            }
+
+        if (mutability != null)
+            {
+            hArray.m_mutability = mutability;
+            }
+
+        return frame.assignValue(iReturn, hArray);
         }
 
     /**
      * Add or insert an element to the array (must be overridden by specialized classes).
      *
-     * @param hTarget   the array
+     * @param hTarget   the array (not shared and starting at offset zero)
      * @param hElement  the element to add
      * @param nIndex    the index (-1 for add)
      */
@@ -832,14 +931,14 @@ public class xArray
         }
 
     /**
-     * Add an array of elements to the array (must be overridden by specialized classes).
+     * Add or insert an array of elements to the array (must be overridden by specialized
+     * classes).
      *
-     * @param hTarget    the array
+     * @param hTarget    the array (not shared and starting at offset zero)
      * @param hElements  the array of values to add
-     *
-     * @return the resulting array handle
+     * @param nIndex     the index (-1 for add)
      */
-    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
         {
         GenericArrayHandle hArray    = (GenericArrayHandle) hTarget;
         GenericArrayHandle hArrayAdd = (GenericArrayHandle) hElements;
@@ -855,7 +954,16 @@ public class xArray
                 ahThis = hArray.m_ahValue = grow(ahThis, cThis + cThat);
                 }
             hArray.m_cSize += cThat;
-            System.arraycopy(hArrayAdd.m_ahValue, 0, ahThis, cThis, cThat);
+
+            if (nIndex == -1 || nIndex == cThis)
+                {
+                nIndex = cThis;
+                }
+            else
+                {
+                System.arraycopy(ahThis, nIndex, ahThis, nIndex + cThat, cThis - nIndex);
+                }
+            System.arraycopy(hArrayAdd.m_ahValue, hArrayAdd.m_ofStart, ahThis, nIndex, cThat);
             }
         }
 
@@ -882,8 +990,13 @@ public class xArray
                 mutability = hArray.m_mutability;
                 hArray     = createCopy(hArray, Mutability.Mutable);
                 break;
+
+            default:
+                hArray.ensureExclusive();
+                break;
             }
 
+        assert hArray.m_ofStart == 0;
         hArray.deleteElement((int) lIndex);
 
         if (mutability != null)
@@ -895,7 +1008,12 @@ public class xArray
         }
 
     /**
-     * slice(Interval<Int>) implementation
+     * slice(Interval<Int>) implementation.
+     * <p>
+     * Unless reversed, a slice shares the storage of the array it's taken from. If that array can
+     * be modified in place (Fixed or Mutable), both handles are marked as shared, and whichever is
+     * modified first copies the storage; the storage of Constant and Persistent arrays is never
+     * copied.
      */
     protected int slice(Frame        frame,
                         ObjectHandle hTarget,
@@ -906,7 +1024,7 @@ public class xArray
                         boolean      fReverse,
                         int          iReturn)
         {
-        GenericArrayHandle hArray = (GenericArrayHandle) hTarget;
+        ArrayHandle hArray = (ArrayHandle) hTarget;
 
         // calculate inclusive lower
         if (fExLower)
@@ -920,39 +1038,87 @@ public class xArray
             ++ixUpper;
             }
 
-        ObjectHandle[] ahValue = hArray.m_ahValue;
-        try
+        int cSize = hArray.m_cSize;
+        if (ixLower >= ixUpper)
             {
-            ObjectHandle[] ahNew;
-            if (ixLower >= ixUpper)
-                {
-                ahNew = Utils.OBJECTS_NONE;
-                }
-            else if (fReverse)
-                {
-                int cNew = (int) (ixUpper - ixLower);
-                ahNew = new ObjectHandle[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    ahNew[i] = ahValue[(int) ixUpper - i - 1];
-                    }
-                }
-            else
-                {
-                ahNew = Arrays.copyOfRange(ahValue, (int) ixLower, (int) ixUpper);
-                }
+            return frame.assignValue(iReturn, createSliceCopy(hArray, 0, 0, false));
+            }
+
+        if (ixLower < 0 || ixUpper > cSize)
+            {
+            return frame.raiseException(
+                xException.outOfBounds(frame, ixLower < 0 ? ixLower : ixUpper, cSize));
+            }
+
+        int ixFrom = (int) ixLower;
+        int cSlice = (int) (ixUpper - ixLower);
+        if (fReverse && cSlice > 1)
+            {
+            return frame.assignValue(iReturn, createSliceCopy(hArray, ixFrom, cSlice, true));
+            }
+
+        if (hArray.m_mutability.compareTo(Mutability.Fixed) >= 0)
+            {
+            hArray.m_fShared = true;
+            }
 
-            ArrayHandle hArrayNew = new GenericArrayHandle(
-                hArray.getComposition(), ahNew, hArray.m_mutability);
+        ArrayHandle hSlice = createSliceView(hArray, ixFrom, cSlice);
+        hSlice.m_ofStart = hArray.m_ofStart + ixFrom;
+        hSlice.m_fShared = hArray.m_fShared;
+        return frame.assignValue(iReturn, hSlice);
+        }
 
-            return frame.assignValue(iReturn, hArrayNew);
+    /**
+     * Create an array handle for the specified section of the array that uses the same storage
+     * (must be overridden by specialized classes). The caller is responsible for setting the
+     * offset and the "shared" flag.
+     *
+     * @param hArray  the array
+     * @param ixFrom  the index of the first element of the section
+     * @param cSlice  the number of elements in the section
+     *
+     * @return a new array handle with the same mutability as the array
+     */
+    protected ArrayHandle createSliceView(ArrayHandle hArray, int ixFrom, int cSlice)
+        {
+        GenericArrayHandle hSrc = (GenericArrayHandle) hArray;
+
+        return new GenericArrayHandle(hSrc.getComposition(), hSrc.m_ahValue, cSlice,
+                hSrc.m_mutability);
+        }
+
+    /**
+     * Create an array handle for the specified section of the array that holds a copy of the
+     * elements (must be overridden by specialized classes).
+     *
+     * @param hArray    the array
+     * @param ixFrom    the index of the first element of the section
+     * @param cSlice    the number of elements in the section
+     * @param fReverse  true iff the elements should be copied in the reverse order
+     *
+     * @return a new array handle with the same mutability as the array
+     */
+    protected ArrayHandle createSliceCopy(ArrayHandle hArray, int ixFrom, int cSlice, boolean fReverse)
+        {
+        GenericArrayHandle hSrc    = (GenericArrayHandle) hArray;
+        ObjectHandle[]     ahValue = hSrc.m_ahValue;
+        int                ofFrom  = hSrc.m_ofStart + ixFrom;
+        ObjectHandle[]     ahNew;
+
+        if (fReverse)
+            {
+            ahNew = new ObjectHandle[cSlice];
+            for (int i = 0, ofLast = ofFrom + cSlice - 1; i < cSlice; i++)
+                {
+                ahNew[i] = ahValue[ofLast - i];
+                }
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = ahValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixLower < 0 || ixLower >= c ? ixLower : ixUpper, c));
+            ahNew = Arrays.copyOfRange(ahValue, ofFrom, ofFrom + cSlice);
             }
+
+        return new GenericArrayHandle(hSrc.getComposition(), ahNew, hSrc.m_mutability);
         }
 
 
@@ -968,7 +1134,7 @@ public class xArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
-        return frame.assignValue(iReturn, hArray.m_ahValue[(int) lIndex]);
+        return frame.assignValue(iReturn, hArray.m_ahValue[hArray.m_ofStart + (int) lIndex]);
         }
 
     @Override
@@ -991,6 +1157,8 @@ public class xArray
                 return frame.raiseException(xException.readOnly(frame));
             }
 
+        hArray.ensureExclusive();
+
         ObjectHandle[] ahValue = hArray.m_ahValue;
         if (lIndex == cSize)
             {
@@ -1064,17 +1232,21 @@ public class xArray
             implements Frame.Continuation
         {
         final private ObjectHandle[] ah1;
+        final private int of1;
         final private ObjectHandle[] ah2;
+        final private int of2;
         final private TypeConstant typeEl;
         final private int cElements;
         final private int[] holder;
         final private int iReturn;
 
-        public Equals(ObjectHandle[] ah1, ObjectHandle[] ah2, TypeConstant typeEl,
+        public Equals(ObjectHandle[] ah1, int of1, ObjectHandle[] ah2, int of2, TypeConstant typeEl,
                       int cElements, int[] holder, int iReturn)
             {
             this.ah1 = ah1;
+            this.of1 = of1;
             this.ah2 = ah2;
+            this.of2 = of2;
             this.typeEl = typeEl;
             this.cElements = cElements;
             this.holder = holder;
@@ -1097,7 +1269,7 @@ public class xArray
             int iEl;
             while ((iEl = holder[0]++) < cElements)
                 {
-                switch (typeEl.callEquals(frameCaller, ah1[iEl], ah2[iEl], Op.A_STACK))
+                switch (typeEl.callEquals(frameCaller, ah1[of1 + iEl], ah2[of2 + iEl], Op.A_STACK))
                     {
                     case Op.R_NEXT:
                         ObjectHandle hResult = frameCaller.popStack();
@@ -1187,22 +1359,23 @@ public class xArray
         @Override
         public int getCapacity()
             {
-            return m_ahValue.length;
+            return m_ahValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            ObjectHandle[] ahOld = m_ahValue;
             ObjectHandle[] ahNew = new ObjectHandle[nCapacity];
-            System.arraycopy(ahOld, 0, ahNew, 0, ahOld.length);
+            System.arraycopy(m_ahValue, m_ofStart, ahNew, 0, m_cSize);
             m_ahValue = ahNew;
+            m_ofStart = 0;
+            m_fShared = false;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return m_ahValue[ix];
+            return m_ahValue[m_ofStart + ix];
             }
 
         @Override
@@ -1234,6 +1407,7 @@ public class xArray
     private static ClassComposition s_clzStringArray;
     private static ClassComposition s_clzObjectArray;
     private static Map<TypeConstant, xArray> ARRAY_TEMPLATES;
+    private static NumberBasedArray[]        NUMBER_TEMPLATES;
 
     private static MethodStructure CREATE_LIST_SET;
     }
@@ -86,8 +86,9 @@ public class xByteArray
         {
         ByteArrayHandle hSrc = (ByteArrayHandle) hArray;
 
+        int ofStart = hSrc.m_ofStart;
         return new ByteArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_abValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_abValue, ofStart, ofStart + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -115,7 +116,7 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
-        byte b = hArray.m_abValue[(int) lIndex];
+        byte b = hArray.m_abValue[hArray.m_ofStart + (int) lIndex];
         return frame.assignValue(iReturn, xUInt8.makeHandle(((long) b) & 0xFF));
         }
 
@@ -140,6 +141,8 @@ public class xByteArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         byte[] abValue = hArray.m_abValue;
         if (lIndex == cSize)
             {
@@ -170,8 +173,16 @@ public class xByteArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        if (!hArray.isMutable())
+            {
+            // the storage of an immutable array could be shared by its slices
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
-                xChar.makeHandle(++hArray.m_abValue[(int) lIndex]));
+                xChar.makeHandle(++hArray.m_abValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -181,8 +192,7 @@ public class xByteArray
         ByteArrayHandle h1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle h2 = (ByteArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_abValue, h2.m_abValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -191,12 +201,12 @@ public class xByteArray
         ByteArrayHandle hArray1 = (ByteArrayHandle) hValue1;
         ByteArrayHandle hArray2 = (ByteArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_abValue, hArray2.m_abValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
@@ -225,12 +235,13 @@ public class xByteArray
         }
 
     @Override
-    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
         {
         ByteArrayHandle hArray    = (ByteArrayHandle) hTarget;
         ByteArrayHandle hArrayAdd = (ByteArrayHandle) hElements;
 
         int    cNew  = hArrayAdd.m_cSize;
+        int    ofNew = hArrayAdd.m_ofStart;
         byte[] abNew = hArrayAdd.m_abValue;
 
         if (cNew > 0)
@@ -243,68 +254,50 @@ public class xByteArray
                 abArray = hArray.m_abValue = grow(abArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(abNew, 0, abArray, cArray, cNew);
+
+            if (nIndex == -1 || nIndex == cArray)
+                {
+                nIndex = cArray;
+                }
+            else
+                {
+                System.arraycopy(abArray, nIndex, abArray, nIndex + cNew, cArray - nIndex);
+                }
+            System.arraycopy(abNew, ofNew, abArray, nIndex, cNew);
             }
         }
 
     @Override
-    protected int slice(Frame        frame,
-                        ObjectHandle hTarget,
-                        long         ixLower,
-                        boolean      fExLower,
-                        long         ixUpper,
-                        boolean      fExUpper,
-                        boolean      fReverse,
-                        int          iReturn)
+    protected ArrayHandle createSliceView(ArrayHandle hArray, int ixFrom, int cSlice)
         {
-        ByteArrayHandle hArray = (ByteArrayHandle) hTarget;
+        ByteArrayHandle hSrc = (ByteArrayHandle) hArray;
 
-        // calculate inclusive lower
-        if (fExLower)
-            {
-            ++ixLower;
-            }
+        return new ByteArrayHandle(hSrc.getComposition(), hSrc.m_abValue, cSlice,
+                hSrc.m_mutability);
+        }
 
-        // calculate exclusive upper
-        if (!fExUpper)
-            {
-            ++ixUpper;
-            }
+    @Override
+    protected ArrayHandle createSliceCopy(ArrayHandle hArray, int ixFrom, int cSlice, boolean fReverse)
+        {
+        ByteArrayHandle hSrc    = (ByteArrayHandle) hArray;
+        byte[]          abValue = hSrc.m_abValue;
+        int             ofFrom  = hSrc.m_ofStart + ixFrom;
+        byte[]          abNew;
 
-        byte[] abValue = hArray.m_abValue;
-        try
+        if (fReverse)
             {
-            byte[] abNew;
-
-            if (ixLower >= ixUpper)
+            abNew = new byte[cSlice];
+            for (int i = 0, ofLast = ofFrom + cSlice - 1; i < cSlice; i++)
                 {
-                abNew = new byte[0];
+                abNew[i] = abValue[ofLast - i];
                 }
-            else if (fReverse)
-                {
-                int cNew = (int) (ixUpper - ixLower);
-                abNew = new byte[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    abNew[i] = abValue[(int) ixUpper - i - 1];
-                    }
-                }
-            else
-                {
-                abNew = Arrays.copyOfRange(abValue, (int) ixLower, (int) ixUpper);
-                }
-
-            ByteArrayHandle hArrayNew = new ByteArrayHandle(
-                hArray.getComposition(), abNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = abValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixLower < 0 || ixLower >= c ? ixLower : ixUpper, c));
+            abNew = Arrays.copyOfRange(abValue, ofFrom, ofFrom + cSlice);
             }
+
+        return new ByteArrayHandle(hSrc.getComposition(), abNew, hSrc.m_mutability);
         }
 
 
@@ -326,10 +319,16 @@ public class xByteArray
 
         protected ByteArrayHandle(TypeComposition clzArray, byte[] abValue, Mutability mutability)
             {
+            this(clzArray, abValue, abValue.length, mutability);
+            }
+
+        protected ByteArrayHandle(TypeComposition clzArray, byte[] abValue, int cSize,
+                                  Mutability mutability)
+            {
             super(clzArray, mutability);
 
             m_abValue = abValue;
-            m_cSize   = abValue.length;
+            m_cSize   = cSize;
             }
 
         protected ByteArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
@@ -342,22 +341,23 @@ public class xByteArray
         @Override
         public int getCapacity()
             {
-            return m_abValue.length;
+            return m_abValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            byte[] abOld = m_abValue;
             byte[] abNew = new byte[nCapacity];
-            System.arraycopy(abOld, 0, abNew, 0, abOld.length);
+            System.arraycopy(m_abValue, m_ofStart, abNew, 0, m_cSize);
             m_abValue = abNew;
+            m_ofStart = 0;
+            m_fShared = false;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xUInt8.makeHandle(m_abValue[ix]);
+            return xUInt8.makeHandle(m_abValue[m_ofStart + ix]);
             }
 
         @Override
@@ -375,14 +375,14 @@ public class xByteArray
             {
             if (isMutable())
                 {
-                // purge the unused space
+                // purge the unused space (and the elements outside of a slice)
                 byte[] ab = m_abValue;
                 int    c  = m_cSize;
-                if (ab.length != c)
+                if (m_ofStart != 0 || ab.length != c)
                     {
-                    byte[] abNew = new byte[c];
-                    System.arraycopy(ab, 0, abNew, 0, c);
-                    m_abValue = abNew;
+                    m_abValue = Arrays.copyOfRange(ab, m_ofStart, m_ofStart + c);
+                    m_ofStart = 0;
+                    m_fShared = false;
                     }
                 super.makeImmutable();
                 }
@@ -397,10 +397,13 @@ public class xByteArray
         @Override
         public int compareTo(ObjectHandle that)
             {
-            byte[] abThis = m_abValue;
-            int    cThis  = m_cSize;
-            byte[] abThat = ((ByteArrayHandle) that).m_abValue;
-            int    cThat  = ((ByteArrayHandle) that).m_cSize;
+            ByteArrayHandle hThat  = (ByteArrayHandle) that;
+            byte[]          abThis = m_abValue;
+            int             ofThis = m_ofStart;
+            int             cThis  = m_cSize;
+            byte[]          abThat = hThat.m_abValue;
+            int             ofThat = hThat.m_ofStart;
+            int             cThat  = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -409,7 +412,7 @@ public class xByteArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = abThis[i] - abThat[i];
+                int iDiff = abThis[ofThis + i] - abThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -421,14 +424,39 @@ public class xByteArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_abValue);
+            byte[] abValue = m_abValue;
+            int    nHash   = 1;
+            for (int i = m_ofStart, iEnd = i + m_cSize; i < iEnd; i++)
+                {
+                nHash = 31 * nHash + abValue[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof ByteArrayHandle
-                && Arrays.equals(m_abValue, ((ByteArrayHandle) obj).m_abValue);
+            if (obj instanceof ByteArrayHandle)
+                {
+                ByteArrayHandle that = (ByteArrayHandle) obj;
+                return m_cSize == that.m_cSize && Arrays.equals(
+                    m_abValue, m_ofStart, m_ofStart + m_cSize,
+                    that.m_abValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
+                }
+            return false;
+            }
+
+        /**
+         * @return the array elements as a Java array of the exact size; the storage itself is
+         *         returned if it holds nothing else, so the result must not be modified
+         */
+        public byte[] getBytes()
+            {
+            byte[] ab = m_abValue;
+            int    c  = m_cSize;
+            return m_ofStart == 0 && ab.length == c
+                    ? ab
+                    : Arrays.copyOfRange(ab, m_ofStart, m_ofStart + c);
             }
         }
 
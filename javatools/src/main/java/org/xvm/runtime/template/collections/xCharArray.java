@@ -71,8 +71,9 @@ public class xCharArray
         {
         CharArrayHandle hSrc = (CharArrayHandle) hArray;
 
+        int ofStart = hSrc.m_ofStart;
         return new CharArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_achValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_achValue, ofStart, ofStart + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -99,7 +100,8 @@ public class xCharArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xChar.makeHandle(hArray.m_achValue[(int) lIndex]));
+        return frame.assignValue(iReturn,
+                xChar.makeHandle(hArray.m_achValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -123,6 +125,8 @@ public class xCharArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         char[] achValue = hArray.m_achValue;
         if (lIndex == cSize)
             {
@@ -153,8 +157,16 @@ public class xCharArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        if (!hArray.isMutable())
+            {
+            // the storage of an immutable array could be shared by its slices
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
-                xChar.makeHandle(++hArray.m_achValue[(int) lIndex]));
+                xChar.makeHandle(++hArray.m_achValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -164,8 +176,7 @@ public class xCharArray
         CharArrayHandle h1 = (CharArrayHandle) hValue1;
         CharArrayHandle h2 = (CharArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_achValue, h2.m_achValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -174,12 +185,12 @@ public class xCharArray
         CharArrayHandle hArray1 = (CharArrayHandle) hValue1;
         CharArrayHandle hArray2 = (CharArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_achValue, hArray2.m_achValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
@@ -208,21 +219,24 @@ public class xCharArray
         }
 
     @Override
-    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
         {
         CharArrayHandle hArray = (CharArrayHandle) hTarget;
 
         int    cNew;
+        int    ofNew;
         char[] achNew;
         if (hElements instanceof StringHandle)
             {
             achNew = ((StringHandle) hElements).getValue();
+            ofNew  = 0;
             cNew   = achNew.length;
             }
         else if (hElements instanceof CharArrayHandle)
             {
             CharArrayHandle hArrayAdd = (CharArrayHandle) hElements;
             cNew   = hArrayAdd.m_cSize;
+            ofNew  = hArrayAdd.m_ofStart;
             achNew = hArrayAdd.m_achValue;
             }
         else
@@ -241,67 +255,50 @@ public class xCharArray
                 achArray = hArray.m_achValue = grow(achArray, cArray + cNew);
                 }
             hArray.m_cSize += cNew;
-            System.arraycopy(achNew, 0, achArray, cArray, cNew);
+
+            if (nIndex == -1 || nIndex == cArray)
+                {
+                nIndex = cArray;
+                }
+            else
+                {
+                System.arraycopy(achArray, nIndex, achArray, nIndex + cNew, cArray - nIndex);
+                }
+            System.arraycopy(achNew, ofNew, achArray, nIndex, cNew);
             }
         }
 
     @Override
-    protected int slice(Frame        frame,
-                        ObjectHandle hTarget,
-                        long         ixLower,
-                        boolean      fExLower,
-                        long         ixUpper,
-                        boolean      fExUpper,
-                        boolean      fReverse,
-                        int          iReturn)
+    protected ArrayHandle createSliceView(ArrayHandle hArray, int ixFrom, int cSlice)
         {
-        CharArrayHandle hArray = (CharArrayHandle) hTarget;
+        CharArrayHandle hSrc = (CharArrayHandle) hArray;
 
-        // calculate inclusive lower
-        if (fExLower)
-            {
-            ++ixLower;
-            }
+        return new CharArrayHandle(hSrc.getComposition(), hSrc.m_achValue, cSlice,
+                hSrc.m_mutability);
+        }
 
-        // calculate exclusive upper
-        if (!fExUpper)
-            {
-            ++ixUpper;
-            }
+    @Override
+    protected ArrayHandle createSliceCopy(ArrayHandle hArray, int ixFrom, int cSlice, boolean fReverse)
+        {
+        CharArrayHandle hSrc    = (CharArrayHandle) hArray;
+        char[]          achValue = hSrc.m_achValue;
+        int             ofFrom  = hSrc.m_ofStart + ixFrom;
+        char[]          achNew;
 
-        char[] achValue = hArray.m_achValue;
-        try
+        if (fReverse)
             {
-            char[] achNew;
-            if (ixLower >= ixUpper)
+            achNew = new char[cSlice];
+            for (int i = 0, ofLast = ofFrom + cSlice - 1; i < cSlice; i++)
                 {
-                achNew = new char[0];
+                achNew[i] = achValue[ofLast - i];
                 }
-            else if (fReverse)
-                {
-                int cNew = (int) (ixUpper - ixLower);
-                achNew = new char[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    achNew[i] = achValue[(int) ixUpper - i - 1];
-                    }
-                }
-            else
-                {
-                achNew = Arrays.copyOfRange(achValue, (int) ixLower, (int) ixUpper);
-                }
-
-            CharArrayHandle  hArrayNew = new CharArrayHandle(
-                hArray.getComposition(), achNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = achValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixLower < 0 || ixLower >= c ? ixLower : ixUpper, c));
+            achNew = Arrays.copyOfRange(achValue, ofFrom, ofFrom + cSlice);
             }
+
+        return new CharArrayHandle(hSrc.getComposition(), achNew, hSrc.m_mutability);
         }
 
 
@@ -323,10 +320,16 @@ public class xCharArray
 
         protected CharArrayHandle(TypeComposition clzArray, char[] achValue, Mutability mutability)
             {
+            this(clzArray, achValue, achValue.length, mutability);
+            }
+
+        protected CharArrayHandle(TypeComposition clzArray, char[] achValue, int cSize,
+                                  Mutability mutability)
+            {
             super(clzArray, mutability);
 
             m_achValue = achValue;
-            m_cSize    = achValue.length;
+            m_cSize    = cSize;
             }
 
         protected CharArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
@@ -339,22 +342,23 @@ public class xCharArray
         @Override
         public int getCapacity()
             {
-            return m_achValue.length;
+            return m_achValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            char[] achOld = m_achValue;
             char[] achNew = new char[nCapacity];
-            System.arraycopy(achOld, 0, achNew, 0, achOld.length);
+            System.arraycopy(m_achValue, m_ofStart, achNew, 0, m_cSize);
             m_achValue = achNew;
+            m_ofStart = 0;
+            m_fShared = false;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xChar.makeHandle(m_achValue[ix]);
+            return xChar.makeHandle(m_achValue[m_ofStart + ix]);
             }
 
         @Override
@@ -372,14 +376,14 @@ public class xCharArray
             {
             if (isMutable())
                 {
-                // purge the unused space
+                // purge the unused space (and the elements outside of a slice)
                 char[] ach = m_achValue;
                 int    c   = m_cSize;
-                if (ach.length != c)
+                if (m_ofStart != 0 || ach.length != c)
                     {
-                    char[] achNew = new char[c];
-                    System.arraycopy(ach, 0, achNew, 0, c);
-                    m_achValue = achNew;
+                    m_achValue = Arrays.copyOfRange(ach, m_ofStart, m_ofStart + c);
+                    m_ofStart  = 0;
+                    m_fShared = false;
                     }
                 super.makeImmutable();
                 }
@@ -394,10 +398,13 @@ public class xCharArray
         @Override
         public int compareTo(ObjectHandle that)
             {
-            char[] achThis = m_achValue;
-            int    cThis   = m_cSize;
-            char[] achThat = ((CharArrayHandle) that).m_achValue;
-            int    cThat   = ((CharArrayHandle) that).m_cSize;
+            CharArrayHandle hThat   = (CharArrayHandle) that;
+            char[]          achThis = m_achValue;
+            int             ofThis  = m_ofStart;
+            int             cThis   = m_cSize;
+            char[]          achThat = hThat.m_achValue;
+            int             ofThat  = hThat.m_ofStart;
+            int             cThat   = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -406,7 +413,7 @@ public class xCharArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                int iDiff = achThis[i] - achThat[i];
+                int iDiff = achThis[ofThis + i] - achThat[ofThat + i];
                 if (iDiff != 0)
                     {
                     return iDiff;
@@ -418,21 +425,46 @@ public class xCharArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_achValue);
+            char[] achValue = m_achValue;
+            int    nHash    = 1;
+            for (int i = m_ofStart, iEnd = i + m_cSize; i < iEnd; i++)
+                {
+                nHash = 31 * nHash + achValue[i];
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof CharArrayHandle
-                && Arrays.equals(m_achValue, ((CharArrayHandle) obj).m_achValue);
+            if (obj instanceof CharArrayHandle)
+                {
+                CharArrayHandle that = (CharArrayHandle) obj;
+                return m_cSize == that.m_cSize && Arrays.equals(
+                    m_achValue, m_ofStart, m_ofStart + m_cSize,
+                    that.m_achValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
+                }
+            return false;
+            }
+
+        /**
+         * @return the array elements as a Java array of the exact size; the storage itself is
+         *         returned if it holds nothing else, so the result must not be modified
+         */
+        public char[] getChars()
+            {
+            char[] ach = m_achValue;
+            int    c   = m_cSize;
+            return m_ofStart == 0 && ach.length == c
+                    ? ach
+                    : Arrays.copyOfRange(ach, m_ofStart, m_ofStart + c);
             }
 
         @Override
         public String toString()
             {
             // for debugging only
-            return String.copyValueOf(m_achValue, 0, m_cSize);
+            return String.copyValueOf(m_achValue, m_ofStart, m_cSize);
             }
         }
 
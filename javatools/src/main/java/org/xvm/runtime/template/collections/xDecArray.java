@@ -0,0 +1,62 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.numbers.BaseDecFP;
+import org.xvm.runtime.template.numbers.BaseDecFP.DecimalHandle;
+
+import org.xvm.type.Decimal;
+import org.xvm.type.Decimal32;
+import org.xvm.type.Decimal64;
+
+
+/**
+ * Native Array implementation for the {@code Dec32} and {@code Dec64} element types.
+ */
+public class xDecArray
+        extends NumberBasedArray
+    {
+    /**
+     * Construct a decimal array template.
+     *
+     * @param templates        the template registry
+     * @param structure        the Array class structure
+     * @param templateElement  the element template (xDec32 or xDec64)
+     * @param cBytes           the element width in bytes (4 or 8)
+     */
+    public xDecArray(TemplateRegistry templates, ClassStructure structure,
+                     BaseDecFP templateElement, int cBytes)
+        {
+        super(templates, structure, templateElement.getCanonicalType(), cBytes);
+
+        assert cBytes == 4 || cBytes == 8;
+
+        f_templateElement = templateElement;
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        Decimal dec = ((DecimalHandle) hValue).getValue();
+        return f_nShift == 2
+                ? ((Decimal32) dec).toIntBits()
+                : ((Decimal64) dec).toLongBits();
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeHandle(f_nShift == 2
+                ? new Decimal32((int) lBits)
+                : new Decimal64(lBits));
+        }
+
+    /**
+     * The element template.
+     */
+    private final BaseDecFP f_templateElement;
+    }
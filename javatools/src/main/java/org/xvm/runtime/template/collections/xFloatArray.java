@@ -0,0 +1,76 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.numbers.BaseBinaryFP;
+import org.xvm.runtime.template.numbers.BaseBinaryFP.FloatHandle;
+
+
+/**
+ * Native Array implementation for the {@code Float32} and {@code Float64} element types.
+ */
+public class xFloatArray
+        extends NumberBasedArray
+    {
+    /**
+     * Construct a floating point array template.
+     *
+     * @param templates        the template registry
+     * @param structure        the Array class structure
+     * @param templateElement  the element template (xFloat32 or xFloat64)
+     * @param cBytes           the element width in bytes (4 or 8)
+     */
+    public xFloatArray(TemplateRegistry templates, ClassStructure structure,
+                       BaseBinaryFP templateElement, int cBytes)
+        {
+        super(templates, structure, templateElement.getCanonicalType(), cBytes);
+
+        assert cBytes == 4 || cBytes == 8;
+
+        f_templateElement = templateElement;
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        double d = ((FloatHandle) hValue).getValue();
+        return f_nShift == 2
+                ? Float.floatToRawIntBits((float) d)
+                : Double.doubleToRawLongBits(d);
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeHandle(toDouble(lBits));
+        }
+
+    @Override
+    protected boolean isBitEquality()
+        {
+        // 0.0 == -0.0, but NaN != NaN
+        return false;
+        }
+
+    @Override
+    protected boolean equalBits(long lBits1, long lBits2)
+        {
+        return toDouble(lBits1) == toDouble(lBits2);
+        }
+
+    private double toDouble(long lBits)
+        {
+        return f_nShift == 2
+                ? Float.intBitsToFloat((int) lBits)
+                : Double.longBitsToDouble(lBits);
+        }
+
+    /**
+     * The element template.
+     */
+    private final BaseBinaryFP f_templateElement;
+    }
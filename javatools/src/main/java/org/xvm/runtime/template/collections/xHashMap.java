@@ -0,0 +1,1036 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component.Format;
+import org.xvm.asm.ConstantPool;
+import org.xvm.asm.Constants.Access;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.IdentityConstant;
+import org.xvm.asm.constants.SignatureConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.CallChain;
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.GenericHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xBoolean.BooleanHandle;
+import org.xvm.runtime.template.xEnum.EnumHandle;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+import org.xvm.runtime.template.text.xString.StringHandle;
+
+
+/**
+ * Native HashMap implementation.
+ * <p/>
+ * The entries are kept in an open-addressed (linear probing) Java hash table. If the map uses the
+ * {@code NaturalHasher} and the Key type is String, Int, Char or an enumeration, the hashing and
+ * the equality checks are done natively; otherwise the map's Hasher is called for every hash code
+ * computation and for every key comparison that cannot be resolved by the hash code alone.
+ * <p/>
+ * Since HashSet is backed by a HashMap, it uses this implementation as well.
+ */
+public class xHashMap
+        extends ClassTemplate
+    {
+    public static xHashMap INSTANCE;
+
+    public xHashMap(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        ClassStructure structHasher = f_templates.getClassStructure("collections.Hasher");
+
+        s_sigHashOf       = structHasher.findMethod("hashOf", 1).getIdentityConstant().getSignature();
+        s_sigAreEqual     = structHasher.findMethod("areEqual", 2).getIdentityConstant().getSignature();
+        s_idNaturalHasher = f_templates.getClassStructure("collections.NaturalHasher").getIdentityConstant();
+
+        markNativeProperty("size");
+        markNativeProperty("addCount");
+
+        markNativeMethod("contains",       KEY, BOOLEAN);
+        markNativeMethod("get",            KEY, null);
+        markNativeMethod("put",            KEY_VALUE, null);
+        markNativeMethod("remove",         KEY, null);
+        markNativeMethod("clear",          VOID, null);
+        markNativeMethod("ensureCapacity", INT, VOID);
+        markNativeMethod("nextSlot",       INT, null);
+        markNativeMethod("keyAt",          INT, KEY);
+        markNativeMethod("getAt",          INT_KEY, null);
+        markNativeMethod("putAt",          INT_KEY_VALUE, VOID);
+        markNativeMethod("removeAt",       INT_KEY, VOID);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public ObjectHandle createStruct(Frame frame, ClassComposition clazz)
+        {
+        assert clazz.getTemplate() == this;
+
+        return new HashMapHandle(clazz.ensureAccess(Access.STRUCT));
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        Storage storage = ((HashMapHandle) hTarget).f_storage;
+
+        switch (sPropName)
+            {
+            case "size":
+                return frame.assignValue(iReturn, xInt64.makeHandle(storage.m_cSize));
+
+            case "addCount":
+                return frame.assignValue(iReturn, xInt64.makeHandle(storage.m_cAdds));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        HashMapHandle hMap = (HashMapHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "contains": // Boolean contains(Key key)
+                return lookup(frame, hMap, hArg, (frameCaller, iSlot, nHash) ->
+                    frameCaller.assignValue(iReturn, xBoolean.makeHandle(iSlot >= 0)));
+
+            case "get": // conditional Value get(Key key)
+                return invokeGet(frame, hMap, -1, hArg, new int[] {iReturn});
+
+            case "remove": // HashMap remove(Key key)
+                return invokeRemove(frame, hMap, -1, hArg, iReturn);
+
+            case "ensureCapacity": // void ensureCapacity(Int capacity)
+                {
+                if (!hMap.isMutable())
+                    {
+                    return frame.raiseException(xException.immutableObject(frame));
+                    }
+
+                long lCapacity = ((JavaLong) hArg).getValue();
+                if (lCapacity > MAX_CAPACITY)
+                    {
+                    return frame.raiseException(
+                            xException.outOfBounds(frame, "Capacity is too large: " + lCapacity));
+                    }
+                hMap.f_storage.ensureCapacity((int) lCapacity);
+                return Op.R_NEXT;
+                }
+
+            case "nextSlot": // conditional Int nextSlot(Int slot)
+                return invokeNextSlot(frame, hMap, hArg, new int[] {iReturn});
+
+            case "keyAt": // Key keyAt(Int slot)
+                {
+                Storage storage = hMap.f_storage;
+                long    lSlot   = ((JavaLong) hArg).getValue();
+                if (!storage.isOccupied(lSlot))
+                    {
+                    return frame.raiseException(xException.outOfBounds(frame, lSlot, storage.capacity()));
+                    }
+                return frame.assignValue(iReturn, storage.m_ahKey[(int) lSlot]);
+                }
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        HashMapHandle hMap = (HashMapHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "clear": // HashMap clear()
+                {
+                if (!hMap.isMutable())
+                    {
+                    return frame.raiseException(xException.immutableObject(frame));
+                    }
+
+                hMap.f_storage.clear();
+                return frame.assignValue(iReturn, hMap);
+                }
+
+            case "put": // HashMap put(Key key, Value value)
+                return invokePut(frame, hMap, -1, ahArg[0], ahArg[1], iReturn, hMap);
+
+            case "getAt": // conditional Value getAt(Int slot, Key key)
+                return invokeGet(frame, hMap, ((JavaLong) ahArg[0]).getValue(), ahArg[1],
+                        new int[] {iReturn});
+
+            case "putAt": // void putAt(Int slot, Key key, Value value)
+                return invokePut(frame, hMap, ((JavaLong) ahArg[0]).getValue(), ahArg[1], ahArg[2],
+                        iReturn, null);
+
+            case "removeAt": // void removeAt(Int slot, Key key)
+                return invokeRemove(frame, hMap, ((JavaLong) ahArg[0]).getValue(), ahArg[1], iReturn);
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        HashMapHandle hMap = (HashMapHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "get": // conditional Value get(Key key)
+                return invokeGet(frame, hMap, -1, ahArg[0], aiReturn);
+
+            case "nextSlot": // conditional Int nextSlot(Int slot)
+                return invokeNextSlot(frame, hMap, ahArg[0], aiReturn);
+
+            case "getAt": // conditional Value getAt(Int slot, Key key)
+                return invokeGet(frame, hMap, ((JavaLong) ahArg[0]).getValue(), ahArg[1], aiReturn);
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+    @Override
+    public int makeImmutable(Frame frame, ObjectHandle hTarget)
+        {
+        if (!hTarget.isMutable())
+            {
+            return Op.R_NEXT;
+            }
+
+        switch (super.makeImmutable(frame, hTarget))
+            {
+            case Op.R_NEXT:
+                break;
+
+            case Op.R_EXCEPTION:
+                return Op.R_EXCEPTION;
+
+            default:
+                throw new IllegalStateException();
+            }
+
+        // the keys and values held by the storage must become immutable as well
+        Storage storage = ((HashMapHandle) hTarget).f_storage;
+        return storage.m_ahKey == null
+                || makeAllImmutable(frame, storage.m_ahKey)   == Op.R_NEXT
+                && makeAllImmutable(frame, storage.m_ahValue) == Op.R_NEXT
+                    ? Op.R_NEXT
+                    : Op.R_EXCEPTION;
+        }
+
+    /**
+     * Make all the handles held by the specified storage array immutable.
+     *
+     * @return R_NEXT or R_EXCEPTION
+     */
+    private static int makeAllImmutable(Frame frame, ObjectHandle[] ah)
+        {
+        for (ObjectHandle h : ah)
+            {
+            if (h != null && h != REMOVED && h.isMutable())
+                {
+                switch (h.getTemplate().makeImmutable(frame, h))
+                    {
+                    case Op.R_NEXT:
+                        continue;
+
+                    case Op.R_EXCEPTION:
+                        return Op.R_EXCEPTION;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+                }
+            }
+        return Op.R_NEXT;
+        }
+
+
+    // ----- native method implementations ---------------------------------------------------------
+
+    /**
+     * Implementation of "get" and "getAt" methods.
+     *
+     * @param lSlot  the slot hint or -1
+     */
+    protected int invokeGet(Frame frame, HashMapHandle hMap, long lSlot, ObjectHandle hKey,
+                            int[] aiReturn)
+        {
+        Storage storage = hMap.f_storage;
+        if (storage.isOccupiedBy(lSlot, hKey))
+            {
+            return frame.assignValues(aiReturn, xBoolean.TRUE, storage.m_ahValue[(int) lSlot]);
+            }
+
+        return lookup(frame, hMap, hKey, (frameCaller, iSlot, nHash) ->
+            iSlot >= 0
+                ? frameCaller.assignValues(aiReturn, xBoolean.TRUE, storage.m_ahValue[iSlot])
+                : frameCaller.assignValue(aiReturn[0], xBoolean.FALSE));
+        }
+
+    /**
+     * Implementation of "put" and "putAt" methods.
+     *
+     * @param lSlot    the slot hint or -1
+     * @param hReturn  the value to return or null for void
+     */
+    protected int invokePut(Frame frame, HashMapHandle hMap, long lSlot, ObjectHandle hKey,
+                            ObjectHandle hValue, int iReturn, ObjectHandle hReturn)
+        {
+        if (!hMap.isMutable())
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        Storage storage = hMap.f_storage;
+        if (storage.isOccupiedBy(lSlot, hKey))
+            {
+            storage.m_ahValue[(int) lSlot] = hValue;
+            return hReturn == null ? Op.R_NEXT : frame.assignValue(iReturn, hReturn);
+            }
+
+        return lookup(frame, hMap, hKey, (frameCaller, iSlot, nHash) ->
+            {
+            if (iSlot >= 0)
+                {
+                storage.m_ahValue[iSlot] = hValue;
+                }
+            else
+                {
+                storage.insert(-iSlot - 1, nHash, hKey, hValue);
+                }
+            return hReturn == null ? Op.R_NEXT : frameCaller.assignValue(iReturn, hReturn);
+            });
+        }
+
+    /**
+     * Implementation of "remove" and "removeAt" methods.
+     *
+     * @param lSlot  the slot hint or -1 for the "remove" method, which returns the map itself
+     */
+    protected int invokeRemove(Frame frame, HashMapHandle hMap, long lSlot, ObjectHandle hKey,
+                               int iReturn)
+        {
+        if (!hMap.isMutable())
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        Storage storage = hMap.f_storage;
+        if (storage.isOccupiedBy(lSlot, hKey))
+            {
+            storage.delete((int) lSlot);
+            return Op.R_NEXT;
+            }
+
+        return lookup(frame, hMap, hKey, (frameCaller, iSlot, nHash) ->
+            {
+            if (iSlot >= 0)
+                {
+                storage.delete(iSlot);
+                }
+            return lSlot < 0 ? frameCaller.assignValue(iReturn, hMap) : Op.R_NEXT;
+            });
+        }
+
+    /**
+     * Implementation of "nextSlot" method.
+     */
+    protected int invokeNextSlot(Frame frame, HashMapHandle hMap, ObjectHandle hSlot, int[] aiReturn)
+        {
+        long lSlot = ((JavaLong) hSlot).getValue();
+        int  iSlot = lSlot < 0 ? -1 : hMap.f_storage.nextSlot((int) Math.min(lSlot, MAX_CAPACITY));
+        return iSlot < 0
+                ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
+                : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(iSlot));
+        }
+
+
+    // ----- lookup support ------------------------------------------------------------------------
+
+    /**
+     * Find the specified key in the map and perform the specified action.
+     *
+     * @param frame   the current frame
+     * @param hMap    the map
+     * @param hKey    the key
+     * @param action  the action to perform once the key has been looked up
+     *
+     * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+     */
+    protected int lookup(Frame frame, HashMapHandle hMap, ObjectHandle hKey, LookupAction action)
+        {
+        Storage storage = hMap.f_storage;
+        int     nKind   = storage.m_nKeyKind;
+        if (nKind == KEY_UNKNOWN)
+            {
+            storage.m_nKeyKind = nKind = computeKeyKind(frame, hMap);
+            }
+
+        if (nKind == KEY_INTERPRETED)
+            {
+            return new Lookup(hMap, hKey, action).doNext(frame);
+            }
+
+        int nHash = nativeHash(nKind, hKey);
+        return action.complete(frame, storage.find(nKind, nHash, hKey), nHash);
+        }
+
+    /**
+     * Determine whether the hashing and equality checks for the keys of the specified map can be
+     * done natively.
+     *
+     * @return one of the KEY_* values (other than KEY_UNKNOWN)
+     */
+    protected int computeKeyKind(Frame frame, HashMapHandle hMap)
+        {
+        ObjectHandle hHasher = hMap.getField("hasher");
+        if (hHasher == null ||
+                !hHasher.getTemplate().getClassConstant().equals(s_idNaturalHasher))
+            {
+            return KEY_INTERPRETED;
+            }
+
+        ConstantPool pool    = frame.poolContext();
+        TypeConstant typeKey = hMap.getType().resolveGenericType("Key");
+        if (typeKey == null)
+            {
+            return KEY_INTERPRETED;
+            }
+        if (typeKey.equals(pool.typeString()))
+            {
+            return KEY_STRING;
+            }
+        if (typeKey.equals(pool.typeInt()) || typeKey.equals(pool.typeChar()))
+            {
+            return KEY_LONG;
+            }
+        if (typeKey.isExplicitClassIdentity(true) && typeKey.getExplicitClassFormat() == Format.ENUM)
+            {
+            return KEY_ENUM;
+            }
+        return KEY_INTERPRETED;
+        }
+
+    /**
+     * @return the hash code of the specified key for a native key kind
+     */
+    protected static int nativeHash(int nKind, ObjectHandle hKey)
+        {
+        switch (nKind)
+            {
+            case KEY_STRING:
+                return hKey.hashCode();
+
+            case KEY_LONG:
+                return Long.hashCode(((JavaLong) hKey).getValue());
+
+            case KEY_ENUM:
+                return ((EnumHandle) hKey).getOrdinal();
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * @return true iff the specified keys are equal for a native key kind
+     */
+    protected static boolean nativeEquals(int nKind, ObjectHandle hKey1, ObjectHandle hKey2)
+        {
+        switch (nKind)
+            {
+            case KEY_STRING:
+                return hKey1.equals(hKey2);
+
+            case KEY_LONG:
+                return ((JavaLong) hKey1).getValue() == ((JavaLong) hKey2).getValue();
+
+            case KEY_ENUM:
+                return ((EnumHandle) hKey1).getOrdinal() == ((EnumHandle) hKey2).getOrdinal();
+
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    /**
+     * The action to perform once a key has been looked up.
+     */
+    @FunctionalInterface
+    protected interface LookupAction
+        {
+        /**
+         * @param frameCaller  the current frame
+         * @param iSlot        the slot of the key if found; otherwise (-(insertion point) - 1)
+         * @param nHash        the hash code of the key
+         *
+         * @return one of the {@link Op#R_NEXT}, {@link Op#R_CALL} or {@link Op#R_EXCEPTION} values
+         */
+        int complete(Frame frameCaller, int iSlot, int nHash);
+        }
+
+    /**
+     * Helper class for the lookups that need to call the map's Hasher.
+     */
+    protected static class Lookup
+            implements Frame.Continuation
+        {
+        public Lookup(HashMapHandle hMap, ObjectHandle hKey, LookupAction action)
+            {
+            this.hMap    = hMap;
+            this.hKey    = hKey;
+            this.action  = action;
+            this.hHasher = hMap.getField("hasher");
+            }
+
+        @Override
+        public int proceed(Frame frameCaller)
+            {
+            return processResult(frameCaller.popStack())
+                    ? action.complete(frameCaller, iProbe, nHash)
+                    : doNext(frameCaller);
+            }
+
+        /**
+         * Process the result of a "hashOf" or "areEqual" call.
+         *
+         * @return true iff the key has been found at the current probe slot
+         */
+        protected boolean processResult(ObjectHandle hResult)
+            {
+            if (!fHashed)
+                {
+                long lHash = ((JavaLong) hResult).getValue();
+                nHash   = (int) (lHash ^ (lHash >>> 32));
+                fHashed = true;
+                }
+            else if (cMods != hMap.f_storage.m_cMods)
+                {
+                // the map has been changed by the Hasher (or by another fiber of the same
+                // service); start over
+                iProbe = -1;
+                }
+            else if (((BooleanHandle) hResult).get())
+                {
+                return true;
+                }
+            else
+                {
+                iProbe++;
+                }
+            return false;
+            }
+
+        /**
+         * Continue the lookup.
+         */
+        protected int doNext(Frame frameCaller)
+            {
+            while (true)
+                {
+                int iResult;
+                if (fHashed)
+                    {
+                    Storage storage = hMap.f_storage;
+                    if (iProbe < 0)
+                        {
+                        cMods   = storage.m_cMods;
+                        iProbe  = storage.startProbe(nHash);
+                        iInsert = -1;
+                        }
+
+                    int iSlot = storage.nextCandidate(nHash, iProbe);
+                    if (iSlot < 0)
+                        {
+                        // not found; the insertion point is either a removed slot that was
+                        // encountered during the probe or the empty slot that ended it
+                        iSlot = -iSlot - 1;
+                        if (iInsert < 0)
+                            {
+                            iInsert = iSlot;
+                            }
+                        return action.complete(frameCaller, -iInsert - 1, nHash);
+                        }
+
+                    ObjectHandle hKeyStored = storage.m_ahKey[iSlot];
+                    if (hKeyStored == REMOVED)
+                        {
+                        if (iInsert < 0)
+                            {
+                            iInsert = iSlot;
+                            }
+                        iProbe = iSlot + 1;
+                        continue;
+                        }
+
+                    if (hKeyStored == hKey)
+                        {
+                        return action.complete(frameCaller, iSlot, nHash);
+                        }
+
+                    iProbe = iSlot;
+
+                    CallChain chain = hHasher.getComposition().getMethodCallChain(s_sigAreEqual);
+                    iResult = chain.invoke(frameCaller, hHasher,
+                            new ObjectHandle[] {hKeyStored, hKey}, Op.A_STACK);
+                    }
+                else
+                    {
+                    CallChain chain = hHasher.getComposition().getMethodCallChain(s_sigHashOf);
+                    iResult = chain.invoke(frameCaller, hHasher,
+                            new ObjectHandle[] {hKey}, Op.A_STACK);
+                    }
+
+                switch (iResult)
+                    {
+                    case Op.R_NEXT:
+                        if (processResult(frameCaller.popStack()))
+                            {
+                            return action.complete(frameCaller, iProbe, nHash);
+                            }
+                        break;
+
+                    case Op.R_CALL:
+                        frameCaller.m_frameNext.addContinuation(this);
+                        return Op.R_CALL;
+
+                    case Op.R_EXCEPTION:
+                        return Op.R_EXCEPTION;
+
+                    default:
+                        throw new IllegalStateException();
+                    }
+                }
+            }
+
+        private final HashMapHandle hMap;
+        private final ObjectHandle  hKey;
+        private final LookupAction  action;
+        private final ObjectHandle  hHasher;
+        private       boolean       fHashed;
+        private       int           nHash;
+        private       int           cMods;
+        private       int           iProbe = -1;
+        private       int           iInsert;
+        }
+
+
+    // ----- handle and storage --------------------------------------------------------------------
+
+    /**
+     * The HashMap handle. Since the handles that represent the same map with a different access
+     * are shallow clones of each other, all the state is kept in the shared {@link Storage}.
+     */
+    public static class HashMapHandle
+            extends GenericHandle
+        {
+        protected HashMapHandle(TypeComposition clazz)
+            {
+            super(clazz);
+
+            f_storage = new Storage();
+            }
+
+        @Override
+        public boolean isMutable()
+            {
+            return super.isMutable() && !f_storage.m_fImmutable;
+            }
+
+        @Override
+        public void makeImmutable()
+            {
+            super.makeImmutable();
+
+            f_storage.m_fImmutable = true;
+            }
+
+        protected final Storage f_storage;
+        }
+
+    /**
+     * An open-addressed hash table with linear probing. Removed entries leave a marker behind, so
+     * a removal never moves other entries, which allows iterating while removing; the markers are
+     * purged when the table is resized.
+     */
+    protected static class Storage
+        {
+        /**
+         * @return the number of slots
+         */
+        int capacity()
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            return ahKey == null ? 0 : ahKey.length;
+            }
+
+        /**
+         * @return true iff the specified slot holds an entry
+         */
+        boolean isOccupied(long lSlot)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            if (ahKey == null || lSlot < 0 || lSlot >= ahKey.length)
+                {
+                return false;
+                }
+
+            ObjectHandle hKey = ahKey[(int) lSlot];
+            return hKey != null && hKey != REMOVED;
+            }
+
+        /**
+         * @return true iff the specified slot holds the specified key handle
+         */
+        boolean isOccupiedBy(long lSlot, ObjectHandle hKey)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            return ahKey != null && lSlot >= 0 && lSlot < ahKey.length && ahKey[(int) lSlot] == hKey;
+            }
+
+        /**
+         * @return the first occupied slot at or after the specified one; -1 if none
+         */
+        int nextSlot(int iSlot)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            for (int c = ahKey == null ? 0 : ahKey.length; iSlot < c; iSlot++)
+                {
+                ObjectHandle hKey = ahKey[iSlot];
+                if (hKey != null && hKey != REMOVED)
+                    {
+                    return iSlot;
+                    }
+                }
+            return -1;
+            }
+
+        /**
+         * Find a key using the native hashing and equality.
+         *
+         * @return the slot of the key if found; otherwise (-(insertion point) - 1), or -1 if the
+         *         storage has not been allocated
+         */
+        int find(int nKind, int nHash, ObjectHandle hKey)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            if (ahKey == null)
+                {
+                return -1;
+                }
+
+            int[] anHash  = m_anHash;
+            int   nMask   = ahKey.length - 1;
+            int   iInsert = -1;
+            for (int iSlot = spread(nHash) & nMask; ; iSlot = (iSlot + 1) & nMask)
+                {
+                ObjectHandle hKeyStored = ahKey[iSlot];
+                if (hKeyStored == null)
+                    {
+                    return -(iInsert < 0 ? iSlot : iInsert) - 1;
+                    }
+
+                if (hKeyStored == REMOVED)
+                    {
+                    if (iInsert < 0)
+                        {
+                        iInsert = iSlot;
+                        }
+                    }
+                else if (anHash[iSlot] == nHash &&
+                        (hKeyStored == hKey || nativeEquals(nKind, hKeyStored, hKey)))
+                    {
+                    return iSlot;
+                    }
+                }
+            }
+
+        /**
+         * @return the slot to start probing at for the specified hash, or -1 if the storage has
+         *         not been allocated
+         */
+        int startProbe(int nHash)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            return ahKey == null ? -1 : spread(nHash) & (ahKey.length - 1);
+            }
+
+        /**
+         * Find the next slot (starting at the specified one) that either holds a removed marker
+         * or a key with the specified hash, i.e. a slot that needs to be examined by the caller.
+         *
+         * @return the slot or (-(empty slot) - 1) if the probe has ended; -1 if the storage has not
+         *         been allocated
+         */
+        int nextCandidate(int nHash, int iSlot)
+            {
+            ObjectHandle[] ahKey = m_ahKey;
+            if (ahKey == null || iSlot < 0)
+                {
+                return -1;
+                }
+
+            int[] anHash = m_anHash;
+            int   nMask  = ahKey.length - 1;
+            for (iSlot &= nMask; ; iSlot = (iSlot + 1) & nMask)
+                {
+                ObjectHandle hKeyStored = ahKey[iSlot];
+                if (hKeyStored == null)
+                    {
+                    return -iSlot - 1;
+                    }
+                if (hKeyStored == REMOVED || anHash[iSlot] == nHash)
+                    {
+                    return iSlot;
+                    }
+                }
+            }
+
+        /**
+         * Make sure the table can hold the specified number of entries without growing.
+         */
+        void ensureCapacity(int cEntries)
+            {
+            int cCapacity = capacityFor(cEntries);
+            if (cCapacity > capacity())
+                {
+                resize(cCapacity);
+                }
+            }
+
+        /**
+         * Insert a new entry at the specified slot, which must have been obtained by a lookup
+         * (unless the storage has not been allocated yet).
+         */
+        void insert(int iSlot, int nHash, ObjectHandle hKey, ObjectHandle hValue)
+            {
+            if (m_ahKey == null)
+                {
+                allocate(MIN_CAPACITY);
+                iSlot = spread(nHash) & (MIN_CAPACITY - 1);
+                }
+
+            if (m_ahKey[iSlot] == null)
+                {
+                m_cUsed++;
+                }
+            m_ahKey  [iSlot] = hKey;
+            m_ahValue[iSlot] = hValue;
+            m_anHash [iSlot] = nHash;
+            m_cSize++;
+            m_cAdds++;
+            m_cMods++;
+
+            // the used slots (including the removed ones) must not exceed 3/4 of the capacity
+            if (m_cUsed > m_ahKey.length - (m_ahKey.length >>> 2))
+                {
+                resize(capacityFor(m_cSize * 2));
+                }
+            }
+
+        /**
+         * Remove the entry at the specified slot.
+         */
+        void delete(int iSlot)
+            {
+            m_ahKey  [iSlot] = REMOVED;
+            m_ahValue[iSlot] = null;
+            m_cSize--;
+            m_cMods++;
+            }
+
+        /**
+         * Remove all entries.
+         */
+        void clear()
+            {
+            m_ahKey   = null;
+            m_ahValue = null;
+            m_anHash  = null;
+            m_cSize   = 0;
+            m_cUsed   = 0;
+            m_cMods++;
+            }
+
+        /**
+         * Re-hash all the entries into a table of the specified capacity.
+         */
+        private void resize(int cCapacity)
+            {
+            ObjectHandle[] ahKeyOld   = m_ahKey;
+            ObjectHandle[] ahValueOld = m_ahValue;
+            int[]          anHashOld  = m_anHash;
+
+            allocate(cCapacity);
+
+            if (ahKeyOld != null)
+                {
+                ObjectHandle[] ahKey   = m_ahKey;
+                ObjectHandle[] ahValue = m_ahValue;
+                int[]          anHash  = m_anHash;
+                int            nMask   = cCapacity - 1;
+                for (int i = 0, c = ahKeyOld.length; i < c; i++)
+                    {
+                    ObjectHandle hKey = ahKeyOld[i];
+                    if (hKey != null && hKey != REMOVED)
+                        {
+                        int nHash = anHashOld[i];
+                        int iSlot = spread(nHash) & nMask;
+                        while (ahKey[iSlot] != null)
+                            {
+                            iSlot = (iSlot + 1) & nMask;
+                            }
+                        ahKey  [iSlot] = hKey;
+                        ahValue[iSlot] = ahValueOld[i];
+                        anHash [iSlot] = nHash;
+                        }
+                    }
+                }
+            m_cUsed = m_cSize;
+            m_cMods++;
+            }
+
+        private void allocate(int cCapacity)
+            {
+            m_ahKey   = new ObjectHandle[cCapacity];
+            m_ahValue = new ObjectHandle[cCapacity];
+            m_anHash  = new int[cCapacity];
+            }
+
+        /**
+         * @return the power-of-two capacity that can hold the specified number of entries
+         */
+        private static int capacityFor(int cEntries)
+            {
+            int cMin = Math.max(MIN_CAPACITY, cEntries + (cEntries / 3) + 1);
+            return cMin >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(cMin - 1) << 1;
+            }
+
+        /**
+         * Spread the higher bits of the hash code to the lower ones, which are used as the index.
+         */
+        private static int spread(int nHash)
+            {
+            return nHash ^ (nHash >>> 16);
+            }
+
+        /**
+         * The keys; null for an empty slot and {@link #REMOVED} for a removed entry.
+         */
+        ObjectHandle[] m_ahKey;
+
+        /**
+         * The values.
+         */
+        ObjectHandle[] m_ahValue;
+
+        /**
+         * The hash codes of the keys.
+         */
+        int[] m_anHash;
+
+        /**
+         * The number of entries.
+         */
+        int m_cSize;
+
+        /**
+         * The number of slots that are either occupied or hold a removed marker.
+         */
+        int m_cUsed;
+
+        /**
+         * The number of entries ever added (the "addCount" property).
+         */
+        long m_cAdds;
+
+        /**
+         * The number of structural modifications.
+         */
+        int m_cMods;
+
+        /**
+         * One of the KEY_* values.
+         */
+        int m_nKeyKind = KEY_UNKNOWN;
+
+        /**
+         * True iff the map has been made immutable.
+         */
+        volatile boolean m_fImmutable;
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    private static final String[] KEY           = new String[] {"Key"};
+    private static final String[] KEY_VALUE     = new String[] {"Key", "Value"};
+    private static final String[] INT_KEY       = new String[] {"numbers.Int64", "Key"};
+    private static final String[] INT_KEY_VALUE = new String[] {"numbers.Int64", "Key", "Value"};
+
+    /**
+     * The key kinds: not yet known, requiring the Hasher calls, String, Int or Char, enumeration.
+     */
+    private static final int KEY_UNKNOWN     = 0;
+    private static final int KEY_INTERPRETED = 1;
+    private static final int KEY_STRING      = 2;
+    private static final int KEY_LONG        = 3;
+    private static final int KEY_ENUM        = 4;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The marker for a removed entry.
+     */
+    private static final ObjectHandle REMOVED = new ObjectHandle(null)
+        {
+        @Override
+        public TypeConstant getType()
+            {
+            return null;
+            }
+
+        @Override
+        public String toString()
+            {
+            return "<removed>";
+            }
+        };
+
+    private static SignatureConstant s_sigHashOf;
+    private static SignatureConstant s_sigAreEqual;
+    private static IdentityConstant  s_idNaturalHasher;
+    }
@@ -70,8 +70,9 @@ public class xIntArray
         {
         IntArrayHandle hSrc = (IntArrayHandle) hArray;
 
+        int ofStart = hSrc.m_ofStart;
         return new IntArrayHandle(hSrc.getComposition(),
-            Arrays.copyOfRange(hSrc.m_alValue, 0, hSrc.m_cSize), mutability);
+            Arrays.copyOfRange(hSrc.m_alValue, ofStart, ofStart + hSrc.m_cSize), mutability);
         }
 
     @Override
@@ -98,7 +99,8 @@ public class xIntArray
             {
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
-        return frame.assignValue(iReturn, xInt64.makeHandle(hArray.m_alValue[(int) lIndex]));
+        return frame.assignValue(iReturn,
+                xInt64.makeHandle(hArray.m_alValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -122,6 +124,8 @@ public class xIntArray
                 return frame.raiseException(xException.unsupportedOperation(frame));
             }
 
+        hArray.ensureExclusive();
+
         long[] alValue = hArray.m_alValue;
         if (lIndex == cSize)
             {
@@ -160,8 +164,16 @@ public class xIntArray
             return frame.raiseException(xException.outOfBounds(frame, lIndex, hArray.m_cSize));
             }
 
+        if (!hArray.isMutable())
+            {
+            // the storage of an immutable array could be shared by its slices
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        hArray.ensureExclusive();
+
         return frame.assignValue(iReturn,
-                xInt64.makeHandle(++hArray.m_alValue[(int) lIndex]));
+                xInt64.makeHandle(++hArray.m_alValue[hArray.m_ofStart + (int) lIndex]));
         }
 
     @Override
@@ -171,8 +183,7 @@ public class xIntArray
         IntArrayHandle h1 = (IntArrayHandle) hValue1;
         IntArrayHandle h2 = (IntArrayHandle) hValue2;
 
-        return frame.assignValue(iReturn,
-                xBoolean.makeHandle(Arrays.equals(h1.m_alValue, h2.m_alValue)));
+        return frame.assignValue(iReturn, xBoolean.makeHandle(h1.equals(h2)));
         }
 
     @Override
@@ -181,12 +192,12 @@ public class xIntArray
         IntArrayHandle hArray1 = (IntArrayHandle) hValue1;
         IntArrayHandle hArray2 = (IntArrayHandle) hValue2;
 
-        if (hArray1.isMutable() || hArray2.isMutable() || hArray1.m_cSize != hArray2.m_cSize)
+        if (hArray1.isMutable() || hArray2.isMutable())
             {
             return false;
             }
 
-        return Arrays.equals(hArray1.m_alValue, hArray2.m_alValue);
+        return hArray1.equals(hArray2);
         }
 
     @Override
@@ -215,7 +226,7 @@ public class xIntArray
         }
 
     @Override
-    protected void addElements(ArrayHandle hTarget, ObjectHandle hElements)
+    protected void insertElements(ArrayHandle hTarget, ObjectHandle hElements, int nIndex)
         {
         IntArrayHandle hArray    = (IntArrayHandle) hTarget;
         IntArrayHandle hArrayAdd = (IntArrayHandle) hElements;
@@ -231,68 +242,49 @@ public class xIntArray
                 alThis = hArray.m_alValue = grow(alThis, cNew);
                 }
             hArray.m_cSize = cNew;
-            System.arraycopy(hArrayAdd.m_alValue, 0, alThis, cThis, cAdd);
+
+            if (nIndex == -1 || nIndex == cThis)
+                {
+                nIndex = cThis;
+                }
+            else
+                {
+                System.arraycopy(alThis, nIndex, alThis, nIndex + cAdd, cThis - nIndex);
+                }
+            System.arraycopy(hArrayAdd.m_alValue, hArrayAdd.m_ofStart, alThis, nIndex, cAdd);
             }
         }
 
     @Override
-    protected int slice(Frame        frame,
-                        ObjectHandle hTarget,
-                        long         ixLower,
-                        boolean      fExLower,
-                        long         ixUpper,
-                        boolean      fExUpper,
-                        boolean      fReverse,
-                        int          iReturn)
+    protected ArrayHandle createSliceView(ArrayHandle hArray, int ixFrom, int cSlice)
         {
-        IntArrayHandle hArray = (IntArrayHandle) hTarget;
+        IntArrayHandle hSrc = (IntArrayHandle) hArray;
 
-        // calculate inclusive lower
-        if (fExLower)
-            {
-            ++ixLower;
-            }
+        return new IntArrayHandle(hSrc.getComposition(), hSrc.m_alValue, cSlice, hSrc.m_mutability);
+        }
 
-        // calculate exclusive upper
-        if (!fExUpper)
-            {
-            ++ixUpper;
-            }
+    @Override
+    protected ArrayHandle createSliceCopy(ArrayHandle hArray, int ixFrom, int cSlice, boolean fReverse)
+        {
+        IntArrayHandle hSrc    = (IntArrayHandle) hArray;
+        long[]         alValue = hSrc.m_alValue;
+        int            ofFrom  = hSrc.m_ofStart + ixFrom;
+        long[]         alNew;
 
-        long[] alValue = hArray.m_alValue;
-        try
+        if (fReverse)
             {
-            long[] alNew;
-
-            if (ixLower >= ixUpper)
-                {
-                alNew = new long[0];
-                }
-            else if (fReverse)
-                {
-                int cNew = (int) (ixUpper - ixLower);
-                alNew = new long[cNew];
-                for (int i = 0; i < cNew; i++)
-                    {
-                    alNew[i] = alValue[(int) ixUpper - i - 1];
-                    }
-                }
-            else
+            alNew = new long[cSlice];
+            for (int i = 0, ofLast = ofFrom + cSlice - 1; i < cSlice; i++)
                 {
-                alNew = Arrays.copyOfRange(alValue, (int) ixLower, (int) ixUpper);
+                alNew[i] = alValue[ofLast - i];
                 }
-
-            IntArrayHandle hArrayNew = new IntArrayHandle(
-                hArray.getComposition(), alNew, hArray.m_mutability);
-
-            return frame.assignValue(iReturn, hArrayNew);
             }
-        catch (ArrayIndexOutOfBoundsException e)
+        else
             {
-            long c = alValue.length;
-            return frame.raiseException(
-                xException.outOfBounds(frame, ixLower < 0 || ixLower >= c ? ixLower : ixUpper, c));
+            alNew = Arrays.copyOfRange(alValue, ofFrom, ofFrom + cSlice);
             }
+
+        return new IntArrayHandle(hSrc.getComposition(), alNew, hSrc.m_mutability);
         }
 
 
@@ -314,10 +306,16 @@ public class xIntArray
 
         protected IntArrayHandle(TypeComposition clzArray, long[] alValue, Mutability mutability)
             {
+            this(clzArray, alValue, alValue.length, mutability);
+            }
+
+        protected IntArrayHandle(TypeComposition clzArray, long[] alValue, int cSize,
+                                 Mutability mutability)
+            {
             super(clzArray, mutability);
 
             m_alValue = alValue;
-            m_cSize   = alValue.length;
+            m_cSize   = cSize;
             }
 
         protected IntArrayHandle(TypeComposition clzArray, int cCapacity, Mutability mutability)
@@ -330,22 +328,23 @@ public class xIntArray
         @Override
         public int getCapacity()
             {
-            return m_alValue.length;
+            return m_alValue.length - m_ofStart;
             }
 
         @Override
         public void setCapacity(int nCapacity)
             {
-            long[] alOld = m_alValue;
             long[] alNew = new long[nCapacity];
-            System.arraycopy(alOld, 0, alNew, 0, alOld.length);
+            System.arraycopy(m_alValue, m_ofStart, alNew, 0, m_cSize);
             m_alValue = alNew;
+            m_ofStart = 0;
+            m_fShared = false;
             }
 
         @Override
         public ObjectHandle getElement(int ix)
             {
-            return xInt64.makeHandle(m_alValue[ix]);
+            return xInt64.makeHandle(m_alValue[m_ofStart + ix]);
             }
 
         @Override
@@ -367,10 +366,13 @@ public class xIntArray
         @Override
         public int compareTo(ObjectHandle that)
             {
-            long[] alThis = m_alValue;
-            int    cThis  = m_cSize;
-            long[] alThat = ((IntArrayHandle) that).m_alValue;
-            int    cThat  = ((IntArrayHandle) that).m_cSize;
+            IntArrayHandle hThat  = (IntArrayHandle) that;
+            long[]         alThis = m_alValue;
+            int            ofThis = m_ofStart;
+            int            cThis  = m_cSize;
+            long[]         alThat = hThat.m_alValue;
+            int            ofThat = hThat.m_ofStart;
+            int            cThat  = hThat.m_cSize;
 
             if (cThis != cThat)
                 {
@@ -379,7 +381,7 @@ public class xIntArray
 
             for (int i = 0; i < cThis; i++)
                 {
-                long lDiff = alThis[i] - alThat[i];
+                long lDiff = alThis[ofThis + i] - alThat[ofThat + i];
                 if (lDiff != 0)
                     {
                     return lDiff < 0 ? -1 : 1;
@@ -391,14 +393,31 @@ public class xIntArray
         @Override
         public int hashCode()
             {
-            return Arrays.hashCode(m_alValue);
+            long[] alValue = m_alValue;
+            int    nHash   = 1;
+            for (int i = m_ofStart, iEnd = i + m_cSize; i < iEnd; i++)
+                {
+                nHash = 31 * nHash + Long.hashCode(alValue[i]);
+                }
+            return nHash;
             }
 
         @Override
         public boolean equals(Object obj)
             {
-            return obj instanceof IntArrayHandle
-                && Arrays.equals(m_alValue, ((IntArrayHandle) obj).m_alValue);
+            if (obj instanceof IntArrayHandle)
+                {
+                IntArrayHandle that = (IntArrayHandle) obj;
+                return m_cSize == that.m_cSize && Arrays.equals(
+                    m_alValue, m_ofStart, m_ofStart + m_cSize,
+                    that.m_alValue, that.m_ofStart, that.m_ofStart + that.m_cSize);
+                }
+            return false;
             }
         }
+
+    public static IntArrayHandle makeHandle(long[] al, Mutability mutability)
+        {
+        return new IntArrayHandle(INSTANCE.getCanonicalClass(), al, mutability);
+        }
     }
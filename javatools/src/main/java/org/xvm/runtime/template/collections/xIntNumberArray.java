@@ -0,0 +1,59 @@
+package org.xvm.runtime.template.collections;
+
+
+import org.xvm.asm.ClassStructure;
+
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+
+import org.xvm.runtime.template.numbers.xConstrainedInteger;
+
+
+/**
+ * Native Array implementation for the fixed-width integer types that are not covered by the more
+ * specific array templates (e.g. {@code Array<Int32>} or {@code Array<UInt16>}).
+ */
+public class xIntNumberArray
+        extends NumberBasedArray
+    {
+    /**
+     * Construct an integer array template.
+     *
+     * @param templates        the template registry
+     * @param structure        the Array class structure
+     * @param templateElement  the element template
+     * @param cBytes           the element width in bytes
+     * @param fUnsigned        true iff the element type is unsigned
+     */
+    public xIntNumberArray(TemplateRegistry templates, ClassStructure structure,
+                           xConstrainedInteger templateElement, int cBytes, boolean fUnsigned)
+        {
+        super(templates, structure, templateElement.getCanonicalType(), cBytes);
+
+        f_templateElement = templateElement;
+        f_lMask           = fUnsigned && cBytes < 8 ? (1L << (cBytes * 8)) - 1 : -1L;
+        }
+
+    @Override
+    protected long toBits(ObjectHandle hValue)
+        {
+        return ((JavaLong) hValue).getValue();
+        }
+
+    @Override
+    protected ObjectHandle fromBits(long lBits)
+        {
+        return f_templateElement.makeJavaLong(lBits & f_lMask);
+        }
+
+    /**
+     * The element template.
+     */
+    private final xConstrainedInteger f_templateElement;
+
+    /**
+     * The mask to zero-extend the bits of an unsigned element (-1 for the signed ones).
+     */
+    private final long f_lMask;
+    }
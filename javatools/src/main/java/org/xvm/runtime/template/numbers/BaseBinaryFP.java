@@ -420,7 +420,7 @@ abstract public class BaseBinaryFP
         return new FloatHandle(getCanonicalClass(), dValue);
         }
 
-    protected static class FloatHandle
+    public static class FloatHandle
             extends ObjectHandle
         {
         protected FloatHandle(ClassComposition clz, double dValue)
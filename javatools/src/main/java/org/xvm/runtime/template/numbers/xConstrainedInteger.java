@@ -119,6 +119,8 @@ public abstract class xConstrainedInteger
         markNativeMethod("shiftAllRight", INT, THIS);
 
         getCanonicalType().invalidateTypeInfo();
+
+        initHandleCache();
         }
 
     @Override
@@ -151,8 +153,8 @@ public abstract class xConstrainedInteger
         {
         if (constant instanceof IntConstant)
             {
-            return frame.pushStack(new JavaLong(getCanonicalClass(),
-                    (((IntConstant) constant).getValue().getLong())));
+            return frame.pushStack(
+                    makeJavaLong(((IntConstant) constant).getValue().getLong()));
             }
 
         return super.createConstHandle(frame, constant);
@@ -169,7 +171,7 @@ public abstract class xConstrainedInteger
                 {
                 // construct(Byte[] bytes)
                 ByteArrayHandle hBytes = (ByteArrayHandle) ahVar[0];
-                byte[]          abVal  = hBytes.m_abValue;
+                byte[]          abVal  = hBytes.getBytes();
 
                 int cBytes = hBytes.m_cSize;
                 return cBytes == f_cNumBits / 8
@@ -745,9 +747,53 @@ public abstract class xConstrainedInteger
      */
     public JavaLong makeJavaLong(long lValue)
         {
+        JavaLong[] ahCache = m_ahCache;
+        if (ahCache != null)
+            {
+            long ix = lValue - m_lCacheLow;
+            if (ix >= 0 && ix < ahCache.length)
+                {
+                return ahCache[(int) ix];
+                }
+            }
         return new JavaLong(getCanonicalClass(), lValue);
         }
 
+    /**
+     * Populate the cache of the most commonly used handles: the entire range of values for the
+     * 8-bit types and [-{@link #CACHE_NEGATIVE}, {@link #CACHE_POSITIVE}] for the wider ones.
+     */
+    protected void initHandleCache()
+        {
+        if (m_ahCache != null)
+            {
+            return;
+            }
+
+        long lLow;
+        long lHigh;
+        if (f_cNumBits == 8)
+            {
+            lLow  = f_cMinValue;
+            lHigh = f_cMaxValue;
+            }
+        else
+            {
+            lLow  = f_fSigned ? -CACHE_NEGATIVE : 0;
+            lHigh = CACHE_POSITIVE;
+            }
+
+        ClassComposition clz     = getCanonicalClass();
+        JavaLong[]       ahCache = new JavaLong[(int) Math.max(lHigh - lLow + 1, 0)];
+        for (int i = 0, c = ahCache.length; i < c; i++)
+            {
+            ahCache[i] = new JavaLong(clz, lLow + i);
+            }
+
+        m_lCacheLow = lLow;
+        m_ahCache   = ahCache;
+        }
+
 
     // ----- helpers -------------------------------------------------------------------------------
 
@@ -830,4 +876,24 @@ public abstract class xConstrainedInteger
 
     protected final boolean f_fChecked;
     protected final boolean f_fSigned;
+
+    /**
+     * The cached handles for the values in the range starting at {@link #m_lCacheLow}.
+     */
+    private JavaLong[] m_ahCache;
+    private long       m_lCacheLow;
+
+    /**
+     * The number of cached negative values for the signed types wider than 8 bits (the
+     * "xvm.intCache.negative" system property).
+     */
+    private static final int CACHE_NEGATIVE =
+            Math.max(0, Integer.getInteger("xvm.intCache.negative", 1024));
+
+    /**
+     * The largest cached value for the types wider than 8 bits (the "xvm.intCache.positive"
+     * system property).
+     */
+    private static final int CACHE_POSITIVE =
+            Math.max(0, Integer.getInteger("xvm.intCache.positive", 1024));
     }
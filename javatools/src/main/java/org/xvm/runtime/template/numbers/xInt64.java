@@ -4,7 +4,6 @@ package org.xvm.runtime.template.numbers;
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.MethodStructure;
 
-import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle;
 import org.xvm.runtime.ObjectHandle.JavaLong;
@@ -36,21 +35,6 @@ public class xInt64
         registerNativeTemplate(new xUncheckedInt64(f_templates, f_struct, true));
         }
 
-    @Override
-    public void initNative()
-        {
-        super.initNative();
-
-        if (this == INSTANCE)
-            {
-            ClassComposition clz = getCanonicalClass();
-            for (int i = 0; i < cache.length; ++i)
-                {
-                cache[i] = new JavaLong(clz, i);
-                }
-            }
-        }
-
     @Override
     protected xConstrainedInteger getComplimentaryTemplate()
         {
@@ -101,21 +85,8 @@ public class xInt64
         return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
         }
 
-    @Override
-    public JavaLong makeJavaLong(long lValue)
-        {
-        if (lValue == (lValue & 0x7F))
-            {
-            // TODO: cache some negative values as well
-            return INSTANCE.cache[(int) lValue];
-            }
-        return super.makeJavaLong(lValue);
-        }
-
     public static JavaLong makeHandle(long lValue)
         {
         return INSTANCE.makeJavaLong(lValue);
         }
-
-    private final JavaLong[] cache = new JavaLong[128];
     }
@@ -8,7 +8,6 @@ import org.xvm.asm.Op;
 
 import org.xvm.asm.constants.UInt8Constant;
 
-import org.xvm.runtime.ClassComposition;
 import org.xvm.runtime.Frame;
 import org.xvm.runtime.ObjectHandle.JavaLong;
 import org.xvm.runtime.TemplateRegistry;
@@ -39,21 +38,6 @@ public class xUInt8
         registerNativeTemplate(new xUncheckedUInt8(f_templates, f_struct, true));
         }
 
-    @Override
-    public void initNative()
-        {
-        super.initNative();
-
-        if (this == INSTANCE)
-            {
-            ClassComposition clz = getCanonicalClass();
-            for (int i = 0; i < cache.length; ++i)
-                {
-                cache[i] = new JavaLong(clz, i);
-                }
-            }
-        }
-
     @Override
     protected xConstrainedInteger getComplimentaryTemplate()
         {
@@ -81,14 +65,12 @@ public class xUInt8
     @Override
     public JavaLong makeJavaLong(long lValue)
         {
-        return makeHandle(lValue & 0xFFL);
+        return super.makeJavaLong(lValue & 0xFFL);
         }
 
     public static JavaLong makeHandle(long lValue)
         {
         assert lValue >= 0 & lValue <= 255;
-        return INSTANCE.cache[(int) lValue];
+        return INSTANCE.makeJavaLong(lValue);
         }
-
-    private final JavaLong[] cache = new JavaLong[256];
     }
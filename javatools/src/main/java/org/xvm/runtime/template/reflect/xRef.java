@@ -1,6 +1,9 @@
 package org.xvm.runtime.template.reflect;
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 import java.util.List;
 
 import java.util.function.ToIntFunction;
@@ -34,7 +37,6 @@ import org.xvm.runtime.VarSupport;
 
 import org.xvm.runtime.template.Identity;
 import org.xvm.runtime.template.IndexSupport;
-import org.xvm.runtime.template.Mixin;
 import org.xvm.runtime.template.xBoolean;
 import org.xvm.runtime.template.xException;
 
@@ -100,13 +102,21 @@ public class xRef
     @Override
     public ClassTemplate getTemplate(TypeConstant type)
         {
-        // if the type is an annotated Ref and the annotation itself has a native template
-        // (e.g. @Future Var<Int>) then keep it; however in a case of not a native annotation
-        // (e.g. @Lazy Var<Int>) use this template instead
-        ClassTemplate template = super.getTemplate(type);
-        return template instanceof xRef
-                ? template
-                : this;
+        // if the type is an annotated Ref and any of the annotations has a native template
+        // (e.g. @Future Var<Int> or @Unchecked @Lazy Var<Int>) then use the outermost one;
+        // however in a case of no native annotations (e.g. @Unchecked Var<Int>) use this
+        // template instead
+        for (TypeConstant typeNext = type; typeNext instanceof AnnotatedTypeConstant;
+                typeNext = typeNext.getUnderlyingType())
+            {
+            AnnotatedTypeConstant typeAnno = (AnnotatedTypeConstant) typeNext;
+            ClassTemplate         template = f_templates.getTemplate(typeAnno.getAnnotationClass());
+            if (template instanceof xRef)
+                {
+                return template;
+                }
+            }
+        return this;
         }
 
     @Override
@@ -248,7 +258,7 @@ public class xRef
     @Override
     public int introduceRef(Frame frame, TypeComposition clazz, String sName, int iReturn)
         {
-        if (this != INSTANCE && this != xVar.INSTANCE)
+        if (!isConstructionRequired())
             {
             // native Ref/Var no need for further initialization
             frame.introduceResolvedVar(iReturn, clazz.getType(), sName,
@@ -265,7 +275,7 @@ public class xRef
             {
             AnnotatedTypeConstant typeAnno  = (AnnotatedTypeConstant) typeRef;
             TypeConstant          typeMixin = typeAnno.getAnnotationType();
-            Mixin                 mixin     = (Mixin) f_templates.getTemplate(typeMixin);
+            ClassTemplate         mixin     = f_templates.getTemplate(typeMixin);
 
             hRef    = createRefHandle(frame, clazz.ensureAccess(Access.STRUCT), sName);
             iResult = mixin.proceedConstruction(frame, null, true, hRef, Utils.OBJECTS_NONE, Op.A_STACK);
@@ -303,6 +313,16 @@ public class xRef
             }
         }
 
+    /**
+     * @return true iff the Ref/Var handles created by this template need the annotation
+     *         constructors to run; false for native Ref/Var implementations that don't need any
+     *         further initialization
+     */
+    protected boolean isConstructionRequired()
+        {
+        return this == INSTANCE || this == xVar.INSTANCE;
+        }
+
     @Override
     public int callEquals(Frame frame, ClassComposition clazz,
                           ObjectHandle hValue1, ObjectHandle hValue2, int iReturn)
@@ -369,7 +389,7 @@ public class xRef
                 int   nVar     = hRef.m_iVar;
                 assert frameRef != null && nVar >= 0;
 
-                hValue = frameRef.f_ahVar[nVar];
+                hValue = frameRef.getRegisterValue(nVar);
                 return hValue == null
                         ? frame.raiseException(xException.unassignedReference(frame))
                         : frame.assignValue(iReturn, hValue);
@@ -832,6 +852,26 @@ public class xRef
             setField(REFERENT, hReferent);
             }
 
+        /**
+         * Atomically set the referent iff the current referent is the expected one. This allows
+         * a Ref that is shared by a number of services (e.g. a lazy property of an immutable
+         * object) to be assigned without a lock; only one of the competing values gets published.
+         *
+         * @param hExpect  the expected referent (null for unassigned)
+         * @param hNew     the new referent
+         *
+         * @return true iff the referent has been set
+         */
+        public boolean compareAndSetReferent(ObjectHandle hExpect, ObjectHandle hNew)
+            {
+            assert m_iVar == REF_REFERENT;
+
+            int iSlot = getComposition().getFieldSlot(REFERENT);
+            assert iSlot >= 0;
+
+            return FIELD_HANDLE.compareAndSet(getFields(), iSlot, hExpect, hNew);
+            }
+
         public String getName()
             {
             String sName = m_sName;
@@ -886,7 +926,7 @@ public class xRef
                     return m_hReferent != null;
 
                 default: // assertion m_frame != null && m_iVar >= 0
-                    return m_frame.f_ahVar[m_iVar] != null;
+                    return m_frame.getRegisterValue(m_iVar) != null;
                 }
             }
 
@@ -900,7 +940,7 @@ public class xRef
             {
             assert m_frame != null && m_iVar >= 0;
 
-            m_hReferent = m_frame.f_ahVar[m_iVar];
+            m_hReferent = m_frame.getRegisterValue(m_iVar);
             m_frame     = null;
             m_iVar      = REF_REFERENT;
             }
@@ -964,7 +1004,13 @@ public class xRef
         /**
          * Synthetic property holding a referent.
          */
-        protected final static String REFERENT = "$value";
+        public final static String REFERENT = "$value";
+
+        /**
+         * VarHandle for the elements of the field array.
+         */
+        private final static VarHandle FIELD_HANDLE =
+                MethodHandles.arrayElementVarHandle(ObjectHandle[].class);
         }
 
     /***
@@ -156,7 +156,7 @@ public class xVar
                 int   nVar     = hRef.m_iVar;
                 assert frameRef != null && nVar >= 0;
 
-                frameRef.f_ahVar[nVar] = hValue;
+                frameRef.setRegisterValue(nVar, hValue);
                 return Op.R_NEXT;
                 }
             }
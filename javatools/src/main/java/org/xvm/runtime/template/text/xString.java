@@ -1,6 +1,14 @@
 package org.xvm.runtime.template.text;
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.nio.ByteOrder;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayDeque;
 import java.util.Arrays;
 
 import org.xvm.asm.ClassStructure;
@@ -61,10 +69,10 @@ public class xString
                 pool.ensureEcstasyClassConstant("Appender"), null,
                 pool.typeChar());
 
-        EMPTY_STRING     = new StringHandle(getCanonicalClass(), new char[0]);
-        EMPTY_ARRAY      = makeHandle(new char[] {'[', ']'});
-        ZERO             = makeHandle(new char[] {'0'});
-        ONE              = makeHandle(new char[] {'1'});
+        EMPTY_STRING     = new StringHandle(getCanonicalClass(), new byte[0]);
+        EMPTY_ARRAY      = makeHandle("[]");
+        ZERO             = makeHandle("0");
+        ONE              = makeHandle("1");
         METHOD_APPEND_TO = getStructure().findMethod("appendTo", 1, typeArg);
 
         markNativeProperty("size");
@@ -89,8 +97,7 @@ public class xString
         {
         if (constant instanceof StringConstant)
             {
-            return frame.pushStack(new StringHandle(getCanonicalClass(),
-                    ((StringConstant) constant).getValue().toCharArray()));
+            return frame.pushStack(makeHandle(((StringConstant) constant).getValue()));
             }
 
         return super.createConstHandle(frame, constant);
@@ -103,7 +110,7 @@ public class xString
         CharArrayHandle hCharArray = (CharArrayHandle) ahVar[0];
         hCharArray.makeImmutable();
 
-        return frame.assignValue(iReturn, makeHandle(hCharArray.m_achValue));
+        return frame.assignValue(iReturn, makeHandle(hCharArray.getChars()));
         }
 
     @Override
@@ -137,11 +144,11 @@ public class xString
         switch (sPropName)
             {
             case "size":
-                return frame.assignValue(iReturn, xInt64.makeHandle(hThis.m_achValue.length));
+                return frame.assignValue(iReturn, xInt64.makeHandle(hThis.length()));
 
             case "chars":
                 return frame.assignValue(iReturn,
-                        xCharArray.makeHandle(hThis.m_achValue, xArray.Mutability.Constant));
+                        xCharArray.makeHandle(hThis.getValue(), xArray.Mutability.Constant));
             }
 
         return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
@@ -175,9 +182,8 @@ public class xString
             {
             case "substring": // (Int starAt)
                 {
-                int    ofStart = (int) ((JavaLong) hArg).getValue();
-                char[] ach     = hThis.m_achValue;
-                int    cch     = ach.length;
+                int ofStart = (int) ((JavaLong) hArg).getValue();
+                int cch     = hThis.length();
 
                 if (ofStart <= 0)
                     {
@@ -189,10 +195,7 @@ public class xString
                     return frame.assignValue(iReturn, EMPTY_STRING);
                     }
 
-                int    cchNew = cch - ofStart;
-                char[] achNew = new char[cchNew];
-                System.arraycopy(ach, ofStart, achNew, 0, cchNew);
-                return frame.assignValue(iReturn, makeHandle(achNew));
+                return frame.assignValue(iReturn, substring(hThis, ofStart, cch));
                 }
             }
 
@@ -220,7 +223,7 @@ public class xString
                                 ? 0
                                 : (int) ((JavaLong) hStart).getValue();
 
-                        int  ofResult = indexOf(hThis.m_achValue, chValue, ofStart);
+                        int  ofResult = indexOf(hThis, chValue, ofStart);
                         return ofResult < 0
                                 ? frame.assignValue(aiReturn[0], xBoolean.FALSE)
                                 : frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(ofResult));
@@ -237,15 +240,12 @@ public class xString
     @Override
     public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
         {
-        char[] ach = ((StringHandle) hTarget).getValue();
-        try
-            {
-            return frame.assignValue(iReturn, xChar.makeHandle(ach[(int) lIndex]));
-            }
-        catch (ArrayIndexOutOfBoundsException e)
-            {
-            return frame.raiseException(xException.outOfBounds(frame, lIndex, ach.length));
-            }
+        StringHandle hString = (StringHandle) hTarget;
+        int          cch     = hString.length();
+
+        return lIndex < 0 || lIndex >= cch
+                ? frame.raiseException(xException.outOfBounds(frame, lIndex, cch))
+                : frame.assignValue(iReturn, xChar.makeHandle(hString.charAt((int) lIndex)));
         }
 
     @Override
@@ -263,7 +263,7 @@ public class xString
     @Override
     public long size(ObjectHandle hTarget)
         {
-        return ((StringHandle) hTarget).getValue().length;
+        return ((StringHandle) hTarget).length();
         }
 
 
@@ -298,13 +298,20 @@ public class xString
 
     // ----- helpers -------------------------------------------------------------------------------
 
+    /**
+     * Concatenate two strings. Short results are copied right away; longer ones are represented by
+     * a concatenation node that is only flattened into an array when its characters are needed,
+     * which makes building a string by repeated concatenation linear rather than quadratic.
+     *
+     * @param h1  the head string
+     * @param h2  the tail string
+     *
+     * @return the concatenated string
+     */
     protected StringHandle concat(StringHandle h1, StringHandle h2)
         {
-        char[] ach1 = h1.m_achValue;
-        char[] ach2 = h2.m_achValue;
-
-        int c1 = ach1.length;
-        int c2 = ach2.length;
+        int c1 = h1.length();
+        int c2 = h2.length();
 
         if (c1 == 0)
             {
@@ -315,10 +322,94 @@ public class xString
             return h1;
             }
 
-        char[] ach = new char[c1 + c2];
-        System.arraycopy(ach1, 0, ach, 0, c1);
-        System.arraycopy(ach2, 0, ach, c1, c2);
-        return makeHandle(ach);
+        int cch = c1 + c2;
+        if (cch > CONCAT_COPY_LIMIT)
+            {
+            return new StringHandle(getCanonicalClass(), h1, h2);
+            }
+
+        h1.ensureFlat();
+        h2.ensureFlat();
+        if (h1.f_fLatin1 && h2.f_fLatin1)
+            {
+            byte[] ab = new byte[cch];
+            System.arraycopy(h1.m_abValue, 0, ab, 0,  c1);
+            System.arraycopy(h2.m_abValue, 0, ab, c1, c2);
+            return new StringHandle(getCanonicalClass(), ab);
+            }
+
+        char[] ach = new char[cch];
+        h1.copyChars(ach, 0);
+        h2.copyChars(ach, c1);
+        return new StringHandle(getCanonicalClass(), ach);
+        }
+
+    /**
+     * @return the substring of the specified string in the range [ofFrom, ofTo)
+     */
+    protected StringHandle substring(StringHandle hSource, int ofFrom, int ofTo)
+        {
+        hSource.ensureFlat();
+
+        byte[] abSource = hSource.m_abValue;
+        return abSource == null
+                ? makeHandle(Arrays.copyOfRange(hSource.m_achValue, ofFrom, ofTo))
+                : new StringHandle(getCanonicalClass(), Arrays.copyOfRange(abSource, ofFrom, ofTo));
+        }
+
+    /**
+     * Find the first occurrence of the specified character in the string.
+     *
+     * @return the index of the character or -1 if not found
+     */
+    protected int indexOf(StringHandle hSource, char chTarget, int ofStart)
+        {
+        hSource.ensureFlat();
+
+        byte[] abSource = hSource.m_abValue;
+        if (abSource == null)
+            {
+            return indexOf(hSource.m_achValue, chTarget, ofStart);
+            }
+
+        if (chTarget > 0xFF || ofStart >= abSource.length)
+            {
+            return -1;
+            }
+        return indexOf(abSource, (byte) chTarget, Math.max(ofStart, 0));
+        }
+
+    /**
+     * Find the first occurrence of the specified byte in the Latin-1 string, scanning eight bytes
+     * at a time.
+     *
+     * @return the index of the byte or -1 if not found
+     */
+    protected static int indexOf(byte[] abSource, byte bTarget, int ofStart)
+        {
+        int  cb      = abSource.length;
+        int  of      = ofStart;
+        long lTarget = (bTarget & 0xFFL) * 0x0101010101010101L;
+
+        for (int ofMax = cb - 8; of <= ofMax; of += 8)
+            {
+            // the matching bytes become zero; the lowest set high bit marks the first of them
+            long l     = (long) LONG_VIEW.get(abSource, of) ^ lTarget;
+            long lZero = (l - 0x0101010101010101L) & ~l & 0x8080808080808080L;
+            if (lZero != 0)
+                {
+                return of + (Long.numberOfTrailingZeros(lZero) >>> 3);
+                }
+            }
+
+        for (; of < cb; of++)
+            {
+            if (abSource[of] == bTarget)
+                {
+                return of;
+                }
+            }
+        return -1;
         }
 
     protected int indexOf(char[] achSource, char chTarget, int ofStart)
@@ -412,16 +503,33 @@ public class xString
 
     protected int compare(StringHandle h1, StringHandle h2)
         {
-        char[] ach1 = h1.m_achValue;
-        char[] ash2 = h2.m_achValue;
-        int    c1   = ach1.length;
-        int    c2   = ash2.length;
-        int    c    = Math.min(c1, c2);
+        h1.ensureFlat();
+        h2.ensureFlat();
+
+        byte[] ab1 = h1.m_abValue;
+        byte[] ab2 = h2.m_abValue;
+        int    c1  = h1.f_cch;
+        int    c2  = h2.f_cch;
+        int    c   = Math.min(c1, c2);
+
+        if (ab1 != null && ab2 != null)
+            {
+            for (int i = 0; i < c; i++)
+                {
+                int n1 = ab1[i] & 0xFF;
+                int n2 = ab2[i] & 0xFF;
+                if (n1 != n2)
+                    {
+                    return n1 - n2;
+                    }
+                }
+            return c1 - c2;
+            }
 
         for (int i = 0; i < c; i++)
             {
-            char ch1 = ach1[i];
-            char ch2 = ash2[i];
+            char ch1 = h1.charAt(i);
+            char ch2 = h2.charAt(i);
             if (ch1 != ch2)
                 {
                 return ch1 - ch2;
@@ -455,36 +563,198 @@ public class xString
     public static class StringHandle
             extends ObjectHandle
         {
-        private char[] m_achValue;
-        private transient JavaLong m_hash; // cached hash value
-        private transient String m_sValue; // cached String value
+        private final int          f_cch;      // the number of characters
+        private final boolean      f_fLatin1;  // true iff all the characters are Latin-1
+        private byte[]             m_abValue;  // the characters of a Latin-1 string
+        private char[]             m_achValue; // the characters (a cache for a Latin-1 string)
+        private volatile Concat    m_concat;   // the concatenation that is not yet flattened
+        private transient JavaLong m_hash;     // cached hash value
+        private transient String   m_sValue;   // cached String value
 
         protected StringHandle(TypeComposition clazz, char[] achValue)
             {
             super(clazz);
 
+            f_cch      = achValue.length;
+            f_fLatin1  = false;
             m_achValue = achValue;
             }
 
+        protected StringHandle(TypeComposition clazz, byte[] abValue)
+            {
+            super(clazz);
+
+            f_cch     = abValue.length;
+            f_fLatin1 = true;
+            m_abValue = abValue;
+            }
+
+        protected StringHandle(TypeComposition clazz, StringHandle hHead, StringHandle hTail)
+            {
+            super(clazz);
+
+            f_cch     = hHead.f_cch + hTail.f_cch;
+            f_fLatin1 = hHead.f_fLatin1 && hTail.f_fLatin1;
+            m_concat  = new Concat(hHead, hTail);
+            }
+
+        /**
+         * @return the number of characters in the string
+         */
+        public int length()
+            {
+            return f_cch;
+            }
+
+        /**
+         * @return the character at the specified index
+         */
+        public char charAt(int i)
+            {
+            ensureFlat();
+
+            byte[] ab = m_abValue;
+            return ab == null ? m_achValue[i] : (char) (ab[i] & 0xFF);
+            }
+
+        /**
+         * @return the characters of the string; the array must not be modified
+         */
         public char[] getValue()
             {
-            return m_achValue;
+            ensureFlat();
+
+            char[] ach = m_achValue;
+            if (ach == null)
+                {
+                ach = new char[f_cch];
+                copyChars(ach, 0);
+                m_achValue = ach;
+                }
+            return ach;
             }
 
         public String getStringValue()
             {
             String sValue = m_sValue;
-            return sValue == null
-                    ? (m_sValue = new String(m_achValue))
-                    : sValue;
+            if (sValue == null)
+                {
+                ensureFlat();
+
+                byte[] ab = m_abValue;
+                m_sValue = sValue = ab == null
+                        ? new String(m_achValue)
+                        : new String(ab, StandardCharsets.ISO_8859_1);
+                }
+            return sValue;
             }
 
         public JavaLong getHashCode()
             {
             JavaLong hHash = m_hash;
-            return hHash == null
-                    ? (m_hash = xInt64.makeHandle(Arrays.hashCode(m_achValue)))
-                    : hHash;
+            if (hHash == null)
+                {
+                ensureFlat();
+
+                byte[] ab = m_abValue;
+                int    nHash;
+                if (ab == null)
+                    {
+                    nHash = Arrays.hashCode(m_achValue);
+                    }
+                else
+                    {
+                    // the same value as Arrays.hashCode() for the corresponding char[]
+                    nHash = 1;
+                    for (byte b : ab)
+                        {
+                        nHash = 31 * nHash + (b & 0xFF);
+                        }
+                    }
+                m_hash = hHash = xInt64.makeHandle(nHash);
+                }
+            return hHash;
+            }
+
+        /**
+         * Copy the characters of this (flat) string into the specified array.
+         *
+         * @param ach  the destination array
+         * @param of   the destination offset
+         */
+        protected void copyChars(char[] ach, int of)
+            {
+            byte[] ab = m_abValue;
+            if (ab == null)
+                {
+                System.arraycopy(m_achValue, 0, ach, of, f_cch);
+                }
+            else
+                {
+                for (int i = 0, c = f_cch; i < c; i++)
+                    {
+                    ach[of + i] = (char) (ab[i] & 0xFF);
+                    }
+                }
+            }
+
+        /**
+         * Make sure the characters of this string are held in an array rather than by a pending
+         * concatenation.
+         */
+        protected void ensureFlat()
+            {
+            Concat concat = m_concat;
+            if (concat != null)
+                {
+                flatten(concat);
+                }
+            }
+
+        /**
+         * Collapse the specified concatenation into an array. The tree is walked iteratively,
+         * filling the array from its end, so that neither a long chain of appends nor of prepends
+         * can exhaust the Java stack.
+         */
+        private void flatten(Concat concat)
+            {
+            int     cch     = f_cch;
+            boolean fLatin1 = f_fLatin1;
+            byte[]  ab      = fLatin1 ? new byte[cch] : null;
+            char[]  ach     = fLatin1 ? null : new char[cch];
+            int     of      = cch;
+
+            ArrayDeque<StringHandle> stack = new ArrayDeque<>();
+            stack.push(concat.f_hHead);
+            stack.push(concat.f_hTail);
+            while (!stack.isEmpty())
+                {
+                StringHandle hPart      = stack.pop();
+                Concat       concatPart = hPart.m_concat;
+                if (concatPart == null)
+                    {
+                    of -= hPart.f_cch;
+                    if (fLatin1)
+                        {
+                        System.arraycopy(hPart.m_abValue, 0, ab, of, hPart.f_cch);
+                        }
+                    else
+                        {
+                        hPart.copyChars(ach, of);
+                        }
+                    }
+                else
+                    {
+                    stack.push(concatPart.f_hHead);
+                    stack.push(concatPart.f_hTail);
+                    }
+                }
+            assert of == 0;
+
+            // the arrays must be assigned before the volatile write that publishes them
+            m_abValue  = ab;
+            m_achValue = ach;
+            m_concat   = null;
             }
 
         @Override
@@ -496,11 +766,48 @@ public class xString
         @Override
         public boolean equals(Object obj)
             {
-            if (obj instanceof StringHandle)
+            if (!(obj instanceof StringHandle))
+                {
+                return false;
+                }
+
+            StringHandle that = (StringHandle) obj;
+            if (this == that)
+                {
+                return true;
+                }
+
+            int cch = this.f_cch;
+            if (cch != that.f_cch)
+                {
+                return false;
+                }
+
+            this.ensureFlat();
+            that.ensureFlat();
+
+            byte[] ab1 = this.m_abValue;
+            byte[] ab2 = that.m_abValue;
+            if (ab1 != null && ab2 != null)
+                {
+                return Arrays.equals(ab1, ab2);
+                }
+
+            char[] ach1 = this.m_achValue;
+            char[] ach2 = that.m_achValue;
+            if (ach1 != null && ach2 != null)
+                {
+                return Arrays.equals(ach1, ach2);
+                }
+
+            for (int i = 0; i < cch; i++)
                 {
-                return Arrays.equals(m_achValue, ((StringHandle) obj).m_achValue);
+                if (this.charAt(i) != that.charAt(i))
+                    {
+                    return false;
+                    }
                 }
-            return false;
+            return true;
             }
 
         @Override
@@ -508,11 +815,48 @@ public class xString
             {
             return super.toString() + getStringValue();
             }
+
+        /**
+         * A concatenation of two strings that has not been flattened yet.
+         */
+        private static class Concat
+            {
+            Concat(StringHandle hHead, StringHandle hTail)
+                {
+                f_hHead = hHead;
+                f_hTail = hTail;
+                }
+
+            final StringHandle f_hHead;
+            final StringHandle f_hTail;
+            }
         }
 
     public static StringHandle makeHandle(String sValue)
         {
-        return makeHandle(sValue.toCharArray());
+        int cch = sValue.length();
+        if (cch == 0)
+            {
+            return EMPTY_STRING;
+            }
+
+        byte[] ab = new byte[cch];
+        for (int i = 0; i < cch; i++)
+            {
+            char ch = sValue.charAt(i);
+            if (ch > 0xFF)
+                {
+                ab = null;
+                break;
+                }
+            ab[i] = (byte) ch;
+            }
+
+        StringHandle hString = ab == null
+                ? new StringHandle(INSTANCE.getCanonicalClass(), sValue.toCharArray())
+                : new StringHandle(INSTANCE.getCanonicalClass(), ab);
+        hString.m_sValue = sValue;
+        return hString;
         }
 
     public static StringHandle makeHandle(char[] achValue)
@@ -566,4 +910,16 @@ public class xString
     private static ArrayHandle      ARRAY_EMPTY;
 
     protected static MethodStructure METHOD_APPEND_TO;
+
+    /**
+     * The longest concatenation result that is copied right away rather than represented by a
+     * concatenation node.
+     */
+    private static final int CONCAT_COPY_LIMIT = 32;
+
+    /**
+     * The little-endian view of a byte array as an array of longs.
+     */
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
     }
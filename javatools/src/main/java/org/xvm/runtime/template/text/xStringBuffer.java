@@ -0,0 +1,501 @@
+package org.xvm.runtime.template.text;
+
+
+import java.util.Arrays;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.Op;
+
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.runtime.ClassComposition;
+import org.xvm.runtime.ClassTemplate;
+import org.xvm.runtime.Frame;
+import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.ObjectHandle.JavaLong;
+import org.xvm.runtime.TemplateRegistry;
+import org.xvm.runtime.TypeComposition;
+import org.xvm.runtime.Utils;
+
+import org.xvm.runtime.template.IndexSupport;
+import org.xvm.runtime.template.xBoolean;
+import org.xvm.runtime.template.xException;
+
+import org.xvm.runtime.template.collections.xArray;
+import org.xvm.runtime.template.collections.xCharArray;
+import org.xvm.runtime.template.collections.xCharArray.CharArrayHandle;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+import org.xvm.runtime.template.text.xString.StringHandle;
+
+
+/**
+ * Native StringBuffer implementation, backed by a growable char[].
+ *
+ * The String produced by {@code toString()} takes over the buffer's array rather than copying it;
+ * the buffer then copies its contents back out only if it is modified again, so a buffer that is
+ * discarded after producing its String (the overwhelmingly common case) never pays for a copy.
+ */
+public class xStringBuffer
+        extends ClassTemplate
+        implements IndexSupport
+    {
+    public static xStringBuffer INSTANCE;
+
+    public xStringBuffer(TemplateRegistry templates, ClassStructure structure, boolean fInstance)
+        {
+        super(templates, structure);
+
+        if (fInstance)
+            {
+            INSTANCE = this;
+            }
+        }
+
+    @Override
+    public void initNative()
+        {
+        METHOD_APPEND_OBJECT = getStructure().findMethod("appendObject", 1);
+        METHOD_ADD_ELEMENTS  = getStructure().findMethod("addElements" , 1);
+
+        markNativeProperty("chars");
+        markNativeProperty("size");
+        markNativeProperty("capacity");
+
+        markNativeMethod("construct"  , INT   , VOID);
+        markNativeMethod("append"     , OBJECT, null);
+        markNativeMethod("add"        , CHAR  , null);
+        markNativeMethod("addAll"     , null  , null);
+        markNativeMethod("toString"   , VOID  , STRING);
+        markNativeMethod("getElement" , INT   , CHAR);
+        markNativeMethod("setElement" , null  , VOID);
+        markNativeMethod("indexOf"    , null  , null);
+        markNativeMethod("lastIndexOf", null  , null);
+
+        getCanonicalType().invalidateTypeInfo();
+        }
+
+    @Override
+    public boolean isGenericHandle()
+        {
+        return false;
+        }
+
+    @Override
+    public int construct(Frame frame, MethodStructure constructor, ClassComposition clazz,
+                         ObjectHandle hParent, ObjectHandle[] ahVar, int iReturn)
+        {
+        ObjectHandle hCapacity = ahVar[0];
+        long         cCapacity = hCapacity == ObjectHandle.DEFAULT
+                ? 0 : ((JavaLong) hCapacity).getValue();
+
+        if (cCapacity < 0 || cCapacity > Integer.MAX_VALUE)
+            {
+            return frame.raiseException(
+                xException.illegalArgument(frame, "Invalid capacity: " + cCapacity));
+            }
+
+        return frame.assignValue(iReturn, new StringBufferHandle(clazz, (int) cCapacity));
+        }
+
+    @Override
+    public int invokeNativeGet(Frame frame, String sPropName, ObjectHandle hTarget, int iReturn)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        switch (sPropName)
+            {
+            case "chars":
+                return frame.assignValue(iReturn,
+                        xCharArray.makeHandle(hBuf.share(), xArray.Mutability.Constant));
+
+            case "size":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hBuf.m_cSize));
+
+            case "capacity":
+                return frame.assignValue(iReturn, xInt64.makeHandle(hBuf.m_achValue.length));
+            }
+
+        return super.invokeNativeGet(frame, sPropName, hTarget, iReturn);
+        }
+
+    @Override
+    public int invokeNativeSet(Frame frame, ObjectHandle hTarget, String sPropName, ObjectHandle hValue)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        switch (sPropName)
+            {
+            case "capacity":
+                {
+                if (!hBuf.isMutable())
+                    {
+                    return frame.raiseException(xException.immutableObject(frame));
+                    }
+
+                long cCapacity = ((JavaLong) hValue).getValue();
+                if (cCapacity > Integer.MAX_VALUE)
+                    {
+                    return frame.raiseException(
+                        xException.illegalArgument(frame, "Invalid capacity: " + cCapacity));
+                    }
+                hBuf.setCapacity((int) Math.max(cCapacity, hBuf.m_cSize));
+                return Op.R_NEXT;
+                }
+            }
+
+        return super.invokeNativeSet(frame, hTarget, sPropName, hValue);
+        }
+
+    @Override
+    public int invokeNative1(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle hArg, int iReturn)
+        {
+        StringBufferHandle hBuf  = (StringBufferHandle) hTarget;
+        String             sName = method.getName();
+
+        if (!hBuf.isMutable() && !sName.equals("getElement"))
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        switch (sName)
+            {
+            case "append": // StringBuffer append(Object o)
+                {
+                if (hArg instanceof StringHandle)
+                    {
+                    hBuf.appendString((StringHandle) hArg);
+                    return frame.assignValue(iReturn, hBuf);
+                    }
+
+                if (hArg instanceof StringBufferHandle)
+                    {
+                    StringBufferHandle hThat = (StringBufferHandle) hArg;
+                    hBuf.append(hThat.m_achValue, 0, hThat.m_cSize);
+                    return frame.assignValue(iReturn, hBuf);
+                    }
+
+                if (hArg instanceof JavaLong)
+                    {
+                    ClassTemplate template = hArg.getTemplate();
+                    if (template == xChar.INSTANCE)
+                        {
+                        hBuf.appendChar((int) ((JavaLong) hArg).getValue());
+                        return frame.assignValue(iReturn, hBuf);
+                        }
+
+                    if (template == xInt64.INSTANCE)
+                        {
+                        hBuf.appendLong(((JavaLong) hArg).getValue());
+                        return frame.assignValue(iReturn, hBuf);
+                        }
+                    }
+
+                ObjectHandle[] ahVar = new ObjectHandle[METHOD_APPEND_OBJECT.getMaxVars()];
+                ahVar[0] = hArg;
+                return frame.call1(METHOD_APPEND_OBJECT, hBuf, ahVar, iReturn);
+                }
+
+            case "add": // StringBuffer add(Char v)
+                hBuf.appendChar((int) ((JavaLong) hArg).getValue());
+                return frame.assignValue(iReturn, hBuf);
+
+            case "addAll": // StringBuffer addAll(Iterable<Char> array)
+                {
+                if (hArg instanceof StringHandle)
+                    {
+                    hBuf.appendString((StringHandle) hArg);
+                    return frame.assignValue(iReturn, hBuf);
+                    }
+
+                if (hArg instanceof CharArrayHandle)
+                    {
+                    CharArrayHandle hArray = (CharArrayHandle) hArg;
+                    hBuf.append(hArray.m_achValue, hArray.m_ofStart, hArray.m_cSize);
+                    return frame.assignValue(iReturn, hBuf);
+                    }
+
+                if (hArg instanceof StringBufferHandle)
+                    {
+                    StringBufferHandle hThat = (StringBufferHandle) hArg;
+                    hBuf.append(hThat.m_achValue, 0, hThat.m_cSize);
+                    return frame.assignValue(iReturn, hBuf);
+                    }
+
+                ObjectHandle[] ahVar = new ObjectHandle[METHOD_ADD_ELEMENTS.getMaxVars()];
+                ahVar[0] = hArg;
+                return frame.call1(METHOD_ADD_ELEMENTS, hBuf, ahVar, iReturn);
+                }
+
+            case "getElement": // Char getElement(Int index)
+                return extractArrayValue(frame, hBuf, ((JavaLong) hArg).getValue(), iReturn);
+            }
+
+        return super.invokeNative1(frame, method, hTarget, hArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                             ObjectHandle[] ahArg, int iReturn)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "setElement": // void setElement(Int index, Char value)
+                return assignArrayValue(frame, hBuf, ((JavaLong) ahArg[0]).getValue(), ahArg[1]);
+            }
+
+        return super.invokeNativeN(frame, method, hTarget, ahArg, iReturn);
+        }
+
+    @Override
+    public int invokeNativeNN(Frame frame, MethodStructure method, ObjectHandle hTarget,
+                              ObjectHandle[] ahArg, int[] aiReturn)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        switch (method.getName())
+            {
+            case "indexOf": // conditional Int indexOf(Char value, Int startAt = 0)
+                {
+                char   chValue = (char) ((JavaLong) ahArg[0]).getValue();
+                long   lStart  = ahArg[1] == ObjectHandle.DEFAULT
+                        ? 0 : ((JavaLong) ahArg[1]).getValue();
+                char[] ach     = hBuf.m_achValue;
+
+                for (int i = (int) Math.max(lStart, 0), c = hBuf.m_cSize; i < c; i++)
+                    {
+                    if (ach[i] == chValue)
+                        {
+                        return frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(i));
+                        }
+                    }
+                return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                }
+
+            case "lastIndexOf": // conditional Int lastIndexOf(Char value, Int startAt = Int.maxvalue)
+                {
+                char   chValue = (char) ((JavaLong) ahArg[0]).getValue();
+                long   lStart  = ahArg[1] == ObjectHandle.DEFAULT
+                        ? Long.MAX_VALUE : ((JavaLong) ahArg[1]).getValue();
+                char[] ach     = hBuf.m_achValue;
+
+                for (int i = (int) Math.min(lStart, hBuf.m_cSize - 1); i >= 0; i--)
+                    {
+                    if (ach[i] == chValue)
+                        {
+                        return frame.assignValues(aiReturn, xBoolean.TRUE, xInt64.makeHandle(i));
+                        }
+                    }
+                return frame.assignValue(aiReturn[0], xBoolean.FALSE);
+                }
+            }
+
+        return super.invokeNativeNN(frame, method, hTarget, ahArg, aiReturn);
+        }
+
+    @Override
+    protected int buildStringValue(Frame frame, ObjectHandle hTarget, int iReturn)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        return frame.assignValue(iReturn, hBuf.m_cSize == 0
+                ? xString.EMPTY_STRING
+                : xString.makeHandle(hBuf.share()));
+        }
+
+
+    // ----- IndexSupport --------------------------------------------------------------------------
+
+    @Override
+    public int extractArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, int iReturn)
+        {
+        StringBufferHandle hBuf = (StringBufferHandle) hTarget;
+
+        if (lIndex < 0 || lIndex >= hBuf.m_cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, hBuf.m_cSize));
+            }
+        return frame.assignValue(iReturn, xChar.makeHandle(hBuf.m_achValue[(int) lIndex]));
+        }
+
+    @Override
+    public int assignArrayValue(Frame frame, ObjectHandle hTarget, long lIndex, ObjectHandle hValue)
+        {
+        StringBufferHandle hBuf  = (StringBufferHandle) hTarget;
+        int                cSize = hBuf.m_cSize;
+
+        if (!hBuf.isMutable())
+            {
+            return frame.raiseException(xException.immutableObject(frame));
+            }
+
+        // as with an array, the element just past the end can be assigned to grow the buffer
+        if (lIndex < 0 || lIndex > cSize)
+            {
+            return frame.raiseException(xException.outOfBounds(frame, lIndex, cSize));
+            }
+
+        char ch = (char) ((JavaLong) hValue).getValue();
+        if (lIndex == cSize)
+            {
+            hBuf.appendChar(ch);
+            }
+        else
+            {
+            hBuf.ensureExclusive();
+            hBuf.m_achValue[(int) lIndex] = ch;
+            }
+        return Op.R_NEXT;
+        }
+
+    @Override
+    public TypeConstant getElementType(Frame frame, ObjectHandle hTarget, long lIndex)
+        {
+        return pool().typeChar();
+        }
+
+    @Override
+    public long size(ObjectHandle hTarget)
+        {
+        return ((StringBufferHandle) hTarget).m_cSize;
+        }
+
+
+    // ----- handle --------------------------------------------------------------------------------
+
+    public static class StringBufferHandle
+            extends ObjectHandle
+        {
+        protected char[]  m_achValue; // the characters; only the first m_cSize are used
+        protected int     m_cSize;    // the number of characters in the buffer
+        protected boolean m_fShared;  // true iff m_achValue is held by a String (or an array)
+
+        protected StringBufferHandle(TypeComposition clazz, int cCapacity)
+            {
+            super(clazz);
+
+            m_fMutable = true;
+            m_achValue = cCapacity == 0 ? EMPTY : new char[cCapacity];
+            }
+
+        /**
+         * Hand out the buffer's contents as an exactly sized array that the caller is allowed to
+         * hold on to; the buffer will make its own copy if it gets modified afterwards.
+         *
+         * @return an array of exactly {@link #m_cSize} characters
+         */
+        protected char[] share()
+            {
+            char[] ach = m_achValue;
+            if (ach.length != m_cSize)
+                {
+                m_achValue = ach = Arrays.copyOf(ach, m_cSize);
+                }
+            m_fShared = true;
+            return ach;
+            }
+
+        /**
+         * Make sure that the buffer's array is not shared, so it can be modified in place.
+         */
+        protected void ensureExclusive()
+            {
+            if (m_fShared)
+                {
+                setCapacity(m_achValue.length);
+                }
+            }
+
+        /**
+         * Make sure that the buffer has the room for the specified number of additional characters
+         * and that its array can be modified in place.
+         */
+        protected void ensureAvailable(int cAdd)
+            {
+            int cCapacity = m_achValue.length;
+            int cRequired = m_cSize + cAdd;
+            if (cRequired < 0)
+                {
+                throw new OutOfMemoryError("StringBuffer size overflow");
+                }
+
+            if (cRequired > cCapacity)
+                {
+                // grow by at least a half of the current capacity, so that a long sequence of
+                // small appends costs amortized constant time per character
+                setCapacity(Math.max(cRequired, cCapacity + (cCapacity >> 1) + 16));
+                }
+            else if (m_fShared)
+                {
+                setCapacity(cCapacity);
+                }
+            }
+
+        protected void setCapacity(int cCapacity)
+            {
+            m_achValue = Arrays.copyOf(m_achValue, cCapacity);
+            m_fShared  = false;
+            }
+
+        protected void appendChar(int ch)
+            {
+            ensureAvailable(1);
+            m_achValue[m_cSize++] = (char) ch;
+            }
+
+        protected void append(char[] ach, int of, int cch)
+            {
+            if (cch > 0)
+                {
+                ensureAvailable(cch);
+                System.arraycopy(ach, of, m_achValue, m_cSize, cch);
+                m_cSize += cch;
+                }
+            }
+
+        protected void appendString(StringHandle hString)
+            {
+            int cch = hString.length();
+            if (cch > 0)
+                {
+                ensureAvailable(cch);
+                hString.copyChars(m_achValue, m_cSize);
+                m_cSize += cch;
+                }
+            }
+
+        protected void appendLong(long l)
+            {
+            String s   = Long.toString(l);
+            int    cch = s.length();
+
+            ensureAvailable(cch);
+            s.getChars(0, cch, m_achValue, m_cSize);
+            m_cSize += cch;
+            }
+
+        @Override
+        public String toString()
+            {
+            return new String(m_achValue, 0, m_cSize);
+            }
+
+        private static final char[] EMPTY = new char[0];
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    protected static final String[] CHAR = new String[] {"text.Char"};
+
+    /**
+     * The Ecstasy fall-back implementations for the arguments that are not handled natively.
+     */
+    private static MethodStructure METHOD_APPEND_OBJECT;
+    private static MethodStructure METHOD_ADD_ELEMENTS;
+    }
@@ -716,7 +716,7 @@ public class xConst
     // ----- constants -----------------------------------------------------------------------------
 
     // name of the synthetic property for cached hash value
-    private static final String PROP_HASH = "@hash";
+    public static final String PROP_HASH = "@hash";
 
     private static MethodStructure FN_ESTIMATE_LENGTH;
     private static MethodStructure FN_APPEND_TO;
@@ -45,6 +45,7 @@ public class xException
             s_clzIllegalState               = f_templates.getTemplate("IllegalState"                 ).getCanonicalClass();
             s_clzInvalidType                = f_templates.getTemplate("reflect.InvalidType"          ).getCanonicalClass();
             s_clzOutOfBounds                = f_templates.getTemplate("OutOfBounds"                  ).getCanonicalClass();
+            s_clzOverloaded                 = f_templates.getTemplate("Overloaded"                   ).getCanonicalClass();
             s_clzReadOnly                   = f_templates.getTemplate("ReadOnly"                     ).getCanonicalClass();
             s_clzTimedOut                   = f_templates.getTemplate("TimedOut"                     ).getCanonicalClass();
             s_clzTypeMismatch               = f_templates.getTemplate("TypeMismatch"                 ).getCanonicalClass();
@@ -55,6 +56,7 @@ public class xException
             s_clzAccessDeniedException      = f_templates.getTemplate("fs.AccessDenied"              ).getCanonicalClass();
             s_clzFileAlreadyExistsException = f_templates.getTemplate("fs.FileAlreadyExists"         ).getCanonicalClass();
             s_clzIOException                = f_templates.getTemplate("io.IOException"               ).getCanonicalClass();
+            s_clzEndOfFile                  = f_templates.getTemplate("io.EndOfFile"                 ).getCanonicalClass();
 
             METHOD_FORMAT_EXCEPTION = getStructure().findMethod("formatExceptionString", 2);
 
@@ -97,6 +99,11 @@ public class xException
         return makeHandle(frame, "Service terminated: " + sService);
         }
 
+    public static ExceptionHandle serviceOverloaded(Frame frame, String sService)
+        {
+        return makeHandle(frame, s_clzOverloaded, "Service overloaded: " + sService);
+        }
+
     public static ExceptionHandle illegalArgument(Frame frame, String sMsg)
         {
         return makeHandle(frame, s_clzIllegalArgument, sMsg);
@@ -202,6 +209,11 @@ public class xException
         return makeHandle(frame, s_clzIOException, sMsg);
         }
 
+    public static ExceptionHandle endOfFile(Frame frame)
+        {
+        return makeHandle(frame, s_clzEndOfFile, null);
+        }
+
 
     // ---- ObjectHandle helpers -------------------------------------------------------------------
 
@@ -251,6 +263,7 @@ public class xException
     private static ClassComposition s_clzIllegalState;
     private static ClassComposition s_clzInvalidType;
     private static ClassComposition s_clzOutOfBounds;
+    private static ClassComposition s_clzOverloaded;
     private static ClassComposition s_clzReadOnly;
     private static ClassComposition s_clzTimedOut;
     private static ClassComposition s_clzTypeMismatch;
@@ -262,6 +275,7 @@ public class xException
     private static ClassComposition s_clzFileAlreadyExistsException;
 
     private static ClassComposition s_clzIOException;
+    private static ClassComposition s_clzEndOfFile;
 
     private static MethodStructure METHOD_FORMAT_EXCEPTION;
     }
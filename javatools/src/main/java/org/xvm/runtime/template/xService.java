@@ -137,7 +137,7 @@ public class xService
         }
 
     @Override
-    protected int makeImmutable(Frame frame, ObjectHandle hTarget)
+    public int makeImmutable(Frame frame, ObjectHandle hTarget)
         {
         return frame.raiseException(xException.unsupportedOperation(frame, "makeImmutable"));
         }
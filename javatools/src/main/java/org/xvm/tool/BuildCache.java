@@ -0,0 +1,447 @@
+package org.xvm.tool;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.nio.charset.StandardCharsets;
+
+import java.nio.file.Files;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.xvm.asm.ClassStructure;
+import org.xvm.asm.Component;
+import org.xvm.asm.Component.Contribution;
+import org.xvm.asm.Component.Format;
+import org.xvm.asm.Constant;
+import org.xvm.asm.Constants.Access;
+import org.xvm.asm.FileStructure;
+import org.xvm.asm.MethodStructure;
+import org.xvm.asm.ModuleRepository;
+import org.xvm.asm.ModuleStructure;
+import org.xvm.asm.MultiMethodStructure;
+import org.xvm.asm.PropertyStructure;
+import org.xvm.asm.XvmStructure;
+
+import org.xvm.asm.constants.ClassConstant;
+import org.xvm.asm.constants.IdentityConstant;
+import org.xvm.asm.constants.ModuleConstant;
+import org.xvm.asm.constants.PackageConstant;
+import org.xvm.asm.constants.StringConstant;
+import org.xvm.asm.constants.TypeConstant;
+
+import org.xvm.util.Handy;
+
+
+/**
+ * The BuildCache is a persistent record of what a compiled module was built from. It is stored
+ * next to the compiled module (see {@link #getCacheFile}) and holds:
+ * <ul>
+ *   <li>a content hash for each source file of the module;</li>
+ *   <li>for each class of another ("upstream") module that the compiled module refers to, a hash
+ *       of the class "public signature" (see {@link #computeSignature});</li>
+ *   <li>the compiler (file format) version and the module version.</li>
+ * </ul>
+ *
+ * A module does not need to be recompiled if none of its sources changed and none of the upstream
+ * classes it refers to changed their public signatures, regardless of the file timestamps.
+ */
+public class BuildCache
+    {
+    /**
+     * Construct a BuildCache.
+     *
+     * @param mapSources   the source file hashes keyed by the relative path
+     * @param mapUpstream  the upstream class signature hashes keyed by {@link #makeKey}
+     * @param sVersion     the module version (optional)
+     */
+    public BuildCache(Map<String, String> mapSources, Map<String, String> mapUpstream,
+                      String sVersion)
+        {
+        f_mapSources  = mapSources;
+        f_mapUpstream = mapUpstream;
+        f_sVersion    = sVersion == null ? "" : sVersion;
+        f_sTool       = FileStructure.getToolMajorVersion() + "." + FileStructure.getToolMinorVersion();
+        }
+
+    /**
+     * @return the cache file for the specified compiled module file
+     */
+    public static File getCacheFile(File fileModule)
+        {
+        String sName = fileModule.getName();
+        if (sName.endsWith(".xtc"))
+            {
+            sName = sName.substring(0, sName.length() - ".xtc".length());
+            }
+        return new File(fileModule.getParentFile(), sName + ".fingerprint");
+        }
+
+    /**
+     * Load the BuildCache from the specified file.
+     *
+     * @param file  the cache file
+     *
+     * @return the BuildCache or null if the file doesn't exist or cannot be read
+     */
+    public static BuildCache load(File file)
+        {
+        if (!file.isFile())
+            {
+            return null;
+            }
+
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(file))
+            {
+            props.load(in);
+            }
+        catch (IOException | IllegalArgumentException e)
+            {
+            return null;
+            }
+
+        Map<String, String> mapSources  = new TreeMap<>();
+        Map<String, String> mapUpstream = new TreeMap<>();
+        for (String sKey : props.stringPropertyNames())
+            {
+            String sValue = props.getProperty(sKey);
+            if (sKey.startsWith(PREFIX_SOURCE))
+                {
+                mapSources.put(sKey.substring(PREFIX_SOURCE.length()), sValue);
+                }
+            else if (sKey.startsWith(PREFIX_UPSTREAM))
+                {
+                mapUpstream.put(sKey.substring(PREFIX_UPSTREAM.length()), sValue);
+                }
+            }
+
+        BuildCache cache = new BuildCache(mapSources, mapUpstream, props.getProperty(KEY_VERSION));
+        return cache.f_sTool.equals(props.getProperty(KEY_TOOL)) ? cache : null;
+        }
+
+    /**
+     * Store this BuildCache into the specified file.
+     *
+     * @param file  the cache file
+     */
+    public void save(File file)
+            throws IOException
+        {
+        Properties props = new Properties();
+        props.setProperty(KEY_TOOL,    f_sTool);
+        props.setProperty(KEY_VERSION, f_sVersion);
+        f_mapSources .forEach((sPath, sHash) -> props.setProperty(PREFIX_SOURCE   + sPath, sHash));
+        f_mapUpstream.forEach((sKey,  sHash) -> props.setProperty(PREFIX_UPSTREAM + sKey,  sHash));
+
+        try (OutputStream out = new FileOutputStream(file))
+            {
+            props.store(out, "Ecstasy build cache; do not edit");
+            }
+        }
+
+    /**
+     * Check if the module sources and the build options are the same as recorded by this cache.
+     *
+     * @param mapSources  the current source file hashes
+     * @param sVersion    the current module version (optional)
+     *
+     * @return true iff the sources and the options have not changed
+     */
+    public boolean isSourceCurrent(Map<String, String> mapSources, String sVersion)
+        {
+        return f_mapSources.equals(mapSources) && f_sVersion.equals(sVersion == null ? "" : sVersion);
+        }
+
+    /**
+     * @return true iff this module refers to any class of the specified modules
+     */
+    public boolean dependsOn(Set<String> setModules)
+        {
+        for (String sKey : f_mapUpstream.keySet())
+            {
+            if (setModules.contains(sKey.substring(0, sKey.indexOf('/'))))
+                {
+                return true;
+                }
+            }
+        return false;
+        }
+
+    /**
+     * Check if the upstream classes that this module refers to still have the same public
+     * signatures.
+     *
+     * @param repo  the repository to load the upstream modules from
+     *
+     * @return true iff none of the upstream signatures changed
+     */
+    public boolean isUpstreamCurrent(ModuleRepository repo)
+        {
+        Map<String, ModuleStructure> mapModules = new HashMap<>();
+        Map<ClassStructure, String>  mapMemo    = new HashMap<>();
+        try
+            {
+            for (Map.Entry<String, String> entry : f_mapUpstream.entrySet())
+                {
+                String sKey    = entry.getKey();
+                int    ofSlash = sKey.indexOf('/');
+                String sModule = sKey.substring(0, ofSlash);
+
+                ModuleStructure module = mapModules.computeIfAbsent(sModule, repo::loadModule);
+                if (module == null)
+                    {
+                    return false;
+                    }
+
+                Component component = module;
+                for (String sName : Handy.parseDelimitedString(sKey.substring(ofSlash + 1), '.'))
+                    {
+                    component = component.getChild(sName);
+                    if (component == null)
+                        {
+                        return false;
+                        }
+                    }
+
+                if (!(component instanceof ClassStructure) ||
+                        !entry.getValue().equals(computeSignature((ClassStructure) component, mapMemo)))
+                    {
+                    return false;
+                    }
+                }
+            return true;
+            }
+        catch (RuntimeException e)
+            {
+            // anything unexpected means that the module needs to be rebuilt
+            return false;
+            }
+        }
+
+    /**
+     * Collect the signature hashes of all the upstream classes the specified (just compiled)
+     * module refers to.
+     *
+     * @param module  the compiled module
+     *
+     * @return the upstream class signature hashes keyed by {@link #makeKey}
+     */
+    public static Map<String, String> collectUpstream(ModuleStructure module)
+        {
+        ModuleConstant              idModule    = module.getIdentityConstant();
+        Map<String, String>         mapUpstream = new TreeMap<>();
+        Map<ClassStructure, String> mapMemo     = new HashMap<>();
+
+        for (Iterator<? extends XvmStructure> iter = module.getConstantPool().getContained();
+                iter.hasNext();)
+            {
+            XvmStructure xs = iter.next();
+            if (xs instanceof ClassConstant)
+                {
+                ClassConstant idClass = (ClassConstant) xs;
+                if (!idClass.getModuleConstant().equals(idModule) && isGloballyVisible(idClass))
+                    {
+                    Component component = idClass.getComponent();
+                    if (component instanceof ClassStructure)
+                        {
+                        mapUpstream.put(makeKey(idClass),
+                                computeSignature((ClassStructure) component, mapMemo));
+                        }
+                    }
+                }
+            }
+        return mapUpstream;
+        }
+
+    /**
+     * Compute the content hash of the specified file.
+     */
+    public static String hashFile(File file)
+            throws IOException
+        {
+        return hash(Files.readAllBytes(file.toPath()));
+        }
+
+    /**
+     * Compute the hash of the "public signature" of the specified class, which is anything that
+     * could affect the compilation of the code in another module that uses the class: the class
+     * format, access, type parameters and contributions, and the names, types and signatures of
+     * its non-private members (but not the method bodies). The hashes of the contributing classes
+     * from the same module are folded in as well.
+     *
+     * @param clz      the class
+     * @param mapMemo  the hashes that have already been computed
+     *
+     * @return the signature hash
+     */
+    protected static String computeSignature(ClassStructure clz, Map<ClassStructure, String> mapMemo)
+        {
+        String sHash = mapMemo.get(clz);
+        if (sHash != null)
+            {
+            return sHash;
+            }
+
+        // protect against circular contributions
+        mapMemo.put(clz, "");
+
+        List<String> listLines = new ArrayList<>();
+        listLines.add("class " + clz.getFormat() + ' ' + clz.getAccess()
+                + (clz.isAbstract() ? " abstract" : "") + (clz.isStatic() ? " static" : ""));
+
+        for (Map.Entry<StringConstant, TypeConstant> entry : clz.getTypeParamsAsList())
+            {
+            listLines.add("param " + entry.getKey().getValue() + ' ' + entry.getValue().getValueString());
+            }
+
+        ModuleConstant idModule = clz.getIdentityConstant().getModuleConstant();
+        for (Contribution contrib : clz.getContributionsAsList())
+            {
+            String       sContrib     = "contrib " + contrib;
+            TypeConstant typeContrib = contrib.getTypeConstant();
+            if (typeContrib != null && typeContrib.isExplicitClassIdentity(true))
+                {
+                IdentityConstant idContrib = typeContrib.getSingleUnderlyingClass(true);
+                if (idContrib.getModuleConstant().equals(idModule))
+                    {
+                    Component component = idContrib.getComponent();
+                    if (component instanceof ClassStructure)
+                        {
+                        sContrib += ' ' + computeSignature((ClassStructure) component, mapMemo);
+                        }
+                    }
+                }
+            listLines.add(sContrib);
+            }
+
+        for (Component child : clz.children())
+            {
+            if (child.getAccess() == Access.PRIVATE)
+                {
+                continue;
+                }
+
+            if (child instanceof MultiMethodStructure)
+                {
+                for (Component method : child.children())
+                    {
+                    if (method instanceof MethodStructure && method.getAccess() != Access.PRIVATE)
+                        {
+                        MethodStructure struct = (MethodStructure) method;
+                        listLines.add("method " + struct.getIdentityConstant().getSignature().getValueString()
+                                + ' ' + struct.getAccess()
+                                + (struct.isStatic()   ? " static"   : "")
+                                + (struct.isAbstract() ? " abstract" : "")
+                                + " defaults=" + struct.getDefaultParamCount());
+                        }
+                    }
+                }
+            else if (child instanceof PropertyStructure)
+                {
+                PropertyStructure prop  = (PropertyStructure) child;
+                Constant          value = prop.getInitialValue();
+                listLines.add("property " + prop.getName() + ' ' + prop.getType().getValueString()
+                        + ' ' + prop.getAccess()
+                        + (prop.isStatic() ? " static" : "")
+                        + (prop.isStatic() && value != null ? " = " + value.getValueString() : ""));
+                }
+            else
+                {
+                listLines.add("child " + child.getFormat() + ' ' + child.getName()
+                        + ' ' + child.getAccess());
+                }
+            }
+
+        // the order of the children is not significant
+        Collections.sort(listLines);
+
+        sHash = hash(String.join("\n", listLines).getBytes(StandardCharsets.UTF_8));
+        mapMemo.put(clz, sHash);
+        return sHash;
+        }
+
+    /**
+     * @return the key for the specified upstream class in the form of "module/path"
+     */
+    protected static String makeKey(ClassConstant idClass)
+        {
+        return idClass.getModuleConstant().getName() + '/' + idClass.getPathString();
+        }
+
+    /**
+     * @return true iff the class is nested only within packages and classes (not methods)
+     */
+    private static boolean isGloballyVisible(ClassConstant idClass)
+        {
+        for (IdentityConstant id = idClass.getParentConstant(); !(id instanceof ModuleConstant);
+                id = id.getParentConstant())
+            {
+            if (!(id instanceof ClassConstant || id instanceof PackageConstant))
+                {
+                return false;
+                }
+            }
+        return true;
+        }
+
+    /**
+     * @return the hex string of the SHA-256 hash of the specified bytes
+     */
+    private static String hash(byte[] ab)
+        {
+        try
+            {
+            return Handy.byteArrayToHexString(MessageDigest.getInstance("SHA-256").digest(ab))
+                    .substring(2);
+            }
+        catch (NoSuchAlgorithmException e)
+            {
+            throw new IllegalStateException(e);
+            }
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    private static final String KEY_TOOL        = "tool";
+    private static final String KEY_VERSION     = "version";
+    private static final String PREFIX_SOURCE   = "source:";
+    private static final String PREFIX_UPSTREAM = "upstream:";
+
+    /**
+     * The source file hashes keyed by the path relative to the module root.
+     */
+    private final Map<String, String> f_mapSources;
+
+    /**
+     * The upstream class signature hashes keyed by "module/path".
+     */
+    private final Map<String, String> f_mapUpstream;
+
+    /**
+     * The module version ("" if not specified).
+     */
+    private final String f_sVersion;
+
+    /**
+     * The compiler (file format) version.
+     */
+    private final String f_sTool;
+    }
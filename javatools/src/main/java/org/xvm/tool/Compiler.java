@@ -4,14 +4,31 @@ package org.xvm.tool;
 import java.io.File;
 import java.io.IOException;
 
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.xvm.asm.ClassStructure;
 import org.xvm.asm.ConstantPool;
 import org.xvm.asm.Constants;
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.FileRepository;
 import org.xvm.asm.FileStructure;
+import org.xvm.asm.LinkedRepository;
 import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
 import org.xvm.asm.Version;
@@ -59,6 +76,11 @@ import org.xvm.util.Severity;
  *
  * <p/>{@code  xtc -version 0.3-alpha}
  *
+ * <p/>Next to each resulting {@code .xtc} file, the compiler stores a {@code .fingerprint} file
+ * (see {@link BuildCache}) that records the hashes of the module sources and of the signatures
+ * of the classes from other modules that it uses; a module is only recompiled if any of those
+ * have changed (or if the {@code -rebuild} option is specified).
+ *
  * <p/>In addition to built-in Ecstasy modules and modules located in the Ecstasy runtime library,
  * it is possible to provide a search path for modules that will be used by the compiler. The search
  * path can contain directories and/or ".xtc" files:
@@ -74,6 +96,8 @@ import org.xvm.util.Severity;
  * <li>{@code -nodoc} - (not implemented) do not include documentation in the compiled module</li>
  * <li>{@code -strict} - convert warnings to errors</li>
  * <li>{@code -nowarn} - suppress warnings</li>
+ * <li>{@code -sequential} - compile the modules one at a time, instead of compiling the independent
+ *     modules in parallel</li>
  * <li>{@code -verbose} - provide information about the work being done by the compilation process</li>
  * </ul>
  */
@@ -116,35 +140,81 @@ public class Compiler
         boolean fRebuild   = options().isForcedRebuild();
         log(Severity.INFO, "Output-path=" + fileOutput + ", force-rebuild=" + fRebuild);
 
-        Map<File, Node> mapTargets     = new ListMap<>(listTargets.size());
-        int             cSystemModules = 0;
+        Map<File, Node>                mapNodes   = new ListMap<>(listTargets.size());
+        Map<Node, Map<String, String>> mapSources = new HashMap<>();
         for (File fileModule : listTargets)
             {
             log(Severity.INFO, "Loading and parsing sources for module: " + fileModule);
             Node node = loadSourceTree(fileModule, Stage.Linked);
+            mapNodes.put(fileModule, node);
+            mapSources.put(node, collectSourceHashes(node));
+            }
+
+        // short-circuit the compilation of any up-to-date modules; the modules that depend on the
+        // modules being compiled are only checked after those have been compiled, since they only
+        // need to be compiled if the upstream signatures actually change
+        Map<File, BuildCache> mapPending = new ListMap<>();
+        Set<File>             setStale   = fRebuild
+                ? mapNodes.keySet()
+                : selectStaleModules(mapNodes, mapSources, fileOutput, mapPending);
+        if (setStale.isEmpty())
+            {
+            log(Severity.INFO, "All modules are up to date; terminating compiler");
+            return;
+            }
 
-            // short-circuit the compilation of any up-to-date modules
-            if (fRebuild || !moduleUpToDate(node, fileOutput))
+        List<File> listPath = options().getModulePath();
+        while (!setStale.isEmpty())
+            {
+            Map<File, Node> mapTargets = new ListMap<>(setStale.size());
+            for (Map.Entry<File, Node> entry : mapNodes.entrySet())
                 {
-                mapTargets.put(fileModule, node);
-                if (isSystemModule(node))
+                if (setStale.contains(entry.getKey()))
                     {
-                    ++cSystemModules;
+                    mapTargets.put(entry.getKey(), entry.getValue());
                     }
                 }
+            compileModules(mapTargets, mapSources, listPath, fileOutput);
+
+            if (mapPending.isEmpty())
+                {
+                break;
+                }
+
+            // the modules that have just been compiled are now upstream of the pending ones
+            listPath = getUpstreamPath(fileOutput);
+            setStale = selectPendingModules(mapNodes, mapPending, fileOutput);
             }
-        Node[] allNodes = mapTargets.values().toArray(new Node[0]);
-        flushAndCheckErrors(allNodes);
 
-        if (mapTargets.isEmpty())
+        log(Severity.INFO, "Finished; terminating compiler");
+        }
+
+    /**
+     * Compile the specified modules and store the results.
+     *
+     * @param mapTargets  the source trees of the modules to compile keyed by the module file
+     * @param mapSources  the source file hashes of the modules
+     * @param listPath    the library path
+     * @param fileOutput  the output location (directory or file)
+     */
+    protected void compileModules(Map<File, Node> mapTargets,
+                                  Map<Node, Map<String, String>> mapSources,
+                                  List<File> listPath, File fileOutput)
+        {
+        int cSystemModules = 0;
+        for (Node node : mapTargets.values())
             {
-            log(Severity.INFO, "All modules are up to date; terminating compiler");
-            return;
+            if (isSystemModule(node))
+                {
+                ++cSystemModules;
+                }
             }
+        Node[] allNodes = mapTargets.values().toArray(new Node[0]);
+        flushAndCheckErrors(allNodes);
 
         // repository setup
         log(Severity.INFO, "Creating and pre-populating library and build repositories");
-        ModuleRepository repo = configureLibraryRepo(options().getModulePath());
+        ModuleRepository repo = configureLibraryRepo(listPath);
         checkErrors();
 
         if (cSystemModules == 0)
@@ -161,27 +231,48 @@ public class Compiler
         Map<String, org.xvm.compiler.Compiler> mapCompilers = populateNamespace(mapTargets, repo);
         flushAndCheckErrors(allNodes);
 
-        log(Severity.INFO, "Resolving names and dependencies");
+        log(Severity.INFO, "Linking modules");
         org.xvm.compiler.Compiler[] compilers = mapCompilers.values().toArray(new org.xvm.compiler.Compiler[0]);
-        resolveNames(compilers);
+        linkModules(compilers);
+        flushAndCheckErrors(allNodes);
+
+        List<org.xvm.compiler.Compiler[]> listLevels = options().isSequential()
+                ? null
+                : computeDependencyLevels(compilers);
+        if (listLevels == null)
+            {
+            log(Severity.INFO, "Compiling modules sequentially");
+            }
+        else
+            {
+            for (int i = 0, c = listLevels.size(); i < c; ++i)
+                {
+                log(Severity.INFO, "  level[" + i + "]=" + Arrays.toString(listLevels.get(i)));
+                }
+            }
+
+        log(Severity.INFO, "Resolving names and dependencies");
+        processPhase(compilers, listLevels, org.xvm.compiler.Compiler::resolveNames);
         flushAndCheckErrors(allNodes);
 
         injectNativeTurtle(repo);
         checkErrors();
 
         log(Severity.INFO, "Validating expressions");
-        validateExpressions(compilers);
+        processPhase(compilers, listLevels, org.xvm.compiler.Compiler::validateExpressions);
         flushAndCheckErrors(allNodes);
 
         log(Severity.INFO, "Generating code");
-        generateCode(compilers);
+        processPhase(compilers, listLevels, this::generateCode);
         flushAndCheckErrors(allNodes);
 
         log(Severity.INFO, "Storing results of compilation");
         emitModules(mapTargets, repoOutput);
         flushAndCheckErrors(allNodes);
 
-        log(Severity.INFO, "Finished; terminating compiler");
+        log(Severity.INFO, "Storing build fingerprints");
+        storeBuildCaches(mapTargets, mapSources, fileOutput);
+        checkErrors();
         }
 
     /**
@@ -251,51 +342,119 @@ public class Compiler
         }
 
     /**
-     * Resolve dependencies, including among multiple modules that are being compiled at the same
-     * time.
+     * Link the modules being compiled with the modules they depend on.
      *
      * @param compilers  a module compiler for each module
      */
-    protected void resolveNames(org.xvm.compiler.Compiler[] compilers)
+    protected void linkModules(org.xvm.compiler.Compiler[] compilers)
         {
         for (var compiler : compilers)
             {
             compiler.linkModules();
             }
+        }
 
-        int cTries = 0;
-        do
+    /**
+     * Split the modules being compiled into "levels", such that a module only depends on the
+     * modules from the previous levels. The modules within a level are independent of each other
+     * and could be compiled in parallel.
+     *
+     * @param compilers  a module compiler for each (already linked) module
+     *
+     * @return a list of levels or null if there is a circular dependency among the modules
+     */
+    protected List<org.xvm.compiler.Compiler[]> computeDependencyLevels(
+            org.xvm.compiler.Compiler[] compilers)
+        {
+        Map<String, org.xvm.compiler.Compiler> mapByName = new HashMap<>();
+        for (var compiler : compilers)
             {
-            boolean fDone = true;
-            for (var compiler : compilers)
+            mapByName.put(compiler.getFileStructure().getModuleName(), compiler);
+            }
+
+        // collect the dependencies among the modules being compiled
+        Map<org.xvm.compiler.Compiler, Set<org.xvm.compiler.Compiler>> mapDeps = new HashMap<>();
+        for (var compiler : compilers)
+            {
+            FileStructure struct = compiler.getFileStructure();
+            Set<org.xvm.compiler.Compiler> setDeps = new HashSet<>();
+            for (String sModule : struct.moduleNames())
                 {
-                fDone &= compiler.resolveNames();
+                var compilerDep = mapByName.get(sModule);
+                if (compilerDep != null && compilerDep != compiler)
+                    {
+                    setDeps.add(compilerDep);
+                    }
+                }
+            mapDeps.put(compiler, setDeps);
+            }
 
-                if (compiler.isAbortDesired())
+        List<org.xvm.compiler.Compiler[]>  listLevels = new ArrayList<>();
+        Set<org.xvm.compiler.Compiler>     setDone    = new HashSet<>();
+        List<org.xvm.compiler.Compiler>    listRest   = new ArrayList<>(Arrays.asList(compilers));
+        while (!listRest.isEmpty())
+            {
+            List<org.xvm.compiler.Compiler> listLevel = new ArrayList<>();
+            for (var compiler : listRest)
+                {
+                if (setDone.containsAll(mapDeps.get(compiler)))
                     {
-                    return;
+                    listLevel.add(compiler);
                     }
                 }
-            if (fDone)
+
+            if (listLevel.isEmpty())
                 {
-                return;
+                // circular dependency
+                return null;
                 }
+
+            setDone.addAll(listLevel);
+            listRest.removeAll(listLevel);
+            listLevels.add(listLevel.toArray(new org.xvm.compiler.Compiler[0]));
             }
-        while (++cTries < 0x3F);
+        return listLevels;
+        }
 
-        // something couldn't get resolved; must be a bug in the compiler
-        for (var compiler : compilers)
+    /**
+     * Drive all the modules through a compilation phase.
+     *
+     * If the dependency levels are specified, the levels are processed one at a time, and the
+     * modules within each level are processed in parallel, each module until it completes the phase.
+     * Otherwise, all the modules are processed on the current thread, taking turns until all of
+     * them complete the phase. Either way, the errors are collected by each module's error list
+     * and reported in the module order by the caller.
+     *
+     * @param compilers   a module compiler for each module
+     * @param listLevels  (optional) the module dependency levels
+     * @param phase       the phase to process
+     */
+    protected void processPhase(org.xvm.compiler.Compiler[] compilers,
+                                List<org.xvm.compiler.Compiler[]> listLevels, Phase phase)
+        {
+        if (listLevels == null)
             {
-            compiler.logRemainingDeferredAsErrors();
+            processInterleaved(compilers, phase);
+            return;
+            }
+
+        for (org.xvm.compiler.Compiler[] level : listLevels)
+            {
+            if (!processLevel(level, phase))
+                {
+                return;
+                }
             }
         }
 
     /**
-     * Validation phase, before code generation.
+     * Process the modules on the current thread, taking turns until all of them complete the
+     * specified phase.
      *
      * @param compilers  a module compiler for each module
+     * @param phase      the phase to process
      */
-    protected void validateExpressions(org.xvm.compiler.Compiler[] compilers)
+    protected void processInterleaved(org.xvm.compiler.Compiler[] compilers, Phase phase)
         {
         int cTries = 0;
         do
@@ -303,7 +462,7 @@ public class Compiler
             boolean fDone = true;
             for (var compiler : compilers)
                 {
-                fDone &= compiler.validateExpressions();
+                fDone &= phase.process(compiler);
 
                 if (compiler.isAbortDesired())
                     {
@@ -315,7 +474,7 @@ public class Compiler
                 return;
                 }
             }
-        while (++cTries < 0x3F);
+        while (++cTries < MAX_TRIES);
 
         // something couldn't get resolved; must be a bug in the compiler
         for (var compiler : compilers)
@@ -325,50 +484,117 @@ public class Compiler
         }
 
     /**
-     * After names/dependencies are resolved, generate the actual code.
+     * Process the independent modules of a single dependency level in parallel.
      *
-     * @param compilers  a module compiler for each module
+     * @param compilers  a module compiler for each module of the level
+     * @param phase      the phase to process
+     *
+     * @return false iff the compilation should be aborted
      */
-    protected void generateCode(org.xvm.compiler.Compiler[] compilers)
+    protected boolean processLevel(org.xvm.compiler.Compiler[] compilers, Phase phase)
         {
-        int cTries = 0;
-        do
+        if (compilers.length == 1)
             {
-            boolean fDone = true;
-            for (var compiler : compilers)
+            return processModule(compilers[0], phase);
+            }
+
+        List<Callable<Boolean>> listTasks = new ArrayList<>(compilers.length);
+        for (var compiler : compilers)
+            {
+            listTasks.add(() -> processModule(compiler, phase));
+            }
+
+        boolean fContinue = true;
+        for (Future<Boolean> future : ForkJoinPool.commonPool().invokeAll(listTasks))
+            {
+            try
                 {
-                try
-                    {
-                    fDone &= compiler.generateCode();
+                fContinue &= future.get();
+                }
+            catch (InterruptedException | ExecutionException e)
+                {
+                throw new IllegalStateException(e);
+                }
+            }
+        return fContinue;
+        }
 
-                    if (compiler.isAbortDesired())
-                        {
-                        return;
-                        }
-                    }
-                catch (RuntimeException e)
-                    {
-                    System.err.println("Failed to generate code for " + compiler);
-                    e.printStackTrace();
+    /**
+     * Process a single module until it completes the specified phase.
+     *
+     * @param compiler  the module compiler
+     * @param phase     the phase to process
+     *
+     * @return false iff the compilation should be aborted
+     */
+    private boolean processModule(org.xvm.compiler.Compiler compiler, Phase phase)
+        {
+        int cTries = 0;
+        do
+            {
+            boolean fDone = phase.process(compiler);
 
-                    log(Severity.ERROR, "Failed to generate code for " + compiler
-                            + " due to exception: " + e);
-                    }
+            if (compiler.isAbortDesired())
+                {
+                return false;
                 }
+
             if (fDone)
                 {
-                return;
+                return true;
                 }
             }
-        while (++cTries < 0x3F);
+        while (++cTries < MAX_TRIES);
 
         // something couldn't get resolved; must be a bug in the compiler
-        for (var compiler : compilers)
+        compiler.logRemainingDeferredAsErrors();
+        return true;
+        }
+
+    /**
+     * After names/dependencies are resolved, generate the actual code.
+     *
+     * @param compiler  the module compiler
+     *
+     * @return true iff the code generation is complete or has failed with an unexpected exception
+     *         (in which case the compiler {@link org.xvm.compiler.Compiler#isAbortDesired wants to
+     *         abort})
+     */
+    protected boolean generateCode(org.xvm.compiler.Compiler compiler)
+        {
+        try
             {
-            compiler.logRemainingDeferredAsErrors();
+            return compiler.generateCode();
+            }
+        catch (RuntimeException e)
+            {
+            System.err.println("Failed to generate code for " + compiler);
+            e.printStackTrace();
+
+            // the error goes into the module's error list, so it's reported in the module order;
+            // an unexpected exception is not going to go away by trying again, so abort the
+            // compilation right away
+            compiler.getErrorListener().log(Severity.FATAL, org.xvm.compiler.Compiler.FATAL_ERROR,
+                    new Object[] {"Failed to generate code for " + compiler
+                            + " due to exception: " + e}, null);
+            return true;
             }
         }
 
+    /**
+     * A compilation phase that needs to be repeated until it completes.
+     */
+    @FunctionalInterface
+    protected interface Phase
+        {
+        /**
+         * Process the module.
+         *
+         * @return true iff the phase is complete for the module
+         */
+        boolean process(org.xvm.compiler.Compiler compiler);
+        }
+
     /**
      * Emit the results of compilation.
      */
@@ -432,6 +658,301 @@ public class Compiler
         }
 
 
+    // ----- incremental build support -------------------------------------------------------------
+
+    /**
+     * Determine which of the specified modules need to be compiled. A module is considered to be
+     * up to date iff its compiled module and its {@link BuildCache} exist, its sources and the
+     * version option have not changed, and none of the upstream classes it depends on have changed
+     * their signatures.
+     *
+     * <p/>A module that depends on another module that needs to be compiled cannot be checked
+     * until the new signatures of that module are known; it is placed into the "pending" map
+     * instead (see {@link #selectPendingModules}).
+     *
+     * @param mapNodes    the source trees of the modules keyed by the module file
+     * @param mapSources  the source file hashes of the modules
+     * @param fileOutput  the output location (directory or file)
+     * @param mapPending  (out) the build caches of the modules that depend on the modules that
+     *                    need to be compiled
+     *
+     * @return the module files for the modules that need to be compiled
+     */
+    protected Set<File> selectStaleModules(Map<File, Node> mapNodes,
+                                           Map<Node, Map<String, String>> mapSources,
+                                           File fileOutput, Map<File, BuildCache> mapPending)
+        {
+        Version               version   = options().getVersion();
+        String                sVersion  = version == null ? null : version.toString();
+        Set<File>             setStale  = new HashSet<>();
+        Set<String>           setNames  = new HashSet<>();
+        Map<File, BuildCache> mapCaches = new ListMap<>();
+
+        for (Map.Entry<File, Node> entry : mapNodes.entrySet())
+            {
+            Node       node       = entry.getValue();
+            File       fileModule = resolveModuleFile(node, fileOutput);
+            BuildCache cache      = fileModule.isFile()
+                    ? BuildCache.load(BuildCache.getCacheFile(fileModule))
+                    : null;
+            if (cache != null && cache.isSourceCurrent(mapSources.get(node), sVersion))
+                {
+                mapCaches.put(entry.getKey(), cache);
+                }
+            else
+                {
+                setStale.add(entry.getKey());
+                setNames.add(node.name());
+                }
+            }
+
+        // use a separate repository, so the build repository is not polluted by the modules that
+        // are loaded only to check the signatures
+        ModuleRepository repoCheck = mapCaches.isEmpty() ? null : makeCheckRepo(fileOutput);
+        boolean          fChanged  = true;
+        while (fChanged)
+            {
+            fChanged = false;
+
+            // anything that depends on a module being compiled has to wait for it
+            boolean fPending = !setNames.isEmpty();
+            while (fPending)
+                {
+                fPending = false;
+                for (Iterator<Map.Entry<File, BuildCache>> iter = mapCaches.entrySet().iterator();
+                        iter.hasNext();)
+                    {
+                    Map.Entry<File, BuildCache> entry = iter.next();
+                    if (entry.getValue().dependsOn(setNames))
+                        {
+                        iter.remove();
+                        mapPending.put(entry.getKey(), entry.getValue());
+                        setNames.add(mapNodes.get(entry.getKey()).name());
+                        fPending = true;
+                        }
+                    }
+                }
+
+            for (Iterator<Map.Entry<File, BuildCache>> iter = mapCaches.entrySet().iterator();
+                    iter.hasNext();)
+                {
+                Map.Entry<File, BuildCache> entry = iter.next();
+                if (!entry.getValue().isUpstreamCurrent(repoCheck))
+                    {
+                    iter.remove();
+                    setStale.add(entry.getKey());
+                    setNames.add(mapNodes.get(entry.getKey()).name());
+                    fChanged = true;
+                    }
+                }
+            }
+
+        for (File fileModule : mapCaches.keySet())
+            {
+            log(Severity.INFO, "Module is up to date: " + mapNodes.get(fileModule).name());
+            }
+        return setStale;
+        }
+
+    /**
+     * Determine which of the pending modules need to be compiled, now that the modules they
+     * depend on have been compiled. A pending module is only checked once none of the modules it
+     * depends on are pending or about to be compiled; the rest of the modules remain pending.
+     *
+     * @param mapNodes    the source trees of the modules keyed by the module file
+     * @param mapPending  (in/out) the build caches of the pending modules
+     * @param fileOutput  the output location (directory or file)
+     *
+     * @return the module files for the modules that need to be compiled
+     */
+    protected Set<File> selectPendingModules(Map<File, Node> mapNodes,
+                                             Map<File, BuildCache> mapPending,
+                                             File fileOutput)
+        {
+        Set<File>   setStale     = new HashSet<>();
+        Set<String> setUnsettled = new HashSet<>();
+        for (File fileModule : mapPending.keySet())
+            {
+            setUnsettled.add(mapNodes.get(fileModule).name());
+            }
+
+        ModuleRepository repoCheck = makeCheckRepo(fileOutput);
+        boolean          fChanged  = true;
+        while (fChanged)
+            {
+            fChanged = false;
+            for (Iterator<Map.Entry<File, BuildCache>> iter = mapPending.entrySet().iterator();
+                    iter.hasNext();)
+                {
+                Map.Entry<File, BuildCache> entry = iter.next();
+                BuildCache                  cache = entry.getValue();
+                if (!cache.dependsOn(setUnsettled))
+                    {
+                    String sName = mapNodes.get(entry.getKey()).name();
+                    iter.remove();
+                    if (cache.isUpstreamCurrent(repoCheck))
+                        {
+                        log(Severity.INFO, "Module is up to date: " + sName);
+                        setUnsettled.remove(sName);
+                        }
+                    else
+                        {
+                        setStale.add(entry.getKey());
+                        }
+                    fChanged = true;
+                    }
+                }
+            }
+
+        if (setStale.isEmpty() && !mapPending.isEmpty())
+            {
+            // the remaining modules depend on each other; none of them can be checked separately
+            setStale.addAll(mapPending.keySet());
+            mapPending.clear();
+            }
+        return setStale;
+        }
+
+    /**
+     * Store the {@link BuildCache} for each of the compiled modules.
+     *
+     * @param mapModules  the compiled modules
+     * @param mapSources  the source file hashes of the modules
+     * @param fileOutput  the output location (directory or file)
+     */
+    protected void storeBuildCaches(Map<File, Node> mapModules,
+                                    Map<Node, Map<String, String>> mapSources,
+                                    File fileOutput)
+        {
+        Version version  = options().getVersion();
+        String  sVersion = version == null ? null : version.toString();
+        for (Node nodeModule : mapModules.values())
+            {
+            ModuleStructure module    = (ModuleStructure) nodeModule.type().getComponent();
+            File            fileCache = BuildCache.getCacheFile(resolveModuleFile(nodeModule, fileOutput));
+            try
+                {
+                new BuildCache(mapSources.get(nodeModule), BuildCache.collectUpstream(module), sVersion)
+                        .save(fileCache);
+                }
+            catch (IOException | RuntimeException e)
+                {
+                // the only consequence is that the module will be recompiled next time
+                log(Severity.WARNING, "Exception (" + e
+                        + ") occurred while attempting to write build cache \""
+                        + fileCache.getAbsolutePath() + "\"");
+                fileCache.delete();
+                }
+            }
+        }
+
+    /**
+     * Compute the content hashes of all the source files of the specified module.
+     *
+     * @param nodeModule  the module source tree
+     *
+     * @return the source file hashes keyed by the path relative to the module directory
+     */
+    protected Map<String, String> collectSourceHashes(Node nodeModule)
+        {
+        Map<String, String> mapHashes = new TreeMap<>();
+        File                fileRoot  = nodeModule.file().getAbsoluteFile();
+        File                dirRoot   = fileRoot.isDirectory() ? fileRoot : fileRoot.getParentFile();
+        collectSourceHashes(nodeModule, dirRoot.toPath(), mapHashes);
+        return mapHashes;
+        }
+
+    private void collectSourceHashes(Node node, Path pathRoot, Map<String, String> mapHashes)
+        {
+        if (node instanceof DirNode)
+            {
+            DirNode nodeDir = (DirNode) node;
+            if (nodeDir.sourceFile() != null)
+                {
+                addSourceHash(nodeDir.sourceFile(), pathRoot, mapHashes);
+                }
+            for (File file : nodeDir.classNodes().keySet())
+                {
+                addSourceHash(file, pathRoot, mapHashes);
+                }
+            for (DirNode nodePkg : nodeDir.packageNodes())
+                {
+                collectSourceHashes(nodePkg, pathRoot, mapHashes);
+                }
+            }
+        else if (node.file() != null)
+            {
+            addSourceHash(node.file(), pathRoot, mapHashes);
+            }
+        }
+
+    private void addSourceHash(File file, Path pathRoot, Map<String, String> mapHashes)
+        {
+        String sPath = pathRoot.relativize(file.getAbsoluteFile().toPath()).toString()
+                .replace(File.separatorChar, '/');
+        try
+            {
+            mapHashes.put(sPath, BuildCache.hashFile(file));
+            }
+        catch (IOException e)
+            {
+            // an unreadable file cannot match any previous build
+            mapHashes.put(sPath, "?");
+            }
+        }
+
+    /**
+     * @return the compiled module file for the specified module source tree
+     */
+    protected File resolveModuleFile(Node nodeModule, File fileOutput)
+        {
+        return fileOutput.isDirectory()
+                ? DirRepository.getModuleFile(fileOutput, nodeModule.name())
+                : fileOutput;
+        }
+
+    /**
+     * @return the library path followed by the output location
+     */
+    protected List<File> getUpstreamPath(File fileOutput)
+        {
+        List<File> listPath = new ArrayList<>(options().getModulePath());
+        if (!listPath.contains(fileOutput))
+            {
+            listPath.add(fileOutput);
+            }
+        return listPath;
+        }
+
+    /**
+     * @return a read-only repository of the library path and the output location
+     */
+    protected ModuleRepository makeCheckRepo(File fileOutput)
+        {
+        List<ModuleRepository> listRepos = new ArrayList<>();
+        for (File file : getUpstreamPath(fileOutput))
+            {
+            if (file.isDirectory())
+                {
+                listRepos.add(new DirRepository(file, true));
+                }
+            else if (file.isFile())
+                {
+                listRepos.add(new FileRepository(file, true));
+                }
+            }
+        return new LinkedRepository(listRepos.toArray(new ModuleRepository[0]));
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The number of times a module compiler is allowed to defer the completion of a phase.
+     */
+    private static final int MAX_TRIES = 0x3F;
+
+
     // ----- text output and error handling --------------------------------------------------------
 
     @Override
@@ -481,6 +1002,7 @@ public class Compiler
                                                  + "\"-delimited list of file and/or directory names");
             addOption("o",       Form.File,   false, "File or directory to write output to");
             addOption("qualify", Form.Name,   false, "Use full module name for the output file name");
+            addOption("sequential", Form.Name, false, "Compile the modules one at a time");
             addOption("version", Form.String, false, "Use full module name for the output file name");
             addOption(Trailing,  Form.File,   true , "Source file name(s) and/or module location(s) to"
                                                  + " compile");
@@ -534,6 +1056,14 @@ public class Compiler
             return specified("qualify");
             }
 
+        /**
+         * @return true if "sequential" option is set
+         */
+        public boolean isSequential()
+            {
+            return specified("sequential");
+            }
+
         /**
          * @return true if "force rebuild" option is set
          */
@@ -0,0 +1,158 @@
+package org.xvm.tool;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.xvm.asm.ModuleRepository;
+
+import org.xvm.runtime.RuntimeImage;
+
+import org.xvm.util.Severity;
+
+
+/**
+ * The "runtime image" command:
+ *
+ *  java org.xvm.tool.ImageBuilder [-L repo(s)] image_file
+ *
+ * creates a {@link RuntimeImage} file for the system modules found in the module path; the image
+ * can then be passed to the {@link Runner} using the "-image" option.
+ */
+public class ImageBuilder
+        extends Launcher
+    {
+    /**
+     * Entry point from the OS.
+     *
+     * @param asArg command line arguments
+     */
+    public static void main(String[] asArg)
+        {
+        new ImageBuilder(asArg).run();
+        }
+
+    /**
+     * ImageBuilder constructor.
+     *
+     * @param asArg command line arguments
+     */
+    public ImageBuilder(String[] asArg)
+        {
+        super(asArg);
+        }
+
+    @Override
+    protected void process()
+        {
+        // repository setup
+        log(Severity.INFO, "Creating and pre-populating library and build repositories");
+        ModuleRepository repo = configureLibraryRepo(options().getModulePath());
+        checkErrors();
+
+        log(Severity.INFO, "Pre-loading and linking system libraries");
+        prelinkSystemLibraries(repo);
+        checkErrors();
+
+        File fileImage = options().getTarget();
+        log(Severity.INFO, "Writing runtime image: " + fileImage);
+        try
+            {
+            RuntimeImage.create(repo, fileImage);
+            }
+        catch (IOException | IllegalStateException e)
+            {
+            log(Severity.ERROR, "Exception (" + e + ") writing runtime image: " + fileImage);
+            }
+        checkErrors();
+        }
+
+
+    // ----- text output and error handling --------------------------------------------------------
+
+    @Override
+    public String desc()
+        {
+        return "Ecstasy runtime image builder:\n" +
+               '\n' +
+               "Creates a runtime image of the system modules to speed up the runtime start-up.\n" +
+               '\n' +
+               "Usage:\n" +
+               '\n' +
+               "    ImageBuilder <options> <filename>\n";
+        }
+
+
+    // ----- options -------------------------------------------------------------------------------
+
+    @Override
+    public Options options()
+        {
+        return (Options) super.options();
+        }
+
+    @Override
+    protected Options instantiateOptions()
+        {
+        return new Options();
+        }
+
+    /**
+     * ImageBuilder command-line options implementation.
+     */
+    public class Options
+        extends Launcher.Options
+        {
+        /**
+         * Construct the ImageBuilder Options.
+         */
+        public Options()
+            {
+            super();
+
+            addOption("L",      Form.Repo  , true , "Module path; a \"" + File.pathSeparator
+                                                  + "\"-delimited list of file and/or directory names");
+            addOption(Trailing, Form.File  , false, "Runtime image file name to write");
+            }
+
+        /**
+         * @return the list of files in the module path (empty list if none specified)
+         */
+        public List<File> getModulePath()
+            {
+            @SuppressWarnings("unchecked")
+            List<File> path = (List<File>) values().get("L");
+            return path == null ? Collections.emptyList() : path;
+            }
+
+        /**
+         * @return the image file to write
+         */
+        public File getTarget()
+            {
+            return (File) values().get(Trailing);
+            }
+
+        @Override
+        public void validate()
+            {
+            super.validate();
+
+            // validate the -L path of file(s)/dir(s)
+            validateModulePath(getModulePath());
+
+            File fileImage = getTarget();
+            if (fileImage == null)
+                {
+                log(Severity.ERROR, "Runtime image file required");
+                }
+            else if (fileImage.isDirectory())
+                {
+                log(Severity.ERROR, "Specified runtime image file is a directory");
+                }
+            }
+        }
+    }
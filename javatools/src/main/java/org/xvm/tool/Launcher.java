@@ -1639,24 +1639,6 @@ public abstract class Launcher
         return listResult;
         }
 
-    /**
-     * Determine if the module on disk is up to date vis-a-vis the source code.
-     *
-     * @param nodeSourceTree      the source code
-     * @param fileModuleLocation  the location of the compiled module (directory or file)
-     *
-     * @return true iff the date/time on the compiled module is up to date compared to the source
-     */
-    protected boolean moduleUpToDate(Node nodeSourceTree, File fileModuleLocation)
-        {
-        String sModule    = nodeSourceTree.name();
-        File   fileModule = fileModuleLocation.isDirectory()
-                ? new File(fileModuleLocation, sModule + ".xtc")
-                : fileModuleLocation;
-        return fileModule.isFile() && fileModule.exists()
-                && fileModule.lastModified() > nodeSourceTree.lastModified();
-        }
-
     /**
      * When working with a source code tree, and given a "module file" such as returned from
      * {@link #findModule(File)}, produce a source tree of the desired processing stage.
@@ -16,6 +16,7 @@ import org.xvm.asm.ModuleRepository;
 import org.xvm.asm.ModuleStructure;
 
 import org.xvm.runtime.ObjectHandle;
+import org.xvm.runtime.RuntimeImage;
 import org.xvm.runtime.Utils;
 
 import org.xvm.runtime.template.collections.xArray;
@@ -30,9 +31,11 @@ import org.xvm.util.Severity;
 /**
  * The "execute" command:
  *
- *  java org.xvm.tool.Runner [-L repo(s)] [-M method_name] app.xtc [argv]
+ *  java org.xvm.tool.Runner [-L repo(s)] [-M method_name] [-image file] app.xtc [argv]
  *
- * where the default method is "run" with no arguments.
+ * where the default method is "run" with no arguments. The optional runtime image (produced by the
+ * {@link ImageBuilder}) allows skipping the loading and linking of the system modules; an image
+ * that does not match the system modules on the module path is rebuilt.
  */
 public class Runner
         extends Launcher
@@ -65,8 +68,47 @@ public class Runner
         ModuleRepository repo = configureLibraryRepo(options().getModulePath());
         checkErrors();
 
-        log(Severity.INFO, "Pre-loading and linking system libraries");
-        prelinkSystemLibraries(repo);
+        File         fileImage = options().getImage();
+        RuntimeImage image     = null;
+        if (fileImage == null)
+            {
+            log(Severity.INFO, "Pre-loading and linking system libraries");
+            prelinkSystemLibraries(repo);
+            }
+        else
+            {
+            // the image already contains the linked system libraries
+            log(Severity.INFO, "Loading runtime image: " + fileImage);
+            try
+                {
+                image = new RuntimeImage(fileImage);
+                }
+            catch (IOException e)
+                {
+                log(Severity.ERROR, "I/O exception (" + e + ") reading runtime image: " + fileImage);
+                }
+            checkErrors();
+
+            if (!image.isCurrent(repo))
+                {
+                // the image does not match the system libraries on the module path; this run
+                // uses the libraries, and the rebuilt image will be used by the subsequent runs
+                log(Severity.WARNING, "Runtime image is out of date; rebuilding: " + fileImage);
+                image = null;
+
+                prelinkSystemLibraries(repo);
+                checkErrors();
+
+                try
+                    {
+                    RuntimeImage.create(repo, fileImage);
+                    }
+                catch (IOException | IllegalStateException e)
+                    {
+                    log(Severity.WARNING, "Exception (" + e + ") writing runtime image: " + fileImage);
+                    }
+                }
+            }
         checkErrors();
 
         File            fileModule = options().getTarget();
@@ -103,7 +145,7 @@ public class Runner
 
         try
             {
-            Connector connector = new Connector(repo);
+            Connector connector = new Connector(repo, image);
             connector.loadModule(module.getName());
 
             connector.start();
@@ -182,6 +224,7 @@ public class Runner
             addOption("L",      Form.Repo  , true , "Module path; a \"" + File.pathSeparator
                                                   + "\"-delimited list of file and/or directory names");
             addOption("M",      Form.String, false, "Method name; defaults to \"run\"");
+            addOption("image",  Form.File  , false, "Runtime image file (see ImageBuilder)");
             addOption(Trailing, Form.File  , false, "Module file name (.xtc) to execute");
             addOption(ArgV,     Form.AsIs  , true , "Arguments to pass to the method");
             }
@@ -202,6 +245,14 @@ public class Runner
             return (String) values().getOrDefault("M", "run");
             }
 
+        /**
+         * @return the runtime image file, or null if none specified
+         */
+        public File getImage()
+            {
+            return (File) values().get("image");
+            }
+
         /**
          * @return the file to execute
          */
@@ -229,6 +280,13 @@ public class Runner
             // validate the -L path of file(s)/dir(s)
             validateModulePath(getModulePath());
 
+            // validate the runtime image file
+            File fileImage = getImage();
+            if (fileImage != null && !(fileImage.isFile() && fileImage.canRead()))
+                {
+                log(Severity.ERROR, "Specified runtime image file cannot be read");
+                }
+
             // validate the trailing file (to execute)
             File fileModule = getTarget();
             if (fileModule.getName().endsWith(".xtc"))
@@ -0,0 +1,64 @@
+package org.xvm.runtime;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests for the InlineCache.
+ */
+public class InlineCacheTest
+    {
+    @Test
+    public void testMonomorphic()
+        {
+        InlineCache<String> cache = new InlineCache<>("test");
+        Assert.assertNull(cache.get("a"));
+
+        cache.put("a", "A");
+        Assert.assertEquals("A", cache.get("a"));
+        Assert.assertEquals("A", cache.get(new String("a")));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(1, cache.size());
+
+        cache.put("a", "AA");
+        Assert.assertEquals("AA", cache.get("a"));
+        Assert.assertEquals(1, cache.size());
+        }
+
+    @Test
+    public void testPolymorphic()
+        {
+        InlineCache<Integer> cache = new InlineCache<>("test");
+        for (int i = 0; i < InlineCache.MAX_POLYMORPHIC; i++)
+            {
+            cache.put("k" + i, i);
+            }
+
+        Assert.assertEquals(InlineCache.MAX_POLYMORPHIC, cache.size());
+        Assert.assertFalse(cache.isMegamorphic());
+        for (int i = 0; i < InlineCache.MAX_POLYMORPHIC; i++)
+            {
+            Assert.assertEquals(Integer.valueOf(i), cache.get("k" + i));
+            }
+        }
+
+    @Test
+    public void testMegamorphic()
+        {
+        InlineCache<Integer> cache = new InlineCache<>("test");
+        for (int i = 0; i <= InlineCache.MAX_POLYMORPHIC; i++)
+            {
+            cache.put("k" + i, i);
+            }
+
+        Assert.assertTrue(cache.isMegamorphic());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("k0"));
+
+        // once megamorphic, always megamorphic
+        cache.put("k0", 0);
+        Assert.assertNull(cache.get("k0"));
+        }
+    }
@@ -0,0 +1,124 @@
+package org.xvm.tool;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.xvm.asm.DirRepository;
+
+
+/**
+ * Tests for the BuildCache.
+ */
+public class BuildCacheTest
+    {
+    @Test
+    public void testCacheFile()
+        {
+        File dir = new File("build");
+        Assert.assertEquals(new File(dir, "test.fingerprint"),
+                BuildCache.getCacheFile(new File(dir, "test.xtc")));
+        Assert.assertEquals(new File(dir, "test.fingerprint"),
+                BuildCache.getCacheFile(DirRepository.getModuleFile(dir, "test.xqiz.it")));
+        }
+
+    @Test
+    public void testSaveLoad()
+            throws IOException
+        {
+        File file = File.createTempFile("test", ".fingerprint");
+        try
+            {
+            new BuildCache(makeSources("a"), makeUpstream(), "1.2").save(file);
+
+            BuildCache cache = BuildCache.load(file);
+            Assert.assertNotNull(cache);
+            Assert.assertTrue (cache.isSourceCurrent(makeSources("a"), "1.2"));
+            Assert.assertFalse(cache.isSourceCurrent(makeSources("b"), "1.2"));
+            Assert.assertFalse(cache.isSourceCurrent(makeSources("a"), null));
+            Assert.assertFalse(cache.isSourceCurrent(Collections.emptyMap(), "1.2"));
+            }
+        finally
+            {
+            file.delete();
+            }
+        }
+
+    @Test
+    public void testNoVersion()
+            throws IOException
+        {
+        File file = File.createTempFile("test", ".fingerprint");
+        try
+            {
+            new BuildCache(makeSources("a"), makeUpstream(), null).save(file);
+
+            BuildCache cache = BuildCache.load(file);
+            Assert.assertNotNull(cache);
+            Assert.assertTrue (cache.isSourceCurrent(makeSources("a"), null));
+            Assert.assertFalse(cache.isSourceCurrent(makeSources("a"), "1.2"));
+            }
+        finally
+            {
+            file.delete();
+            }
+        }
+
+    @Test
+    public void testLoadInvalid()
+            throws IOException
+        {
+        File file = File.createTempFile("test", ".fingerprint");
+        try
+            {
+            Assert.assertNull(BuildCache.load(new File(file.getPath() + ".missing")));
+
+            // a cache produced by a different compiler version must be ignored
+            try (Writer out = new FileWriter(file))
+                {
+                out.write("tool=unknown\nversion=\nsource\\:test.x=a\n");
+                }
+            Assert.assertNull(BuildCache.load(file));
+            }
+        finally
+            {
+            file.delete();
+            }
+        }
+
+    @Test
+    public void testDependsOn()
+        {
+        BuildCache cache = new BuildCache(makeSources("a"), makeUpstream(), null);
+        Assert.assertTrue (cache.dependsOn(Set.of("ecstasy.xtclang.org")));
+        Assert.assertTrue (cache.dependsOn(Set.of("json.xtclang.org", "other")));
+        Assert.assertFalse(cache.dependsOn(Set.of("other")));
+        Assert.assertFalse(cache.dependsOn(Collections.emptySet()));
+        }
+
+    private static Map<String, String> makeSources(String sHash)
+        {
+        Map<String, String> mapSources = new TreeMap<>();
+        mapSources.put("test.x", sHash);
+        mapSources.put("test/util.x", "u");
+        return mapSources;
+        }
+
+    private static Map<String, String> makeUpstream()
+        {
+        Map<String, String> mapUpstream = new TreeMap<>();
+        mapUpstream.put("ecstasy.xtclang.org/collections.HashMap", "h");
+        mapUpstream.put("json.xtclang.org/Doc", "d");
+        return mapUpstream;
+        }
+    }
@@ -0,0 +1,91 @@
+/*
+ * Build file for the JMH benchmarks of the Java tools (the compiler and the runtime).
+ *
+ * The benchmarks are not a part of the regular build; to run all of them:
+ *
+ *     gradle :javatools_bench:jmh
+ *
+ * or a subset of them (any JMH command line arguments can be passed via "jmhArgs"):
+ *
+ *     gradle :javatools_bench:jmh -PjmhArgs="InterpreterBenchmark.crossService"
+ *
+ * To report the allocation rates as well, add the GC profiler:
+ *
+ *     gradle :javatools_bench:jmh -PjmhArgs="InterpreterBenchmark -prof gc"
+ *
+ * The results are written in the JSON format into "build/reports/jmh/results.json".
+ */
+
+plugins {
+    java
+}
+
+val xdk          = project(":xdk")
+val javatools    = project(":javatools")
+
+val libDir       = "${xdk.buildDir}/xdk/lib"
+val bridgeLib    = "${xdk.buildDir}/xdk/javatools/javatools_bridge.xtc"
+val benchDir     = "$buildDir/xtc"
+val resultsFile  = "$buildDir/reports/jmh/results.json"
+
+val jmhVersion   = "1.25"
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation("org.xtclang.xvm:javatools:")
+    implementation("org.xtclang.xvm:utils:")
+
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+val compileBench = tasks.register<JavaExec>("compileBench") {
+    group       = "Build"
+    description = "Compile the Ecstasy module used by the benchmarks"
+
+    dependsOn(xdk.tasks["build"])
+
+    classpath(sourceSets["main"].runtimeClasspath)
+
+    args("-o", benchDir,
+         "-L", libDir,
+         "-L", bridgeLib,
+         "src/main/x/Bench.x")
+    main = "org.xvm.tool.Compiler"
+}
+
+tasks.register<JavaExec>("jmh") {
+    group       = "Benchmark"
+    description = "Run the JMH benchmarks"
+
+    dependsOn(tasks["classes"])
+    dependsOn(compileBench)
+
+    doFirst {
+        file(resultsFile).parentFile.mkdirs()
+    }
+
+    classpath(sourceSets["main"].runtimeClasspath)
+
+    // the system properties are inherited by the forked benchmark JVMs
+    jvmArgs("-Xms1024m", "-Xmx1024m",
+            "-Dxvm.lib=$libDir",
+            "-Dxvm.bridge=$bridgeLib",
+            "-Dxvm.bench=$benchDir",
+            "-Dxvm.root=${rootProject.projectDir}")
+
+    val opts = listOf<String>(
+        "-rf",  "json",
+        "-rff", resultsFile)
+
+    val jmhArgs = if (project.hasProperty("jmhArgs"))
+            project.property("jmhArgs").toString().split(" ").filter { it.isNotEmpty() }
+            else listOf<String>()
+
+    args(opts + jmhArgs)
+    main = "org.openjdk.jmh.Main"
+}
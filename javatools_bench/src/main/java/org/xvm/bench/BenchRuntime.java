@@ -0,0 +1,118 @@
+package org.xvm.bench;
+
+
+import java.io.File;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.xvm.api.Connector;
+
+import org.xvm.asm.DirRepository;
+import org.xvm.asm.FileRepository;
+import org.xvm.asm.LinkedRepository;
+import org.xvm.asm.ModuleRepository;
+
+import org.xvm.compiler.BuildRepository;
+
+import org.xvm.runtime.template.numbers.xInt64;
+
+
+/**
+ * The benchmark state that hosts the "Bench" module in a running container.
+ *
+ * The locations of the XDK libraries and of the compiled "Bench" module are taken from the
+ * following system properties (see build.gradle.kts):
+ * <ul>
+ *   <li>xvm.lib    - the directory that contains the ecstasy.xtc module
+ *   <li>xvm.bridge - the javatools_bridge.xtc module file
+ *   <li>xvm.bench  - the directory that contains the Bench.xtc module
+ *   <li>xvm.root   - the root directory of the project sources
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class BenchRuntime
+    {
+    @Setup(Level.Trial)
+    public void setup()
+        {
+        ModuleRepository repository = new LinkedRepository(true,
+                new BuildRepository(),
+                new DirRepository(getLocation("xvm.lib"), true),
+                new FileRepository(getLocation("xvm.bridge"), true),
+                new DirRepository(getLocation("xvm.bench"), true));
+
+        Connector connector = new Connector(repository);
+        connector.loadModule(MODULE);
+        connector.start();
+
+        m_connector = connector;
+        }
+
+    /**
+     * Invoke the specified function of the "Bench" module and wait for its completion.
+     *
+     * @param sFunction  the function name
+     * @param cIters     the number of iterations to pass to the function
+     */
+    public void run(String sFunction, int cIters)
+        {
+        CompletableFuture<Void> future = m_connector.invoke0(sFunction, xInt64.makeHandle(cIters));
+        if (future == null)
+            {
+            throw new IllegalStateException("Missing function: " + sFunction);
+            }
+
+        try
+            {
+            future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        catch (Exception e)
+            {
+            throw new IllegalStateException("Failed to run: " + sFunction, e);
+            }
+        }
+
+    /**
+     * @return the file or directory specified by the system property
+     */
+    protected static File getLocation(String sProperty)
+        {
+        String sPath = System.getProperty(sProperty);
+        if (sPath == null)
+            {
+            throw new IllegalStateException("Missing system property: " + sProperty);
+            }
+
+        File file = new File(sPath);
+        if (!file.exists())
+            {
+            throw new IllegalStateException("Missing location: " + file.getAbsolutePath());
+            }
+        return file;
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The name of the benchmark module.
+     */
+    public static final String MODULE = "Bench";
+
+    /**
+     * The time limit for a single invocation; a stuck invocation should fail the run rather than
+     * hang it.
+     */
+    private static final long TIMEOUT_SECONDS = 60;
+
+    /**
+     * The connector that hosts the module.
+     */
+    private Connector m_connector;
+    }
@@ -0,0 +1,96 @@
+package org.xvm.bench;
+
+
+import java.io.File;
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.tool.Compiler;
+
+
+/**
+ * The build-time benchmark for the XDK library modules: "json" and "oodb" are independent of each
+ * other and are compiled in parallel, while "jsondb" depends on both of them. The "sequential"
+ * parameter allows comparing the parallel compilation with the one module at a time compilation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompilerBenchmark
+    {
+    @Setup(Level.Trial)
+    public void setup()
+            throws IOException
+        {
+        File dirRoot = BenchRuntime.getLocation("xvm.root");
+
+        List<String> listArgs = new ArrayList<>();
+        if (sequential)
+            {
+            listArgs.add("-sequential");
+            }
+        listArgs.add("-rebuild");
+        listArgs.add("-o");
+        listArgs.add(Files.createTempDirectory("xvm-bench").toString());
+        listArgs.add("-L");
+        listArgs.add(BenchRuntime.getLocation("xvm.lib").getPath());
+        listArgs.add("-L");
+        listArgs.add(BenchRuntime.getLocation("xvm.bridge").getPath());
+        for (String sModule : MODULES)
+            {
+            listArgs.add(new File(dirRoot, sModule + "/src/main/x/module.x").getPath());
+            }
+
+        m_asArgs = listArgs.toArray(new String[0]);
+        }
+
+    /**
+     * Compile the modules.
+     */
+    @Benchmark
+    public void compile()
+        {
+        new Compiler(m_asArgs).run();
+        }
+
+
+    // ----- constants and fields ------------------------------------------------------------------
+
+    /**
+     * The projects of the modules to compile.
+     */
+    private static final String[] MODULES = {"lib_json", "lib_oodb", "lib_jsondb"};
+
+    /**
+     * True to compile the modules one at a time.
+     */
+    @Param({"false", "true"})
+    public boolean sequential;
+
+    /**
+     * The compiler command line arguments.
+     */
+    private String[] m_asArgs;
+    }
@@ -0,0 +1,73 @@
+package org.xvm.bench;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import java.nio.file.Files;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.xvm.asm.FileStructure;
+
+
+/**
+ * The benchmarks for loading the "ecstasy" module. The module bytes are read once, so only the
+ * FileStructure disassembly is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStructureBenchmark
+    {
+    @Setup(Level.Trial)
+    public void setup()
+            throws IOException
+        {
+        m_abModule = Files.readAllBytes(
+                BenchRuntime.getLocation("xvm.lib").toPath().resolve("ecstasy.xtc"));
+        }
+
+    /**
+     * Load the module with all the structures being disassembled eagerly.
+     */
+    @Benchmark
+    public FileStructure loadEager()
+            throws IOException
+        {
+        return new FileStructure(new ByteArrayInputStream(m_abModule), true, false);
+        }
+
+    /**
+     * Load the module with the structures being disassembled lazily (the way the runtime does).
+     */
+    @Benchmark
+    public FileStructure loadLazy()
+            throws IOException
+        {
+        return new FileStructure(new ByteArrayInputStream(m_abModule), true, true);
+        }
+
+
+    // ----- fields --------------------------------------------------------------------------------
+
+    /**
+     * The content of the ecstasy.xtc file.
+     */
+    private byte[] m_abModule;
+    }
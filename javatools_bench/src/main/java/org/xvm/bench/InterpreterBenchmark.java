@@ -0,0 +1,141 @@
+package org.xvm.bench;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * The benchmarks for the interpreter hot paths. Each benchmark calls a function of the "Bench"
+ * module (see src/main/x/Bench.x), which repeats the measured operation {@link #ITERATIONS} times;
+ * the reported score is the average time of a single operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterpreterBenchmark
+    {
+    /**
+     * Op dispatch through ServiceContext.execute: arithmetic, comparison and branching.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void opDispatch(BenchRuntime runtime)
+        {
+        runtime.run("opDispatch", ITERATIONS);
+        }
+
+    /**
+     * Integer arithmetic on the sized integer types; run it with "-prof gc" to see the allocation
+     * rate.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void smallInts(BenchRuntime runtime)
+        {
+        runtime.run("smallInts", ITERATIONS);
+        }
+
+    /**
+     * CallChain.invoke for a native method.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void invokeNative(BenchRuntime runtime)
+        {
+        runtime.run("invokeNative", ITERATIONS);
+        }
+
+    /**
+     * CallChain.invoke for an interpreted method.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void invokeInterpreted(BenchRuntime runtime)
+        {
+        runtime.run("invokeInterpreted", ITERATIONS);
+        }
+
+    /**
+     * GenericHandle field reads and writes.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void fieldAccess(BenchRuntime runtime)
+        {
+        runtime.run("fieldAccess", ITERATIONS);
+        }
+
+    /**
+     * xArray appends followed by element reads.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void arrayAddGet(BenchRuntime runtime)
+        {
+        runtime.run("arrayAddGet", ITERATIONS);
+        }
+
+    /**
+     * xString concatenations.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void stringConcat(BenchRuntime runtime)
+        {
+        runtime.run("stringConcat", ITERATIONS);
+        }
+
+    /**
+     * xString concatenations that build a single long string.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void stringBuild(BenchRuntime runtime)
+        {
+        runtime.run("stringBuild", ITERATIONS);
+        }
+
+    /**
+     * xString character searches.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void stringIndexOf(BenchRuntime runtime)
+        {
+        runtime.run("stringIndexOf", ITERATIONS);
+        }
+
+    /**
+     * Synchronous cross-service calls (a request/response round trip per operation).
+     */
+    @Benchmark
+    @OperationsPerInvocation(CROSS_SERVICE_ITERATIONS)
+    public void crossService(BenchRuntime runtime)
+        {
+        runtime.run("crossService", CROSS_SERVICE_ITERATIONS);
+        }
+
+
+    // ----- constants -----------------------------------------------------------------------------
+
+    /**
+     * The number of operations performed by a single benchmark invocation.
+     */
+    public static final int ITERATIONS = 10_000;
+
+    /**
+     * The number of round trips performed by a single "crossService" invocation.
+     */
+    public static final int CROSS_SERVICE_ITERATIONS = 1_000;
+    }
@@ -0,0 +1,184 @@
+/**
+ * The Ecstasy side of the interpreter benchmarks (see org.xvm.bench.InterpreterBenchmark).
+ *
+ * Every benchmark function performs the measured operation the specified number of times, so the
+ * cost of the call from the Java host is amortized across all the iterations.
+ */
+module Bench
+    {
+    /**
+     * Arithmetic, comparison and branching ops, with no calls.
+     */
+    void opDispatch(Int count)
+        {
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            sum += i & 0xFF;
+            }
+        assert sum >= 0;
+        }
+
+    /**
+     * Arithmetic on the sized integer types with small results (the cached handles).
+     */
+    void smallInts(Int count)
+        {
+        Int32 n32 = 0;
+        Int16 n16 = 0;
+        Byte  b   = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            n32 = (n32 + 7) % 1000;
+            n16 = (n16 - 3) % 1000;
+            b   = (i & 0xFF).toByte();
+            }
+        assert n32 >= 0 && n16 <= 0;
+        }
+
+    /**
+     * Calls to a natively implemented method.
+     */
+    void invokeNative(Int count)
+        {
+        String text = "interpreter";
+        Int    size = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            size += text.substring(1).size;
+            }
+        assert size > 0;
+        }
+
+    /**
+     * Calls to an interpreted method.
+     */
+    void invokeInterpreted(Int count)
+        {
+        Point point = new Point(1, 2);
+        Int   sum   = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            sum += point.sum();
+            }
+        assert sum > 0;
+        }
+
+    /**
+     * Field reads and writes of a regular (non-native) object.
+     */
+    void fieldAccess(Int count)
+        {
+        Counter counter = new Counter();
+        for (Int i = 0; i < count; ++i)
+            {
+            counter.value = counter.value + counter.step;
+            }
+        assert counter.value == count;
+        }
+
+    /**
+     * Array appends and element reads.
+     */
+    void arrayAddGet(Int count)
+        {
+        Int[] array = new Int[];
+        for (Int i = 0; i < count; ++i)
+            {
+            array.add(i);
+            }
+
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            sum += array[i];
+            }
+        assert sum >= 0;
+        }
+
+    /**
+     * String concatenations.
+     */
+    void stringConcat(Int count)
+        {
+        String text = "";
+        for (Int i = 0; i < count; ++i)
+            {
+            text = text + "x";
+            if (text.size >= 64)
+                {
+                text = "";
+                }
+            }
+        }
+
+    /**
+     * Building a long String by repeated concatenation.
+     */
+    void stringBuild(Int count)
+        {
+        String text = "";
+        for (Int i = 0; i < count; ++i)
+            {
+            text = text + "item,";
+            }
+        assert text.size == count * 5;
+        }
+
+    /**
+     * Character searches in a long String.
+     */
+    void stringIndexOf(Int count)
+        {
+        String text = "";
+        for (Int i = 0; i < 100; ++i)
+            {
+            text = text + "the quick brown fox jumps over the lazy dog ";
+            }
+        text = text + "!";
+
+        Int sum = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            assert Int at := text.indexOf('!', i & 0xFF);
+            sum += at;
+            }
+        assert sum > 0;
+        }
+
+    /**
+     * Synchronous calls to another service (a request/response round trip per call).
+     */
+    void crossService(Int count)
+        {
+        Echo echo = new Echo();
+        Int  sum  = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            sum += echo.echo(i);
+            }
+        assert sum >= 0;
+        }
+
+    const Point(Int x, Int y)
+        {
+        Int sum()
+            {
+            return x + y;
+            }
+        }
+
+    class Counter
+        {
+        Int value = 0;
+        Int step  = 1;
+        }
+
+    service Echo
+        {
+        Int echo(Int n)
+            {
+            return n;
+            }
+        }
+    }
@@ -1,3 +1,4 @@
+import ecstasy.Service.OverloadPolicy;
 import ecstasy.Service.ServiceControl;
 import ecstasy.Service.ServiceStatus;
 
@@ -22,6 +23,15 @@ class RTServiceControl
 
     // ServiceControl
 
+    @Override @RO Int            yieldCount          .get() {TODO("native");}
+    @Override @RO Int[]          quantumHistogram    .get() {TODO("native");}
+    @Override @RO Int            backlogCapacity     .get() {TODO("native");}
+    @Override @RO OverloadPolicy overloadPolicy      .get() {TODO("native");}
+    @Override @RO Int            backlogHighWaterMark.get() {TODO("native");}
+    @Override @RO Int            rejectedCount       .get() {TODO("native");}
+
+    @Override void configureBacklog(Int capacity, OverloadPolicy policy) {TODO("native");}
+
     @Override void gc()       {TODO("native");}
     @Override void shutdown() {TODO("native");}
     @Override void kill()     {TODO("native");}
@@ -6,6 +6,8 @@ import ecstasy.fs.FileStore;
 import ecstasy.fs.FileWatcher;
 import ecstasy.fs.Path;
 
+import ecstasy.io.InputStream;
+
 /**
  * Native OS File implementation.
  */
@@ -35,6 +37,9 @@ const OSFile
     @Override
     FileChannel open(ReadOption read=Read, WriteOption[] write = [Write]);
 
+    @Override
+    InputStream openInput(Int bufferSize = 8192);
+
     /**
      * The parent directory.
      */
@@ -0,0 +1,219 @@
+import ecstasy.fs.FileChannel;
+
+import ecstasy.io.Buffer;
+
+/**
+ * Native OS FileChannel implementation.
+ *
+ * The channel is backed by a Java FileChannel; the bytes are transferred to and from the buffers
+ * in chunks through a single reusable array, so that a file of any size can be streamed without
+ * ever being loaded into memory.
+ */
+class OSFileChannel
+        implements FileChannel
+    {
+    @Override
+    conditional Int read(Buffer<Byte> buffer, Int minBytes = Int.maxvalue)
+        {
+        return readFrom(Current, buffer, minBytes);
+        }
+
+    @Override
+    conditional Int readAt(Int position, Buffer<Byte> buffer, Int minBytes = Int.maxvalue)
+        {
+        assert:arg position >= 0;
+        return readFrom(position, buffer, minBytes);
+        }
+
+    @Override
+    conditional (Int, Int) read(Buffer<Byte>[] buffers, Int minBytes = Int.maxvalue)
+        {
+        Int total = 0;
+        for (Int i = 0, Int c = buffers.size; i < c; ++i)
+            {
+            Buffer<Byte> buffer = buffers[i];
+            if (Int count := read(buffer, (minBytes - total).maxOf(0)))
+                {
+                total += count;
+                if (buffer.remaining > 0)
+                    {
+                    return True, total, i;
+                    }
+                }
+            else
+                {
+                if (total == 0)
+                    {
+                    return False;
+                    }
+                return True, total, i;
+                }
+            }
+        return True, total, buffers.size;
+        }
+
+    @Override
+    Int write(Buffer<Byte> buffer)
+        {
+        return writeTo(Current, buffer);
+        }
+
+    @Override
+    Int writeAt(Int position, Buffer<Byte> buffer)
+        {
+        assert:arg position >= 0;
+        return writeTo(position, buffer);
+        }
+
+    @Override
+    (Int, Int) write(Buffer<Byte>[] buffers)
+        {
+        Int total = 0;
+        for (Buffer<Byte> buffer : buffers)
+            {
+            total += write(buffer);
+            }
+        return total, buffers.size;
+        }
+
+
+    // ----- internal ------------------------------------------------------------------------------
+
+    /**
+     * The position value that stands for the channel's current position.
+     */
+    private static Int Current = -1;
+
+    /**
+     * The largest number of bytes transferred by a single native call.
+     */
+    private static Int MaxChunk = 1 << 20;
+
+    /**
+     * The array that all the bytes are transferred through; allocated on demand.
+     */
+    private Byte[]? chunk;
+
+    /**
+     * Read into the buffer until it is full, at least `minBytes` bytes have been read, or the end
+     * of the file has been reached.
+     *
+     * @param position  the file position to read at, or [Current] to read at the channel's
+     *                  position and advance it
+     */
+    private conditional Int readFrom(Int position, Buffer<Byte> buffer, Int minBytes)
+        {
+        Int required = minBytes.maxOf(0).minOf(buffer.remaining);
+        Int total    = 0;
+        do
+            {
+            Int count = buffer.remaining;
+            if (count == 0)
+                {
+                break;
+                }
+
+            Byte[] bytes = ensureChunk(count);
+            if (Int actual := readBytes(position, bytes, count.minOf(bytes.size)))
+                {
+                buffer.put(bytes, 0, actual);
+                total += actual;
+                if (position != Current)
+                    {
+                    position += actual;
+                    }
+                }
+            else
+                {
+                if (total == 0)
+                    {
+                    return False;
+                    }
+                break;
+                }
+            }
+        while (total < required);
+
+        return True, total;
+        }
+
+    /**
+     * Write all the remaining bytes of the buffer.
+     *
+     * @param position  the file position to write at, or [Current] to write at the channel's
+     *                  position and advance it
+     */
+    private Int writeTo(Int position, Buffer<Byte> buffer)
+        {
+        Int total = 0;
+        while (True)
+            {
+            Int count = buffer.remaining;
+            if (count == 0)
+                {
+                return total;
+                }
+
+            Byte[] bytes = ensureChunk(count);
+            count = count.minOf(bytes.size);
+            buffer.get(bytes, 0, count);
+            writeBytes(position, bytes, count);
+
+            total += count;
+            if (position != Current)
+                {
+                position += count;
+                }
+            }
+        }
+
+    /**
+     * @return the transfer array, which holds at least the specified number of bytes unless that
+     *         exceeds the [MaxChunk] size
+     */
+    private Byte[] ensureChunk(Int count)
+        {
+        Byte[]? bytes = chunk;
+        if (bytes == Null || bytes.size < count && bytes.size < MaxChunk)
+            {
+            bytes = new Array<Byte>(count.minOf(MaxChunk), 0);
+            chunk = bytes;
+            }
+        return bytes;
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override Boolean readable.get() { TODO("native"); }
+    @Override Boolean writable.get() { TODO("native"); }
+
+    @Override Int size;
+    @Override Int position;
+
+    @Override void flush();
+    @Override void close();
+
+    /**
+     * Read up to the specified number of bytes into the beginning of the array.
+     *
+     * @param position  the file position to read at, or [Current] to read at the channel's
+     *                  position and advance it
+     * @param bytes     the array to read into
+     * @param count     the maximum number of bytes to read
+     *
+     * @return True iff the position is not at the end of the file (or the count is zero)
+     * @return (conditional) the number of bytes read
+     */
+    private conditional Int readBytes(Int position, Byte[] bytes, Int count);
+
+    /**
+     * Write the specified number of bytes from the beginning of the array.
+     *
+     * @param position  the file position to write at, or [Current] to write at the channel's
+     *                  position and advance it
+     * @param bytes     the array to write from
+     * @param count     the number of bytes to write
+     */
+    private void writeBytes(Int position, Byte[] bytes, Int count);
+    }
@@ -0,0 +1,40 @@
+import ecstasy.io.EndOfFile;
+import ecstasy.io.InputStream;
+
+/**
+ * Native OS file InputStream implementation.
+ *
+ * The stream reads the file through a fixed size buffer, so that a file of any size can be
+ * processed without ever being loaded into memory.
+ */
+class OSFileInputStream
+        implements InputStream
+    {
+    @Override
+    void readBytes(Byte[] bytes, Int offset, Int count)
+        {
+        assert:arg offset >= 0 && count >= 0 && offset + count <= bytes.size;
+
+        // take whatever bytes remain (as if we had read each byte until encountering an EndOfFile)
+        Int copy = count.minOf(remaining);
+        if (copy > 0)
+            {
+            bytes.replaceAll(offset, readBytes(copy));
+            }
+
+        if (copy < count)
+            {
+            throw new EndOfFile();
+            }
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override Int offset;
+    @Override Int size.get() { TODO("native"); }
+
+    @Override Byte   readByte();
+    @Override Byte[] readBytes(Int count);
+    @Override void   close();
+    }
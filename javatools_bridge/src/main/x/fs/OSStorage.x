@@ -107,7 +107,17 @@ service OSStorage
                 {
                 watchers[index] = Null;
 
-                // TODO: cleanup if no one watches anymore
+                for (FileWatcher? w : watchers)
+                    {
+                    if (w != Null)
+                        {
+                        return;
+                        }
+                    }
+
+                // no one watches anymore; remove the native watch
+                allWatchers.remove(pathString);
+                unwatch(pathString);
                 }
             }
         }
@@ -9,6 +9,13 @@ class ContainerControl
     @Override @RO Container.Status status                                   .get() {TODO("Native");}
     @Override Container.Control.Goal targetOptimization                     .get() {TODO("Native");}
     @Override Dec schedulingPriority                                        .get() {TODO("Native");}
+    @Override @RO Int schedulingWeight                                      .get() {TODO("Native");}
+    @Override @RO Int runQueueDepth                                         .get() {TODO("Native");}
+    @Override @RO Int runCount                                              .get() {TODO("Native");}
+    @Override @RO Duration averageRunWait                                   .get() {TODO("Native");}
+    @Override @RO Duration maxRunWait                                       .get() {TODO("Native");}
+    @Override void configureScheduling(Int weight)                                 {TODO("Native");}
+    @Override void resetSchedulingStats()                                          {TODO("Native");}
     @Override void limitThreads(Int max)                                           {TODO("Native");}
     @Override void limitCompute(Duration max, function void() maxCpuExceeded)      {TODO("Native");}
     @Override void limitMemory(Int max, function void() maxRamExceeded)            {TODO("Native");}
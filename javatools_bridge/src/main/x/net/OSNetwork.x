@@ -0,0 +1,29 @@
+import ecstasy.net.Network;
+import ecstasy.net.ServerSocketChannel;
+import ecstasy.net.SocketChannel;
+
+/**
+ * Native OS Network implementation.
+ */
+const OSNetwork
+        implements Network
+    {
+    @Override
+    SocketChannel connect(String host, UInt16 port)
+        {
+        OSSocketChannel channel = openSocket(host, port);
+        channel.finishConnect();
+        return channel;
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override
+    ServerSocketChannel listen(String host, UInt16 port) {TODO("Native");}
+
+    /**
+     * Open a socket and initiate its connection to the specified host and port.
+     */
+    private OSSocketChannel openSocket(String host, UInt16 port) {TODO("Native");}
+    }
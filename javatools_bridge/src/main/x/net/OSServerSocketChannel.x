@@ -0,0 +1,41 @@
+import ecstasy.net.ServerSocketChannel;
+import ecstasy.net.SocketChannel;
+
+/**
+ * Native OS ServerSocketChannel implementation.
+ */
+class OSServerSocketChannel
+        implements ServerSocketChannel
+    {
+    @Override
+    SocketChannel accept()
+        {
+        while (True)
+            {
+            if (OSSocketChannel channel ?= tryAccept())
+                {
+                return channel;
+                }
+
+            awaitAcceptable();
+            }
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override
+    void close();
+
+    /**
+     * Accept a pending inbound connection, if there is one.
+     *
+     * @return the SocketChannel for the accepted connection or Null if none is pending
+     */
+    private OSSocketChannel? tryAccept();
+
+    /**
+     * Wait until an inbound connection is pending (or the channel has been closed).
+     */
+    private void awaitAcceptable();
+    }
@@ -0,0 +1,143 @@
+import ecstasy.io.Buffer;
+
+import ecstasy.net.SocketChannel;
+
+/**
+ * Native OS SocketChannel implementation.
+ *
+ * The socket is never blocked on. Instead, when an operation cannot proceed, the calling fiber
+ * waits for the runtime's selector to report the socket as ready, which allows any number of
+ * connections to be served without a thread per connection.
+ */
+class OSSocketChannel
+        implements SocketChannel
+    {
+    @Override
+    conditional Int read(Buffer<Byte> buffer, Int minBytes = Int.maxvalue)
+        {
+        Int required = minBytes.minOf(buffer.remaining);
+        Int total    = 0;
+        while (True)
+            {
+            Byte[]? bytes = readBytes(buffer.remaining);
+            if (bytes == Null)
+                {
+                // the end of the stream has been reached
+                if (total == 0)
+                    {
+                    return False;
+                    }
+                return True, total;
+                }
+
+            buffer.put(bytes, 0, bytes.size);
+
+            total += bytes.size;
+            if (total >= required)
+                {
+                return True, total;
+                }
+
+            awaitReadable();
+            }
+        }
+
+    @Override
+    conditional (Int, Int) read(Buffer<Byte>[] buffers, Int minBytes = Int.maxvalue)
+        {
+        Int total = 0;
+        for (Int i = 0, Int c = buffers.size; i < c; ++i)
+            {
+            Buffer<Byte> buffer = buffers[i];
+            if (Int count := read(buffer, (minBytes - total).maxOf(0)))
+                {
+                total += count;
+                if (buffer.remaining > 0)
+                    {
+                    return True, total, i;
+                    }
+                }
+            else
+                {
+                if (total == 0)
+                    {
+                    return False;
+                    }
+                return True, total, i;
+                }
+            }
+        return True, total, buffers.size;
+        }
+
+    @Override
+    Int write(Buffer<Byte> buffer)
+        {
+        Byte[] bytes = new Array<Byte>(buffer.remaining, 0);
+        buffer.get(bytes, 0, bytes.size);
+
+        Int offset = writeBytes(bytes, 0);
+        while (offset < bytes.size)
+            {
+            awaitWritable();
+            offset += writeBytes(bytes, offset);
+            }
+        return bytes.size;
+        }
+
+    @Override
+    (Int, Int) write(Buffer<Byte>[] buffers)
+        {
+        Int total = 0;
+        for (Buffer<Byte> buffer : buffers)
+            {
+            total += write(buffer);
+            }
+        return total, buffers.size;
+        }
+
+    /**
+     * Wait for the connection initiated by [OSNetwork.connect] to be established.
+     */
+    void finishConnect()
+        {
+        while (!tryFinishConnect())
+            {
+            awaitConnectable();
+            }
+        }
+
+
+    // ----- native --------------------------------------------------------------------------------
+
+    @Override Boolean readable.get() { TODO("native"); }
+    @Override Boolean writable.get() { TODO("native"); }
+
+    @Override void close();
+
+    /**
+     * Read up to the specified number of bytes that are available without waiting.
+     *
+     * @return the bytes read (possibly none) or Null if the end of the stream has been reached
+     */
+    private Byte[]? readBytes(Int count);
+
+    /**
+     * Write as many of the specified bytes, starting at the specified offset, as can be written
+     * without waiting.
+     *
+     * @return the number of bytes written (possibly zero)
+     */
+    private Int writeBytes(Byte[] bytes, Int offset);
+
+    /**
+     * @return True iff the connection has been established
+     */
+    private Boolean tryFinishConnect();
+
+    /**
+     * Wait until the socket becomes readable, writable or connectable (or is closed).
+     */
+    private void awaitReadable();
+    private void awaitWritable();
+    private void awaitConnectable();
+    }
@@ -8,6 +8,7 @@ module TestArray
         testStrBuf();
         testConstElement();
         testConstSlice();
+        testSliceCopyOnWrite();
 
         testArrayList();
         testArrayListAdd();
@@ -19,6 +20,9 @@ module TestArray
         testNew();
         testNibble();
         testBits();
+        testPackedInts();
+        testPackedFloats();
+        testPackedBits();
 
         testComparable();
 
@@ -70,6 +74,56 @@ module TestArray
         console.println("array[2..1]=" + cruel2);
         }
 
+    void testSliceCopyOnWrite()
+        {
+        console.println("\n** testSliceCopyOnWrite()");
+
+        // mutating a slice must not affect the array it was taken from
+        Int[] init = [0, 1, 2, 3, 4, 5];
+        Int[] ints = new Array<Int>(Mutable, init);
+        Int[] slice = ints[1..4];
+        slice[0] = 99;
+        assert slice[0] == 99 && ints[1] == 1;
+
+        // mutating the array must not affect the slice taken before
+        Int[] slice2 = ints[2..5];
+        ints[2] = -2;
+        ints.delete(0);
+        assert slice2[0] == 2 && slice2.size == 4;
+        assert ints[1] == -2 && ints.size == 5;
+
+        // a slice of a slice refers to the original storage, but is still a snapshot
+        String[] strings = new Array<String>(Mutable, ["a", "b", "c", "d", "e"]);
+        String[] outer = strings[1..4];
+        String[] inner = outer[1..2];
+        assert inner == ["c", "d"];
+        strings[2] = "x";
+        outer[2]   = "y";
+        assert inner == ["c", "d"] && outer == ["b", "c", "y", "e"];
+
+        // the structural changes of a slice must respect its offset
+        Char[] chars = new Array<Char>(Mutable, ['a', 'b', 'c', 'd']);
+        Char[] tail = chars[2..3];
+        tail.delete(0);
+        assert tail == ['d'] && chars.size == 4;
+        tail = chars[1..2];
+        tail.insert(0, 'z');
+        tail.add('!');
+        assert tail == ['z', 'b', 'c', '!'] && chars == ['a', 'b', 'c', 'd'];
+
+        Int[] inserted = ints[1..2];
+        Int[] values   = [7, 8];
+        inserted.insertAll(1, values);
+        Int[] expected = [-2, 7, 8, 3];
+        assert inserted == expected;
+        Int[] original = [1, -2, 3, 4, 5];
+        assert ints == original;
+
+        console.println($"ints={ints}, slice={slice}, slice2={slice2}");
+        console.println($"strings={strings}, outer={outer}, inner={inner}");
+        console.println($"chars={chars}, tail={tail}, inserted={inserted}");
+        }
+
     void testArrayList()
         {
         console.println("\n** testArrayList()");
@@ -338,4 +392,121 @@ module TestArray
         console.println($"col={col}");
         console.println($"bytes={col.contents}");
         }
+
+    void testPackedInts()
+        {
+        console.println("\n** testPackedInts()");
+
+        // the signed elements must be sign-extended when read back
+        Int8[] a8 = new Int8[];
+        a8 += Int8.minvalue;
+        a8 += -1;
+        a8 += Int8.maxvalue;
+        assert a8[0] == -128 && a8[1] == -1 && a8[2] == 127;
+        assert a8[1] < 0;
+
+        Int16[] a16 = [Int16.minvalue, -1, Int16.maxvalue];
+        assert a16[0] == -32768 && a16[1] == -1 && a16[2] == 32767;
+
+        Int32[] a32 = new Array<Int32>(3, i -> (i - 1).toInt32() * Int32.maxvalue);
+        assert a32[0] == -2147483647 && a32[1] == 0 && a32[2] == 2147483647;
+
+        // the unsigned elements must be zero-extended
+        UInt16[] au16 = [UInt16.maxvalue, 0];
+        assert au16[0] == 0xFFFF && au16[0] > 0;
+
+        UInt32[] au32 = new UInt32[];
+        au32 += UInt32.maxvalue;
+        au32 += 0x80000000;
+        assert au32[0] == 0xFFFFFFFF && au32[1] == 0x80000000;
+        assert au32[0].toInt() == 4294967295;
+
+        UInt64[] au64 = [UInt64.maxvalue, 1];
+        assert au64[0] == UInt64.maxvalue && au64[0] > au64[1];
+
+        // the storage must grow without losing the elements
+        Int16[] grow = new Int16[];
+        for (Int i : [0..1000))
+            {
+            grow += (i % 2 == 0 ? i : -i).toInt16();
+            }
+        assert grow.size == 1000;
+        for (Int i : [0..1000))
+            {
+            assert grow[i] == (i % 2 == 0 ? i : -i);
+            }
+
+        grow.insert(0, Int16.minvalue);
+        grow.delete(1000);
+        assert grow.size == 1000 && grow[0] == Int16.minvalue && grow[999] == 998;
+
+        Int32[] copy = new Array<Int32>(grow.size);
+        for (Int16 n : grow)
+            {
+            copy += n.toInt32();
+            }
+        assert copy[0] == -32768 && copy[2] == -1;
+
+        console.println($"a8={a8}, a16={a16}, a32={a32}");
+        console.println($"au16={au16}, au32={au32}, au64={au64}");
+        console.println($"grow.size={grow.size}, slice={grow[1..4]}");
+        }
+
+    void testPackedFloats()
+        {
+        import ecstasy.numbers.Dec64;
+        import ecstasy.numbers.Float32;
+        import ecstasy.numbers.Float64;
+
+        console.println("\n** testPackedFloats()");
+
+        Float64[] a64 = new Float64[];
+        a64 += 0.0;
+        a64 += -0.0;
+        a64 += 1.5;
+        assert a64[2] == 1.5;
+
+        // the elements are compared by value, not by bits
+        Float64[] b64 = [-0.0, 0.0, 1.5];
+        assert a64 == b64;
+
+        Float32[] a32 = new Array<Float32>(2, i -> i.toFloat32() / 4);
+        assert a32[1] == 0.25;
+
+        Dec64[] d64 = [1.1, -2.2];
+        assert d64[1] == -2.2;
+
+        console.println($"a64={a64}, a32={a32}, d64={d64}");
+        }
+
+    void testPackedBits()
+        {
+        import ecstasy.numbers.Bit;
+        import ecstasy.numbers.Nibble;
+
+        console.println("\n** testPackedBits()");
+
+        Bit[] bits = new Bit[];
+        for (Int i : [0..100))
+            {
+            bits += i % 3 == 0 ? 1 : 0;
+            }
+        assert bits.size == 100;
+        for (Int i : [0..100))
+            {
+            assert bits[i] == (i % 3 == 0 ? 1 : 0);
+            }
+        bits[99] = 1;
+        assert bits[99] == 1 && bits[98] == 0;
+
+        Nibble[] nibbles = new Nibble[];
+        for (Int i : [0..40))
+            {
+            nibbles += Nibble.of(i % 16);
+            }
+        assert nibbles.size == 40;
+        assert nibbles[15] == Nibble.maxvalue && nibbles[16] == Nibble.minvalue;
+
+        console.println($"bits={bits[0..8)}, nibbles[15]={nibbles[15].toInt()}");
+        }
     }
\ No newline at end of file
@@ -0,0 +1,95 @@
+/**
+ * A throughput benchmark for a mix of services that block in native file I/O and services that
+ * spin on the CPU.
+ *
+ * To compare the default worker pool with the virtual thread mode, run it again with the
+ * "xvm.virtualThreads" system property set to "true" (requires Java 21+).
+ */
+module TestBlocking
+    {
+    import ecstasy.fs.Directory;
+    import ecstasy.fs.File;
+
+    @Inject Console console;
+
+    static Int READERS  = 16;
+    static Int READS    = 200;
+    static Int SPINNERS = 4;
+    static Int SPINS    = 10_000;
+
+    void run()
+        {
+        @Inject Directory tmpDir;
+        @Inject Timer     timer;
+
+        File file = tmpDir.fileFor("blocking.dat");
+        file.contents = new Byte[64 * 1024](i -> (i & 0xFF).toByte()).freeze(True);
+
+        Reader[]  readers  = new Array<Reader>(READERS,   i -> new Reader());
+        Spinner[] spinners = new Array<Spinner>(SPINNERS, i -> new Spinner());
+
+        Int total     = READERS + SPINNERS;
+        Int completed = 0;
+
+        timer.start();
+        for (Reader reader : readers)
+            {
+            @Future Int result = reader.read(file, READS);
+            &result.whenComplete((n, e) ->
+                {
+                if (++completed == total)
+                    {
+                    report(timer.elapsed);
+                    file.delete();
+                    }
+                });
+            }
+
+        for (Spinner spinner : spinners)
+            {
+            @Future Int result = spinner.spin(SPINS);
+            &result.whenComplete((n, e) ->
+                {
+                if (++completed == total)
+                    {
+                    report(timer.elapsed);
+                    file.delete();
+                    }
+                });
+            }
+        }
+
+    void report(Duration elapsed)
+        {
+        Int ops = READERS * READS + SPINNERS;
+        console.println($|{READERS} readers x {READS} reads, {SPINNERS} spinners:\
+                         | {elapsed.milliseconds} ms; {ops * 1000 / elapsed.milliseconds.maxOf(1)} ops/sec
+                         );
+        }
+
+    service Reader
+        {
+        Int read(File file, Int count)
+            {
+            Int size = 0;
+            for (Int i : 1..count)
+                {
+                size += file.contents.size;
+                }
+            return size;
+            }
+        }
+
+    service Spinner
+        {
+        Int spin(Int iters)
+            {
+            Int sum = 0;
+            for (Int i : iters..1)
+                {
+                sum += i;
+                }
+            return sum;
+            }
+        }
+    }
@@ -0,0 +1,167 @@
+module TestContainers
+    {
+    import ecstasy.mgmt.Container;
+    import ecstasy.mgmt.ModuleRepository;
+    import ecstasy.mgmt.ResourceProvider;
+
+    @Inject Console console;
+
+    static Int SPINNERS   = 16;
+    static Int ITERATIONS = 1_000_000;
+    static Int PINGS      = 100;
+
+    void run()
+        {
+        testFairShare();
+        }
+
+    /**
+     * A container that keeps all the worker threads busy must not starve another container.
+     */
+    void testFairShare()
+        {
+        console.println("\n** testFairShare()");
+
+        // each container needs its own template
+        @Inject ModuleRepository repository;
+        Container busy  = new Container(repository.getModule("TestContainers"), Lightweight,
+                                        repository, new Injector());
+        Container quiet = new Container(repository.getModule("TestContainers"), Lightweight,
+                                        repository, new Injector());
+
+        busy.configureScheduling(4);
+        console.println($"busy container: weight={busy.schedulingWeight}");
+
+        @Future Tuple spun = busy.invoke("spin", (SPINNERS, ITERATIONS));
+
+        quiet.resetSchedulingStats();
+        Tuple pinged = quiet.invoke("ping", Tuple:(PINGS));
+        Boolean first = !&spun.assigned;
+        console.println($|quiet container: pings={pinged[0]}, finished first={first}, \
+                         |ran={quiet.runCount > 0}, short waits={quiet.maxRunWait < Duration:1s}
+                         );
+
+        console.println($"busy container: spins={spun[0]}, ran={busy.runCount > 0}");
+        }
+
+    /**
+     * Keep the specified number of services spinning; called within a nested container.
+     */
+    Int spin(Int spinners, Int iterations)
+        {
+        FutureVar<Int>[] results = new FutureVar<Int>[];
+        for (Int i = 0; i < spinners; ++i)
+            {
+            @Future Int result = new Spinner().spin(iterations);
+            results += &result;
+            }
+
+        Int total = 0;
+        for (FutureVar<Int> result : results)
+            {
+            total += result.get();
+            }
+        return total;
+        }
+
+    /**
+     * Make the specified number of round-trips to a service; called within a nested container.
+     */
+    Int ping(Int count)
+        {
+        Pinger pinger = new Pinger();
+        Int    total  = 0;
+        for (Int i = 0; i < count; ++i)
+            {
+            total += pinger.ping();
+            }
+        return total;
+        }
+
+    service Spinner
+        {
+        Int spin(Int iterations)
+            {
+            Int count = 0;
+            for (Int i = 0; i < iterations; ++i)
+                {
+                ++count;
+                }
+            return count;
+            }
+        }
+
+    service Pinger
+        {
+        Int ping()
+            {
+            return 1;
+            }
+        }
+
+    /**
+     * Shares the resources of this container with the nested ones.
+     */
+    const Injector
+            implements ResourceProvider
+        {
+        @Override
+        Object getResource(Type type, String name)
+            {
+            import Container.Linker;
+
+            @Inject Console          console;
+            @Inject Clock            clock;
+            @Inject Timer            timer;
+            @Inject Random           random;
+            @Inject Linker           linker;
+            @Inject ModuleRepository repository;
+
+            switch (type)
+                {
+                case Console:
+                    if (name == "console")
+                        {
+                        return console;
+                        }
+                    break;
+
+                case Clock:
+                    if (name == "clock")
+                        {
+                        return clock;
+                        }
+                    break;
+
+                case Timer:
+                    if (name == "timer")
+                        {
+                        return timer;
+                        }
+                    break;
+
+                case Random:
+                    if (name == "random")
+                        {
+                        return random;
+                        }
+                    break;
+
+                case Linker:
+                    if (name == "linker")
+                        {
+                        return linker;
+                        }
+                    break;
+
+                case ModuleRepository:
+                    if (name == "repository")
+                        {
+                        return repository;
+                        }
+                    break;
+                }
+            throw new Exception($"Invalid resource: {name}");
+            }
+        }
+    }
\ No newline at end of file
@@ -2,10 +2,17 @@ module TestFiles
     {
     import ecstasy.fs.Directory;
     import ecstasy.fs.File;
+    import ecstasy.fs.FileChannel;
     import ecstasy.fs.FileWatcher;
     import ecstasy.fs.Path;
     import ecstasy.fs.FileStore;
 
+    import ecstasy.io.Buffer;
+    import ecstasy.io.EndOfFile;
+    import ecstasy.io.InputStream;
+    import ecstasy.io.Reader;
+    import ecstasy.io.UTF8Reader;
+
     @Inject            Console   console;
     @Inject("storage") FileStore store;
 
@@ -13,6 +20,8 @@ module TestFiles
         {
         testPaths();
         testInject();
+        testStream();
+        testChannel();
         testModify();
         }
 
@@ -83,6 +92,80 @@ module TestFiles
             }
         }
 
+    void testStream()
+        {
+        console.println("\n** testStream()");
+
+        @Inject Directory tmpDir;
+        File file = tmpDir.fileFor("stream.txt");
+        String text = "first line\nsecond line\nthird line\n";
+        file.contents = new Byte[text.size](i -> text[i].toByte()).freeze(True);
+
+        using (InputStream in = file.openInput(bufferSize=8))
+            {
+            console.println($"size={in.size}");
+            console.println($"bytes={in.readBytes(5)} offset={in.offset}");
+
+            in.offset = 11;
+            Reader reader = new UTF8Reader(in);
+            while (!reader.eof)
+                {
+                console.println($"line {reader.lineNumber}: {reader.nextLine()}");
+                }
+            }
+
+        // reads that span the buffer refills, both around and through the buffer
+        Byte[] contents = file.contents;
+        using (InputStream in = file.openInput(bufferSize=8))
+            {
+            assert in.readByte() == contents[0];
+            assert in.readBytes(12) == contents[1..12];
+            assert in.readBytes(20) == contents[13..32];
+            try
+                {
+                in.readBytes(contents.size);
+                assert;
+                }
+            catch (EndOfFile e)
+                {
+                }
+            console.println($"spanning reads: offset={in.offset}");
+            }
+
+        file.delete();
+
+        // "h\u00e9\u20ac!" followed by a four byte character, a new line and "xy"
+        File multi = tmpDir.fileFor("multibyte.txt");
+        multi.contents = #68_C3A9_E282AC_21_F09F9880_0A_7879;
+
+        using (InputStream in = multi.openInput(bufferSize=4))
+            {
+            Reader reader = new UTF8Reader(in);
+            assert reader.nextChar() == 'h' && reader.nextChar() == '\u00e9'
+                && reader.nextChar() == '\u20ac' && reader.nextChar() == '!'
+                && reader.nextChar().codepoint == 0x1F600;
+
+            // rewind within the line, stepping back over the multibyte characters
+            reader.rewind(3);
+            assert reader.offset == 2 && reader.nextChar() == '\u20ac';
+            reader.rewind(2);
+            assert reader.offset == 1 && reader.nextChar() == '\u00e9';
+
+            // rewind across the line boundary
+            assert reader.nextChar() == '\u20ac' && reader.nextChar() == '!'
+                && reader.nextChar().codepoint == 0x1F600 && reader.nextChar() == '\n'
+                && reader.nextChar() == 'x';
+            assert reader.lineNumber == 1;
+            reader.rewind(3);
+            assert reader.offset == 4 && reader.lineNumber == 0;
+            assert reader.nextChar().codepoint == 0x1F600 && reader.nextLine() == "";
+            assert reader.nextLine() == "xy" && reader.eof;
+            console.println($"multibyte rewind: offset={reader.offset}, line={reader.lineNumber}");
+            }
+
+        multi.delete();
+        }
+
     void testModify()
         {
         console.println("\n** testModify()");
@@ -141,4 +224,139 @@ module TestFiles
                 });
             });
         }
+
+    void testChannel()
+        {
+        console.println("\n** testChannel()");
+
+        @Inject Directory tmpDir;
+        File file = tmpDir.fileFor("channel.dat");
+        if (file.exists)
+            {
+            file.delete();
+            }
+
+        using (FileChannel channel = file.open(write=[Ensure, Write]))
+            {
+            Byte[] data = new Array<Byte>(1000, i -> (i & 0xFF).toByte());
+            assert channel.write(new ArrayBuffer(data)) == 1000;
+            assert channel.size == 1000 && channel.position == 1000;
+
+            // at the end of file, a read reports EOF, unless there is no room to read into
+            ArrayBuffer buffer = new ArrayBuffer(new Array<Byte>(300, 0));
+            assert !channel.read(buffer);
+            buffer.position = buffer.limit;
+            assert Int none := channel.read(buffer), none == 0;
+
+            // sequential reads fill the buffer until the end of file
+            channel.position = 0;
+            Int total = 0;
+            Int reads = 0;
+            while (Int count := channel.read(buffer.clear()))
+                {
+                assert buffer.position == count && buffer.data[0] == (total & 0xFF).toByte();
+                total += count;
+                ++reads;
+                }
+            assert total == 1000 && reads == 4;
+            console.println($"read {total} bytes in {reads} reads");
+
+            // positional operations neither use nor change the channel's position
+            channel.position = 10;
+            assert channel.writeAt(998, new ArrayBuffer(new Array<Byte>(4, 0xFF))) == 4;
+            assert Int count := channel.readAt(996, buffer.clear()), count == 6;
+            assert buffer.data[0] == 0xE4 && buffer.data[1] == 0xE5 && buffer.data[2] == 0xFF;
+            assert !channel.readAt(1002, buffer.clear());
+            assert channel.size == 1002 && channel.position == 10;
+
+            assert count := channel.read(buffer.clear(), 1), count == 300;
+            assert buffer.data[0] == 10;
+            console.println($"size={channel.size}, position={channel.position}");
+            }
+
+        file.delete();
+        }
+
+    /**
+     * A trivial Buffer over a Byte array.
+     */
+    class ArrayBuffer
+            implements Buffer<Byte>
+        {
+        construct(Byte[] data)
+            {
+            this.data  = data;
+            this.limit = data.size;
+            }
+
+        public/private Byte[] data;
+
+        @Override
+        Boolean readOnly.get()
+            {
+            return False;
+            }
+
+        @Override
+        Int capacity.get()
+            {
+            return data.size;
+            }
+
+        @Override
+        Int limit;
+
+        @Override
+        Int position = 0;
+
+        @Override
+        Int mark = -1;
+
+        @Override
+        Byte get()
+            {
+            return data[position++];
+            }
+
+        @Override
+        Byte getElement(Int ix)
+            {
+            return data[ix];
+            }
+
+        @Override
+        void put(Byte el)
+            {
+            data[position++] = el;
+            }
+
+        @Override
+        void put(Int ix, Byte el)
+            {
+            data[ix] = el;
+            }
+
+        @Override
+        ArrayBuffer clear()
+            {
+            position = 0;
+            limit    = capacity;
+            return this;
+            }
+
+        @Override
+        ArrayBuffer rewind()
+            {
+            position = 0;
+            return this;
+            }
+
+        @Override
+        ArrayBuffer flip()
+            {
+            limit    = position;
+            position = 0;
+            return this;
+            }
+        }
     }
\ No newline at end of file
@@ -1,5 +1,6 @@
 module TestMaps
     {
+    import ecstasy.collections.Hasher;
     import ecstasy.collections.maps.KeyEntries;
 
     @Inject Console console;
@@ -16,6 +17,11 @@ module TestMaps
         testListMap();
 
         testMapIteration();
+
+        testHashMapNative();
+        testHashMapHasher();
+        testHashMapMutation();
+        testHashMapFreeze();
         }
 
     void testBasic()
@@ -168,4 +174,191 @@ module TestMaps
             console.println($"? = {i}");
             }
         }
+
+    void testHashMapNative()
+        {
+        console.println("\n** testHashMapNative()");
+
+        HashMap<Int, String> map = new HashMap();
+        for (Int i : [0..1000))
+            {
+            map.put(i, i.toString());
+            }
+        assert map.size == 1000;
+
+        // the removed entries must not break the probing for the remaining ones
+        for (Int i = 0; i < 1000; i += 2)
+            {
+            map.remove(i);
+            }
+        assert map.size == 500;
+        for (Int i : [0..1000))
+            {
+            assert map.contains(i) == (i % 2 == 1);
+            }
+
+        // re-use the removed slots
+        for (Int i = 0; i < 1000; i += 4)
+            {
+            map.put(i, "again");
+            }
+        assert map.size == 750;
+        assert String s := map.get(996), s == "again";
+        assert s := map.get(997), s == "997";
+
+        HashMap<String, Int> mapS = new HashMap();
+        for (Int i : [0..100))
+            {
+            mapS.put($"key{i}", i);
+            }
+        assert Int n := mapS.get("key42"), n == 42;
+        assert !mapS.contains("key100");
+
+        HashMap<Char, Int> mapC = new HashMap();
+        mapC.put('a', 1);
+        mapC.put('b', 2);
+        mapC.put('a', 3);
+        assert mapC.size == 2;
+        assert n := mapC.get('a'), n == 3;
+
+        HashMap<Boolean, String> mapE = new HashMap();
+        mapE.put(True,  "yes");
+        mapE.put(False, "no");
+        assert s := mapE.get(False), s == "no";
+        console.println($"sizes={map.size}, {mapS.size}, {mapC.size}, {mapE.size}");
+        }
+
+    void testHashMapHasher()
+        {
+        console.println("\n** testHashMapHasher()");
+
+        // the keys are equal if they are equal modulo 100
+        static const ModHasher
+                implements Hasher<Int>
+            {
+            @Override
+            Int hashOf(Int value)
+                {
+                return value % 10;
+                }
+
+            @Override
+            Boolean areEqual(Int value1, Int value2)
+                {
+                return value1 % 100 == value2 % 100;
+                }
+            }
+
+        HashMap<Int, String> map = new HashMap(new ModHasher());
+        for (Int i : [0..300))
+            {
+            map.put(i, i.toString());
+            }
+        assert map.size == 100;
+        assert String s := map.get(5), s == "205";
+        map.remove(105);
+        assert !map.contains(5);
+        assert map.size == 99;
+
+        // a key type that is not hashed natively uses the Hasher calls as well
+        const Point(Int x)
+            {
+            static <CompileType extends Point> Int hashCode(CompileType value)
+                {
+                return value.x % 3;
+                }
+            }
+
+        HashMap<Point, Int> mapP = new HashMap();
+        for (Int i : [0..50))
+            {
+            mapP.put(new Point(i), i);
+            }
+        for (Int i : [0..50))
+            {
+            assert Int v := mapP.get(new Point(i)), v == i;
+            }
+        mapP.remove(new Point(7));
+        assert !mapP.contains(new Point(7));
+        console.println($"sizes={map.size}, {mapP.size}");
+        }
+
+    void testHashMapMutation()
+        {
+        console.println("\n** testHashMapMutation()");
+
+        Map<Int, Int> map = new HashMap();
+        for (Int i : [0..30))
+            {
+            map.put(i, i);
+            }
+
+        // removing and updating the entries while iterating is allowed
+        for (Map<Int, Int>.Entry entry : map.entries)
+            {
+            if (entry.key % 3 == 0)
+                {
+                entry.delete();
+                }
+            else
+                {
+                entry.value = -entry.value;
+                }
+            }
+        assert map.size == 20;
+        assert Int v := map.get(4), v == -4;
+        assert !map.contains(3);
+
+        for (Int key : map.keys)
+            {
+            if (key % 2 == 0)
+                {
+                map.remove(key);
+                }
+            }
+        assert map.size == 10;
+
+        // but adding entries is not
+        try
+            {
+            for (Int key : map.keys)
+                {
+                map.put(key + 100, key);
+                }
+            assert;
+            }
+        catch (ConcurrentModification e)
+            {
+            console.println("ConcurrentModification on add");
+            }
+        console.println($"size={map.size}");
+        }
+
+    void testHashMapFreeze()
+        {
+        console.println("\n** testHashMapFreeze()");
+
+        HashMap<String, Int[]> map = new HashMap();
+        map.put("a", new Int[]);
+        map.put("b", new Int[]);
+        map.remove("a");
+        assert Int[] values := map.get("b"), !values.is(immutable Object);
+        values.add(4);
+
+        immutable HashMap<String, Int[]> frozen = map.makeImmutable();
+        assert frozen.is(immutable Object);
+        assert values := frozen.get("b"), values.is(immutable Object);
+        assert values.size == 1;
+
+        try
+            {
+            frozen.put("c", []);
+            assert;
+            }
+        catch (Exception e)
+            {
+            console.println($"put failed: {e.text}");
+            }
+        console.println($"frozen={frozen}");
+        }
     }
\ No newline at end of file
@@ -8,6 +8,8 @@ module TestMisc
 
         testBools();
         testChars();
+        testStrings();
+        testStringBuffer();
         testInts();
         testIsA();
         testCast();
@@ -109,6 +111,93 @@ module TestMisc
             }
         }
 
+    void testStrings()
+        {
+        console.println("\n** testStrings()");
+
+        // short and long concatenations of Latin-1 and wider text
+        String latin = "caf\u00e9 ";
+        String wide  = "\u20ac\u03c0 ";
+        String short = latin + wide;
+        assert short.size == 8 && short[4] == ' ' && short[5] == '\u20ac';
+
+        String rope = "";
+        for (Int i = 0; i < 10; ++i)
+            {
+            rope = rope + (i % 3 == 0 ? wide : latin);
+            }
+        assert rope.size == 4 * 3 + 5 * 6;
+        assert rope[0] == '\u20ac' && rope[3] == 'c' && rope[rope.size - 1] == ' ';
+
+        // substring, slicing and searching a concatenation
+        String tail = rope.substring(rope.size - 8);
+        assert tail == "caf\u00e9 \u20ac\u03c0 ";
+        assert rope[3..7] == "caf\u00e9 ";
+        assert Int at := rope.indexOf('\u03c0', 2), at == 14;
+        assert rope.indexOf('\u00e9') && !rope.indexOf('?');
+
+        // equality, ordering and hashing do not depend on the representation
+        String built = new String(['c', 'a', 'f', '\u00e9', ' ']);
+        assert built == latin && built <=> latin == Equal;
+        assert String.hashCode(built) == String.hashCode(latin);
+
+        String joined = "";
+        for (Int i = 0; i < 8; ++i)
+            {
+            joined = joined + "ab";
+            }
+        String flat = "abababababababab";
+        assert joined == flat && String.hashCode(joined) == String.hashCode(flat);
+        assert joined + "c" > flat && flat < joined + "c";
+
+        Map<String, Int> map = new HashMap();
+        map.put(latin, 1);
+        map.put(rope, 2);
+        assert Int one := map.get(built), one == 1;
+        assert Int two := map.get(wide + latin + latin + wide + latin + latin + wide + latin + latin + wide),
+                two == 2;
+
+        console.println($"short.size={short.size}, rope.size={rope.size}, tail.size={tail.size}, joined={joined}");
+        }
+
+    void testStringBuffer()
+        {
+        console.println("\n** testStringBuffer()");
+
+        StringBuffer buf = new StringBuffer();
+        assert !buf.is(immutable Object);
+
+        buf.append("abc").add('d');
+        buf[0] = 'A';
+        String before = buf.toString();
+        buf.append('e');
+        assert before == "Abcd" && buf.toString() == "Abcde";
+
+        // a frozen buffer rejects any modification
+        buf.makeImmutable();
+        assert buf.is(immutable Object);
+        Int rejected = 0;
+        try
+            {
+            buf.append("f");
+            }
+        catch (Exception e)
+            {
+            ++rejected;
+            }
+        try
+            {
+            buf[0] = 'a';
+            }
+        catch (Exception e)
+            {
+            ++rejected;
+            }
+        assert rejected == 2 && buf.toString() == "Abcde";
+
+        console.println($"before={before}, after={buf}, rejected={rejected}");
+        }
+
     void testIsA()
         {
         console.println("\n** testIsA()");
@@ -0,0 +1,253 @@
+module TestNet
+    {
+    import ecstasy.io.Buffer;
+    import ecstasy.io.IOException;
+
+    import ecstasy.net.Network;
+    import ecstasy.net.ServerSocketChannel;
+    import ecstasy.net.SocketChannel;
+
+    @Inject Console console;
+    @Inject Network network;
+
+    static UInt16 PORT = 18123;
+
+    void run()
+        {
+        testEcho();
+        testRefused();
+        testCloseWhileReading();
+        }
+
+    void testEcho()
+        {
+        console.println("\n** testEcho()");
+
+        EchoServer server = new EchoServer();
+        server.listen(network, PORT);
+
+        Int count = 100;
+        @Future Int served = server.serve(count);
+
+        @Inject Timer timer;
+        timer.start();
+        for (Int i = 0; i < count; ++i)
+            {
+            using (SocketChannel channel = network.connect("127.0.0.1", PORT))
+                {
+                Byte[] message = new Byte[16](j -> ((i + j) % 256).toByte());
+                channel.write(new ArrayBuffer(message));
+
+                ArrayBuffer reply = new ArrayBuffer(new Byte[16]);
+                assert Int n := channel.read(reply, 16);
+                assert n == 16 && reply.data == message;
+                }
+            }
+        Duration elapsed = timer.elapsed;
+
+        console.println($"served {served} bytes over {count} connections in {elapsed}");
+        server.close();
+        }
+
+    void testRefused()
+        {
+        console.println("\n** testRefused()");
+
+        try
+            {
+            network.connect("127.0.0.1", PORT + 1);
+            console.println("connected unexpectedly");
+            }
+        catch (IOException e)
+            {
+            console.println($"expected: {e.text}");
+            }
+        }
+
+    void testCloseWhileReading()
+        {
+        console.println("\n** testCloseWhileReading()");
+
+        using (ServerSocketChannel server = network.listen("127.0.0.1", PORT + 2))
+            {
+            Client client = new Client();
+            @Future Boolean connected = client.connect(PORT + 2);
+            using (SocketChannel peer = server.accept())
+                {
+                assert connected;
+
+                // the peer never writes, so the read stays blocked until the socket is closed
+                @Future String outcome = client.readBlocked();
+                client.close();
+
+                import ecstasy.Timeout;
+                using (Timeout timeout = new Timeout(Duration:5S, True))
+                    {
+                    console.println($"blocked read: {outcome}");
+                    }
+                }
+            }
+        }
+
+    /**
+     * Holds a connection that one fiber reads from while another one closes it.
+     */
+    service Client
+            implements Closeable
+        {
+        private SocketChannel? channel;
+
+        Boolean connect(UInt16 port)
+            {
+            // let the caller close the channel while its own read is still waiting
+            this:service.reentrancy = Open;
+
+            @Inject Network network;
+            channel = network.connect("127.0.0.1", port);
+            return True;
+            }
+
+        String readBlocked()
+            {
+            assert SocketChannel channel ?= this.channel;
+            try
+                {
+                ArrayBuffer buffer = new ArrayBuffer(new Byte[16]);
+                return channel.read(buffer, 1) ? "unexpected data" : "end of stream";
+                }
+            catch (IOException e)
+                {
+                return "closed";
+                }
+            }
+
+        @Override
+        void close()
+            {
+            channel?.close();
+            }
+        }
+
+    /**
+     * Accepts the connections and echoes back whatever it receives on each of them.
+     */
+    service EchoServer
+            implements Closeable
+        {
+        private ServerSocketChannel? server;
+
+        void listen(Network network, UInt16 port)
+            {
+            server = network.listen("127.0.0.1", port);
+            }
+
+        Int serve(Int count)
+            {
+            assert ServerSocketChannel server ?= this.server;
+
+            Int total = 0;
+            for (Int i = 0; i < count; ++i)
+                {
+                using (SocketChannel channel = server.accept())
+                    {
+                    ArrayBuffer buffer = new ArrayBuffer(new Byte[16]);
+                    if (Int n := channel.read(buffer, 16))
+                        {
+                        channel.write(buffer.flip());
+                        total += n;
+                        }
+                    }
+                }
+            return total;
+            }
+
+        @Override
+        void close()
+            {
+            server?.close();
+            }
+        }
+
+    /**
+     * A trivial Buffer over a Byte array.
+     */
+    class ArrayBuffer
+            implements Buffer<Byte>
+        {
+        construct(Byte[] data)
+            {
+            this.data  = data;
+            this.limit = data.size;
+            }
+
+        public/private Byte[] data;
+
+        @Override
+        Boolean readOnly.get()
+            {
+            return False;
+            }
+
+        @Override
+        Int capacity.get()
+            {
+            return data.size;
+            }
+
+        @Override
+        Int limit;
+
+        @Override
+        Int position = 0;
+
+        @Override
+        Int mark = -1;
+
+        @Override
+        Byte get()
+            {
+            return data[position++];
+            }
+
+        @Override
+        Byte getElement(Int ix)
+            {
+            return data[ix];
+            }
+
+        @Override
+        void put(Byte el)
+            {
+            data[position++] = el;
+            }
+
+        @Override
+        void put(Int ix, Byte el)
+            {
+            data[ix] = el;
+            }
+
+        @Override
+        ArrayBuffer clear()
+            {
+            position = 0;
+            limit    = capacity;
+            return this;
+            }
+
+        @Override
+        ArrayBuffer rewind()
+            {
+            position = 0;
+            return this;
+            }
+
+        @Override
+        ArrayBuffer flip()
+            {
+            limit    = position;
+            position = 0;
+            return this;
+            }
+        }
+    }
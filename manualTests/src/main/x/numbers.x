@@ -17,6 +17,7 @@ module TestNumbers
         testFloat16();
         testDec64();
         testInfinity();
+        testUnboxedRegisters();
         }
 
     void testUInt()
@@ -316,4 +317,56 @@ module TestNumbers
             }
         }
 
-    }
\ No newline at end of file
+    void testUnboxedRegisters()
+        {
+        console.println("\n** testUnboxedRegisters()");
+
+        Int sum = 0;
+        for (Int i = 0; i < 1000; ++i)
+            {
+            sum += i;
+            }
+        console.println($"sum={sum}");
+
+        // the register is read by a lambda, a reference and a regular call
+        function Int () get = () -> sum + 1;
+        Ref<Int> ref = &sum;
+        console.println($"lambda={get()}, ref={ref.get()}, max={sum.maxOf(1)}");
+
+        Int n = 7;
+        n *= 6;
+        n -= 1;
+        Boolean f = n > 40 && n <= 41 && n != 42;
+        console.println($"n={n}, f={f}");
+
+        Float total = 0.0;
+        Float step  = 0.25;
+        while (total < 10.0)
+            {
+            total += step;
+            }
+        console.println($"total={total}, half={total / 2.0}, product={total * step}");
+
+        Float zero = 0.0;
+        Float neg  = zero * -1.0;
+        console.println($"zero==neg: {zero == neg}, zero<neg: {zero < neg}, neg<zero: {neg < zero}");
+
+        Float inf = 1.0;
+        while (!inf.infinity)
+            {
+            inf *= 1000.0;
+            }
+        Float nan = inf - inf;
+        console.println($"nan==nan: {nan == nan}, nan!=nan: {nan != nan}, nan>inf: {nan > inf}");
+
+        try
+            {
+            total /= zero;
+            console.println($"unexpected: {total}");
+            }
+        catch (Exception e)
+            {
+            console.println($"expected: {e.text}");
+            }
+        }
+    }
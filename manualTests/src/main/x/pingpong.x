@@ -0,0 +1,85 @@
+/**
+ * A ping-pong benchmark for the cross-service message delivery: one service calls another one
+ * synchronously (a request/response round trip per call), then sends a burst of "fire and forget"
+ * requests followed by a single synchronous call that waits for all of them to be processed.
+ */
+module TestPingPong
+    {
+    @Inject Console console;
+
+    static Int ROUNDS = 20_000;
+    static Int BURST  = 100;
+
+    void run()
+        {
+        @Inject Timer timer;
+
+        Pinger pinger = new Pinger();
+        Ponger ponger = new Ponger();
+
+        // warm up
+        pinger.roundTrips(ponger, ROUNDS / 10);
+        pinger.bursts(ponger, ROUNDS / 10 / BURST);
+
+        timer.start();
+        Int sum = pinger.roundTrips(ponger, ROUNDS);
+        report("round trips", ROUNDS, timer.elapsed, sum);
+
+        timer.reset();
+        sum = pinger.bursts(ponger, ROUNDS / BURST);
+        report("bursts", ROUNDS, timer.elapsed, sum);
+        }
+
+    void report(String test, Int count, Duration elapsed, Int sum)
+        {
+        console.println($|{test}: {count} calls in {elapsed.milliseconds} ms;\
+                         | {count * 1000 / elapsed.milliseconds.maxOf(1)} calls/sec (sum={sum})
+                         );
+        }
+
+    service Pinger
+        {
+        Int roundTrips(Ponger ponger, Int count)
+            {
+            Int sum = 0;
+            for (Int i = 0; i < count; ++i)
+                {
+                sum += ponger.pong(i);
+                }
+            return sum;
+            }
+
+        Int bursts(Ponger ponger, Int count)
+            {
+            ponger.reset();
+            for (Int i = 0; i < count; ++i)
+                {
+                for (Int j = 0; j < BURST; ++j)
+                    {
+                    ponger.add(j);
+                    }
+                }
+            return ponger.total;
+            }
+        }
+
+    service Ponger
+        {
+        Int total;
+
+        Int pong(Int n)
+            {
+            return n;
+            }
+
+        void add(Int n)
+            {
+            total += n;
+            }
+
+        void reset()
+            {
+            total = 0;
+            }
+        }
+    }
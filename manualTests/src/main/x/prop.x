@@ -7,6 +7,8 @@ module TestProps
         {
         testMethodProperty();
         testLazyProperty();
+        testReferenceProperties();
+        testReferenceNotification();
         testModuleProperty();
         testDelegation();
         testAccess();
@@ -68,6 +70,105 @@ module TestProps
         return 42;
         }
 
+    void testReferenceProperties()
+        {
+        console.println("\n** testReferenceProperties()");
+
+        Cache cache = new Cache();
+        cache.fill();
+        console.println($"weak assigned={cache.weak != Null}, soft={cache.soft?.name}, data={cache.data.name}");
+
+        // produce some garbage; whether the weak reference gets cleared is up to the collector,
+        // but a cleared one must read as Null
+        for (Int i : 1..4000)
+            {
+            Byte[] junk = new Byte[100_000];
+            junk[0] = 1;
+            }
+        assert cache.weak?.name == "weak" || cache.weak == Null;
+        console.println($"soft={cache.soft?.name}, data={cache.data.name}");
+        }
+
+    class Cache
+        {
+        @Weak Item? weak = Null;
+        @Soft Item? soft = Null;
+
+        @Soft @Lazy Item data.calc()
+            {
+            console.println(" - in data.calc()");
+            return new Item("data");
+            }
+
+        void fill()
+            {
+            weak = new Item("weak");
+            soft = new Item("soft");
+            }
+        }
+
+    class Item(String name);
+
+    void testReferenceNotification()
+        {
+        console.println("\n** testReferenceNotification()");
+
+        Watcher watcher = new Watcher();
+        watcher.fill();
+
+        // the weak reference is cleared by the collector at the latest when the young generation
+        // fills up; the notification is then delivered to the service that assigned the referent
+        for (Int i : 1..4000)
+            {
+            Byte[] junk = new Byte[100_000];
+            junk[0] = 1;
+            }
+
+        @Inject Timer timer;
+        timer.schedule(Duration.ofMillis(500), () ->
+            {
+            Boolean cleared = !watcher.assigned;
+            assert !cleared || watcher.notified == 1;
+            console.println($"cleared={cleared}, notified={watcher.notified}");
+            });
+        }
+
+    /**
+     * The "notify" function of the weak reference held by the Watcher service.
+     */
+    static void referenceCleared()
+        {
+        new NotificationProbe().record();
+        }
+
+    service Watcher
+        {
+        @Weak(TestProps.referenceCleared) Item? weak = Null;
+
+        Int notified;
+
+        Boolean assigned.get()
+            {
+            return weak != Null;
+            }
+
+        void fill()
+            {
+            weak = new Item("watched");
+            }
+        }
+
+    class NotificationProbe
+        {
+        void record()
+            {
+            // the notification must run on the service that holds the reference
+            Service current = this:service;
+            assert current.is(Watcher);
+            current.notified++;
+            }
+        }
+
     void testDelegation()
         {
         console.println("\n** testDelegation()");
@@ -112,6 +112,85 @@ module TestServices
             {
             console.println($"expected: {e}");
             }
+
+        testBacklog();
+        testMutableResult();
+        }
+
+    void testBacklog()
+        {
+        console.println($"{tag()} testing backlog");
+
+        TestService svc = new TestService();
+        svc.serviceControl.configureBacklog(4, FailFast);
+
+        // keep the service busy, so the requests pile up in its backlog
+        @Future Int spinResult = svc.spin(10_000);
+
+        Int accepted = 0;
+        try
+            {
+            for (Int i : 0..9)
+                {
+                svc.poke();
+                ++accepted;
+                }
+            assert;
+            }
+        catch (Overloaded e)
+            {
+            console.println($"{tag()} expected exception after {accepted} requests: {e.text}");
+            }
+
+        svc.serviceControl.configureBacklog(4, Shed);
+        for (Int i : 0..9)
+            {
+            svc.poke();
+            }
+
+        Int unused = spinResult;
+        console.println($|{tag()} backlog: capacity={svc.serviceControl.backlogCapacity}\
+                         | policy={svc.serviceControl.overloadPolicy}\
+                         | highWaterMark={svc.serviceControl.backlogHighWaterMark}\
+                         | rejected={svc.serviceControl.rejectedCount}
+                         );
+
+        // under the "Block" policy the caller waits for the backlog to drain, so nothing is lost
+        // and the backlog never grows past the capacity
+        TestService svcBlock = new TestService();
+        svcBlock.serviceControl.configureBacklog(4, Block);
+
+        spinResult = svcBlock.spin(10_000);
+        for (Int i : 0..19)
+            {
+            svcBlock.poke();
+            }
+
+        Int pokes = svcBlock.pokeCount;
+        assert pokes == 20;
+        assert svcBlock.serviceControl.backlogHighWaterMark <= 4;
+        console.println($|{tag()} blocked backlog: pokes={pokes}\
+                         | rejected={svcBlock.serviceControl.rejectedCount}
+                         );
+        }
+
+    void testMutableResult()
+        {
+        console.println($"{tag()} testing mutable result");
+
+        TestService svc = new TestService();
+        try
+            {
+            StringBuffer buf = svc.makeBuffer();
+            console.println($"{tag()} unexpected: {buf}");
+            }
+        catch (Exception e)
+            {
+            console.println($"{tag()} expected exception: {e.text}");
+            }
+
+        String text = svc.makeText();
+        console.println($"{tag()} immutable result: {text}");
         }
 
     service TestService
@@ -144,6 +223,23 @@ module TestServices
             return sum;
             }
 
+        Int pokeCount;
+
+        void poke()
+            {
+            ++pokeCount;
+            }
+
+        StringBuffer makeBuffer()
+            {
+            return new StringBuffer().append("mutable");
+            }
+
+        String makeText()
+            {
+            return new StringBuffer().append("frozen").toString();
+            }
+
         Int terminateExceptionally(String message)
             {
             throw new Exception(message);
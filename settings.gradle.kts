@@ -6,6 +6,7 @@ include(":ecstasy")             // produces *only* a source zip file (no .xtc),
 include(":javatools_bridge")    // produces *only* a source zip file (no .xtc), and only on request
 include(":javatools")           // produces javatools.jar
 include(":javatools_launcher")  // produces native (Win, Mac, Linux) executables, only on request
+include(":javatools_bench")     // JMH benchmarks for the runtime, only on request
 include(":lib_json")            // produces json.xtc
 include(":lib_oodb")            // produces oodb.xtc
 include(":lib_jsondb")          // produces jsondb.xtc